@@ -22,8 +22,7 @@
 
 package net.aksingh.owmjapis;
 
-import org.json.JSONObject;
-
+import java.io.IOException;
 import java.io.Serializable;
 
 /**
@@ -66,14 +65,36 @@ public abstract class AbstractForecast extends AbstractResponse {
         this.city = null;
     }
 
-    AbstractForecast(JSONObject jsonObj) {
-        super(jsonObj);
+    AbstractForecast(JsonIndex json, int obj) {
+        super(json, obj);
+
+        this.message = json.optDouble(obj, JSON_MESSAGE, Double.NaN);
+
+        this.city = (obj != JsonIndex.ABSENT) ? new City(json, json.optObject(obj, JSON_CITY)) : null;
+
+        this.forecastCount = json.optInt(obj, JSON_FORECAST_COUNT, 0);
+    }
+
+    AbstractForecast(ModelCodec.Input in) throws IOException {
+        super(in);
 
-        this.message = (jsonObj != null) ? jsonObj.optDouble(JSON_MESSAGE, Double.NaN) : Double.NaN;
+        in.begin(3);
+        this.message = in.readDouble();
+        this.city = in.readFlag() ? new City(in) : null;
+        this.forecastCount = in.readInt();
+        in.end();
+    }
 
-        this.city = (jsonObj != null) ? new City(jsonObj.optJSONObject(JSON_CITY)) : null;
+    void write(ModelCodec.Output out) {
+        super.write(out);
 
-        this.forecastCount = (jsonObj != null) ? jsonObj.optInt(JSON_FORECAST_COUNT, 0) : 0;
+        out.begin(3);
+        out.writeDouble(this.message);
+        if (out.writeFlag(this.city != null)) {
+            this.city.write(out);
+        }
+        out.writeInt(this.forecastCount);
+        out.end();
     }
 
     /**
@@ -148,14 +169,45 @@ public abstract class AbstractForecast extends AbstractResponse {
             this.coord = new Coord();
         }
 
-        City(JSONObject jsonObj) {
-            this.cityID = (jsonObj != null) ? jsonObj.optLong(JSON_CITY_ID, Long.MIN_VALUE) : Long.MIN_VALUE;
-            this.cityName = (jsonObj != null) ? jsonObj.optString(JSON_CITY_NAME, null) : null;
-            this.countryCode = (jsonObj != null) ? jsonObj.optString(JSON_CITY_COUNTRY_CODE, null) : null;
-            this.population = (jsonObj != null) ? jsonObj.optLong(JSON_CITY_POPULATION, Long.MIN_VALUE) : Long.MIN_VALUE;
+        City(long cityID, String cityName, String countryCode, Coord coord) {
+            this.cityID = cityID;
+            this.cityName = cityName;
+            this.countryCode = countryCode;
+            this.population = Long.MIN_VALUE;
+
+            this.coord = coord;
+        }
+
+        City(JsonIndex json, int obj) {
+            this.cityID = json.optLong(obj, JSON_CITY_ID, Long.MIN_VALUE);
+            this.cityName = json.optSharedString(obj, JSON_CITY_NAME, null);
+            this.countryCode = json.optSharedString(obj, JSON_CITY_COUNTRY_CODE, null);
+            this.population = json.optLong(obj, JSON_CITY_POPULATION, Long.MIN_VALUE);
 
-            JSONObject jsonObjCoord = (jsonObj != null) ? jsonObj.optJSONObject(JSON_CITY_COORD) : null;
-            this.coord = (jsonObjCoord != null) ? new Coord(jsonObjCoord) : null;
+            int coordObj = json.optObject(obj, JSON_CITY_COORD);
+            this.coord = (coordObj != JsonIndex.ABSENT) ? new Coord(json, coordObj) : null;
+        }
+
+        City(ModelCodec.Input in) throws IOException {
+            in.begin(5);
+            this.cityID = in.readLong();
+            this.cityName = in.readString();
+            this.countryCode = in.readString();
+            this.population = in.readLong();
+            this.coord = in.readFlag() ? new Coord(in) : null;
+            in.end();
+        }
+
+        void write(ModelCodec.Output out) {
+            out.begin(5);
+            out.writeLong(this.cityID);
+            out.writeString(this.cityName);
+            out.writeString(this.countryCode);
+            out.writeLong(this.population);
+            if (out.writeFlag(this.coord != null)) {
+                this.coord.write(out);
+            }
+            out.end();
         }
 
         public boolean hasCityCode() {
@@ -211,8 +263,16 @@ public abstract class AbstractForecast extends AbstractResponse {
                 super();
             }
 
-            Coord(JSONObject jsonObj) {
-                super(jsonObj);
+            Coord(float lat, float lon) {
+                super(lat, lon);
+            }
+
+            Coord(JsonIndex json, int obj) {
+                super(json, obj);
+            }
+
+            Coord(ModelCodec.Input in) throws IOException {
+                super(in);
             }
         }
     }
@@ -242,8 +302,12 @@ public abstract class AbstractForecast extends AbstractResponse {
             super();
         }
 
-        Forecast(JSONObject jsonObj) {
-            super(jsonObj);
+        Forecast(JsonIndex json, int obj) {
+            super(json, obj);
+        }
+
+        Forecast(ModelCodec.Input in) throws IOException {
+            super(in);
         }
     }
 }
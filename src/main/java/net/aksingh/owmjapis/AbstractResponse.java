@@ -22,8 +22,8 @@
 
 package net.aksingh.owmjapis;
 
-import org.json.JSONObject;
-
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
 import java.io.Serializable;
 
 /**
@@ -45,19 +45,71 @@ abstract class AbstractResponse implements Serializable {
     Instance variables
      */
     private final int responseCode;
-    private final String rawResponse;
+
+    // raw response is kept as bytes, compressed or not, and decoded when asked for
+    private final byte[] rawResponse;
+    private final int rawResponseOffset;
+    private final int rawResponseLength;
+    private final boolean rawResponseCompressed;
 
     /*
     Constructors
      */
     AbstractResponse() {
         this.rawResponse = null;
+        this.rawResponseOffset = 0;
+        this.rawResponseLength = 0;
+        this.rawResponseCompressed = false;
         this.responseCode = Integer.MIN_VALUE;
     }
 
-    AbstractResponse(JSONObject jsonObj) {
-        this.rawResponse = (jsonObj != null) ? jsonObj.toString() : null;
-        this.responseCode = (jsonObj != null) ? jsonObj.optInt(JSON_RESPONSE_CODE, Integer.MIN_VALUE) : Integer.MIN_VALUE;
+    AbstractResponse(JsonIndex json, int obj) {
+        this(json, obj, Integer.MIN_VALUE);
+    }
+
+    /**
+     * For responses listed within another response, which gives the response code when they do not.
+     */
+    AbstractResponse(JsonIndex json, int obj, int defaultResponseCode) {
+        OpenWeatherMap.RawResponseStorage storage = json.getRawResponseStorage();
+        if (obj == JsonIndex.ABSENT || storage == OpenWeatherMap.RawResponseStorage.NONE) {
+            this.rawResponse = null;
+            this.rawResponseOffset = 0;
+            this.rawResponseLength = 0;
+            this.rawResponseCompressed = false;
+        } else if (storage == OpenWeatherMap.RawResponseStorage.COMPRESSED) {
+            this.rawResponse = ResponseBodyReader.deflate(json.getBytes(), json.startOf(obj), json.endOf(obj) - json.startOf(obj));
+            this.rawResponseOffset = 0;
+            this.rawResponseLength = this.rawResponse.length;
+            this.rawResponseCompressed = true;
+        } else {
+            this.rawResponse = json.getBytes();
+            this.rawResponseOffset = json.startOf(obj);
+            this.rawResponseLength = json.endOf(obj) - json.startOf(obj);
+            this.rawResponseCompressed = false;
+        }
+        this.responseCode = json.optInt(obj, JSON_RESPONSE_CODE, defaultResponseCode);
+    }
+
+    AbstractResponse(ModelCodec.Input in) throws IOException {
+        in.begin(3);
+        this.responseCode = in.readInt();
+        this.rawResponse = in.readBytes();
+        this.rawResponseOffset = 0;
+        this.rawResponseLength = (this.rawResponse != null) ? this.rawResponse.length : 0;
+        this.rawResponseCompressed = in.readFlag();
+        in.end();
+    }
+
+    /**
+     * Writes the values for {@link net.aksingh.owmjapis.ModelCodec}; subclasses write theirs after these.
+     */
+    void write(ModelCodec.Output out) {
+        out.begin(3);
+        out.writeInt(this.responseCode);
+        out.writeBytes(this.rawResponse, this.rawResponseOffset, this.rawResponseLength, this.rawResponse != null);
+        out.writeFlag(this.rawResponseCompressed);
+        out.end();
     }
 
     /**
@@ -89,9 +141,26 @@ abstract class AbstractResponse implements Serializable {
     }
 
     /**
+     * The raw response is decoded (and inflated if it was compressed) on each call, and not kept as a string.
+     *
      * @return Raw response if available, otherwise <code>null</code>.
+     * @see net.aksingh.owmjapis.OpenWeatherMap#setRawResponseStorage(OpenWeatherMap.RawResponseStorage)
      */
     public String getRawResponse() {
-        return this.rawResponse;
+        if (this.rawResponse == null) {
+            return null;
+        }
+        if (!this.rawResponseCompressed) {
+            return JsonIndex.decode(this.rawResponse, this.rawResponseOffset, this.rawResponseOffset + this.rawResponseLength, false);
+        }
+
+        try {
+            byte[] inflated = ResponseBodyReader.readBytes(
+                    new ByteArrayInputStream(this.rawResponse, this.rawResponseOffset, this.rawResponseLength), "deflate");
+            return JsonIndex.decode(inflated, 0, inflated.length, false);
+        } catch (IOException e) {
+            System.err.println("Error: " + e.getMessage());
+            return null;
+        }
     }
 }
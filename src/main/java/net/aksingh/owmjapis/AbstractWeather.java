@@ -22,9 +22,7 @@
 
 package net.aksingh.owmjapis;
 
-import org.json.JSONArray;
-import org.json.JSONObject;
-
+import java.io.IOException;
 import java.io.Serializable;
 import java.util.ArrayList;
 import java.util.Collections;
@@ -56,7 +54,7 @@ public abstract class AbstractWeather extends AbstractResponse {
     /*
     Instance variables
      */
-    private final Date dateTime;
+    private final long dateTime; // seconds since the epoch
 
     private final int weatherCount;
     private final List<Weather> weatherList;
@@ -69,37 +67,62 @@ public abstract class AbstractWeather extends AbstractResponse {
 
         this.weatherCount = 0;
         this.weatherList = null;
-        this.dateTime = null;
+        this.dateTime = Long.MIN_VALUE;
     }
 
-    AbstractWeather(JSONObject jsonObj) {
-        super(jsonObj);
+    AbstractWeather(JsonIndex json, int obj) {
+        this(json, obj, Integer.MIN_VALUE);
+    }
 
-        long sec = (jsonObj != null) ? jsonObj.optLong(JSON_DATE_TIME, Long.MIN_VALUE) : Long.MIN_VALUE;
-        if (sec != Long.MIN_VALUE) { // converting seconds to Date object
-            this.dateTime = new Date(sec * 1000);
-        } else {
-            this.dateTime = null;
-        }
+    AbstractWeather(JsonIndex json, int obj, int defaultResponseCode) {
+        super(json, obj, defaultResponseCode);
 
-        JSONArray weatherArray = (jsonObj != null) ? jsonObj.optJSONArray(JSON_WEATHER) : new JSONArray();
-        this.weatherList = (weatherArray != null) ? new ArrayList<Weather>(weatherArray.length()) : Collections.EMPTY_LIST;
-        if (weatherArray != null && this.weatherList != Collections.EMPTY_LIST) {
-            for (int i = 0; i < weatherArray.length(); i++) {
-                JSONObject weatherObj = weatherArray.optJSONObject(i);
-                if (weatherObj != null) {
-                    this.weatherList.add(new Weather(weatherObj));
+        this.dateTime = json.optLong(obj, JSON_DATE_TIME, Long.MIN_VALUE);
+
+        int weatherArray = json.optArray(obj, JSON_WEATHER);
+        this.weatherList = (weatherArray != JsonIndex.ABSENT) ? new ArrayList<Weather>(json.length(weatherArray)) : Collections.EMPTY_LIST;
+        if (weatherArray != JsonIndex.ABSENT && this.weatherList != Collections.EMPTY_LIST) {
+            int weatherObj = json.firstElement(weatherArray);
+            for (int i = 0; i < json.length(weatherArray); i++) {
+                if (json.isObject(weatherObj)) {
+                    this.weatherList.add(Weather.shared(json, weatherObj));
                 }
+                weatherObj = json.nextElement(weatherObj);
             }
         }
         this.weatherCount = this.weatherList.size();
     }
 
+    AbstractWeather(ModelCodec.Input in) throws IOException {
+        super(in);
+
+        in.begin(1);
+        this.dateTime = in.readLong();
+        this.weatherCount = in.readCount();
+        this.weatherList = (this.weatherCount > 0) ? new ArrayList<Weather>(this.weatherCount) : Collections.EMPTY_LIST;
+        for (int i = 0; i < this.weatherCount; i++) {
+            this.weatherList.add(new Weather(in));
+        }
+        in.end();
+    }
+
+    void write(ModelCodec.Output out) {
+        super.write(out);
+
+        out.begin(1);
+        out.writeLong(this.dateTime);
+        out.writeCount(this.weatherCount);
+        for (int i = 0; i < this.weatherCount; i++) {
+            this.weatherList.get(i).write(out);
+        }
+        out.end();
+    }
+
     /**
      * @return <code>true</code> if date/time is available, otherwise <code>false</code>.
      */
     public boolean hasDateTime() {
-        return this.dateTime != null;
+        return this.dateTime != Long.MIN_VALUE;
     }
 
     /**
@@ -110,9 +133,17 @@ public abstract class AbstractWeather extends AbstractResponse {
     }
 
     /**
-     * @return Date and time if available, otherwise <code>null</code>.
+     * @return Date and time if available, otherwise <code>null</code>. A new object is created on every call.
      */
     public Date getDateTime() {
+        return (this.dateTime != Long.MIN_VALUE) ? new Date(this.dateTime * 1000) : null;
+    }
+
+    /**
+     * @return Date and time as seconds since the epoch (1970-01-01T00:00:00Z) if available,
+     * otherwise <code>Long.MIN_VALUE</code>.
+     */
+    public long getDateTimeEpochSecond() {
         return this.dateTime;
     }
 
@@ -149,8 +180,20 @@ public abstract class AbstractWeather extends AbstractResponse {
             this.percentOfClouds = Float.NaN;
         }
 
-        Clouds(JSONObject jsonObj) {
-            this.percentOfClouds = (float) jsonObj.optDouble(JSON_CLOUDS_ALL, Double.NaN);
+        Clouds(JsonIndex json, int obj) {
+            this.percentOfClouds = (float) json.optDouble(obj, JSON_CLOUDS_ALL, Double.NaN);
+        }
+
+        Clouds(ModelCodec.Input in) throws IOException {
+            in.begin(1);
+            this.percentOfClouds = in.readFloat();
+            in.end();
+        }
+
+        void write(ModelCodec.Output out) {
+            out.begin(1);
+            out.writeFloat(this.percentOfClouds);
+            out.end();
         }
 
         /**
@@ -191,9 +234,28 @@ public abstract class AbstractWeather extends AbstractResponse {
             this.lon = Float.NaN;
         }
 
-        Coord(JSONObject jsonObj) {
-            this.lat = (float) jsonObj.optDouble(JSON_COORD_LATITUDE, Double.NaN);
-            this.lon = (float) jsonObj.optDouble(JSON_COORD_LONGITUDE, Double.NaN);
+        Coord(float lat, float lon) {
+            this.lat = lat;
+            this.lon = lon;
+        }
+
+        Coord(JsonIndex json, int obj) {
+            this.lat = (float) json.optDouble(obj, JSON_COORD_LATITUDE, Double.NaN);
+            this.lon = (float) json.optDouble(obj, JSON_COORD_LONGITUDE, Double.NaN);
+        }
+
+        Coord(ModelCodec.Input in) throws IOException {
+            in.begin(2);
+            this.lat = in.readFloat();
+            this.lon = in.readFloat();
+            in.end();
+        }
+
+        void write(ModelCodec.Output out) {
+            out.begin(2);
+            out.writeFloat(this.lat);
+            out.writeFloat(this.lon);
+            out.end();
         }
 
         /**
@@ -260,12 +322,32 @@ public abstract class AbstractWeather extends AbstractResponse {
             this.humidity = Float.NaN;
         }
 
-        Main(JSONObject jsonObj) {
-            this.temp = (float) jsonObj.optDouble(JSON_MAIN_TEMP, Double.NaN);
-            this.minTemp = (float) jsonObj.optDouble(JSON_MAIN_TEMP_MIN, Double.NaN);
-            this.maxTemp = (float) jsonObj.optDouble(JSON_MAIN_TEMP_MAX, Double.NaN);
-            this.pressure = (float) jsonObj.optDouble(JSON_MAIN_PRESSURE, Double.NaN);
-            this.humidity = (float) jsonObj.optDouble(JSON_MAIN_HUMIDITY, Double.NaN);
+        Main(JsonIndex json, int obj) {
+            this.temp = (float) json.optDouble(obj, JSON_MAIN_TEMP, Double.NaN);
+            this.minTemp = (float) json.optDouble(obj, JSON_MAIN_TEMP_MIN, Double.NaN);
+            this.maxTemp = (float) json.optDouble(obj, JSON_MAIN_TEMP_MAX, Double.NaN);
+            this.pressure = (float) json.optDouble(obj, JSON_MAIN_PRESSURE, Double.NaN);
+            this.humidity = (float) json.optDouble(obj, JSON_MAIN_HUMIDITY, Double.NaN);
+        }
+
+        Main(ModelCodec.Input in) throws IOException {
+            in.begin(5);
+            this.temp = in.readFloat();
+            this.minTemp = in.readFloat();
+            this.maxTemp = in.readFloat();
+            this.pressure = in.readFloat();
+            this.humidity = in.readFloat();
+            in.end();
+        }
+
+        void write(ModelCodec.Output out) {
+            out.begin(5);
+            out.writeFloat(this.temp);
+            out.writeFloat(this.minTemp);
+            out.writeFloat(this.maxTemp);
+            out.writeFloat(this.pressure);
+            out.writeFloat(this.humidity);
+            out.end();
         }
 
         /**
@@ -387,11 +469,48 @@ public abstract class AbstractWeather extends AbstractResponse {
             this.icon = null;
         }
 
-        Weather(JSONObject jsonObj) {
-            this.id = jsonObj.optInt(JSON_WEATHER_ID, Integer.MIN_VALUE);
-            this.name = jsonObj.optString(JSON_WEATHER_MAIN, null);
-            this.description = jsonObj.optString(JSON_WEATHER_DESCRIPTION, null);
-            this.icon = jsonObj.optString(JSON_WEATHER_ICON, null);
+        Weather(JsonIndex json, int obj) {
+            this.id = json.optInt(obj, JSON_WEATHER_ID, Integer.MIN_VALUE);
+            this.name = json.optString(obj, JSON_WEATHER_MAIN, null);
+            this.description = json.optString(obj, JSON_WEATHER_DESCRIPTION, null);
+            this.icon = json.optString(obj, JSON_WEATHER_ICON, null);
+        }
+
+        Weather(ModelCodec.Input in) throws IOException {
+            in.begin(4);
+            this.id = in.readInt();
+            this.name = in.readString();
+            this.description = in.readString();
+            this.icon = in.readString();
+            in.end();
+        }
+
+        void write(ModelCodec.Output out) {
+            out.begin(4);
+            out.writeInt(this.id);
+            out.writeString(this.name);
+            out.writeString(this.description);
+            out.writeString(this.icon);
+            out.end();
+        }
+
+        /**
+         * @return Weather condition shared with other responses having the same values.
+         * @see net.aksingh.owmjapis.Flyweights
+         */
+        static Weather shared(JsonIndex json, int obj) {
+            int name = json.member(obj, JSON_WEATHER_MAIN);
+            int description = json.member(obj, JSON_WEATHER_DESCRIPTION);
+            int icon = json.member(obj, JSON_WEATHER_ICON);
+            if (!isStringOrAbsent(json, name) || !isStringOrAbsent(json, description) || !isStringOrAbsent(json, icon)) {
+                return new Weather(json, obj);
+            }
+            return Flyweights.weather(json, obj, json.optInt(obj, JSON_WEATHER_ID, Integer.MIN_VALUE), name, description, icon);
+        }
+
+        private static boolean isStringOrAbsent(JsonIndex json, int token) {
+            int type = json.type(token);
+            return type == JsonIndex.STRING || type == JsonIndex.ABSENT;
         }
 
         /**
@@ -480,9 +599,23 @@ public abstract class AbstractWeather extends AbstractResponse {
             this.degree = Float.NaN;
         }
 
-        Wind(JSONObject jsonObj) {
-            this.speed = (float) jsonObj.optDouble(JSON_WIND_SPEED, Double.NaN);
-            this.degree = (float) jsonObj.optDouble(JSON_WIND_DEGREE, Double.NaN);
+        Wind(JsonIndex json, int obj) {
+            this.speed = (float) json.optDouble(obj, JSON_WIND_SPEED, Double.NaN);
+            this.degree = (float) json.optDouble(obj, JSON_WIND_DEGREE, Double.NaN);
+        }
+
+        Wind(ModelCodec.Input in) throws IOException {
+            in.begin(2);
+            this.speed = in.readFloat();
+            this.degree = in.readFloat();
+            in.end();
+        }
+
+        void write(ModelCodec.Output out) {
+            out.begin(2);
+            out.writeFloat(this.speed);
+            out.writeFloat(this.degree);
+            out.end();
         }
 
         /**
@@ -0,0 +1,53 @@
+/*
+ * Copyright (c) 2013-2015 Ashutosh Kumar Singh <me@aksingh.net>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package net.aksingh.owmjapis;
+
+import java.net.Proxy;
+
+/**
+ * <p>
+ * {@link net.aksingh.owmjapis.HttpTransport} that can send requests without blocking the calling thread.
+ * </p>
+ * <p>
+ * When the transport of {@link net.aksingh.owmjapis.OpenWeatherMap} implements this interface, its
+ * <code>*Async</code> methods do not hold a thread while waiting for OWM.org; the executor is only
+ * used for parsing the responses.
+ * </p>
+ *
+ * @author Ashutosh Kumar Singh
+ * @version 2026/10/18
+ * @since 2.5.0.6
+ */
+public interface AsyncHttpTransport extends HttpTransport {
+
+    /**
+     * Implements HTTP's GET method without blocking the calling thread
+     *
+     * @param requestAddress Address to be loaded
+     * @param proxy          Proxy to be used, or <code>null</code> for a direct connection
+     * @param callback       Receives the response, with its body read completely, or the failure.
+     *                       It is invoked on a thread of the transport, so it must return quickly.
+     * @see <a href="http://www.w3.org/Protocols/rfc2616/rfc2616-sec9.html">HTTP - (9.3) GET</a>
+     */
+    public void httpGETAsync(String requestAddress, Proxy proxy, OWMFuture.Callback<Response> callback);
+}
@@ -0,0 +1,320 @@
+/*
+ * Copyright (c) 2013-2015 Ashutosh Kumar Singh <me@aksingh.net>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package net.aksingh.owmjapis;
+
+import java.io.BufferedInputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.LinkedList;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * <p>
+ * Reads bulk files of OWM.org, i.e., files having one response (JSON object) per line, gzipped or not,
+ * and parses the responses in parallel, handing them back in the order of the file.
+ * </p>
+ * <p>
+ * The file is streamed: it is inflated and split into lines by the reading thread, block by block,
+ * while the blocks read ahead are parsed on the executor. As only a few blocks are read ahead,
+ * memory taken by the reader does not depend on the size of the file.
+ * Lines which are empty are skipped, and so are lines which cannot be parsed; the latter are
+ * reported to <code>System.err</code> and counted by {@link #getSkippedLineCount()}.
+ * </p>
+ * <p>
+ * <b>Sample code:</b><br>
+ * <code>BulkFileReader&lt;CurrentWeather&gt; reader = owm.currentWeatherFromBulkFile(new FileInputStream(file));</code><br>
+ * <code>for (CurrentWeather cw; (cw = reader.read()) != null; ) { ... }</code><br>
+ * <code>reader.close();</code>
+ * </p>
+ *
+ * @param <V> Type of the parsed responses, e.g., {@link net.aksingh.owmjapis.CurrentWeather}
+ * @author Ashutosh Kumar Singh
+ * @version 2026/10/18
+ * @see net.aksingh.owmjapis.OpenWeatherMap#currentWeatherFromBulkFile(java.io.InputStream)
+ * @since 2.5.0.6
+ */
+public class BulkFileReader<V> implements Closeable {
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final int MAX_LINES_PER_BLOCK = 256;
+    private static final int MAX_BYTES_PER_BLOCK = 1024 * 1024;
+    private static final int GZIP_MAGIC = 0x8b1f;
+
+    private final InputStream in;
+    private final LineParser<V> parser;
+    private final Executor executor;
+    private final int maxBlocksAhead;
+
+    private final byte[] buffer = new byte[BUFFER_SIZE];
+    private int bufferPos;
+    private int bufferLimit;
+    private boolean endOfFile;
+
+    private final LinkedList<FutureTask<Block<V>>> blocksAhead = new LinkedList<FutureTask<Block<V>>>();
+    private Block<V> block;
+    private int blockIndex;
+    private volatile int skippedLineCount;
+
+    BulkFileReader(InputStream in, LineParser<V> parser, Executor executor)
+            throws IOException {
+        InputStream buffered = new BufferedInputStream(in, BUFFER_SIZE);
+        buffered.mark(2);
+        int magic = buffered.read() | (buffered.read() << 8);
+        buffered.reset();
+
+        this.in = (magic == GZIP_MAGIC) ? new GZIPInputStream(buffered, BUFFER_SIZE) : buffered;
+        this.parser = parser;
+        this.executor = executor;
+        this.maxBlocksAhead = 2 * Runtime.getRuntime().availableProcessors();
+    }
+
+    /**
+     * Reads the next response of the file, waiting for it to be parsed if needed.
+     *
+     * @return Next response, or <code>null</code> at the end of the file.
+     * @throws IOException if the file cannot be read.
+     */
+    public V read()
+            throws IOException {
+        while (true) {
+            while (block == null || blockIndex == block.count) {
+                readAhead();
+                if (blocksAhead.isEmpty()) {
+                    return null;
+                }
+                block = await(blocksAhead.removeFirst());
+                blockIndex = 0;
+            }
+
+            V response = block.values.get(blockIndex);
+            block.values.set(blockIndex++, null); // not to be kept by the reader
+            if (response != null) { // otherwise, the line is skipped
+                return response;
+            }
+        }
+    }
+
+    /**
+     * @return Count of lines skipped as they could not be parsed, so far.
+     */
+    public int getSkippedLineCount() {
+        return this.skippedLineCount;
+    }
+
+    /**
+     * Closes the file, and cancels parsing of the blocks read ahead.
+     */
+    public void close()
+            throws IOException {
+        for (FutureTask<Block<V>> task : blocksAhead) {
+            task.cancel(false);
+        }
+        blocksAhead.clear();
+        block = null;
+        in.close();
+    }
+
+    private void readAhead()
+            throws IOException {
+        while (blocksAhead.size() < maxBlocksAhead) {
+            final Block<V> next = readBlock();
+            if (next == null) {
+                return;
+            }
+
+            FutureTask<Block<V>> task = new FutureTask<Block<V>>(new Callable<Block<V>>() {
+                public Block<V> call() {
+                    parse(next);
+                    return next;
+                }
+            });
+            try {
+                executor.execute(task);
+            } catch (RejectedExecutionException e) {
+                task.run(); // parse on the reading thread instead
+            }
+            blocksAhead.addLast(task);
+        }
+    }
+
+    private Block<V> await(FutureTask<Block<V>> task)
+            throws IOException {
+        boolean interrupted = false;
+        try {
+            while (true) {
+                try {
+                    return task.get();
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                }
+            }
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            } else if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new IOException(String.valueOf(cause));
+        } finally {
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    private void parse(Block<V> block) {
+        for (int i = 0; i < block.count; i++) {
+            int length = block.lineEnds[i] - block.lineStarts[i];
+            byte[] line = new byte[length]; // kept by the parsed response, as its raw response
+            System.arraycopy(block.data, block.lineStarts[i], line, 0, length);
+            try {
+                block.values.set(i, parser.parse(line, 0, length));
+            } catch (RuntimeException e) {
+                System.err.println("Error: " + e.getMessage());
+                synchronized (this) {
+                    skippedLineCount++;
+                }
+            }
+        }
+    }
+
+    /**
+     * Reads lines into a new block.
+     *
+     * @return Block of lines, or <code>null</code> at the end of the file.
+     */
+    private Block<V> readBlock()
+            throws IOException {
+        Block<V> next = new Block<V>();
+        while (next.count < MAX_LINES_PER_BLOCK && next.size < MAX_BYTES_PER_BLOCK) {
+            if (!readLine(next)) {
+                break;
+            }
+        }
+        return (next.count > 0) ? next : null;
+    }
+
+    /**
+     * Appends a line (without its end) to the block, skipping empty lines.
+     *
+     * @return <code>false</code> at the end of the file, otherwise <code>true</code>.
+     */
+    private boolean readLine(Block<V> next)
+            throws IOException {
+        int start = next.size;
+        while (true) {
+            if (bufferPos == bufferLimit) {
+                if (endOfFile || !fill()) {
+                    next.endLine(start);
+                    return false;
+                }
+            }
+
+            int end = bufferPos;
+            while (end < bufferLimit && buffer[end] != '\n') {
+                end++;
+            }
+            next.append(buffer, bufferPos, end - bufferPos);
+            if (end < bufferLimit) {
+                bufferPos = end + 1;
+                next.endLine(start);
+                return true;
+            }
+            bufferPos = bufferLimit;
+        }
+    }
+
+    private boolean fill()
+            throws IOException {
+        int read = in.read(buffer, 0, buffer.length);
+        if (read < 0) {
+            endOfFile = true;
+            return false;
+        }
+        bufferPos = 0;
+        bufferLimit = read;
+        return true;
+    }
+
+    /**
+     * Parses one line
+     */
+    static interface LineParser<V> {
+        V parse(byte[] data, int offset, int length);
+    }
+
+    /**
+     * Lines read together, and parsed by one task
+     */
+    private static final class Block<V> {
+        private byte[] data = new byte[16 * 1024];
+        private int size;
+        private final int[] lineStarts = new int[MAX_LINES_PER_BLOCK];
+        private final int[] lineEnds = new int[MAX_LINES_PER_BLOCK];
+        private int count;
+        private final AtomicReferenceArray<V> values = new AtomicReferenceArray<V>(MAX_LINES_PER_BLOCK);
+
+        private void append(byte[] bytes, int offset, int length) {
+            if (size + length > data.length) {
+                byte[] bigger = new byte[Math.max(data.length * 2, size + length)];
+                System.arraycopy(data, 0, bigger, 0, size);
+                data = bigger;
+            }
+            System.arraycopy(bytes, offset, data, size, length);
+            size += length;
+        }
+
+        /**
+         * Ends the line started at the given offset, dropping it if empty.
+         */
+        private void endLine(int start) {
+            int end = size;
+            while (end > start && isWhitespace(data[end - 1])) { // e.g., '\r' of "\r\n"
+                end--;
+            }
+            int first = start;
+            while (first < end && isWhitespace(data[first])) {
+                first++;
+            }
+            if (first == end) {
+                size = start;
+                return;
+            }
+            lineStarts[count] = first;
+            lineEnds[count] = end;
+            count++;
+            size = end;
+        }
+
+        private static boolean isWhitespace(byte b) {
+            return b == ' ' || b == '\t' || b == '\r' || b == '\n';
+        }
+    }
+}
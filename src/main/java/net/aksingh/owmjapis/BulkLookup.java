@@ -0,0 +1,231 @@
+/*
+ * Copyright (c) 2013-2015 Ashutosh Kumar Singh <me@aksingh.net>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package net.aksingh.owmjapis;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * <p>
+ * Looks up weather data for many cities at once and hands back each result as soon as it is available,
+ * in order of completion.
+ * </p>
+ * <p>
+ * Every request runs on its own thread created by the configured {@link java.util.concurrent.ThreadFactory},
+ * and at most <code>maxConcurrency</code> requests are in flight at any time. On Java 21 and later,
+ * a virtual thread factory (<code>Thread.ofVirtual().factory()</code>) makes every waiting request cost
+ * only a few kilobytes.
+ * </p>
+ * <p>
+ * <b>Sample code:</b><br>
+ * <code>BulkLookup&lt;CurrentWeather&gt; lookup = owm.bulkCurrentWeatherByCityCode(cityCodes);</code><br>
+ * <code>while (lookup.hasNext()) { BulkLookup.Result&lt;CurrentWeather&gt; result = lookup.next(); ... }</code>
+ * </p>
+ *
+ * @param <V> Type of the looked up data, e.g., {@link net.aksingh.owmjapis.CurrentWeather}
+ * @author Ashutosh Kumar Singh
+ * @version 2026/10/18
+ * @see net.aksingh.owmjapis.OpenWeatherMap#setBulkThreadFactory(java.util.concurrent.ThreadFactory)
+ * @see net.aksingh.owmjapis.OpenWeatherMap#setBulkConcurrency(int)
+ * @since 2.5.0.6
+ */
+public class BulkLookup<V> implements Iterator<BulkLookup.Result<V>> {
+    private final long[] cityCodes;
+    private final Request<V> request;
+    private final ThreadFactory threadFactory;
+
+    private final BlockingQueue<Result<V>> completed = new LinkedBlockingQueue<Result<V>>();
+
+    private boolean cancelled;
+    private int nextIndex;
+    private int launched;
+    private int delivered;
+
+    BulkLookup(long[] cityCodes, Request<V> request, ThreadFactory threadFactory, int maxConcurrency) {
+        this.cityCodes = cityCodes.clone();
+        this.request = request;
+        this.threadFactory = threadFactory;
+
+        for (int i = 0; i < maxConcurrency && i < this.cityCodes.length; i++) {
+            launchNext();
+        }
+    }
+
+    /**
+     * @return Count of results that are still to be handed back.
+     */
+    public synchronized int getRemainingCount() {
+        return launched + ((cancelled) ? 0 : cityCodes.length - nextIndex) - delivered;
+    }
+
+    /**
+     * Stops sending requests that are not in flight yet. Results of requests in flight are still handed back.
+     */
+    public synchronized void cancel() {
+        cancelled = true;
+    }
+
+    public boolean hasNext() {
+        return getRemainingCount() > 0;
+    }
+
+    /**
+     * Waits for the next result.
+     *
+     * @return Next completed result
+     * @throws NoSuchElementException if all results are handed back already.
+     * @throws IllegalStateException if the calling thread is interrupted while waiting.
+     */
+    public Result<V> next() {
+        try {
+            return take();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for the next result");
+        }
+    }
+
+    /**
+     * Waits for the next result.
+     *
+     * @return Next completed result
+     * @throws NoSuchElementException if all results are handed back already.
+     * @throws InterruptedException if the calling thread is interrupted while waiting.
+     */
+    public Result<V> take() throws InterruptedException {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+
+        Result<V> result = completed.take();
+        synchronized (this) {
+            delivered++;
+        }
+        return result;
+    }
+
+    public void remove() {
+        throw new UnsupportedOperationException();
+    }
+
+    private void launchNext() {
+        while (true) {
+            final int index;
+            synchronized (this) {
+                if (cancelled || nextIndex >= cityCodes.length) {
+                    return;
+                }
+                index = nextIndex++;
+                launched++;
+            }
+
+            try {
+                Thread thread = threadFactory.newThread(new Runnable() {
+                    public void run() {
+                        lookup(index);
+                    }
+                });
+                if (thread == null) {
+                    throw new IllegalStateException("Thread factory gave no thread");
+                }
+                thread.start();
+                return;
+            } catch (Throwable t) {
+                // no thread, no request; report it like a failed one, and keep the slot for the next city
+                completed.add(new Result<V>(cityCodes[index], null, t));
+            }
+        }
+    }
+
+    private void lookup(int index) {
+        long cityCode = cityCodes[index];
+        try {
+            completed.add(new Result<V>(cityCode, request.lookup(cityCode), null));
+        } catch (Throwable t) {
+            completed.add(new Result<V>(cityCode, null, t));
+        } finally {
+            // the finished request hands its slot over to the next one
+            launchNext();
+        }
+    }
+
+    /**
+     * Sends one request of a bulk lookup
+     */
+    static interface Request<V> {
+        V lookup(long cityCode) throws Exception;
+    }
+
+    /**
+     * <p>
+     * Result of one request of a bulk lookup.
+     * </p>
+     *
+     * @param <V> Type of the looked up data
+     * @author Ashutosh Kumar Singh
+     * @version 2026/10/18
+     * @since 2.5.0.6
+     */
+    public static class Result<V> {
+        private final long cityCode;
+        private final V value;
+        private final Throwable failure;
+
+        private Result(long cityCode, V value, Throwable failure) {
+            this.cityCode = cityCode;
+            this.value = value;
+            this.failure = failure;
+        }
+
+        /**
+         * @return <code>true</code> if the request completed without an exception, otherwise <code>false</code>.
+         */
+        public boolean isSuccessful() {
+            return this.failure == null;
+        }
+
+        /**
+         * @return City code for which the request was sent.
+         */
+        public long getCityCode() {
+            return this.cityCode;
+        }
+
+        /**
+         * @return Looked up data if the request completed without an exception, otherwise <code>null</code>.
+         */
+        public V getValue() {
+            return this.value;
+        }
+
+        /**
+         * @return Exception thrown by the request if any, otherwise <code>null</code>.
+         */
+        public Throwable getFailure() {
+            return this.failure;
+        }
+    }
+}
@@ -0,0 +1,480 @@
+/*
+ * Copyright (c) 2013-2015 Ashutosh Kumar Singh <me@aksingh.net>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package net.aksingh.owmjapis;
+
+import java.io.BufferedInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.RandomAccessFile;
+import java.io.UnsupportedEncodingException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * <p>
+ * Catalog of cities known to OWM.org, i.e., of <code>city.list.json</code>, to look up cities locally:
+ * by city code, or by name (and country code) to get their city codes. Requests by city code can be
+ * cached and batched, unlike requests by city name.
+ * </p>
+ * <p>
+ * A catalog is kept in one compact binary index: city codes, coordinates and country codes
+ * as primitive arrays sorted by city code, names as UTF-8, and a hash table of names. The index can be
+ * saved to a file by {@link #save(java.io.File)}, and loaded back by {@link #load(java.io.File)}, which maps
+ * the file into memory instead of reading it, so loading takes no time whatever the size of the catalog.
+ * Catalogs are immutable, and so can be used by many threads.
+ * </p>
+ * <p>
+ * <b>Sample code:</b><br>
+ * <code>CityCatalog catalog = CityCatalog.fromCityList(new FileInputStream("city.list.json.gz"));</code><br>
+ * <code>catalog.save(new File("city.list.idx"));</code><br>
+ * <code>long cityCode = CityCatalog.load(new File("city.list.idx")).findCityCode("London", "GB");</code>
+ * </p>
+ *
+ * @author Ashutosh Kumar Singh
+ * @version 2026/10/18
+ * @see <a href="http://bulk.openweathermap.org/sample/">OWM's Bulk Files</a>
+ * @since 2.5.0.6
+ */
+public class CityCatalog {
+    /*
+    JSON Keys
+     */
+    private static final String JSON_CITY_ID = "id";
+    private static final String JSON_CITY_OLD_ID = "_id";
+    private static final String JSON_CITY_NAME = "name";
+    private static final String JSON_CITY_COUNTRY_CODE = "country";
+    private static final String JSON_CITY_COORD = "coord";
+    private static final String JSON_COORD_LATITUDE = "lat";
+    private static final String JSON_COORD_LONGITUDE = "lon";
+
+    /*
+    Layout of the index: header, then sections in this order
+     */
+    private static final int MAGIC = 0x4F574D43; // "OWMC"
+    private static final int VERSION = 1;
+    private static final int HEADER_SIZE = 20; // magic, version, count, size of name table, size of names
+
+    private static final int ID_BITS = 39; // city codes are packed with their position for sorting
+    private static final int GZIP_MAGIC = 0x8b1f;
+
+    private final ByteBuffer index;
+    private final int count;
+    private final int nameTableSize;
+    private final int idsStart;
+    private final int latitudesStart;
+    private final int longitudesStart;
+    private final int countryCodesStart;
+    private final int nameOffsetsStart;
+    private final int nameTableStart;
+    private final int nextNamesStart;
+    private final int namesStart;
+
+    private CityCatalog(ByteBuffer index)
+            throws IOException {
+        if (index.capacity() < HEADER_SIZE || index.getInt(0) != MAGIC) {
+            throw new IOException("Not a city catalog");
+        }
+        if (index.getInt(4) != VERSION) {
+            throw new IOException("Unsupported version of city catalog: " + index.getInt(4));
+        }
+        this.index = index;
+        this.count = index.getInt(8);
+        this.nameTableSize = index.getInt(12);
+        int namesSize = index.getInt(16);
+
+        this.idsStart = HEADER_SIZE;
+        this.latitudesStart = idsStart + 8 * count;
+        this.longitudesStart = latitudesStart + 4 * count;
+        this.countryCodesStart = longitudesStart + 4 * count;
+        this.nameOffsetsStart = countryCodesStart + 2 * count;
+        this.nameTableStart = nameOffsetsStart + 4 * (count + 1);
+        this.nextNamesStart = nameTableStart + 4 * nameTableSize;
+        this.namesStart = nextNamesStart + 4 * count;
+        if (count < 0 || namesSize < 0 || (long) namesStart + namesSize != index.capacity()) {
+            throw new IOException("Corrupted city catalog");
+        }
+    }
+
+    /**
+     * Builds a catalog from the city list of OWM.org, i.e., a JSON array of cities, or a file having
+     * one city per line, gzipped or not. Cities without city code are skipped, and so are cities
+     * listed again with the same city code.
+     *
+     * @param cityList Content of the city list; it is closed when read
+     * @return Catalog of the cities
+     * @throws IOException if the city list cannot be read.
+     */
+    public static CityCatalog fromCityList(InputStream cityList)
+            throws IOException {
+        byte[] data;
+        try {
+            InputStream in = new BufferedInputStream(cityList);
+            in.mark(2);
+            int magic = in.read() | (in.read() << 8);
+            in.reset();
+            data = ResponseBodyReader.readBytes((magic == GZIP_MAGIC) ? new GZIPInputStream(in) : in, null);
+        } finally {
+            cityList.close();
+        }
+        return new Builder().addAll(data).build();
+    }
+
+    /**
+     * Loads a catalog saved by {@link #save(java.io.File)}, by mapping the file into memory.
+     *
+     * @param file File having the catalog
+     * @return Catalog of the cities
+     * @throws IOException if the file cannot be read, or is not a catalog.
+     */
+    public static CityCatalog load(File file)
+            throws IOException {
+        RandomAccessFile raf = new RandomAccessFile(file, "r");
+        try {
+            FileChannel channel = raf.getChannel();
+            return new CityCatalog(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+        } finally {
+            raf.close(); // the mapping stays valid
+        }
+    }
+
+    /**
+     * Saves the catalog, to be loaded by {@link #load(java.io.File)}.
+     *
+     * @param file File to be written
+     * @throws IOException if the file cannot be written.
+     */
+    public void save(File file)
+            throws IOException {
+        FileOutputStream out = new FileOutputStream(file);
+        try {
+            ByteBuffer content = index.duplicate();
+            content.clear();
+            FileChannel channel = out.getChannel();
+            while (content.hasRemaining()) {
+                channel.write(content);
+            }
+        } finally {
+            out.close();
+        }
+    }
+
+    /**
+     * @return Count of cities in the catalog.
+     */
+    public int size() {
+        return this.count;
+    }
+
+    public boolean contains(long cityCode) {
+        return find(cityCode) >= 0;
+    }
+
+    /**
+     * @param cityCode Code of the city
+     * @return City if in the catalog, otherwise <code>null</code>.
+     */
+    public AbstractForecast.City getCity(long cityCode) {
+        int city = find(cityCode);
+        if (city < 0) {
+            return null;
+        }
+        return new AbstractForecast.City(cityCode, getCityName(city), getCountryCode(city),
+                new AbstractForecast.City.Coord(getLatitude(city), getLongitude(city)));
+    }
+
+    /**
+     * @param cityName Name of the city, case insensitive
+     * @return Codes of all cities having the name, in order of city code; empty if none.
+     */
+    public long[] findCityCodes(String cityName) {
+        return findCityCodes(cityName, null);
+    }
+
+    /**
+     * @param cityName    Name of the city, case insensitive
+     * @param countryCode Code of the country of the city, case insensitive
+     * @return Code of the city, of the one with the lowest code if many, or <code>Long.MIN_VALUE</code> if none.
+     */
+    public long findCityCode(String cityName, String countryCode) {
+        if (countryCode == null) {
+            throw new IllegalArgumentException("Country code cannot be null.");
+        }
+        long[] cityCodes = findCityCodes(cityName, countryCode);
+        return (cityCodes.length > 0) ? cityCodes[0] : Long.MIN_VALUE;
+    }
+
+    private long[] findCityCodes(String cityName, String countryCode) {
+        if (cityName == null) {
+            throw new IllegalArgumentException("City name cannot be null.");
+        }
+        String name = cityName.toLowerCase(Locale.ENGLISH);
+
+        long[] cityCodes = new long[4];
+        int found = 0;
+        int city = index.getInt(nameTableStart + 4 * (slot(name.hashCode()))) - 1;
+        while (city >= 0) {
+            if (name.equals(getCityName(city).toLowerCase(Locale.ENGLISH))
+                    && (countryCode == null || countryCode.equalsIgnoreCase(getCountryCode(city)))) {
+                if (found == cityCodes.length) {
+                    long[] more = new long[found * 2];
+                    System.arraycopy(cityCodes, 0, more, 0, found);
+                    cityCodes = more;
+                }
+                cityCodes[found++] = getCityCode(city);
+            }
+            city = index.getInt(nextNamesStart + 4 * city) - 1;
+        }
+
+        long[] result = new long[found];
+        System.arraycopy(cityCodes, 0, result, 0, found);
+        Arrays.sort(result);
+        return result;
+    }
+
+    /*
+    Access by position, in order of city code
+     */
+    int find(long cityCode) {
+        int low = 0;
+        int high = count - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            long midCode = getCityCode(mid);
+            if (midCode < cityCode) {
+                low = mid + 1;
+            } else if (midCode > cityCode) {
+                high = mid - 1;
+            } else {
+                return mid;
+            }
+        }
+        return -1;
+    }
+
+    long getCityCode(int city) {
+        return index.getLong(idsStart + 8 * city);
+    }
+
+    float getLatitude(int city) {
+        return index.getFloat(latitudesStart + 4 * city);
+    }
+
+    float getLongitude(int city) {
+        return index.getFloat(longitudesStart + 4 * city);
+    }
+
+    String getCountryCode(int city) {
+        char packed = index.getChar(countryCodesStart + 2 * city);
+        if (packed == 0) {
+            return null;
+        }
+        char[] chars = {(char) (packed >>> 8), (char) (packed & 0xFF)};
+        return new String(chars, 0, (chars[1] != 0) ? 2 : 1);
+    }
+
+    String getCityName(int city) {
+        int start = index.getInt(nameOffsetsStart + 4 * city);
+        int end = index.getInt(nameOffsetsStart + 4 * (city + 1));
+        byte[] bytes = new byte[end - start];
+        for (int i = 0; i < bytes.length; i++) {
+            bytes[i] = index.get(namesStart + start + i);
+        }
+        return JsonIndex.decode(bytes, 0, bytes.length, false);
+    }
+
+    private int slot(int hash) {
+        hash ^= (hash >>> 16);
+        return hash & (nameTableSize - 1);
+    }
+
+    /**
+     * Collects cities, and builds the index of them
+     */
+    private static final class Builder {
+        private long[] keys = new long[1024]; // city code and position
+        private float[] latitudes = new float[1024];
+        private float[] longitudes = new float[1024];
+        private char[] countryCodes = new char[1024];
+        private String[] names = new String[1024];
+        private int count;
+
+        /**
+         * Adds the cities of the JSON text, i.e., every top level object.
+         */
+        private Builder addAll(byte[] data) {
+            int depth = 0;
+            int start = -1;
+            boolean inString = false;
+            for (int i = 0; i < data.length; i++) {
+                byte b = data[i];
+                if (inString) {
+                    if (b == '\\') {
+                        i++;
+                    } else if (b == '"') {
+                        inString = false;
+                    }
+                } else if (b == '"') {
+                    inString = true;
+                } else if (b == '{') {
+                    if (depth++ == 0) {
+                        start = i;
+                    }
+                } else if (b == '}' && depth > 0 && --depth == 0) {
+                    add(JsonIndex.parse(data, start, i + 1 - start, null));
+                }
+            }
+            return this;
+        }
+
+        private void add(JsonIndex json) {
+            int obj = json.root();
+            long cityCode = json.optLong(obj, JSON_CITY_ID, json.optLong(obj, JSON_CITY_OLD_ID, Long.MIN_VALUE));
+            if (cityCode < 0 || cityCode >= (1L << ID_BITS)) {
+                return;
+            }
+
+            if (count == keys.length) {
+                int capacity = count * 2;
+                keys = grow(keys, capacity);
+                latitudes = grow(latitudes, capacity);
+                longitudes = grow(longitudes, capacity);
+                char[] moreCountryCodes = new char[capacity];
+                System.arraycopy(countryCodes, 0, moreCountryCodes, 0, count);
+                countryCodes = moreCountryCodes;
+                String[] moreNames = new String[capacity];
+                System.arraycopy(names, 0, moreNames, 0, count);
+                names = moreNames;
+            }
+
+            int coord = json.optObject(obj, JSON_CITY_COORD);
+            String countryCode = json.optString(obj, JSON_CITY_COUNTRY_CODE, "");
+            String name = json.optString(obj, JSON_CITY_NAME, "");
+
+            keys[count] = (cityCode << (63 - ID_BITS)) | count; // sorts by city code, then by position
+            latitudes[count] = (float) json.optDouble(coord, JSON_COORD_LATITUDE, Double.NaN);
+            longitudes[count] = (float) json.optDouble(coord, JSON_COORD_LONGITUDE, Double.NaN);
+            countryCodes[count] = (countryCode.length() == 2 || countryCode.length() == 1)
+                    ? (char) (((countryCode.charAt(0) & 0xFF) << 8) | (countryCode.length() == 2 ? countryCode.charAt(1) & 0xFF : 0))
+                    : 0;
+            names[count] = name;
+            count++;
+        }
+
+        private CityCatalog build()
+                throws IOException {
+            long[] sorted = new long[count];
+            System.arraycopy(keys, 0, sorted, 0, count);
+            Arrays.sort(sorted);
+
+            // drops cities listed again
+            int unique = 0;
+            int[] positions = new int[count];
+            long[] cityCodes = new long[count];
+            for (int i = 0; i < count; i++) {
+                long cityCode = sorted[i] >>> (63 - ID_BITS);
+                if (unique == 0 || cityCodes[unique - 1] != cityCode) {
+                    cityCodes[unique] = cityCode;
+                    positions[unique] = (int) (sorted[i] & ((1L << (63 - ID_BITS)) - 1));
+                    unique++;
+                }
+            }
+
+            byte[][] nameBytes = new byte[unique][];
+            int namesSize = 0;
+            for (int i = 0; i < unique; i++) {
+                nameBytes[i] = utf8(names[positions[i]]);
+                namesSize += nameBytes[i].length;
+            }
+            int nameTableSize = Integer.highestOneBit(Math.max(unique, 1)) << 1;
+
+            ByteBuffer index = ByteBuffer.allocate(HEADER_SIZE + 26 * unique + 4 + 4 * nameTableSize + namesSize);
+            index.putInt(MAGIC).putInt(VERSION).putInt(unique).putInt(nameTableSize).putInt(namesSize);
+            for (int i = 0; i < unique; i++) {
+                index.putLong(cityCodes[i]);
+            }
+            for (int i = 0; i < unique; i++) {
+                index.putFloat(latitudes[positions[i]]);
+            }
+            for (int i = 0; i < unique; i++) {
+                index.putFloat(longitudes[positions[i]]);
+            }
+            for (int i = 0; i < unique; i++) {
+                index.putChar(countryCodes[positions[i]]);
+            }
+            int offset = 0;
+            for (int i = 0; i < unique; i++) {
+                index.putInt(offset);
+                offset += nameBytes[i].length;
+            }
+            index.putInt(offset);
+
+            // chains of cities having names of the same slot, in order of city code
+            int[] heads = new int[nameTableSize];
+            int[] next = new int[unique];
+            int mask = nameTableSize - 1;
+            for (int i = unique - 1; i >= 0; i--) {
+                int hash = names[positions[i]].toLowerCase(Locale.ENGLISH).hashCode();
+                hash ^= (hash >>> 16);
+                int slot = hash & mask;
+                next[i] = heads[slot];
+                heads[slot] = i + 1;
+            }
+            for (int i = 0; i < nameTableSize; i++) {
+                index.putInt(heads[i]);
+            }
+            for (int i = 0; i < unique; i++) {
+                index.putInt(next[i]);
+            }
+            for (int i = 0; i < unique; i++) {
+                index.put(nameBytes[i]);
+            }
+            return new CityCatalog(index);
+        }
+
+        private static byte[] utf8(String s) {
+            try {
+                return s.getBytes("UTF-8");
+            } catch (UnsupportedEncodingException e) {
+                throw new IllegalStateException(e.getMessage()); // UTF-8 is always supported
+            }
+        }
+
+        private static long[] grow(long[] array, int capacity) {
+            long[] bigger = new long[capacity];
+            System.arraycopy(array, 0, bigger, 0, array.length);
+            return bigger;
+        }
+
+        private static float[] grow(float[] array, int capacity) {
+            float[] bigger = new float[capacity];
+            System.arraycopy(array, 0, bigger, 0, array.length);
+            return bigger;
+        }
+    }
+}
@@ -0,0 +1,192 @@
+/*
+ * Copyright (c) 2013-2015 Ashutosh Kumar Singh <me@aksingh.net>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package net.aksingh.owmjapis;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * <p>
+ * Gathers requests by city code, made independently by many callers, into requests for many cities.
+ * </p>
+ * <p>
+ * The first request of a batch waits for the linger time; requests made meanwhile join its batch.
+ * The batch is sent when the linger time is over, or as soon as it is full, and every caller then
+ * gets its own result. Callers wait for at most the linger time more than for a request of their own.
+ * </p>
+ *
+ * @param <V> Type of the results, e.g., {@link net.aksingh.owmjapis.CurrentWeather}
+ * @author Ashutosh Kumar Singh
+ * @version 2026/10/18
+ * @see net.aksingh.owmjapis.OpenWeatherMap#setBatchingLingerTime(long)
+ * @since 2.5.0.6
+ */
+final class CityCodeBatcher<V> {
+    private final BatchRequest<V> request;
+    private final ScheduledExecutorService scheduler;
+    private final long lingerTime;
+    private final int maxBatchSize;
+
+    private final Object lock = new Object();
+    private Batch<V> open; // batch that requests join, if any
+
+    /**
+     * @param request      Request for a batch of cities
+     * @param scheduler    Scheduler sending the batches when their linger time is over
+     * @param lingerTime   Time a batch waits for more requests, in milliseconds
+     * @param maxBatchSize Count of requests after which a batch is sent right away
+     */
+    CityCodeBatcher(BatchRequest<V> request, ScheduledExecutorService scheduler, long lingerTime, int maxBatchSize) {
+        this.request = request;
+        this.scheduler = scheduler;
+        this.lingerTime = lingerTime;
+        this.maxBatchSize = maxBatchSize;
+    }
+
+    /**
+     * @return Future of the result for the city, completed when its batch is answered.
+     */
+    OWMFuture<V> submit(long cityCode) {
+        OWMFuture<V> future = new OWMFuture<V>();
+        Batch<V> full = null;
+        boolean scheduled = true;
+        synchronized (lock) {
+            if (open == null) {
+                open = new Batch<V>();
+                scheduled = schedule(open);
+            }
+            open.add(cityCode, future);
+            if (!scheduled || open.size() >= maxBatchSize) {
+                full = open;
+                open = null;
+            }
+        }
+        if (full != null) {
+            send(full);
+        }
+        return future;
+    }
+
+    /**
+     * Sends the open batch, if any, without waiting for its linger time.
+     */
+    void flush() {
+        Batch<V> batch;
+        synchronized (lock) {
+            batch = open;
+            open = null;
+        }
+        if (batch != null) {
+            send(batch);
+        }
+    }
+
+    private boolean schedule(final Batch<V> batch) {
+        try {
+            scheduler.schedule(new Runnable() {
+                public void run() {
+                    synchronized (lock) {
+                        if (open != batch) {
+                            return; // sent already, when full
+                        }
+                        open = null;
+                    }
+                    send(batch);
+                }
+            }, lingerTime, TimeUnit.MILLISECONDS);
+            return true;
+        } catch (RuntimeException e) {
+            return false; // rejected; the request is sent alone
+        }
+    }
+
+    private void send(final Batch<V> batch) {
+        OWMFuture<Map<Long, V>> results;
+        try {
+            results = request.request(batch.cityCodes());
+        } catch (RuntimeException e) {
+            batch.fail(e);
+            return;
+        }
+        results.addCallback(new OWMFuture.Callback<Map<Long, V>>() {
+            public void onSuccess(Map<Long, V> result) {
+                batch.complete(result);
+            }
+
+            public void onFailure(Throwable cause) {
+                batch.fail(cause);
+            }
+        });
+    }
+
+    /**
+     * Requests for many cities at once
+     */
+    static interface BatchRequest<V> {
+        /**
+         * @param cityCodes Codes of the cities, possibly repeated
+         * @return Future of the results by city code
+         */
+        OWMFuture<Map<Long, V>> request(long[] cityCodes);
+    }
+
+    /**
+     * Requests gathered to be sent together
+     */
+    private static final class Batch<V> {
+        private final List<Long> cityCodes = new ArrayList<Long>();
+        private final List<OWMFuture<V>> futures = new ArrayList<OWMFuture<V>>();
+
+        private void add(long cityCode, OWMFuture<V> future) {
+            cityCodes.add(cityCode);
+            futures.add(future);
+        }
+
+        private int size() {
+            return cityCodes.size();
+        }
+
+        private long[] cityCodes() {
+            long[] codes = new long[cityCodes.size()];
+            for (int i = 0; i < codes.length; i++) {
+                codes[i] = cityCodes.get(i);
+            }
+            return codes;
+        }
+
+        private void complete(Map<Long, V> results) {
+            for (int i = 0; i < futures.size(); i++) {
+                futures.get(i).complete(results.get(cityCodes.get(i)));
+            }
+        }
+
+        private void fail(Throwable cause) {
+            for (int i = 0; i < futures.size(); i++) {
+                futures.get(i).fail(cause);
+            }
+        }
+    }
+}
@@ -0,0 +1,238 @@
+/*
+ * Copyright (c) 2013-2015 Ashutosh Kumar Singh <me@aksingh.net>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package net.aksingh.owmjapis;
+
+/**
+ * <p>
+ * Finds the city nearest to a coordinate, among the cities of a {@link net.aksingh.owmjapis.CityCatalog}.
+ * Set on an {@link net.aksingh.owmjapis.OpenWeatherMap} object, it snaps coordinates to city codes,
+ * so that requests by coordinates are made by city code instead.
+ * </p>
+ * <p>
+ * Cities are kept in a k-d tree of points on the unit sphere, i.e., in 3 dimensions, so distances are right
+ * near the poles and across the 180th meridian too. Finding the nearest city takes logarithmic time.
+ * Locators are immutable, and so can be used by many threads.
+ * </p>
+ *
+ * @author Ashutosh Kumar Singh
+ * @version 2026/10/18
+ * @since 2.5.0.6
+ */
+public class CityLocator {
+    private static final double EARTH_RADIUS_KM = 6371.0088;
+
+    /*
+    Tree: the city at the middle of every range splits the range on the axis of its depth
+     */
+    private final long[] cityCodes;
+    private final double[] xs;
+    private final double[] ys;
+    private final double[] zs;
+
+    /**
+     * Builds the tree of the cities of the catalog having coordinates.
+     *
+     * @param catalog Catalog of the cities
+     * @throws IllegalArgumentException if catalog is <code>null</code>.
+     */
+    public CityLocator(CityCatalog catalog)
+            throws IllegalArgumentException {
+        if (catalog == null) {
+            throw new IllegalArgumentException("City catalog cannot be null.");
+        }
+
+        int count = 0;
+        for (int i = 0; i < catalog.size(); i++) {
+            if (!Float.isNaN(catalog.getLatitude(i)) && !Float.isNaN(catalog.getLongitude(i))) {
+                count++;
+            }
+        }
+        this.cityCodes = new long[count];
+        this.xs = new double[count];
+        this.ys = new double[count];
+        this.zs = new double[count];
+
+        int city = 0;
+        double[] point = new double[3];
+        for (int i = 0; i < catalog.size(); i++) {
+            float latitude = catalog.getLatitude(i);
+            float longitude = catalog.getLongitude(i);
+            if (!Float.isNaN(latitude) && !Float.isNaN(longitude)) {
+                toPoint(latitude, longitude, point);
+                cityCodes[city] = catalog.getCityCode(i);
+                xs[city] = point[0];
+                ys[city] = point[1];
+                zs[city] = point[2];
+                city++;
+            }
+        }
+        build(0, count, 0);
+    }
+
+    /**
+     * @return Count of cities having coordinates.
+     */
+    public int size() {
+        return this.cityCodes.length;
+    }
+
+    /**
+     * @param latitude    Latitude of the coordinate
+     * @param longitude   Longitude of the coordinate
+     * @param maxDistance Maximum distance to the city, in kilometers
+     * @return Code of the nearest city, or <code>Long.MIN_VALUE</code> if none is within the distance.
+     */
+    public long nearestCityCode(float latitude, float longitude, float maxDistance) {
+        if (Float.isNaN(latitude) || Float.isNaN(longitude) || !(maxDistance >= 0f) || cityCodes.length == 0) {
+            return Long.MIN_VALUE;
+        }
+        double[] point = new double[3];
+        toPoint(latitude, longitude, point);
+
+        // squared length of the chord between points at the distance, as the tree is searched by chord
+        double angle = Math.min(maxDistance / EARTH_RADIUS_KM, Math.PI);
+        double chord = 2 * Math.sin(angle / 2);
+
+        Nearest nearest = new Nearest(chord * chord);
+        search(0, cityCodes.length, 0, point, nearest);
+        return (nearest.city >= 0) ? cityCodes[nearest.city] : Long.MIN_VALUE;
+    }
+
+    private static void toPoint(float latitude, float longitude, double[] point) {
+        double phi = Math.toRadians(latitude);
+        double lambda = Math.toRadians(longitude);
+        point[0] = Math.cos(phi) * Math.cos(lambda);
+        point[1] = Math.cos(phi) * Math.sin(lambda);
+        point[2] = Math.sin(phi);
+    }
+
+    private double coordinate(int city, int axis) {
+        return (axis == 0) ? xs[city] : (axis == 1) ? ys[city] : zs[city];
+    }
+
+    /*
+    Building
+     */
+    private void build(int from, int to, int axis) {
+        while (to - from > 1) {
+            int middle = (from + to) >>> 1;
+            select(from, to - 1, middle, axis);
+            int next = (axis + 1) % 3;
+            build(from, middle, next);
+            from = middle + 1;
+            axis = next;
+        }
+    }
+
+    /**
+     * Moves the k-th city of the range, in order of the axis, to its place: with no greater ones before it,
+     * and no smaller ones after it.
+     */
+    private void select(int left, int right, int k, int axis) {
+        while (left < right) {
+            double pivot = coordinate((left + right) >>> 1, axis);
+            int i = left;
+            int j = right;
+            while (i <= j) {
+                while (coordinate(i, axis) < pivot) {
+                    i++;
+                }
+                while (coordinate(j, axis) > pivot) {
+                    j--;
+                }
+                if (i <= j) {
+                    swap(i++, j--);
+                }
+            }
+            if (k <= j) {
+                right = j;
+            } else if (k >= i) {
+                left = i;
+            } else {
+                return;
+            }
+        }
+    }
+
+    private void swap(int i, int j) {
+        long cityCode = cityCodes[i];
+        cityCodes[i] = cityCodes[j];
+        cityCodes[j] = cityCode;
+        double x = xs[i];
+        xs[i] = xs[j];
+        xs[j] = x;
+        double y = ys[i];
+        ys[i] = ys[j];
+        ys[j] = y;
+        double z = zs[i];
+        zs[i] = zs[j];
+        zs[j] = z;
+    }
+
+    /*
+    Searching
+     */
+    private void search(int from, int to, int axis, double[] point, Nearest nearest) {
+        while (from < to) {
+            int middle = (from + to) >>> 1;
+            double dx = xs[middle] - point[0];
+            double dy = ys[middle] - point[1];
+            double dz = zs[middle] - point[2];
+            double squaredDistance = dx * dx + dy * dy + dz * dz;
+            if (squaredDistance <= nearest.squaredDistance) {
+                nearest.squaredDistance = squaredDistance;
+                nearest.city = middle;
+            }
+
+            double delta = point[axis] - coordinate(middle, axis);
+            int next = (axis + 1) % 3;
+            // the side of the point first, then the other side if the splitting plane is near enough
+            if (delta < 0) {
+                search(from, middle, next, point, nearest);
+                if (delta * delta > nearest.squaredDistance) {
+                    return;
+                }
+                from = middle + 1;
+            } else {
+                search(middle + 1, to, next, point, nearest);
+                if (delta * delta > nearest.squaredDistance) {
+                    return;
+                }
+                to = middle;
+            }
+            axis = next;
+        }
+    }
+
+    /**
+     * Nearest city found so far
+     */
+    private static final class Nearest {
+        private double squaredDistance;
+        private int city = -1;
+
+        private Nearest(double squaredDistance) {
+            this.squaredDistance = squaredDistance;
+        }
+    }
+}
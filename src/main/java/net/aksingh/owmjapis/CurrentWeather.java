@@ -22,8 +22,8 @@
 
 package net.aksingh.owmjapis;
 
-import org.json.JSONObject;
-
+import java.io.IOException;
+import java.io.ObjectOutputStream;
 import java.io.Serializable;
 import java.util.Date;
 
@@ -42,6 +42,10 @@ import java.util.Date;
  * Floating point: Not a number (NaN)
  * Others: <code>null</code>
  * </p>
+ * <p>
+ * When decoded lazily, nested instances (Clouds, Coord, Main, Rain, Snow, Sys and Wind) are decoded from
+ * the response on first access, and the response is kept until then.
+ * </p>
  *
  * @author Ashutosh Kumar Singh
  * @version 2014/12/26
@@ -66,44 +70,118 @@ public class CurrentWeather extends AbstractWeather {
     private final long cityId;
     private final String cityName;
 
-    private final Clouds clouds;
-    private final Coord coord;
-    private final Main main;
-    private final Rain rain;
-    private final Snow snow;
-    private final Sys sys;
-    private final Wind wind;
+    private Clouds clouds;
+    private Coord coord;
+    private Main main;
+    private Rain rain;
+    private Snow snow;
+    private Sys sys;
+    private Wind wind;
 
     /*
-    Constructor
+    Positions of nested instances in the response, for lazy decoding
      */
-    CurrentWeather(JSONObject jsonObj) {
-        super(jsonObj);
+    private final transient JsonIndex json;
+    private final int cloudsObj;
+    private final int coordObj;
+    private final int mainObj;
+    private final int rainObj;
+    private final int snowObj;
+    private final int sysObj;
+    private final int windObj;
 
-        this.base = (jsonObj != null) ? jsonObj.optString(JSON_BASE, null) : null;
-        this.cityId = (jsonObj != null) ? jsonObj.optLong(JSON_CITY_ID, Long.MIN_VALUE) : Long.MIN_VALUE;
-        this.cityName = (jsonObj != null) ? jsonObj.optString(JSON_CITY_NAME, null) : null;
-
-        JSONObject cloudsObj = (jsonObj != null) ? jsonObj.optJSONObject(JSON_CLOUDS) : null;
-        this.clouds = (cloudsObj != null) ? new Clouds(cloudsObj) : null;
-
-        JSONObject coordObj = (jsonObj != null) ? jsonObj.optJSONObject(JSON_COORD) : null;
-        this.coord = (coordObj != null) ? new Coord(coordObj) : null;
-
-        JSONObject mainObj = (jsonObj != null) ? jsonObj.optJSONObject(JSON_MAIN) : null;
-        this.main = (mainObj != null) ? new Main(mainObj) : null;
+    /*
+    Constructor
+     */
+    CurrentWeather(JsonIndex json, int obj, boolean lazy) {
+        this(json, obj, Integer.MIN_VALUE, lazy);
+    }
 
-        JSONObject rainObj = (jsonObj != null) ? jsonObj.optJSONObject(JSON_RAIN) : null;
-        this.rain = (rainObj != null) ? new Rain(rainObj) : null;
+    /**
+     * For current weather listed within another response, e.g., of many cities.
+     */
+    CurrentWeather(JsonIndex json, int obj, int defaultResponseCode, boolean lazy) {
+        super(json, obj, defaultResponseCode);
+
+        this.base = json.optSharedString(obj, JSON_BASE, null);
+        this.cityId = json.optLong(obj, JSON_CITY_ID, Long.MIN_VALUE);
+        this.cityName = json.optSharedString(obj, JSON_CITY_NAME, null);
+
+        this.cloudsObj = json.optObject(obj, JSON_CLOUDS);
+        this.coordObj = json.optObject(obj, JSON_COORD);
+        this.mainObj = json.optObject(obj, JSON_MAIN);
+        this.rainObj = json.optObject(obj, JSON_RAIN);
+        this.snowObj = json.optObject(obj, JSON_SNOW);
+        this.sysObj = json.optObject(obj, JSON_SYS);
+        this.windObj = json.optObject(obj, JSON_WIND);
+
+        this.json = lazy ? json : null;
+        if (!lazy) {
+            this.clouds = (cloudsObj != JsonIndex.ABSENT) ? new Clouds(json, cloudsObj) : null;
+            this.coord = (coordObj != JsonIndex.ABSENT) ? new Coord(json, coordObj) : null;
+            this.main = (mainObj != JsonIndex.ABSENT) ? new Main(json, mainObj) : null;
+            this.rain = (rainObj != JsonIndex.ABSENT) ? new Rain(json, rainObj) : null;
+            this.snow = (snowObj != JsonIndex.ABSENT) ? new Snow(json, snowObj) : null;
+            this.sys = (sysObj != JsonIndex.ABSENT) ? new Sys(json, sysObj) : null;
+            this.wind = (windObj != JsonIndex.ABSENT) ? new Wind(json, windObj) : null;
+        }
+    }
 
-        JSONObject snowObj = (jsonObj != null) ? jsonObj.optJSONObject(JSON_SNOW) : null;
-        this.snow = (snowObj != null) ? new Snow(snowObj) : null;
+    CurrentWeather(ModelCodec.Input in) throws IOException {
+        super(in);
+
+        in.begin(10);
+        this.base = in.readString();
+        this.cityId = in.readLong();
+        this.cityName = in.readString();
+        this.clouds = in.readFlag() ? new Clouds(in) : null;
+        this.coord = in.readFlag() ? new Coord(in) : null;
+        this.main = in.readFlag() ? new Main(in) : null;
+        this.rain = in.readFlag() ? new Rain(in) : null;
+        this.snow = in.readFlag() ? new Snow(in) : null;
+        this.sys = in.readFlag() ? new Sys(in) : null;
+        this.wind = in.readFlag() ? new Wind(in) : null;
+        in.end();
+
+        this.json = null;
+        this.cloudsObj = (this.clouds != null) ? JsonIndex.DECODED : JsonIndex.ABSENT;
+        this.coordObj = (this.coord != null) ? JsonIndex.DECODED : JsonIndex.ABSENT;
+        this.mainObj = (this.main != null) ? JsonIndex.DECODED : JsonIndex.ABSENT;
+        this.rainObj = (this.rain != null) ? JsonIndex.DECODED : JsonIndex.ABSENT;
+        this.snowObj = (this.snow != null) ? JsonIndex.DECODED : JsonIndex.ABSENT;
+        this.sysObj = (this.sys != null) ? JsonIndex.DECODED : JsonIndex.ABSENT;
+        this.windObj = (this.wind != null) ? JsonIndex.DECODED : JsonIndex.ABSENT;
+    }
 
-        JSONObject sysObj = (jsonObj != null) ? jsonObj.optJSONObject(JSON_SYS) : null;
-        this.sys = (sysObj != null) ? new Sys(sysObj) : null;
+    void write(ModelCodec.Output out) {
+        super.write(out);
 
-        JSONObject windObj = (jsonObj != null) ? jsonObj.optJSONObject(JSON_WIND) : null;
-        this.wind = (windObj != null) ? new Wind(windObj) : null;
+        out.begin(10);
+        out.writeString(this.base);
+        out.writeLong(this.cityId);
+        out.writeString(this.cityName);
+        if (out.writeFlag(hasCloudsInstance())) {
+            getCloudsInstance().write(out);
+        }
+        if (out.writeFlag(hasCoordInstance())) {
+            getCoordInstance().write(out);
+        }
+        if (out.writeFlag(hasMainInstance())) {
+            getMainInstance().write(out);
+        }
+        if (out.writeFlag(hasRainInstance())) {
+            getRainInstance().write(out);
+        }
+        if (out.writeFlag(hasSnowInstance())) {
+            getSnowInstance().write(out);
+        }
+        if (out.writeFlag(hasSysInstance())) {
+            getSysInstance().write(out);
+        }
+        if (out.writeFlag(hasWindInstance())) {
+            getWindInstance().write(out);
+        }
+        out.end();
     }
 
     /**
@@ -131,49 +209,49 @@ public class CurrentWeather extends AbstractWeather {
      * @return <code>true</code> if Clouds instance is available, otherwise <code>false</code>.
      */
     public boolean hasCloudsInstance() {
-        return clouds != null;
+        return cloudsObj != JsonIndex.ABSENT;
     }
 
     /**
      * @return <code>true</code> if Coord instance is available, otherwise <code>false</code>.
      */
     public boolean hasCoordInstance() {
-        return coord != null;
+        return coordObj != JsonIndex.ABSENT;
     }
 
     /**
      * @return <code>true</code> if Main instance is available, otherwise <code>false</code>.
      */
     public boolean hasMainInstance() {
-        return main != null;
+        return mainObj != JsonIndex.ABSENT;
     }
 
     /**
      * @return <code>true</code> if Rain instance is available, otherwise <code>false</code>.
      */
     public boolean hasRainInstance() {
-        return rain != null;
+        return rainObj != JsonIndex.ABSENT;
     }
 
     /**
      * @return <code>true</code> if Snow instance is available, otherwise <code>false</code>.
      */
     public boolean hasSnowInstance() {
-        return snow != null;
+        return snowObj != JsonIndex.ABSENT;
     }
 
     /**
      * @return <code>true</code> if Sys instance is available, otherwise <code>false</code>.
      */
     public boolean hasSysInstance() {
-        return sys != null;
+        return sysObj != JsonIndex.ABSENT;
     }
 
     /**
      * @return <code>true</code> if Wind instance is available, otherwise <code>false</code>.
      */
     public boolean hasWindInstance() {
-        return wind != null;
+        return windObj != JsonIndex.ABSENT;
     }
 
     /**
@@ -201,49 +279,98 @@ public class CurrentWeather extends AbstractWeather {
      * @return Clouds instance if available, otherwise <code>null</code>.
      */
     public Clouds getCloudsInstance() {
-        return this.clouds;
+        Clouds clouds = this.clouds;
+        if (clouds == null && cloudsObj != JsonIndex.ABSENT) {
+            clouds = new Clouds(json, cloudsObj);
+            this.clouds = clouds;
+        }
+        return clouds;
     }
 
     /**
      * @return Coord instance if available, otherwise <code>null</code>.
      */
     public Coord getCoordInstance() {
-        return this.coord;
+        Coord coord = this.coord;
+        if (coord == null && coordObj != JsonIndex.ABSENT) {
+            coord = new Coord(json, coordObj);
+            this.coord = coord;
+        }
+        return coord;
     }
 
     /**
      * @return Main instance if available, otherwise <code>null</code>.
      */
     public Main getMainInstance() {
-        return this.main;
+        Main main = this.main;
+        if (main == null && mainObj != JsonIndex.ABSENT) {
+            main = new Main(json, mainObj);
+            this.main = main;
+        }
+        return main;
     }
 
     /**
      * @return Rain instance if available, otherwise <code>null</code>.
      */
     public Rain getRainInstance() {
-        return this.rain;
+        Rain rain = this.rain;
+        if (rain == null && rainObj != JsonIndex.ABSENT) {
+            rain = new Rain(json, rainObj);
+            this.rain = rain;
+        }
+        return rain;
     }
 
     /**
      * @return Snow instance if available, otherwise <code>null</code>.
      */
     public Snow getSnowInstance() {
-        return this.snow;
+        Snow snow = this.snow;
+        if (snow == null && snowObj != JsonIndex.ABSENT) {
+            snow = new Snow(json, snowObj);
+            this.snow = snow;
+        }
+        return snow;
     }
 
     /**
      * @return Sys instance if available, otherwise <code>null</code>.
      */
     public Sys getSysInstance() {
-        return this.sys;
+        Sys sys = this.sys;
+        if (sys == null && sysObj != JsonIndex.ABSENT) {
+            sys = new Sys(json, sysObj);
+            this.sys = sys;
+        }
+        return sys;
     }
 
     /**
      * @return Wind instance if available, otherwise <code>null</code>.
      */
     public Wind getWindInstance() {
-        return this.wind;
+        Wind wind = this.wind;
+        if (wind == null && windObj != JsonIndex.ABSENT) {
+            wind = new Wind(json, windObj);
+            this.wind = wind;
+        }
+        return wind;
+    }
+
+    /**
+     * Decodes nested instances not accessed yet, as the response is not serialized.
+     */
+    private void writeObject(ObjectOutputStream out) throws IOException {
+        getCloudsInstance();
+        getCoordInstance();
+        getMainInstance();
+        getRainInstance();
+        getSnowInstance();
+        getSysInstance();
+        getWindInstance();
+        out.defaultWriteObject();
     }
 
     /**
@@ -272,8 +399,12 @@ public class CurrentWeather extends AbstractWeather {
             super();
         }
 
-        Clouds(JSONObject jsonObj) {
-            super(jsonObj);
+        Clouds(JsonIndex json, int obj) {
+            super(json, obj);
+        }
+
+        Clouds(ModelCodec.Input in) throws IOException {
+            super(in);
         }
     }
 
@@ -303,8 +434,12 @@ public class CurrentWeather extends AbstractWeather {
             super();
         }
 
-        Coord(JSONObject jsonObj) {
-            super(jsonObj);
+        Coord(JsonIndex json, int obj) {
+            super(json, obj);
+        }
+
+        Coord(ModelCodec.Input in) throws IOException {
+            super(in);
         }
     }
 
@@ -334,8 +469,12 @@ public class CurrentWeather extends AbstractWeather {
             super();
         }
 
-        Main(JSONObject jsonObj) {
-            super(jsonObj);
+        Main(JsonIndex json, int obj) {
+            super(json, obj);
+        }
+
+        Main(ModelCodec.Input in) throws IOException {
+            super(in);
         }
     }
 
@@ -372,9 +511,23 @@ public class CurrentWeather extends AbstractWeather {
             this.rain3h = Float.NaN;
         }
 
-        Rain(JSONObject jsonObj) {
-            this.rain1h = (float) jsonObj.optDouble(JSON_RAIN_1HOUR, Double.NaN);
-            this.rain3h = (float) jsonObj.optDouble(JSON_RAIN_3HOUR, Double.NaN);
+        Rain(JsonIndex json, int obj) {
+            this.rain1h = (float) json.optDouble(obj, JSON_RAIN_1HOUR, Double.NaN);
+            this.rain3h = (float) json.optDouble(obj, JSON_RAIN_3HOUR, Double.NaN);
+        }
+
+        Rain(ModelCodec.Input in) throws IOException {
+            in.begin(2);
+            this.rain1h = in.readFloat();
+            this.rain3h = in.readFloat();
+            in.end();
+        }
+
+        void write(ModelCodec.Output out) {
+            out.begin(2);
+            out.writeFloat(this.rain1h);
+            out.writeFloat(this.rain3h);
+            out.end();
         }
 
         public boolean hasRain1h() {
@@ -427,9 +580,23 @@ public class CurrentWeather extends AbstractWeather {
             this.snow3h = Float.NaN;
         }
 
-        Snow(JSONObject jsonObj) {
-            this.snow1h = (float) jsonObj.optDouble(JSON_SNOW_1HOUR, Double.NaN);
-            this.snow3h = (float) jsonObj.optDouble(JSON_SNOW_3HOUR, Double.NaN);
+        Snow(JsonIndex json, int obj) {
+            this.snow1h = (float) json.optDouble(obj, JSON_SNOW_1HOUR, Double.NaN);
+            this.snow3h = (float) json.optDouble(obj, JSON_SNOW_3HOUR, Double.NaN);
+        }
+
+        Snow(ModelCodec.Input in) throws IOException {
+            in.begin(2);
+            this.snow1h = in.readFloat();
+            this.snow3h = in.readFloat();
+            in.end();
+        }
+
+        void write(ModelCodec.Output out) {
+            out.begin(2);
+            out.writeFloat(this.snow1h);
+            out.writeFloat(this.snow3h);
+            out.end();
         }
 
         public boolean hasSnow1h() {
@@ -482,37 +649,48 @@ public class CurrentWeather extends AbstractWeather {
         private final int id;
         private final double message;
         private final String countryCode;
-        private final Date sunrise;
-        private final Date sunset;
+        private final long sunrise; // seconds since the epoch
+        private final long sunset;
 
         Sys() {
             this.type = Integer.MIN_VALUE;
             this.id = Integer.MIN_VALUE;
             this.message = Double.NaN;
             this.countryCode = null;
-            this.sunrise = null;
-            this.sunset = null;
+            this.sunrise = Long.MIN_VALUE;
+            this.sunset = Long.MIN_VALUE;
         }
 
-        Sys(JSONObject jsonObj) {
-            this.type = jsonObj.optInt(JSON_SYS_TYPE, Integer.MIN_VALUE);
-            this.id = jsonObj.optInt(JSON_SYS_ID, Integer.MIN_VALUE);
-            this.message = jsonObj.optDouble(JSON_SYS_MESSAGE, Double.NaN);
-            this.countryCode = jsonObj.optString(JSON_SYS_COUNTRY_CODE, null);
+        Sys(JsonIndex json, int obj) {
+            this.type = json.optInt(obj, JSON_SYS_TYPE, Integer.MIN_VALUE);
+            this.id = json.optInt(obj, JSON_SYS_ID, Integer.MIN_VALUE);
+            this.message = json.optDouble(obj, JSON_SYS_MESSAGE, Double.NaN);
+            this.countryCode = json.optSharedString(obj, JSON_SYS_COUNTRY_CODE, null);
 
-            long sr_secs = jsonObj.optLong(JSON_SYS_SUNRISE, Long.MIN_VALUE);
-            if (sr_secs != Long.MIN_VALUE) {
-                this.sunrise = new Date(sr_secs * 1000);
-            } else {
-                this.sunrise = null;
-            }
+            this.sunrise = json.optLong(obj, JSON_SYS_SUNRISE, Long.MIN_VALUE);
+            this.sunset = json.optLong(obj, JSON_SYS_SUNSET, Long.MIN_VALUE);
+        }
+
+        Sys(ModelCodec.Input in) throws IOException {
+            in.begin(6);
+            this.type = in.readInt();
+            this.id = in.readInt();
+            this.message = in.readDouble();
+            this.countryCode = in.readString();
+            this.sunrise = in.readLong();
+            this.sunset = in.readLong();
+            in.end();
+        }
 
-            long ss_secs = jsonObj.optLong(JSON_SYS_SUNSET, Long.MIN_VALUE);
-            if (ss_secs != Long.MIN_VALUE) {
-                this.sunset = new Date(ss_secs * 1000);
-            } else {
-                this.sunset = null;
-            }
+        void write(ModelCodec.Output out) {
+            out.begin(6);
+            out.writeInt(this.type);
+            out.writeInt(this.id);
+            out.writeDouble(this.message);
+            out.writeString(this.countryCode);
+            out.writeLong(this.sunrise);
+            out.writeLong(this.sunset);
+            out.end();
         }
 
         public boolean hasType() {
@@ -532,11 +710,11 @@ public class CurrentWeather extends AbstractWeather {
         }
 
         public boolean hasSunriseTime() {
-            return this.sunrise != null;
+            return this.sunrise != Long.MIN_VALUE;
         }
 
         public boolean hasSunsetTime() {
-            return this.sunset != null;
+            return this.sunset != Long.MIN_VALUE;
         }
 
         public int getType() {
@@ -555,11 +733,31 @@ public class CurrentWeather extends AbstractWeather {
             return this.countryCode;
         }
 
+        /**
+         * @return Sunrise time if available, otherwise <code>null</code>. A new object is created on every call.
+         */
         public Date getSunriseTime() {
-            return this.sunrise;
+            return (this.sunrise != Long.MIN_VALUE) ? new Date(this.sunrise * 1000) : null;
         }
 
+        /**
+         * @return Sunset time if available, otherwise <code>null</code>. A new object is created on every call.
+         */
         public Date getSunsetTime() {
+            return (this.sunset != Long.MIN_VALUE) ? new Date(this.sunset * 1000) : null;
+        }
+
+        /**
+         * @return Sunrise time as seconds since the epoch if available, otherwise <code>Long.MIN_VALUE</code>.
+         */
+        public long getSunriseTimeEpochSecond() {
+            return this.sunrise;
+        }
+
+        /**
+         * @return Sunset time as seconds since the epoch if available, otherwise <code>Long.MIN_VALUE</code>.
+         */
+        public long getSunsetTimeEpochSecond() {
             return this.sunset;
         }
     }
@@ -596,10 +794,26 @@ public class CurrentWeather extends AbstractWeather {
             this.gust = Float.NaN;
         }
 
-        Wind(JSONObject jsonObj) {
-            super(jsonObj);
+        Wind(JsonIndex json, int obj) {
+            super(json, obj);
+
+            this.gust = (float) json.optDouble(obj, JSON_WIND_GUST, Double.NaN);
+        }
+
+        Wind(ModelCodec.Input in) throws IOException {
+            super(in);
+
+            in.begin(1);
+            this.gust = in.readFloat();
+            in.end();
+        }
+
+        void write(ModelCodec.Output out) {
+            super.write(out);
 
-            this.gust = (float) jsonObj.optDouble(JSON_WIND_GUST, Double.NaN);
+            out.begin(1);
+            out.writeFloat(this.gust);
+            out.end();
         }
 
         public boolean hasWindGust() {
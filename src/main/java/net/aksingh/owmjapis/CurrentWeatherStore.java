@@ -0,0 +1,535 @@
+/*
+ * Copyright (c) 2013-2015 Ashutosh Kumar Singh <me@aksingh.net>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package net.aksingh.owmjapis;
+
+import java.io.UnsupportedEncodingException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * <p>
+ * Stores current weather of many cities (millions of them) outside the Java heap, so that
+ * garbage collection neither has to trace them nor gets slower with their count.
+ * </p>
+ * <p>
+ * Every city takes a record of fixed layout in direct byte buffers, found by its city code through
+ * an index which is kept outside the heap too. Records keep the values of current weather, but not
+ * the raw response; of strings, only the city name (cut to {@value #MAX_CITY_NAME_BYTES} bytes of UTF-8),
+ * the country code, and the icon of the first weather condition are kept. Storing a city again
+ * replaces its record.
+ * </p>
+ * <p>
+ * Stored weather is read through {@link View}s, flyweights reading the values straight from the buffers.
+ * A view can be reused for many cities, so reading creates no objects at all. Values not available are
+ * given as per following basis:
+ * Integral: Minimum value (MIN_VALUE)
+ * Floating point: Not a number (NaN)
+ * Others: <code>null</code>
+ * </p>
+ * <p>
+ * Stores can be used by many threads. A view reads the record as it is at the time of each call,
+ * so values read while the city is being stored again may be a mix of old and new ones.
+ * </p>
+ * <p>
+ * <b>Sample code:</b><br>
+ * <code>CurrentWeatherStore store = new CurrentWeatherStore(5000000);</code><br>
+ * <code>store.put(owm.currentWeatherByCityCode(2643743));</code><br>
+ * <code>CurrentWeatherStore.View view = new CurrentWeatherStore.View();</code><br>
+ * <code>if (store.get(2643743, view)) { float temp = view.getTemperature(); }</code>
+ * </p>
+ *
+ * @author Ashutosh Kumar Singh
+ * @version 2026/10/18
+ * @since 2.5.0.6
+ */
+public class CurrentWeatherStore {
+    /**
+     * Maximum count of cities in a store
+     */
+    public static final int MAX_CAPACITY = 1 << 26;
+
+    /**
+     * Maximum length of stored city names, in bytes of UTF-8
+     */
+    public static final int MAX_CITY_NAME_BYTES = 37;
+
+    /*
+    Layout of records
+     */
+    private static final int CITY_CODE = 0;
+    private static final int DATE_TIME = 8;
+    private static final int SUNRISE = 16;
+    private static final int SUNSET = 24;
+    private static final int SYS_MESSAGE = 32;
+    private static final int RESPONSE_CODE = 40;
+    private static final int WEATHER_CODE = 44;
+    private static final int SYS_TYPE = 48;
+    private static final int SYS_ID = 52;
+    private static final int LATITUDE = 56;
+    private static final int LONGITUDE = 60;
+    private static final int TEMPERATURE = 64;
+    private static final int MIN_TEMPERATURE = 68;
+    private static final int MAX_TEMPERATURE = 72;
+    private static final int PRESSURE = 76;
+    private static final int HUMIDITY = 80;
+    private static final int WIND_SPEED = 84;
+    private static final int WIND_DEGREE = 88;
+    private static final int WIND_GUST = 92;
+    private static final int CLOUDS = 96;
+    private static final int RAIN_1H = 100;
+    private static final int RAIN_3H = 104;
+    private static final int SNOW_1H = 108;
+    private static final int SNOW_3H = 112;
+    private static final int COUNTRY_CODE = 116; // 2 bytes of ASCII, 0 if not available
+    private static final int ICON = 118; // 4 bytes of ASCII, padded with 0
+    private static final int CITY_NAME_LENGTH = 122; // -1 if not available
+    private static final int CITY_NAME = 123;
+    private static final int RECORD_SIZE = 160;
+
+    private static final int COUNTRY_CODE_LENGTH = 2;
+    private static final int ICON_LENGTH = 4;
+
+    /*
+    Records are split in slabs, as a buffer cannot be larger than 2 GB
+     */
+    private static final int RECORDS_PER_SLAB_SHIFT = 20;
+    private static final int RECORDS_PER_SLAB = 1 << RECORDS_PER_SLAB_SHIFT;
+
+    /*
+    Entries of the index: city code, and number of record plus one (0 for empty entries)
+     */
+    private static final int ENTRY_SIZE = 12;
+    private static final int ENTRIES_PER_SLAB_SHIFT = 24;
+    private static final int ENTRIES_PER_SLAB = 1 << ENTRIES_PER_SLAB_SHIFT;
+
+    private final int capacity;
+    private final ByteBuffer[] slabs;
+    private final ByteBuffer[] index;
+    private final int indexMask;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private int size;
+
+    /**
+     * Allocates the memory for all cities at once.
+     *
+     * @param capacity Maximum count of cities to be stored
+     * @throws IllegalArgumentException if capacity is less than 1 or more than {@link #MAX_CAPACITY}.
+     */
+    public CurrentWeatherStore(int capacity)
+            throws IllegalArgumentException {
+        if (capacity < 1 || capacity > MAX_CAPACITY) {
+            throw new IllegalArgumentException("Capacity must be from 1 to " + MAX_CAPACITY + ".");
+        }
+        this.capacity = capacity;
+
+        this.slabs = new ByteBuffer[((capacity - 1) >>> RECORDS_PER_SLAB_SHIFT) + 1];
+        for (int i = 0; i < slabs.length; i++) {
+            int records = Math.min(RECORDS_PER_SLAB, capacity - (i << RECORDS_PER_SLAB_SHIFT));
+            slabs[i] = ByteBuffer.allocateDirect(records * RECORD_SIZE).order(ByteOrder.nativeOrder());
+        }
+
+        int entries = Integer.highestOneBit(capacity * 2 - 1) << 1; // at least twice the capacity, so at most half full
+        this.indexMask = entries - 1;
+        this.index = new ByteBuffer[((entries - 1) >>> ENTRIES_PER_SLAB_SHIFT) + 1];
+        for (int i = 0; i < index.length; i++) {
+            int slabEntries = Math.min(ENTRIES_PER_SLAB, entries - (i << ENTRIES_PER_SLAB_SHIFT));
+            index[i] = ByteBuffer.allocateDirect(slabEntries * ENTRY_SIZE).order(ByteOrder.nativeOrder());
+        }
+    }
+
+    public int getCapacity() {
+        return this.capacity;
+    }
+
+    /**
+     * @return Count of cities stored.
+     */
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return this.size;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Stores current weather of a city, replacing the one stored before, if any.
+     *
+     * @param currentWeather Current weather, having city code
+     * @throws IllegalArgumentException if current weather is <code>null</code>, or has no city code.
+     * @throws IllegalStateException    if the city is not stored yet, and the store is full.
+     */
+    public void put(CurrentWeather currentWeather)
+            throws IllegalArgumentException, IllegalStateException {
+        if (currentWeather == null) {
+            throw new IllegalArgumentException("Current weather cannot be null.");
+        }
+        if (!currentWeather.hasCityCode()) {
+            throw new IllegalArgumentException("Current weather must have city code.");
+        }
+
+        long cityCode = currentWeather.getCityCode();
+        lock.writeLock().lock();
+        try {
+            int entry = findEntry(cityCode);
+            int record = entryRecord(entry) - 1;
+            if (record < 0) {
+                if (size == capacity) {
+                    throw new IllegalStateException("Store is full.");
+                }
+                record = size++;
+                ByteBuffer slab = index[entry >>> ENTRIES_PER_SLAB_SHIFT];
+                int offset = (entry & (ENTRIES_PER_SLAB - 1)) * ENTRY_SIZE;
+                slab.putLong(offset, cityCode);
+                slab.putInt(offset + 8, record + 1);
+            }
+            writeRecord(slabs[record >>> RECORDS_PER_SLAB_SHIFT],
+                    (record & (RECORDS_PER_SLAB - 1)) * RECORD_SIZE, currentWeather);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Points the view to the stored current weather of a city.
+     *
+     * @param cityCode Code of the city
+     * @param view     View to be pointed, left unchanged if city is not stored
+     * @return <code>true</code> if current weather of the city is stored, otherwise <code>false</code>.
+     */
+    public boolean get(long cityCode, View view) {
+        if (view == null) {
+            throw new IllegalArgumentException("View cannot be null.");
+        }
+
+        int record;
+        lock.readLock().lock();
+        try {
+            record = entryRecord(findEntry(cityCode)) - 1;
+        } finally {
+            lock.readLock().unlock();
+        }
+        if (record < 0) {
+            return false;
+        }
+        view.slab = slabs[record >>> RECORDS_PER_SLAB_SHIFT];
+        view.offset = (record & (RECORDS_PER_SLAB - 1)) * RECORD_SIZE;
+        return true;
+    }
+
+    /**
+     * @param cityCode Code of the city
+     * @return View of the stored current weather of the city if available, otherwise <code>null</code>.
+     */
+    public View get(long cityCode) {
+        View view = new View();
+        return get(cityCode, view) ? view : null;
+    }
+
+    public boolean contains(long cityCode) {
+        lock.readLock().lock();
+        try {
+            return entryRecord(findEntry(cityCode)) != 0;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Removes all cities; views pointed to them keep reading the old records until they are reused.
+     */
+    public void clear() {
+        lock.writeLock().lock();
+        try {
+            for (int i = 0; i < index.length; i++) {
+                ByteBuffer slab = index[i];
+                for (int offset = 8; offset < slab.capacity(); offset += ENTRY_SIZE) {
+                    slab.putInt(offset, 0);
+                }
+            }
+            size = 0;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * @return Entry of the city in the index if stored, otherwise the empty entry for it.
+     */
+    private int findEntry(long cityCode) {
+        long hash = cityCode * 0x9E3779B97F4A7C15L;
+        int entry = (int) (hash ^ (hash >>> 32)) & indexMask;
+        while (true) {
+            ByteBuffer slab = index[entry >>> ENTRIES_PER_SLAB_SHIFT];
+            int offset = (entry & (ENTRIES_PER_SLAB - 1)) * ENTRY_SIZE;
+            if (slab.getInt(offset + 8) == 0 || slab.getLong(offset) == cityCode) {
+                return entry;
+            }
+            entry = (entry + 1) & indexMask;
+        }
+    }
+
+    /**
+     * @return Number of record plus one, or 0 for empty entries.
+     */
+    private int entryRecord(int entry) {
+        return index[entry >>> ENTRIES_PER_SLAB_SHIFT].getInt((entry & (ENTRIES_PER_SLAB - 1)) * ENTRY_SIZE + 8);
+    }
+
+    private static void writeRecord(ByteBuffer slab, int offset, CurrentWeather weather) {
+        CurrentWeather.Coord coord = weather.getCoordInstance();
+        CurrentWeather.Main main = weather.getMainInstance();
+        CurrentWeather.Wind wind = weather.getWindInstance();
+        CurrentWeather.Clouds clouds = weather.getCloudsInstance();
+        CurrentWeather.Rain rain = weather.getRainInstance();
+        CurrentWeather.Snow snow = weather.getSnowInstance();
+        CurrentWeather.Sys sys = weather.getSysInstance();
+        AbstractWeather.Weather condition = weather.hasWeatherInstance() ? weather.getWeatherInstance(0) : null;
+
+        slab.putLong(offset + CITY_CODE, weather.getCityCode());
+        slab.putLong(offset + DATE_TIME, weather.getDateTimeEpochSecond());
+        slab.putLong(offset + SUNRISE, (sys != null) ? sys.getSunriseTimeEpochSecond() : Long.MIN_VALUE);
+        slab.putLong(offset + SUNSET, (sys != null) ? sys.getSunsetTimeEpochSecond() : Long.MIN_VALUE);
+        slab.putDouble(offset + SYS_MESSAGE, (sys != null) ? sys.getMessage() : Double.NaN);
+        slab.putInt(offset + RESPONSE_CODE, weather.getResponseCode());
+        slab.putInt(offset + WEATHER_CODE, (condition != null) ? condition.getWeatherCode() : Integer.MIN_VALUE);
+        slab.putInt(offset + SYS_TYPE, (sys != null) ? sys.getType() : Integer.MIN_VALUE);
+        slab.putInt(offset + SYS_ID, (sys != null) ? sys.getId() : Integer.MIN_VALUE);
+        slab.putFloat(offset + LATITUDE, (coord != null) ? coord.getLatitude() : Float.NaN);
+        slab.putFloat(offset + LONGITUDE, (coord != null) ? coord.getLongitude() : Float.NaN);
+        slab.putFloat(offset + TEMPERATURE, (main != null) ? main.getTemperature() : Float.NaN);
+        slab.putFloat(offset + MIN_TEMPERATURE, (main != null) ? main.getMinTemperature() : Float.NaN);
+        slab.putFloat(offset + MAX_TEMPERATURE, (main != null) ? main.getMaxTemperature() : Float.NaN);
+        slab.putFloat(offset + PRESSURE, (main != null) ? main.getPressure() : Float.NaN);
+        slab.putFloat(offset + HUMIDITY, (main != null) ? main.getHumidity() : Float.NaN);
+        slab.putFloat(offset + WIND_SPEED, (wind != null) ? wind.getWindSpeed() : Float.NaN);
+        slab.putFloat(offset + WIND_DEGREE, (wind != null) ? wind.getWindDegree() : Float.NaN);
+        slab.putFloat(offset + WIND_GUST, (wind != null) ? wind.getWindGust() : Float.NaN);
+        slab.putFloat(offset + CLOUDS, (clouds != null) ? clouds.getPercentageOfClouds() : Float.NaN);
+        slab.putFloat(offset + RAIN_1H, (rain != null) ? rain.getRain1h() : Float.NaN);
+        slab.putFloat(offset + RAIN_3H, (rain != null) ? rain.getRain3h() : Float.NaN);
+        slab.putFloat(offset + SNOW_1H, (snow != null) ? snow.getSnow1h() : Float.NaN);
+        slab.putFloat(offset + SNOW_3H, (snow != null) ? snow.getSnow3h() : Float.NaN);
+        writeAscii(slab, offset + COUNTRY_CODE, COUNTRY_CODE_LENGTH, (sys != null) ? sys.getCountryCode() : null);
+        writeAscii(slab, offset + ICON, ICON_LENGTH, (condition != null) ? condition.getWeatherIconName() : null);
+        writeCityName(slab, offset, weather.getCityName());
+    }
+
+    private static void writeAscii(ByteBuffer slab, int offset, int length, String value) {
+        if (value == null || value.length() > length) {
+            value = "";
+        }
+        for (int i = 0; i < length; i++) {
+            char c = (i < value.length()) ? value.charAt(i) : 0;
+            slab.put(offset + i, (c < 0x80) ? (byte) c : (byte) '?');
+        }
+    }
+
+    private static void writeCityName(ByteBuffer slab, int offset, String cityName) {
+        if (cityName == null) {
+            slab.put(offset + CITY_NAME_LENGTH, (byte) -1);
+            return;
+        }
+
+        byte[] bytes;
+        try {
+            bytes = cityName.getBytes("UTF-8");
+        } catch (UnsupportedEncodingException e) {
+            throw new IllegalStateException(e.getMessage()); // UTF-8 is always supported
+        }
+        int length = bytes.length;
+        if (length > MAX_CITY_NAME_BYTES) { // cut, but not in the middle of a character
+            length = MAX_CITY_NAME_BYTES;
+            while (length > 0 && (bytes[length] & 0xC0) == 0x80) {
+                length--;
+            }
+        }
+        slab.put(offset + CITY_NAME_LENGTH, (byte) length);
+        for (int i = 0; i < length; i++) {
+            slab.put(offset + CITY_NAME + i, bytes[i]);
+        }
+    }
+
+    /**
+     * <p>
+     * Reads stored current weather of a city, straight from the store's memory.
+     * A view is pointed to a city by {@link CurrentWeatherStore#get(long, View)}, and can be reused
+     * for other cities, but not by many threads at once.
+     * </p>
+     *
+     * @author Ashutosh Kumar Singh
+     * @version 2026/10/18
+     * @since 2.5.0.6
+     */
+    public static final class View {
+        private ByteBuffer slab;
+        private int offset;
+
+        /**
+         * Creates a view not pointed to any city yet.
+         */
+        public View() {
+        }
+
+        public long getCityCode() {
+            return slab.getLong(offset + CITY_CODE);
+        }
+
+        /**
+         * @return City name (maybe cut) if available, otherwise <code>null</code>.
+         */
+        public String getCityName() {
+            int length = slab.get(offset + CITY_NAME_LENGTH);
+            if (length < 0) {
+                return null;
+            }
+            byte[] bytes = new byte[length];
+            for (int i = 0; i < length; i++) {
+                bytes[i] = slab.get(offset + CITY_NAME + i);
+            }
+            return JsonIndex.decode(bytes, 0, length, false);
+        }
+
+        public String getCountryCode() {
+            return readAscii(COUNTRY_CODE, COUNTRY_CODE_LENGTH);
+        }
+
+        public int getResponseCode() {
+            return slab.getInt(offset + RESPONSE_CODE);
+        }
+
+        /**
+         * @return Date and time as seconds since the epoch if available, otherwise <code>Long.MIN_VALUE</code>.
+         */
+        public long getDateTimeEpochSecond() {
+            return slab.getLong(offset + DATE_TIME);
+        }
+
+        /**
+         * @return Code of the first weather condition if available, otherwise <code>Integer.MIN_VALUE</code>.
+         */
+        public int getWeatherCode() {
+            return slab.getInt(offset + WEATHER_CODE);
+        }
+
+        /**
+         * @return Icon's name of the first weather condition if available, otherwise <code>null</code>.
+         */
+        public String getWeatherIconName() {
+            return readAscii(ICON, ICON_LENGTH);
+        }
+
+        public float getLatitude() {
+            return slab.getFloat(offset + LATITUDE);
+        }
+
+        public float getLongitude() {
+            return slab.getFloat(offset + LONGITUDE);
+        }
+
+        public float getTemperature() {
+            return slab.getFloat(offset + TEMPERATURE);
+        }
+
+        public float getMinTemperature() {
+            return slab.getFloat(offset + MIN_TEMPERATURE);
+        }
+
+        public float getMaxTemperature() {
+            return slab.getFloat(offset + MAX_TEMPERATURE);
+        }
+
+        public float getPressure() {
+            return slab.getFloat(offset + PRESSURE);
+        }
+
+        public float getHumidity() {
+            return slab.getFloat(offset + HUMIDITY);
+        }
+
+        public float getWindSpeed() {
+            return slab.getFloat(offset + WIND_SPEED);
+        }
+
+        public float getWindDegree() {
+            return slab.getFloat(offset + WIND_DEGREE);
+        }
+
+        public float getWindGust() {
+            return slab.getFloat(offset + WIND_GUST);
+        }
+
+        public float getPercentageOfClouds() {
+            return slab.getFloat(offset + CLOUDS);
+        }
+
+        public float getRain1h() {
+            return slab.getFloat(offset + RAIN_1H);
+        }
+
+        public float getRain3h() {
+            return slab.getFloat(offset + RAIN_3H);
+        }
+
+        public float getSnow1h() {
+            return slab.getFloat(offset + SNOW_1H);
+        }
+
+        public float getSnow3h() {
+            return slab.getFloat(offset + SNOW_3H);
+        }
+
+        public int getSysType() {
+            return slab.getInt(offset + SYS_TYPE);
+        }
+
+        public int getSysId() {
+            return slab.getInt(offset + SYS_ID);
+        }
+
+        public double getSysMessage() {
+            return slab.getDouble(offset + SYS_MESSAGE);
+        }
+
+        public long getSunriseTimeEpochSecond() {
+            return slab.getLong(offset + SUNRISE);
+        }
+
+        public long getSunsetTimeEpochSecond() {
+            return slab.getLong(offset + SUNSET);
+        }
+
+        private String readAscii(int field, int length) {
+            char[] chars = new char[length];
+            int count = 0;
+            while (count < length && slab.get(offset + field + count) != 0) {
+                chars[count] = (char) slab.get(offset + field + count);
+                count++;
+            }
+            return (count > 0) ? new String(chars, 0, count) : null;
+        }
+    }
+}
@@ -22,13 +22,9 @@
 
 package net.aksingh.owmjapis;
 
-import org.json.JSONArray;
-import org.json.JSONObject;
-
+import java.io.IOException;
+import java.io.ObjectOutputStream;
 import java.io.Serializable;
-import java.util.ArrayList;
-import java.util.Collections;
-import java.util.List;
 
 /**
  * <p>
@@ -55,23 +51,64 @@ public class DailyForecast extends AbstractForecast {
     /*
     Instance variables
      */
-    private final List<Forecast> forecastList;
+    private final Forecast[] forecastList;
+
+    /*
+    Positions of forecasts in the response, for lazy decoding
+     */
+    private final transient JsonIndex json;
+    private final transient int[] forecastObjs;
 
     /*
     Constructors
      */
-    DailyForecast(JSONObject jsonObj) {
-        super(jsonObj);
-
-        JSONArray dataArray = (jsonObj != null) ? jsonObj.optJSONArray(JSON_FORECAST_LIST) : new JSONArray();
-        this.forecastList = (dataArray != null) ? new ArrayList<Forecast>(dataArray.length()) : Collections.EMPTY_LIST;
-        if (dataArray != null && this.forecastList != Collections.EMPTY_LIST) {
-            for (int i = 0; i < dataArray.length(); i++) {
-                JSONObject forecastObj = dataArray.optJSONObject(i);
-                if (forecastObj != null) {
-                    this.forecastList.add(new Forecast(forecastObj));
+    DailyForecast(JsonIndex json, int obj, boolean lazy, ParallelDecoder decoder) {
+        super(json, obj);
+
+        this.forecastObjs = json.objectElements(json.optArray(obj, JSON_FORECAST_LIST));
+        this.forecastList = new Forecast[forecastObjs.length];
+
+        this.json = lazy ? json : null;
+        if (!lazy) {
+            decodeForecasts(json, forecastObjs, forecastList, decoder);
+        }
+    }
+
+    DailyForecast(ModelCodec.Input in) throws IOException {
+        super(in);
+
+        this.forecastList = new Forecast[in.readCount()];
+        for (int i = 0; i < this.forecastList.length; i++) {
+            this.forecastList[i] = new Forecast(in);
+        }
+
+        this.json = null;
+        this.forecastObjs = null;
+    }
+
+    void write(ModelCodec.Output out) {
+        super.write(out);
+
+        out.writeCount(this.forecastList.length);
+        for (int i = 0; i < this.forecastList.length; i++) {
+            getForecastInstance(i).write(out);
+        }
+    }
+
+    private static void decodeForecasts(final JsonIndex json, final int[] objs, final Forecast[] forecasts,
+                                        ParallelDecoder decoder) {
+        ParallelDecoder.Task task = new ParallelDecoder.Task() {
+            public void decode(int from, int to) {
+                for (int i = from; i < to; i++) {
+                    forecasts[i] = new Forecast(json, objs[i], false);
                 }
             }
+        };
+
+        if (decoder != null) {
+            decoder.decode(forecasts.length, task);
+        } else {
+            task.decode(0, forecasts.length);
         }
     }
 
@@ -80,7 +117,22 @@ public class DailyForecast extends AbstractForecast {
      * @return Forecast instance if available, otherwise <code>null</code>.
      */
     public Forecast getForecastInstance(int index) {
-        return this.forecastList.get(index);
+        Forecast forecast = this.forecastList[index];
+        if (forecast == null) {
+            forecast = new Forecast(json, forecastObjs[index], true);
+            this.forecastList[index] = forecast;
+        }
+        return forecast;
+    }
+
+    /**
+     * Decodes forecasts not accessed yet, as the response is not serialized.
+     */
+    private void writeObject(ObjectOutputStream out) throws IOException {
+        for (int i = 0; i < forecastList.length; i++) {
+            getForecastInstance(i);
+        }
+        out.defaultWriteObject();
     }
 
     /**
@@ -124,7 +176,13 @@ public class DailyForecast extends AbstractForecast {
         private final float rain;
         private final float snow;
 
-        private final Temperature temp;
+        private Temperature temp;
+
+        /*
+        Position of temperature in the response, for lazy decoding
+         */
+        private final transient JsonIndex json;
+        private final int tempObj;
 
         /*
         Constructors
@@ -141,21 +199,61 @@ public class DailyForecast extends AbstractForecast {
             this.snow = Float.NaN;
 
             this.temp = new Temperature();
+            this.json = null;
+            this.tempObj = JsonIndex.ABSENT;
         }
 
-        Forecast(JSONObject jsonObj) {
-            super(jsonObj);
+        Forecast(JsonIndex json, int obj, boolean lazy) {
+            super(json, obj);
 
-            JSONObject jsonObjTemp = (jsonObj != null) ? jsonObj.optJSONObject(JSON_TEMP) : null;
-            this.temp = (jsonObjTemp != null) ? new Temperature(jsonObjTemp) : new Temperature();
+            this.tempObj = json.optObject(obj, JSON_TEMP);
+            this.json = lazy ? json : null;
+            if (!lazy || tempObj == JsonIndex.ABSENT) {
+                this.temp = (tempObj != JsonIndex.ABSENT) ? new Temperature(json, tempObj) : new Temperature();
+            }
+
+            this.humidity = (float) json.optDouble(obj, JSON_FORECAST_HUMIDITY, Double.NaN);
+            this.pressure = (float) json.optDouble(obj, JSON_FORECAST_PRESSURE, Double.NaN);
+            this.windSpeed = (float) json.optDouble(obj, JSON_FORECAST_WIND_SPEED, Double.NaN);
+            this.windDegree = (float) json.optDouble(obj, JSON_FORECAST_WIND_DEGREE, Double.NaN);
+            this.cloudsPercent = (float) json.optDouble(obj, JSON_FORECAST_CLOUDS, Double.NaN);
+            this.rain = (float) json.optDouble(obj, JSON_FORECAST_RAIN, Double.NaN);
+            this.snow = (float) json.optDouble(obj, JSON_FORECAST_SNOW, Double.NaN);
+        }
 
-            this.humidity = (jsonObj != null) ? (float) jsonObj.optDouble(JSON_FORECAST_HUMIDITY, Double.NaN) : Float.NaN;
-            this.pressure = (jsonObj != null) ? (float) jsonObj.optDouble(JSON_FORECAST_PRESSURE, Double.NaN) : Float.NaN;
-            this.windSpeed = (jsonObj != null) ? (float) jsonObj.optDouble(JSON_FORECAST_WIND_SPEED, Double.NaN) : Float.NaN;
-            this.windDegree = (jsonObj != null) ? (float) jsonObj.optDouble(JSON_FORECAST_WIND_DEGREE, Double.NaN) : Float.NaN;
-            this.cloudsPercent = (jsonObj != null) ? (float) jsonObj.optDouble(JSON_FORECAST_CLOUDS, Double.NaN) : Float.NaN;
-            this.rain = (jsonObj != null) ? (float) jsonObj.optDouble(JSON_FORECAST_RAIN, Double.NaN) : Float.NaN;
-            this.snow = (jsonObj != null) ? (float) jsonObj.optDouble(JSON_FORECAST_SNOW, Double.NaN) : Float.NaN;
+        Forecast(ModelCodec.Input in) throws IOException {
+            super(in);
+
+            in.begin(8);
+            this.pressure = in.readFloat();
+            this.humidity = in.readFloat();
+            this.windSpeed = in.readFloat();
+            this.windDegree = in.readFloat();
+            this.cloudsPercent = in.readFloat();
+            this.rain = in.readFloat();
+            this.snow = in.readFloat();
+            this.tempObj = in.readFlag() ? JsonIndex.DECODED : JsonIndex.ABSENT;
+            this.temp = (this.tempObj != JsonIndex.ABSENT) ? new Temperature(in) : new Temperature();
+            in.end();
+
+            this.json = null;
+        }
+
+        void write(ModelCodec.Output out) {
+            super.write(out);
+
+            out.begin(8);
+            out.writeFloat(this.pressure);
+            out.writeFloat(this.humidity);
+            out.writeFloat(this.windSpeed);
+            out.writeFloat(this.windDegree);
+            out.writeFloat(this.cloudsPercent);
+            out.writeFloat(this.rain);
+            out.writeFloat(this.snow);
+            if (out.writeFlag(this.tempObj != JsonIndex.ABSENT)) {
+                getTemperatureInstance().write(out);
+            }
+            out.end();
         }
 
         public boolean hasHumidity() {
@@ -215,7 +313,20 @@ public class DailyForecast extends AbstractForecast {
         }
 
         public Temperature getTemperatureInstance() {
-            return this.temp;
+            Temperature temp = this.temp;
+            if (temp == null) {
+                temp = new Temperature(json, tempObj);
+                this.temp = temp;
+            }
+            return temp;
+        }
+
+        /**
+         * Decodes temperature if not accessed yet, as the response is not serialized.
+         */
+        private void writeObject(ObjectOutputStream out) throws IOException {
+            getTemperatureInstance();
+            out.defaultWriteObject();
         }
 
         /**
@@ -258,13 +369,35 @@ public class DailyForecast extends AbstractForecast {
                 this.mornTemp = Float.NaN;
             }
 
-            Temperature(JSONObject jsonObj) {
-                this.dayTemp = (jsonObj != null) ? (float) jsonObj.optDouble(JSON_TEMP_DAY, Double.NaN) : Float.NaN;
-                this.minTemp = (jsonObj != null) ? (float) jsonObj.optDouble(JSON_TEMP_MIN, Double.NaN) : Float.NaN;
-                this.maxTemp = (jsonObj != null) ? (float) jsonObj.optDouble(JSON_TEMP_MAX, Double.NaN) : Float.NaN;
-                this.nightTemp = (jsonObj != null) ? (float) jsonObj.optDouble(JSON_TEMP_NIGHT, Double.NaN) : Float.NaN;
-                this.eveTemp = (jsonObj != null) ? (float) jsonObj.optDouble(JSON_TEMP_EVENING, Double.NaN) : Float.NaN;
-                this.mornTemp = (jsonObj != null) ? (float) jsonObj.optDouble(JSON_TEMP_MORNING, Double.NaN) : Float.NaN;
+            Temperature(JsonIndex json, int obj) {
+                this.dayTemp = (float) json.optDouble(obj, JSON_TEMP_DAY, Double.NaN);
+                this.minTemp = (float) json.optDouble(obj, JSON_TEMP_MIN, Double.NaN);
+                this.maxTemp = (float) json.optDouble(obj, JSON_TEMP_MAX, Double.NaN);
+                this.nightTemp = (float) json.optDouble(obj, JSON_TEMP_NIGHT, Double.NaN);
+                this.eveTemp = (float) json.optDouble(obj, JSON_TEMP_EVENING, Double.NaN);
+                this.mornTemp = (float) json.optDouble(obj, JSON_TEMP_MORNING, Double.NaN);
+            }
+
+            Temperature(ModelCodec.Input in) throws IOException {
+                in.begin(6);
+                this.dayTemp = in.readFloat();
+                this.minTemp = in.readFloat();
+                this.maxTemp = in.readFloat();
+                this.nightTemp = in.readFloat();
+                this.eveTemp = in.readFloat();
+                this.mornTemp = in.readFloat();
+                in.end();
+            }
+
+            void write(ModelCodec.Output out) {
+                out.begin(6);
+                out.writeFloat(this.dayTemp);
+                out.writeFloat(this.minTemp);
+                out.writeFloat(this.maxTemp);
+                out.writeFloat(this.nightTemp);
+                out.writeFloat(this.eveTemp);
+                out.writeFloat(this.mornTemp);
+                out.end();
             }
 
             public boolean hasDayTemperature() {
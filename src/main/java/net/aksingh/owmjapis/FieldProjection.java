@@ -0,0 +1,237 @@
+/*
+ * Copyright (c) 2013-2015 Ashutosh Kumar Singh <me@aksingh.net>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package net.aksingh.owmjapis;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * <p>
+ * Selects the fields of responses to be parsed; everything else is skipped without being decoded,
+ * and parsed objects report it as not available, i.e., their <code>has</code> methods give <code>false</code>.
+ * </p>
+ * <p>
+ * Fields are given as paths of JSON names from the root of a response, separated by dots, e.g.,
+ * <code>main.temp</code>. A path through an array applies to each of its elements, e.g.,
+ * <code>list.main.temp</code> for the temperature of every forecast, unless an element is
+ * chosen by its index, e.g., <code>weather[0].id</code>. Chosen elements are kept in order, so
+ * <code>list[3]</code> becomes the first (and only) forecast. A path ending at an object
+ * selects the whole object, e.g., <code>wind</code>.
+ * </p>
+ * <p>
+ * Response code (<code>cod</code>) and count of forecasts (<code>cnt</code>) are always parsed;
+ * the count is as given by the response, even if only a few forecasts are chosen.
+ * One projection can serve many kinds of responses, as paths not found in a response are ignored.
+ * </p>
+ * <p>
+ * <b>Sample code:</b><br>
+ * <code>owm.setFieldProjection(new FieldProjection("main.temp", "weather[0].id"));</code>
+ * </p>
+ *
+ * @author Ashutosh Kumar Singh
+ * @version 2026/10/18
+ * @see net.aksingh.owmjapis.OpenWeatherMap#setFieldProjection(FieldProjection)
+ * @since 2.5.0.6
+ */
+public class FieldProjection {
+    /*
+    Fields always parsed
+     */
+    private static final String[] ALWAYS_PARSED = {"cod", "cnt"};
+
+    /*
+    Instance variables
+     */
+    private final String[] fieldPaths;
+    private final Node root;
+
+    /**
+     * @param fieldPaths Paths of the fields to be parsed
+     * @throws IllegalArgumentException if a path is <code>null</code> or not valid.
+     */
+    public FieldProjection(String... fieldPaths)
+            throws IllegalArgumentException {
+        if (fieldPaths == null) {
+            throw new IllegalArgumentException("Field paths cannot be null.");
+        }
+
+        this.fieldPaths = fieldPaths.clone();
+        this.root = new Node();
+        for (int i = 0; i < ALWAYS_PARSED.length; i++) {
+            this.root.child(ALWAYS_PARSED[i]).whole = true;
+        }
+        for (int i = 0; i < this.fieldPaths.length; i++) {
+            add(this.fieldPaths[i]);
+        }
+        this.root.seal();
+    }
+
+    /**
+     * @return Paths of the fields to be parsed
+     */
+    public String[] getFieldPaths() {
+        return this.fieldPaths.clone();
+    }
+
+    Node getRoot() {
+        return this.root;
+    }
+
+    private void add(String fieldPath) {
+        if (fieldPath == null) {
+            throw new IllegalArgumentException("Field path cannot be null.");
+        }
+
+        Node node = this.root;
+        String[] names = fieldPath.split("\\.", -1);
+        int element = -1;
+        for (int i = 0; i < names.length; i++) {
+            String name = names[i];
+            element = -1;
+
+            int bracket = name.indexOf('[');
+            if (bracket >= 0) {
+                if (!name.endsWith("]")) {
+                    throw new IllegalArgumentException("Field path is not valid: " + fieldPath);
+                }
+                try {
+                    element = Integer.parseInt(name.substring(bracket + 1, name.length() - 1));
+                } catch (NumberFormatException e) {
+                    throw new IllegalArgumentException("Field path is not valid: " + fieldPath);
+                }
+                if (element < 0) {
+                    throw new IllegalArgumentException("Field path is not valid: " + fieldPath);
+                }
+                name = name.substring(0, bracket);
+            }
+            if (name.length() == 0) {
+                throw new IllegalArgumentException("Field path is not valid: " + fieldPath);
+            }
+
+            node = node.child(name);
+            node.addElement(element);
+        }
+        if (element >= 0) {
+            node.wholeElements = true; // the chosen elements, not the whole array
+        } else {
+            node.whole = true;
+        }
+    }
+
+    /**
+     * <p>
+     * Fields selected within one JSON value, i.e., members of an object or, for an array,
+     * members of its elements.
+     * </p>
+     */
+    static class Node {
+        private final List<String> nameList = new ArrayList<String>();
+        private final List<Node> childList = new ArrayList<Node>();
+        private final List<Integer> elementList = new ArrayList<Integer>();
+        private boolean allElements = false;
+        private boolean whole = false;
+        private boolean wholeElements = false;
+
+        private String[] names;
+        private Node[] children;
+        private int[] elements;
+
+        /**
+         * @param index Index of the member, given by {@link #find(JsonIndex, int)}
+         * @return Node of the member, or <code>null</code> if the member is selected as a whole.
+         */
+        Node member(int index) {
+            Node child = children[index];
+            return child.whole ? null : child;
+        }
+
+        /**
+         * @return Node of the elements of an array, or <code>null</code> if they are selected as a whole.
+         */
+        Node elements() {
+            return wholeElements ? null : this;
+        }
+
+        /**
+         * @return Index of the member with the given name token, or -1 if it is not selected.
+         */
+        int find(JsonIndex json, int nameToken) {
+            for (int i = 0; i < names.length; i++) {
+                if (json.nameEquals(nameToken, names[i])) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+
+        /**
+         * @return <code>true</code> if the element of an array, at the given index, is selected.
+         */
+        boolean isElementSelected(int index) {
+            if (elements == null) {
+                return true;
+            }
+            for (int i = 0; i < elements.length; i++) {
+                if (elements[i] == index) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        private Node child(String name) {
+            int index = nameList.indexOf(name);
+            if (index >= 0) {
+                return childList.get(index);
+            }
+            Node child = new Node();
+            nameList.add(name);
+            childList.add(child);
+            return child;
+        }
+
+        private void addElement(int element) {
+            if (element < 0) {
+                allElements = true;
+            } else if (!elementList.contains(element)) {
+                elementList.add(element);
+            }
+        }
+
+        private void seal() {
+            names = nameList.toArray(new String[nameList.size()]);
+            children = childList.toArray(new Node[childList.size()]);
+            if (allElements || elementList.isEmpty()) {
+                elements = null;
+            } else {
+                elements = new int[elementList.size()];
+                for (int i = 0; i < elements.length; i++) {
+                    elements[i] = elementList.get(i);
+                }
+            }
+            for (int i = 0; i < children.length; i++) {
+                children[i].seal();
+            }
+        }
+    }
+}
@@ -0,0 +1,125 @@
+/*
+ * Copyright (c) 2013-2015 Ashutosh Kumar Singh <me@aksingh.net>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package net.aksingh.owmjapis;
+
+/**
+ * <p>
+ * Shares instances of values which recur in many responses, i.e., weather conditions and strings like
+ * city names, country codes and date-time texts, so that objects kept for long (e.g., in caches)
+ * do not hold their own copies.
+ * </p>
+ * <p>
+ * Instances are looked up by the bytes of the response, so a hit decodes nothing and creates nothing.
+ * Tables have a fixed count of slots, and an instance missing from its slot simply replaces the one there,
+ * so memory held by the tables is bounded and lookups take no locks. As the shared instances are immutable,
+ * i.e., have only final fields, they are safe to be shared between threads without synchronization.
+ * </p>
+ *
+ * @author Ashutosh Kumar Singh
+ * @version 2026/10/18
+ * @since 2.5.0.6
+ */
+final class Flyweights {
+    private static final int STRING_SLOTS = 4096;
+    private static final int WEATHER_SLOTS = 2048;
+
+    private static final StringEntry[] strings = new StringEntry[STRING_SLOTS];
+    private static final WeatherEntry[] weathers = new WeatherEntry[WEATHER_SLOTS];
+
+    private Flyweights() {
+    }
+
+    /**
+     * @param token Position of a string in the response, not an absent one
+     * @return Shared string having the value of the token.
+     */
+    static String string(JsonIndex json, int token) {
+        int slot = slot(json.rawHash(token), STRING_SLOTS);
+        StringEntry entry = strings[slot];
+        if (entry != null && json.rawEquals(token, entry.raw)) {
+            return entry.value;
+        }
+
+        entry = new StringEntry(json.rawBytes(token), json.stringValue(token, null));
+        strings[slot] = entry;
+        return entry.value;
+    }
+
+    /**
+     * @param obj         Position of a weather condition in the response
+     * @param id          Code of the weather condition
+     * @param name        Position of its name, a string or absent
+     * @param description Position of its description, a string or absent
+     * @param icon        Position of its icon's name, a string or absent
+     * @return Shared weather condition having the values of the object.
+     */
+    static AbstractWeather.Weather weather(JsonIndex json, int obj, int id, int name, int description, int icon) {
+        int hash = id;
+        hash = 31 * hash + json.rawHash(name);
+        hash = 31 * hash + json.rawHash(description);
+        hash = 31 * hash + json.rawHash(icon);
+
+        int slot = slot(hash, WEATHER_SLOTS);
+        WeatherEntry entry = weathers[slot];
+        if (entry != null && entry.id == id && json.rawEquals(name, entry.name)
+                && json.rawEquals(description, entry.description) && json.rawEquals(icon, entry.icon)) {
+            return entry.weather;
+        }
+
+        entry = new WeatherEntry(id, json.rawBytes(name), json.rawBytes(description), json.rawBytes(icon),
+                new AbstractWeather.Weather(json, obj));
+        weathers[slot] = entry;
+        return entry.weather;
+    }
+
+    private static int slot(int hash, int slots) {
+        hash ^= (hash >>> 16);
+        return hash & (slots - 1);
+    }
+
+    private static final class StringEntry {
+        private final byte[] raw;
+        private final String value;
+
+        private StringEntry(byte[] raw, String value) {
+            this.raw = raw;
+            this.value = value;
+        }
+    }
+
+    private static final class WeatherEntry {
+        private final int id;
+        private final byte[] name;
+        private final byte[] description;
+        private final byte[] icon;
+        private final AbstractWeather.Weather weather;
+
+        private WeatherEntry(int id, byte[] name, byte[] description, byte[] icon, AbstractWeather.Weather weather) {
+            this.id = id;
+            this.name = name;
+            this.description = description;
+            this.icon = icon;
+            this.weather = weather;
+        }
+    }
+}
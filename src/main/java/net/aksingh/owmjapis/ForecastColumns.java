@@ -0,0 +1,235 @@
+/*
+ * Copyright (c) 2013-2015 Ashutosh Kumar Singh <me@aksingh.net>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package net.aksingh.owmjapis;
+
+/**
+ * <p>
+ * Columnar view of a forecast list: one primitive array per field, and one element per forecast,
+ * in the order of the forecast list. Decoded straight from the response, without creating any
+ * forecast objects, so it takes much less memory than the forecast list and is fast to be scanned by column.
+ * </p>
+ * <p>
+ * Fields of hourly and daily forecasts are mapped to the same columns; temperature is <code>main.temp</code>
+ * of hourly forecasts, and <code>temp.day</code> of daily ones. Rain and snow of hourly forecasts
+ * are the volumes of 3 hours.
+ * </p>
+ * <p>
+ * Values not available are given as per following basis:
+ * Integral: Minimum value (MIN_VALUE)
+ * Floating point: Not a number (NaN)
+ * </p>
+ * <p>
+ * Arrays are not copied, so they must not be modified.
+ * </p>
+ * <p>
+ * <b>Sample code:</b><br>
+ * <code>ForecastColumns columns = owm.hourlyForecastColumnsFromRawResponse(response);</code><br>
+ * <code>float[] temperatures = columns.getTemperatures();</code>
+ * </p>
+ *
+ * @author Ashutosh Kumar Singh
+ * @version 2026/10/18
+ * @see net.aksingh.owmjapis.OpenWeatherMap#hourlyForecastColumnsFromRawResponse(byte[])
+ * @see net.aksingh.owmjapis.OpenWeatherMap#dailyForecastColumnsFromRawResponse(byte[])
+ * @since 2.5.0.6
+ */
+public class ForecastColumns {
+    /*
+    JSON Keys
+     */
+    private static final String JSON_DATE_TIME = "dt";
+    private static final String JSON_WEATHER = "weather";
+    private static final String JSON_WEATHER_ID = "id";
+    private static final String JSON_TEMP = "temp";
+    private static final String JSON_TEMP_DAY = "day";
+    private static final String JSON_TEMP_MIN = "min";
+    private static final String JSON_TEMP_MAX = "max";
+    private static final String JSON_MAIN_TEMP_MIN = "temp_min";
+    private static final String JSON_MAIN_TEMP_MAX = "temp_max";
+    private static final String JSON_PRESSURE = "pressure";
+    private static final String JSON_HUMIDITY = "humidity";
+    private static final String JSON_WIND_SPEED = "speed";
+    private static final String JSON_WIND_DEGREE = "deg";
+    private static final String JSON_CLOUDS = "clouds";
+    private static final String JSON_CLOUDS_ALL = "all";
+    private static final String JSON_RAIN = "rain";
+    private static final String JSON_SNOW = "snow";
+    private static final String JSON_THREE_HOURS = "3h";
+
+    /*
+    Columns
+     */
+    private final int count;
+    private final long[] times;
+    private final int[] weatherCodes;
+    private final float[] temperatures;
+    private final float[] minTemperatures;
+    private final float[] maxTemperatures;
+    private final float[] pressures;
+    private final float[] humidities;
+    private final float[] windSpeeds;
+    private final float[] windDegrees;
+    private final float[] clouds;
+    private final float[] rains;
+    private final float[] snows;
+
+    private ForecastColumns(int count) {
+        this.count = count;
+        this.times = new long[count];
+        this.weatherCodes = new int[count];
+        this.temperatures = new float[count];
+        this.minTemperatures = new float[count];
+        this.maxTemperatures = new float[count];
+        this.pressures = new float[count];
+        this.humidities = new float[count];
+        this.windSpeeds = new float[count];
+        this.windDegrees = new float[count];
+        this.clouds = new float[count];
+        this.rains = new float[count];
+        this.snows = new float[count];
+    }
+
+    /**
+     * Decodes the forecast list of an hourly forecast response.
+     */
+    static ForecastColumns hourly(JsonIndex json, int obj) {
+        int[] objs = json.objectElements(json.optArray(obj, AbstractForecast.JSON_FORECAST_LIST));
+        ForecastColumns columns = new ForecastColumns(objs.length);
+        for (int i = 0; i < objs.length; i++) {
+            int forecast = objs[i];
+            int main = json.optObject(forecast, AbstractWeather.JSON_MAIN);
+            int wind = json.optObject(forecast, AbstractWeather.JSON_WIND);
+
+            columns.setCommon(i, json, forecast);
+            columns.temperatures[i] = (float) json.optDouble(main, JSON_TEMP, Double.NaN);
+            columns.minTemperatures[i] = (float) json.optDouble(main, JSON_MAIN_TEMP_MIN, Double.NaN);
+            columns.maxTemperatures[i] = (float) json.optDouble(main, JSON_MAIN_TEMP_MAX, Double.NaN);
+            columns.pressures[i] = (float) json.optDouble(main, JSON_PRESSURE, Double.NaN);
+            columns.humidities[i] = (float) json.optDouble(main, JSON_HUMIDITY, Double.NaN);
+            columns.windSpeeds[i] = (float) json.optDouble(wind, JSON_WIND_SPEED, Double.NaN);
+            columns.windDegrees[i] = (float) json.optDouble(wind, JSON_WIND_DEGREE, Double.NaN);
+            columns.clouds[i] = (float) json.optDouble(json.optObject(forecast, JSON_CLOUDS), JSON_CLOUDS_ALL, Double.NaN);
+            columns.rains[i] = (float) json.optDouble(json.optObject(forecast, JSON_RAIN), JSON_THREE_HOURS, Double.NaN);
+            columns.snows[i] = (float) json.optDouble(json.optObject(forecast, JSON_SNOW), JSON_THREE_HOURS, Double.NaN);
+        }
+        return columns;
+    }
+
+    /**
+     * Decodes the forecast list of a daily forecast response.
+     */
+    static ForecastColumns daily(JsonIndex json, int obj) {
+        int[] objs = json.objectElements(json.optArray(obj, AbstractForecast.JSON_FORECAST_LIST));
+        ForecastColumns columns = new ForecastColumns(objs.length);
+        for (int i = 0; i < objs.length; i++) {
+            int forecast = objs[i];
+            int temp = json.optObject(forecast, JSON_TEMP);
+
+            columns.setCommon(i, json, forecast);
+            columns.temperatures[i] = (float) json.optDouble(temp, JSON_TEMP_DAY, Double.NaN);
+            columns.minTemperatures[i] = (float) json.optDouble(temp, JSON_TEMP_MIN, Double.NaN);
+            columns.maxTemperatures[i] = (float) json.optDouble(temp, JSON_TEMP_MAX, Double.NaN);
+            columns.pressures[i] = (float) json.optDouble(forecast, JSON_PRESSURE, Double.NaN);
+            columns.humidities[i] = (float) json.optDouble(forecast, JSON_HUMIDITY, Double.NaN);
+            columns.windSpeeds[i] = (float) json.optDouble(forecast, JSON_WIND_SPEED, Double.NaN);
+            columns.windDegrees[i] = (float) json.optDouble(forecast, JSON_WIND_DEGREE, Double.NaN);
+            columns.clouds[i] = (float) json.optDouble(forecast, JSON_CLOUDS, Double.NaN);
+            columns.rains[i] = (float) json.optDouble(forecast, JSON_RAIN, Double.NaN);
+            columns.snows[i] = (float) json.optDouble(forecast, JSON_SNOW, Double.NaN);
+        }
+        return columns;
+    }
+
+    private void setCommon(int i, JsonIndex json, int forecast) {
+        this.times[i] = json.optLong(forecast, JSON_DATE_TIME, Long.MIN_VALUE);
+
+        int weather = json.optArray(forecast, JSON_WEATHER);
+        int first = json.firstElement(weather);
+        this.weatherCodes[i] = (first != JsonIndex.ABSENT)
+                ? json.optInt(first, JSON_WEATHER_ID, Integer.MIN_VALUE) : Integer.MIN_VALUE;
+    }
+
+    /**
+     * @return Count of forecasts, i.e., length of every column.
+     */
+    public int getCount() {
+        return this.count;
+    }
+
+    /**
+     * @return Date and time of forecasts as seconds since the epoch.
+     */
+    public long[] getTimes() {
+        return this.times;
+    }
+
+    /**
+     * @return Codes of the first weather condition of forecasts.
+     */
+    public int[] getWeatherCodes() {
+        return this.weatherCodes;
+    }
+
+    public float[] getTemperatures() {
+        return this.temperatures;
+    }
+
+    public float[] getMinTemperatures() {
+        return this.minTemperatures;
+    }
+
+    public float[] getMaxTemperatures() {
+        return this.maxTemperatures;
+    }
+
+    public float[] getPressures() {
+        return this.pressures;
+    }
+
+    public float[] getHumidities() {
+        return this.humidities;
+    }
+
+    public float[] getWindSpeeds() {
+        return this.windSpeeds;
+    }
+
+    public float[] getWindDegrees() {
+        return this.windDegrees;
+    }
+
+    /**
+     * @return Percentages of clouds.
+     */
+    public float[] getClouds() {
+        return this.clouds;
+    }
+
+    public float[] getRains() {
+        return this.rains;
+    }
+
+    public float[] getSnows() {
+        return this.snows;
+    }
+}
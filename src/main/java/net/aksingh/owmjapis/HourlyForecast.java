@@ -22,13 +22,9 @@
 
 package net.aksingh.owmjapis;
 
-import org.json.JSONArray;
-import org.json.JSONObject;
-
+import java.io.IOException;
+import java.io.ObjectOutputStream;
 import java.io.Serializable;
-import java.util.ArrayList;
-import java.util.Collections;
-import java.util.List;
 
 /**
  * <p>
@@ -55,23 +51,64 @@ public class HourlyForecast extends AbstractForecast {
     /*
     Instance variables
      */
-    private final List<Forecast> forecastList;
+    private final Forecast[] forecastList;
+
+    /*
+    Positions of forecasts in the response, for lazy decoding
+     */
+    private final transient JsonIndex json;
+    private final transient int[] forecastObjs;
 
     /*
     Constructor
      */
-    HourlyForecast(JSONObject jsonObj) {
-        super(jsonObj);
-
-        JSONArray forecastArr = (jsonObj != null) ? jsonObj.optJSONArray(this.JSON_FORECAST_LIST) : new JSONArray();
-        this.forecastList = (forecastArr != null) ? new ArrayList<Forecast>(forecastArr.length()) : Collections.EMPTY_LIST;
-        if (forecastArr != null && this.forecastList != Collections.EMPTY_LIST) {
-            for (int i = 0; i < forecastArr.length(); i++) {
-                JSONObject forecastObj = forecastArr.optJSONObject(i);
-                if (forecastObj != null) {
-                    this.forecastList.add(new Forecast(forecastObj));
+    HourlyForecast(JsonIndex json, int obj, boolean lazy, ParallelDecoder decoder) {
+        super(json, obj);
+
+        this.forecastObjs = json.objectElements(json.optArray(obj, this.JSON_FORECAST_LIST));
+        this.forecastList = new Forecast[forecastObjs.length];
+
+        this.json = lazy ? json : null;
+        if (!lazy) {
+            decodeForecasts(json, forecastObjs, forecastList, decoder);
+        }
+    }
+
+    HourlyForecast(ModelCodec.Input in) throws IOException {
+        super(in);
+
+        this.forecastList = new Forecast[in.readCount()];
+        for (int i = 0; i < this.forecastList.length; i++) {
+            this.forecastList[i] = new Forecast(in);
+        }
+
+        this.json = null;
+        this.forecastObjs = null;
+    }
+
+    void write(ModelCodec.Output out) {
+        super.write(out);
+
+        out.writeCount(this.forecastList.length);
+        for (int i = 0; i < this.forecastList.length; i++) {
+            getForecastInstance(i).write(out);
+        }
+    }
+
+    private static void decodeForecasts(final JsonIndex json, final int[] objs, final Forecast[] forecasts,
+                                        ParallelDecoder decoder) {
+        ParallelDecoder.Task task = new ParallelDecoder.Task() {
+            public void decode(int from, int to) {
+                for (int i = from; i < to; i++) {
+                    forecasts[i] = new Forecast(json, objs[i], false);
                 }
             }
+        };
+
+        if (decoder != null) {
+            decoder.decode(forecasts.length, task);
+        } else {
+            task.decode(0, forecasts.length);
         }
     }
 
@@ -80,7 +117,22 @@ public class HourlyForecast extends AbstractForecast {
      * @return Forecast instance if available, otherwise <code>null</code>.
      */
     public Forecast getForecastInstance(int index) {
-        return this.forecastList.get(index);
+        Forecast forecast = this.forecastList[index];
+        if (forecast == null) {
+            forecast = new Forecast(json, forecastObjs[index], true);
+            this.forecastList[index] = forecast;
+        }
+        return forecast;
+    }
+
+    /**
+     * Decodes forecasts not accessed yet, as the response is not serialized.
+     */
+    private void writeObject(ObjectOutputStream out) throws IOException {
+        for (int i = 0; i < forecastList.length; i++) {
+            getForecastInstance(i);
+        }
+        out.defaultWriteObject();
     }
 
     /**
@@ -111,30 +163,78 @@ public class HourlyForecast extends AbstractForecast {
          */
         private final String dateTimeText;
 
-        private final Clouds clouds;
-        private final Main main;
-        private final Sys sys;
-        private final Wind wind;
+        private Clouds clouds;
+        private Main main;
+        private Sys sys;
+        private Wind wind;
 
         /*
-        Constructor
+        Positions of nested instances in the response, for lazy decoding
          */
-        Forecast(JSONObject jsonObj) {
-            super(jsonObj);
-
-            this.dateTimeText = (jsonObj != null) ? jsonObj.optString(JSON_DT_TEXT, null) : null;
+        private final transient JsonIndex json;
+        private final int cloudsObj;
+        private final int mainObj;
+        private final int sysObj;
+        private final int windObj;
 
-            JSONObject jsonObjClouds = (jsonObj != null) ? jsonObj.optJSONObject(JSON_CLOUDS) : null;
-            this.clouds = (jsonObjClouds != null) ? new Clouds(jsonObjClouds) : null;
+        /*
+        Constructor
+         */
+        Forecast(JsonIndex json, int obj, boolean lazy) {
+            super(json, obj);
+
+            this.dateTimeText = json.optSharedString(obj, JSON_DT_TEXT, null);
+
+            this.cloudsObj = json.optObject(obj, JSON_CLOUDS);
+            this.mainObj = json.optObject(obj, JSON_MAIN);
+            this.sysObj = json.optObject(obj, JSON_SYS);
+            this.windObj = json.optObject(obj, JSON_WIND);
+
+            this.json = lazy ? json : null;
+            if (!lazy) {
+                this.clouds = (cloudsObj != JsonIndex.ABSENT) ? new Clouds(json, cloudsObj) : null;
+                this.main = (mainObj != JsonIndex.ABSENT) ? new Main(json, mainObj) : null;
+                this.sys = (sysObj != JsonIndex.ABSENT) ? new Sys(json, sysObj) : null;
+                this.wind = (windObj != JsonIndex.ABSENT) ? new Wind(json, windObj) : null;
+            }
+        }
 
-            JSONObject jsonObjMain = (jsonObj != null) ? jsonObj.optJSONObject(JSON_MAIN) : null;
-            this.main = (jsonObjMain != null) ? new Main(jsonObjMain) : null;
+        Forecast(ModelCodec.Input in) throws IOException {
+            super(in);
+
+            in.begin(5);
+            this.dateTimeText = in.readString();
+            this.clouds = in.readFlag() ? new Clouds(in) : null;
+            this.main = in.readFlag() ? new Main(in) : null;
+            this.sys = in.readFlag() ? new Sys(in) : null;
+            this.wind = in.readFlag() ? new Wind(in) : null;
+            in.end();
+
+            this.json = null;
+            this.cloudsObj = (this.clouds != null) ? JsonIndex.DECODED : JsonIndex.ABSENT;
+            this.mainObj = (this.main != null) ? JsonIndex.DECODED : JsonIndex.ABSENT;
+            this.sysObj = (this.sys != null) ? JsonIndex.DECODED : JsonIndex.ABSENT;
+            this.windObj = (this.wind != null) ? JsonIndex.DECODED : JsonIndex.ABSENT;
+        }
 
-            JSONObject jsonObjSys = (jsonObj != null) ? jsonObj.optJSONObject(JSON_SYS) : null;
-            this.sys = (jsonObjSys != null) ? new Sys(jsonObjSys) : null;
+        void write(ModelCodec.Output out) {
+            super.write(out);
 
-            JSONObject jsonObjWind = (jsonObj != null) ? jsonObj.optJSONObject(JSON_WIND) : null;
-            this.wind = (jsonObjWind != null) ? new Wind(jsonObjWind) : null;
+            out.begin(5);
+            out.writeString(this.dateTimeText);
+            if (out.writeFlag(hasCloudsInstance())) {
+                getCloudsInstance().write(out);
+            }
+            if (out.writeFlag(hasMainInstance())) {
+                getMainInstance().write(out);
+            }
+            if (out.writeFlag(hasSysInstance())) {
+                getSysInstance().write(out);
+            }
+            if (out.writeFlag(hasWindInstance())) {
+                getWindInstance().write(out);
+            }
+            out.end();
         }
 
         public boolean hasDateTimeText() {
@@ -145,28 +245,28 @@ public class HourlyForecast extends AbstractForecast {
          * @return <code>true</code> if Clouds instance is available, otherwise <code>false</code>.
          */
         public boolean hasCloudsInstance() {
-            return clouds != null;
+            return cloudsObj != JsonIndex.ABSENT;
         }
 
         /**
          * @return <code>true</code> if Main instance is available, otherwise <code>false</code>.
          */
         public boolean hasMainInstance() {
-            return main != null;
+            return mainObj != JsonIndex.ABSENT;
         }
 
         /**
          * @return <code>true</code> if Sys instance is available, otherwise <code>false</code>.
          */
         public boolean hasSysInstance() {
-            return sys != null;
+            return sysObj != JsonIndex.ABSENT;
         }
 
         /**
          * @return <code>true</code> if Wind instance is available, otherwise <code>false</code>.
          */
         public boolean hasWindInstance() {
-            return wind != null;
+            return windObj != JsonIndex.ABSENT;
         }
 
         public String getDateTimeText() {
@@ -177,28 +277,59 @@ public class HourlyForecast extends AbstractForecast {
          * @return Clouds instance if available, otherwise <code>null</code>.
          */
         public Clouds getCloudsInstance() {
-            return this.clouds;
+            Clouds clouds = this.clouds;
+            if (clouds == null && cloudsObj != JsonIndex.ABSENT) {
+                clouds = new Clouds(json, cloudsObj);
+                this.clouds = clouds;
+            }
+            return clouds;
         }
 
         /**
          * @return Main instance if available, otherwise <code>null</code>.
          */
         public Main getMainInstance() {
-            return this.main;
+            Main main = this.main;
+            if (main == null && mainObj != JsonIndex.ABSENT) {
+                main = new Main(json, mainObj);
+                this.main = main;
+            }
+            return main;
         }
 
         /**
          * @return Sys instance if available, otherwise <code>null</code>.
          */
         public Sys getSysInstance() {
-            return this.sys;
+            Sys sys = this.sys;
+            if (sys == null && sysObj != JsonIndex.ABSENT) {
+                sys = new Sys(json, sysObj);
+                this.sys = sys;
+            }
+            return sys;
         }
 
         /**
          * @return Wind instance if available, otherwise <code>null</code>.
          */
         public Wind getWindInstance() {
-            return this.wind;
+            Wind wind = this.wind;
+            if (wind == null && windObj != JsonIndex.ABSENT) {
+                wind = new Wind(json, windObj);
+                this.wind = wind;
+            }
+            return wind;
+        }
+
+        /**
+         * Decodes nested instances not accessed yet, as the response is not serialized.
+         */
+        private void writeObject(ObjectOutputStream out) throws IOException {
+            getCloudsInstance();
+            getMainInstance();
+            getSysInstance();
+            getWindInstance();
+            out.defaultWriteObject();
         }
 
         /**
@@ -227,8 +358,12 @@ public class HourlyForecast extends AbstractForecast {
                 super();
             }
 
-            Clouds(JSONObject jsonObj) {
-                super(jsonObj);
+            Clouds(JsonIndex json, int obj) {
+                super(json, obj);
+            }
+
+            Clouds(ModelCodec.Input in) throws IOException {
+                super(in);
             }
         }
 
@@ -269,12 +404,32 @@ public class HourlyForecast extends AbstractForecast {
                 this.tempKF = Float.NaN;
             }
 
-            Main(JSONObject jsonObj) {
-                super(jsonObj);
+            Main(JsonIndex json, int obj) {
+                super(json, obj);
+
+                this.seaLevel = (float) json.optDouble(obj, JSON_MAIN_SEA_LEVEL, Float.NaN);
+                this.groundLevel = (float) json.optDouble(obj, JSON_MAIN_GRND_LEVEL, Float.NaN);
+                this.tempKF = (float) json.optDouble(obj, JSON_MAIN_TMP_KF, Float.NaN);
+            }
+
+            Main(ModelCodec.Input in) throws IOException {
+                super(in);
+
+                in.begin(3);
+                this.seaLevel = in.readFloat();
+                this.groundLevel = in.readFloat();
+                this.tempKF = in.readFloat();
+                in.end();
+            }
+
+            void write(ModelCodec.Output out) {
+                super.write(out);
 
-                this.seaLevel = (jsonObj != null) ? (float) jsonObj.optDouble(JSON_MAIN_SEA_LEVEL, Float.NaN) : Float.NaN;
-                this.groundLevel = (jsonObj != null) ? (float) jsonObj.optDouble(JSON_MAIN_GRND_LEVEL, Float.NaN) : Float.NaN;
-                this.tempKF = (jsonObj != null) ? (float) jsonObj.optDouble(JSON_MAIN_TMP_KF, Float.NaN) : Float.NaN;
+                out.begin(3);
+                out.writeFloat(this.seaLevel);
+                out.writeFloat(this.groundLevel);
+                out.writeFloat(this.tempKF);
+                out.end();
             }
 
             public boolean hasSeaLevel() {
@@ -331,8 +486,20 @@ public class HourlyForecast extends AbstractForecast {
                 this.pod = null;
             }
 
-            Sys(JSONObject jsonObj) {
-                this.pod = (jsonObj != null) ? jsonObj.optString(JSON_SYS_POD, null) : null;
+            Sys(JsonIndex json, int obj) {
+                this.pod = json.optSharedString(obj, JSON_SYS_POD, null);
+            }
+
+            Sys(ModelCodec.Input in) throws IOException {
+                in.begin(1);
+                this.pod = in.readString();
+                in.end();
+            }
+
+            void write(ModelCodec.Output out) {
+                out.begin(1);
+                out.writeString(this.pod);
+                out.end();
             }
 
             public boolean hasPod() {
@@ -370,8 +537,12 @@ public class HourlyForecast extends AbstractForecast {
                 super();
             }
 
-            Wind(JSONObject jsonObj) {
-                super(jsonObj);
+            Wind(JsonIndex json, int obj) {
+                super(json, obj);
+            }
+
+            Wind(ModelCodec.Input in) throws IOException {
+                super(in);
             }
         }
     }
@@ -0,0 +1,408 @@
+/*
+ * Copyright (c) 2013-2015 Ashutosh Kumar Singh <me@aksingh.net>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package net.aksingh.owmjapis;
+
+import java.io.IOException;
+import java.io.UnsupportedEncodingException;
+import java.nio.ByteBuffer;
+
+/**
+ * <p>
+ * Parses an HTTP/1.1 response incrementally, straight from the buffers it is read into.
+ * </p>
+ * <p>
+ * Bytes are fed with {@link #parse(java.nio.ByteBuffer)} as they arrive; the status line and headers are
+ * scanned byte by byte (only the values of interesting headers become objects), and the body is collected
+ * into a growable array of at most 64 MiB, with chunked transfer coding removed.
+ * </p>
+ *
+ * @author Ashutosh Kumar Singh
+ * @version 2026/10/18
+ * @since 2.5.0.6
+ */
+class HttpResponseParser {
+    private static final int MAX_LINE_LENGTH = 8192;
+    private static final int INITIAL_BODY_CAPACITY = 4096;
+    private static final int MAX_BODY_LENGTH = 64 * 1024 * 1024; // far above any response of OWM.org
+
+    private static final byte[] CONTENT_LENGTH = ascii("content-length");
+    private static final byte[] TRANSFER_ENCODING = ascii("transfer-encoding");
+    private static final byte[] CONTENT_ENCODING = ascii("content-encoding");
+    private static final byte[] CONNECTION = ascii("connection");
+    private static final byte[] CHUNKED = ascii("chunked");
+    private static final byte[] CLOSE = ascii("close");
+    private static final byte[] KEEP_ALIVE = ascii("keep-alive");
+
+    /*
+    States
+     */
+    private static final int STATUS_LINE = 0;
+    private static final int HEADER_LINE = 1;
+    private static final int FIXED_BODY = 2;
+    private static final int CHUNK_SIZE_LINE = 3;
+    private static final int CHUNK_DATA = 4;
+    private static final int CHUNK_DATA_END = 5;
+    private static final int TRAILER_LINE = 6;
+    private static final int BODY_UNTIL_CLOSE = 7;
+    private static final int DONE = 8;
+
+    private final byte[] line = new byte[MAX_LINE_LENGTH];
+    private int lineLength;
+
+    private int state = STATUS_LINE;
+    private long remaining;
+
+    private int responseCode;
+    private boolean http10;
+    private String contentEncoding;
+    private long contentLength;
+    private boolean chunked;
+    private boolean keepAlive;
+
+    private byte[] body = new byte[INITIAL_BODY_CAPACITY];
+    private int bodyLength;
+
+    HttpResponseParser() {
+        resetHead();
+    }
+
+    /**
+     * Consumes bytes from the buffer, up to the end of the response.
+     *
+     * @param buffer Buffer in read mode; bytes after the end of the response are left in it
+     * @return <code>true</code> if the response is complete, otherwise <code>false</code>.
+     * @throws IOException if the response is malformed.
+     */
+    boolean parse(ByteBuffer buffer) throws IOException {
+        while (state != DONE && buffer.hasRemaining()) {
+            switch (state) {
+                case STATUS_LINE:
+                case HEADER_LINE:
+                case CHUNK_SIZE_LINE:
+                case CHUNK_DATA_END:
+                case TRAILER_LINE:
+                    if (readLine(buffer)) {
+                        onLine();
+                    }
+                    break;
+                case FIXED_BODY:
+                case CHUNK_DATA:
+                    int count = (int) Math.min(buffer.remaining(), remaining);
+                    appendBody(buffer, count);
+                    remaining -= count;
+                    if (remaining == 0) {
+                        state = (state == FIXED_BODY) ? DONE : CHUNK_DATA_END;
+                    }
+                    break;
+                case BODY_UNTIL_CLOSE:
+                    appendBody(buffer, buffer.remaining());
+                    break;
+                default:
+                    throw new IllegalStateException("Unknown state " + state);
+            }
+        }
+        return state == DONE;
+    }
+
+    /**
+     * Tells the parser that the connection reached its end.
+     *
+     * @return <code>true</code> if the response is complete, otherwise <code>false</code>.
+     */
+    boolean endOfInput() {
+        if (state == BODY_UNTIL_CLOSE) {
+            state = DONE;
+        }
+        return state == DONE;
+    }
+
+    /**
+     * @return <code>true</code> if no byte of the response has been consumed yet, otherwise <code>false</code>.
+     */
+    boolean isUntouched() {
+        return state == STATUS_LINE && lineLength == 0;
+    }
+
+    int getResponseCode() {
+        return this.responseCode;
+    }
+
+    String getContentEncoding() {
+        return this.contentEncoding;
+    }
+
+    /**
+     * @return <code>true</code> if the connection can carry another request after this response.
+     */
+    boolean isKeepAlive() {
+        return this.keepAlive && state == DONE;
+    }
+
+    byte[] getBody() {
+        return this.body;
+    }
+
+    int getBodyLength() {
+        return this.bodyLength;
+    }
+
+    private boolean readLine(ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            byte b = buffer.get();
+            if (b == '\n') {
+                if (lineLength > 0 && line[lineLength - 1] == '\r') {
+                    lineLength--;
+                }
+                return true;
+            }
+            if (lineLength == MAX_LINE_LENGTH) {
+                throw new IOException("Line too long in HTTP response");
+            }
+            line[lineLength++] = b;
+        }
+        return false;
+    }
+
+    private void onLine() throws IOException {
+        switch (state) {
+            case STATUS_LINE:
+                onStatusLine();
+                state = HEADER_LINE;
+                break;
+            case HEADER_LINE:
+                if (lineLength > 0) {
+                    onHeaderLine();
+                } else {
+                    onEndOfHead();
+                }
+                break;
+            case CHUNK_SIZE_LINE:
+                remaining = parseChunkSize();
+                state = (remaining == 0) ? TRAILER_LINE : CHUNK_DATA;
+                break;
+            case CHUNK_DATA_END:
+                state = CHUNK_SIZE_LINE;
+                break;
+            case TRAILER_LINE:
+                if (lineLength == 0) {
+                    state = DONE;
+                }
+                break;
+            default:
+                throw new IllegalStateException("Unknown state " + state);
+        }
+        lineLength = 0;
+    }
+
+    private void onStatusLine() throws IOException {
+        // HTTP/1.x SP 3DIGIT SP reason
+        if (lineLength < 12 || line[0] != 'H' || line[1] != 'T' || line[2] != 'T' || line[3] != 'P'
+                || line[4] != '/' || line[8] != ' ') {
+            throw new IOException("Malformed status line: " + lineToString(0, lineLength));
+        }
+
+        int code = 0;
+        for (int i = 9; i < 12; i++) {
+            int digit = line[i] - '0';
+            if (digit < 0 || digit > 9) {
+                throw new IOException("Malformed status line: " + lineToString(0, lineLength));
+            }
+            code = code * 10 + digit;
+        }
+
+        this.responseCode = code;
+        this.http10 = line[5] == '1' && line[7] == '0';
+        this.keepAlive = !http10;
+    }
+
+    private void onHeaderLine() throws IOException {
+        int colon = indexOf((byte) ':', 0);
+        if (colon <= 0) {
+            return;
+        }
+
+        int valueStart = colon + 1;
+        while (valueStart < lineLength && (line[valueStart] == ' ' || line[valueStart] == '\t')) {
+            valueStart++;
+        }
+        int valueEnd = lineLength;
+        while (valueEnd > valueStart && (line[valueEnd - 1] == ' ' || line[valueEnd - 1] == '\t')) {
+            valueEnd--;
+        }
+
+        if (regionEquals(0, colon, CONTENT_LENGTH)) {
+            if (valueStart == valueEnd) {
+                throw new IOException("Malformed Content-Length: " + lineToString(valueStart, valueEnd));
+            }
+            long length = 0;
+            for (int i = valueStart; i < valueEnd; i++) {
+                int digit = line[i] - '0';
+                if (digit < 0 || digit > 9) {
+                    throw new IOException("Malformed Content-Length: " + lineToString(valueStart, valueEnd));
+                }
+                length = length * 10 + digit;
+                if (length > MAX_BODY_LENGTH) { // checked on every digit, so that it cannot overflow
+                    throw new IOException("Response body too large, Content-Length: "
+                            + lineToString(valueStart, valueEnd));
+                }
+            }
+            this.contentLength = length;
+        } else if (regionEquals(0, colon, TRANSFER_ENCODING)) {
+            this.chunked = regionContains(valueStart, valueEnd, CHUNKED);
+        } else if (regionEquals(0, colon, CONTENT_ENCODING)) {
+            this.contentEncoding = lineToString(valueStart, valueEnd);
+        } else if (regionEquals(0, colon, CONNECTION)) {
+            if (regionEquals(valueStart, valueEnd, CLOSE)) {
+                this.keepAlive = false;
+            } else if (regionEquals(valueStart, valueEnd, KEEP_ALIVE)) {
+                this.keepAlive = true;
+            }
+        }
+    }
+
+    private void onEndOfHead() {
+        if (responseCode >= 100 && responseCode < 200) {
+            // interim response, the real one follows
+            resetHead();
+            state = STATUS_LINE;
+        } else if (responseCode == 204 || responseCode == 304) {
+            state = DONE;
+        } else if (chunked) {
+            state = CHUNK_SIZE_LINE;
+        } else if (contentLength >= 0) {
+            remaining = contentLength;
+            state = (remaining == 0) ? DONE : FIXED_BODY;
+        } else {
+            keepAlive = false;
+            state = BODY_UNTIL_CLOSE;
+        }
+    }
+
+    private long parseChunkSize() throws IOException {
+        long size = 0;
+        int digits = 0;
+        for (int i = 0; i < lineLength; i++) {
+            int b = line[i];
+            int digit;
+            if (b >= '0' && b <= '9') {
+                digit = b - '0';
+            } else if (b >= 'a' && b <= 'f') {
+                digit = b - 'a' + 10;
+            } else if (b >= 'A' && b <= 'F') {
+                digit = b - 'A' + 10;
+            } else if (b == ';' || b == ' ' || b == '\t') {
+                break; // chunk extension
+            } else {
+                throw new IOException("Malformed chunk size: " + lineToString(0, lineLength));
+            }
+            size = (size << 4) | digit;
+            digits++;
+        }
+        if (digits == 0 || digits > 15) {
+            throw new IOException("Malformed chunk size: " + lineToString(0, lineLength));
+        }
+        if (size > MAX_BODY_LENGTH - bodyLength) {
+            throw new IOException("Response body too large, more than " + MAX_BODY_LENGTH + " bytes");
+        }
+        return size;
+    }
+
+    private void appendBody(ByteBuffer buffer, int count) throws IOException {
+        if (count > MAX_BODY_LENGTH - bodyLength) {
+            throw new IOException("Response body too large, more than " + MAX_BODY_LENGTH + " bytes");
+        }
+        if (bodyLength + count > body.length) {
+            int capacity = body.length;
+            while (capacity < bodyLength + count) {
+                capacity <<= 1; // at most twice MAX_BODY_LENGTH, so it cannot overflow
+            }
+            byte[] grown = new byte[capacity];
+            System.arraycopy(body, 0, grown, 0, bodyLength);
+            body = grown;
+        }
+        buffer.get(body, bodyLength, count);
+        bodyLength += count;
+    }
+
+    private void resetHead() {
+        this.responseCode = 0;
+        this.http10 = false;
+        this.contentEncoding = null;
+        this.contentLength = -1;
+        this.chunked = false;
+        this.keepAlive = false;
+    }
+
+    private int indexOf(byte b, int from) {
+        for (int i = from; i < lineLength; i++) {
+            if (line[i] == b) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Compares ignoring case; <code>lowerCase</code> must be in lower case.
+     */
+    private boolean regionEquals(int start, int end, byte[] lowerCase) {
+        if (end - start != lowerCase.length) {
+            return false;
+        }
+        for (int i = 0; i < lowerCase.length; i++) {
+            int b = line[start + i];
+            if (b >= 'A' && b <= 'Z') {
+                b += 'a' - 'A';
+            }
+            if (b != lowerCase[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private boolean regionContains(int start, int end, byte[] lowerCase) {
+        for (int i = start; i <= end - lowerCase.length; i++) {
+            if (regionEquals(i, i + lowerCase.length, lowerCase)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private String lineToString(int start, int end) {
+        try {
+            return new String(line, start, end - start, "ISO-8859-1");
+        } catch (UnsupportedEncodingException e) {
+            throw new IllegalStateException("ISO-8859-1 is not supported", e);
+        }
+    }
+
+    private static byte[] ascii(String s) {
+        byte[] bytes = new byte[s.length()];
+        for (int i = 0; i < bytes.length; i++) {
+            bytes[i] = (byte) s.charAt(i);
+        }
+        return bytes;
+    }
+}
@@ -0,0 +1,95 @@
+/*
+ * Copyright (c) 2013-2015 Ashutosh Kumar Singh <me@aksingh.net>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package net.aksingh.owmjapis;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.Proxy;
+
+/**
+ * <p>
+ * Sends HTTP requests to OWM.org on behalf of {@link net.aksingh.owmjapis.OpenWeatherMap}.
+ * Implement this interface to plug a different HTTP engine into the library.
+ * </p>
+ * <p>
+ * Implementations must be safe for use by multiple threads at the same time. A single transport can be
+ * shared by many {@link net.aksingh.owmjapis.OpenWeatherMap} objects, so that all of them reuse the same
+ * connections.
+ * </p>
+ *
+ * @author Ashutosh Kumar Singh
+ * @version 2026/10/18
+ * @see net.aksingh.owmjapis.OpenWeatherMap#setHttpTransport(HttpTransport)
+ * @since 2.5.0.6
+ */
+public interface HttpTransport {
+
+    /**
+     * Implements HTTP's GET method
+     *
+     * @param requestAddress Address to be loaded
+     * @param proxy          Proxy to be used, or <code>null</code> for a direct connection
+     * @return Response whose headers have been read; it must be closed after reading its body
+     * @throws IOException if the request could not be sent or the response could not be read
+     * @see <a href="http://www.w3.org/Protocols/rfc2616/rfc2616-sec9.html">HTTP - (9.3) GET</a>
+     */
+    public Response httpGET(String requestAddress, Proxy proxy) throws IOException;
+
+    /**
+     * Releases the resources (connections, threads, etc.) held by this transport.
+     */
+    public void close();
+
+    /**
+     * <p>
+     * Response of an HTTP request, with its body still to be read.
+     * </p>
+     *
+     * @author Ashutosh Kumar Singh
+     * @version 2026/10/18
+     * @since 2.5.0.6
+     */
+    public static interface Response {
+
+        /**
+         * @return Status code of the response, e.g., <code>200</code>.
+         */
+        public int getResponseCode();
+
+        /**
+         * @return Value of the Content-Encoding header if available, otherwise <code>null</code>.
+         */
+        public String getContentEncoding();
+
+        /**
+         * @return Body of the response, whatever its status code is.
+         * @throws IOException if the body cannot be read
+         */
+        public InputStream getInputStream() throws IOException;
+
+        /**
+         * Finishes the exchange and lets the transport reuse its connection, if possible.
+         */
+        public void close();
+    }
+}
@@ -0,0 +1,853 @@
+/*
+ * Copyright (c) 2013-2015 Ashutosh Kumar Singh <me@aksingh.net>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package net.aksingh.owmjapis;
+
+import org.json.JSONException;
+
+import java.io.UnsupportedEncodingException;
+
+/**
+ * <p>
+ * Parses JSON text straight from its UTF-8 bytes, in a single pass, into a flat index of token offsets.
+ * Models read their fields through it, the same way they used to read them from
+ * {@link org.json.JSONObject}, but no intermediate objects (maps, boxed numbers or strings) are created:
+ * numbers and strings are decoded from the bytes only when a model asks for them.
+ * </p>
+ * <p>
+ * Tokens are addressed by their position in the index. Members of an object are stored as a name
+ * token followed by its value; containers know their count of children and where they end.
+ * Names are hashed while being parsed, the same way as {@link String#hashCode()}, so looking up a
+ * member compares the (cached) hash of the key constant before comparing any bytes.
+ * {@link #ABSENT} stands for a missing value, and every <code>opt</code> method accepts it
+ * (returning the default value), so models need not check for it.
+ * </p>
+ *
+ * @author Ashutosh Kumar Singh
+ * @version 2026/10/18
+ * @since 2.5.0.6
+ */
+class JsonIndex {
+    /**
+     * Position of a value that is not available
+     */
+    static final int ABSENT = -1;
+
+    /**
+     * Position given to values available but not decoded from an index, e.g., decoded by {@link ModelCodec}
+     */
+    static final int DECODED = 0;
+
+    /*
+    Types of tokens
+     */
+    static final int OBJECT = 1;
+    static final int ARRAY = 2;
+    static final int STRING = 3;
+    static final int NUMBER = 4;
+    static final int TRUE = 5;
+    static final int FALSE = 6;
+    static final int NULL = 7;
+
+    private static final int TYPE_MASK = 0xff;
+    private static final int FLAG_ESCAPED = 0x100;
+    private static final int FLAG_NON_ASCII = 0x200;
+    private static final int FLAG_DECIMAL = 0x400;
+
+    /*
+    Layout of a token in the index
+     */
+    private static final int TYPE = 0;
+    private static final int START = 1;
+    private static final int END = 2;
+    private static final int NEXT = 3;
+    private static final int COUNT = 4;
+    private static final int HASH = 4; // strings have no children, so they keep their hash instead
+    private static final int STRIDE = 5;
+
+    private static final int MAX_DEPTH = 512;
+
+    private static final int MAX_SHARED_STRING_LENGTH = 64; // longer ones are unlikely to recur
+
+    private static final double[] POWERS_OF_TEN = {
+            1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11,
+            1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22
+    };
+    private static final long MAX_EXACT_MANTISSA = 1L << 53;
+
+    private final byte[] data;
+    private OpenWeatherMap.RawResponseStorage rawResponseStorage = OpenWeatherMap.RawResponseStorage.ORIGINAL;
+    private final int limit;
+    private int[] tokens;
+    private int tokenCount;
+    private int pos;
+
+    private JsonIndex(byte[] data, int offset, int length) {
+        this.data = data;
+        this.pos = offset;
+        this.limit = offset + length;
+        this.tokens = new int[Math.max(16, length / 8) * STRIDE];
+    }
+
+    /**
+     * Parses JSON text whose root must be an object.
+     *
+     * @param data JSON text encoded in UTF-8, may be <code>null</code>
+     * @return Index of the JSON text, empty if data is <code>null</code>
+     * @throws JSONException if data is not a JSON object.
+     */
+    static JsonIndex parse(byte[] data) throws JSONException {
+        return parse(data, null);
+    }
+
+    /**
+     * Parses JSON text whose root must be an object, skipping the fields not selected by the projection.
+     *
+     * @param data       JSON text encoded in UTF-8, may be <code>null</code>
+     * @param projection Fields to be parsed, or <code>null</code> for all
+     * @return Index of the JSON text, empty if data is <code>null</code>
+     * @throws JSONException if data is not a JSON object.
+     */
+    static JsonIndex parse(byte[] data, FieldProjection projection) throws JSONException {
+        return (data != null) ? parse(data, 0, data.length, projection) : new JsonIndex(new byte[0], 0, 0);
+    }
+
+    /**
+     * Parses a part of the given bytes, as {@link #parse(byte[], FieldProjection)} does.
+     */
+    static JsonIndex parse(byte[] data, int offset, int length, FieldProjection projection) throws JSONException {
+        JsonIndex index = new JsonIndex(data, offset, length);
+        index.skipWhitespace();
+        if (index.pos >= index.limit || data[index.pos] != '{') {
+            throw index.syntaxError("A JSONObject text must begin with '{'");
+        }
+        index.value(0, (projection != null) ? projection.getRoot() : null);
+        return index;
+    }
+
+    /**
+     * Parses JSON text whose root must be an object.
+     *
+     * @param text       JSON text, may be <code>null</code>
+     * @param projection Fields to be parsed, or <code>null</code> for all
+     * @return Index of the JSON text, empty if text is <code>null</code>
+     * @throws JSONException if text is not a JSON object.
+     */
+    static JsonIndex parse(String text, FieldProjection projection) throws JSONException {
+        try {
+            return parse((text != null) ? text.getBytes("UTF-8") : null, projection);
+        } catch (UnsupportedEncodingException e) {
+            throw new JSONException(e);
+        }
+    }
+
+    /**
+     * @return Root object if available, otherwise {@link #ABSENT}.
+     */
+    int root() {
+        return (tokenCount > 0) ? 0 : ABSENT;
+    }
+
+    /*
+    Navigation
+     */
+    int type(int token) {
+        return (token != ABSENT) ? tokens[token * STRIDE + TYPE] & TYPE_MASK : ABSENT;
+    }
+
+    boolean isObject(int token) {
+        return type(token) == OBJECT;
+    }
+
+    /**
+     * @return Count of elements of an array, or of members of an object, otherwise 0.
+     */
+    int length(int container) {
+        int type = type(container);
+        return (type == OBJECT || type == ARRAY) ? tokens[container * STRIDE + COUNT] : 0;
+    }
+
+    /**
+     * @return First element of an array if available, otherwise {@link #ABSENT}.
+     */
+    int firstElement(int array) {
+        return (length(array) > 0) ? array + 1 : ABSENT;
+    }
+
+    /**
+     * @return Element following the given one in its array, i.e., the token after its subtree.
+     */
+    int nextElement(int element) {
+        return tokens[element * STRIDE + NEXT];
+    }
+
+    /**
+     * @return Positions of the elements of an array which are objects, in order.
+     */
+    int[] objectElements(int array) {
+        int length = length(array);
+        int[] objects = new int[length];
+        int count = 0;
+        int element = firstElement(array);
+        for (int i = 0; i < length; i++) {
+            if (isObject(element)) {
+                objects[count++] = element;
+            }
+            element = nextElement(element);
+        }
+        if (count < length) {
+            int[] trimmed = new int[count];
+            System.arraycopy(objects, 0, trimmed, 0, count);
+            objects = trimmed;
+        }
+        return objects;
+    }
+
+    /**
+     * @return Value of the member if available, otherwise {@link #ABSENT}.
+     */
+    int member(int object, String name) {
+        if (type(object) != OBJECT) {
+            return ABSENT;
+        }
+        int token = object + 1;
+        for (int i = tokens[object * STRIDE + COUNT]; i > 0; i--) {
+            if (nameEquals(token, name)) {
+                return token + 1;
+            }
+            token = tokens[(token + 1) * STRIDE + NEXT];
+        }
+        return ABSENT;
+    }
+
+    /*
+    Accessors mirroring JSONObject's opt methods
+     */
+    int optObject(int object, String name) {
+        int value = member(object, name);
+        return (type(value) == OBJECT) ? value : ABSENT;
+    }
+
+    int optArray(int object, String name) {
+        int value = member(object, name);
+        return (type(value) == ARRAY) ? value : ABSENT;
+    }
+
+    double optDouble(int object, String name, double defaultValue) {
+        return doubleValue(member(object, name), defaultValue);
+    }
+
+    long optLong(int object, String name, long defaultValue) {
+        return longValue(member(object, name), defaultValue);
+    }
+
+    int optInt(int object, String name, int defaultValue) {
+        return intValue(member(object, name), defaultValue);
+    }
+
+    String optString(int object, String name, String defaultValue) {
+        return stringValue(member(object, name), defaultValue);
+    }
+
+    /**
+     * Gives the string as {@link #optString(int, String, String)} does, but shares the instance with
+     * other responses having the same short string.
+     *
+     * @see net.aksingh.owmjapis.Flyweights
+     */
+    String optSharedString(int object, String name, String defaultValue) {
+        int token = member(object, name);
+        if (type(token) == STRING
+                && tokens[token * STRIDE + END] - tokens[token * STRIDE + START] <= MAX_SHARED_STRING_LENGTH) {
+            return Flyweights.string(this, token);
+        }
+        return stringValue(token, defaultValue);
+    }
+
+    double doubleValue(int token, double defaultValue) {
+        switch (type(token)) {
+            case NUMBER:
+                return parseDouble(tokens[token * STRIDE + START], tokens[token * STRIDE + END]);
+            case STRING:
+                try {
+                    return Double.parseDouble(stringValue(token, null));
+                } catch (NumberFormatException e) {
+                    return defaultValue;
+                }
+            default:
+                return defaultValue;
+        }
+    }
+
+    long longValue(int token, long defaultValue) {
+        switch (type(token)) {
+            case NUMBER:
+                int base = token * STRIDE;
+                if ((tokens[base + TYPE] & FLAG_DECIMAL) == 0) {
+                    long value = parseLong(tokens[base + START], tokens[base + END]);
+                    if (value != Long.MIN_VALUE) {
+                        return value;
+                    }
+                }
+                return (long) parseDouble(tokens[base + START], tokens[base + END]);
+            case STRING:
+                try {
+                    return Long.parseLong(stringValue(token, null));
+                } catch (NumberFormatException e) {
+                    return defaultValue;
+                }
+            default:
+                return defaultValue;
+        }
+    }
+
+    int intValue(int token, int defaultValue) {
+        switch (type(token)) {
+            case NUMBER:
+                return (int) longValue(token, defaultValue);
+            case STRING:
+                try {
+                    return Integer.parseInt(stringValue(token, null));
+                } catch (NumberFormatException e) {
+                    return defaultValue;
+                }
+            default:
+                return defaultValue;
+        }
+    }
+
+    String stringValue(int token, String defaultValue) {
+        int type = type(token);
+        if (type == ABSENT || type == NULL) {
+            return defaultValue;
+        }
+        int base = token * STRIDE;
+        if (type == STRING) {
+            return decode(data, tokens[base + START], tokens[base + END], (tokens[base + TYPE] & FLAG_ESCAPED) != 0);
+        }
+        return decode(data, tokens[base + START], tokens[base + END], false);
+    }
+
+    /**
+     * @return Parsed bytes, shared and not copied.
+     */
+    byte[] getBytes() {
+        return this.data;
+    }
+
+    /**
+     * @return Offset of the first byte of an object, array or number in {@link #getBytes()}.
+     */
+    int startOf(int container) {
+        return tokens[container * STRIDE + START];
+    }
+
+    /**
+     * @return Offset after the last byte of an object, array or number in {@link #getBytes()}.
+     */
+    int endOf(int container) {
+        return tokens[container * STRIDE + END];
+    }
+
+    /*
+    Raw strings, to be compared without decoding; tokens must be strings or absent
+     */
+    int rawHash(int token) {
+        return (token != ABSENT) ? tokens[token * STRIDE + HASH] : 0;
+    }
+
+    boolean rawEquals(int token, byte[] raw) {
+        if (token == ABSENT || raw == null) {
+            return token == ABSENT && raw == null;
+        }
+        int start = tokens[token * STRIDE + START];
+        int end = tokens[token * STRIDE + END];
+        if (end - start != raw.length) {
+            return false;
+        }
+        for (int i = start; i < end; i++) {
+            if (data[i] != raw[i - start]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    byte[] rawBytes(int token) {
+        if (token == ABSENT) {
+            return null;
+        }
+        int start = tokens[token * STRIDE + START];
+        byte[] raw = new byte[tokens[token * STRIDE + END] - start];
+        System.arraycopy(data, start, raw, 0, raw.length);
+        return raw;
+    }
+
+    OpenWeatherMap.RawResponseStorage getRawResponseStorage() {
+        return this.rawResponseStorage;
+    }
+
+    /**
+     * @param rawResponseStorage How models built from this index keep their raw response
+     */
+    void setRawResponseStorage(OpenWeatherMap.RawResponseStorage rawResponseStorage) {
+        this.rawResponseStorage = rawResponseStorage;
+    }
+
+    /*
+    Parsing
+     */
+    /**
+     * Parses a value, keeping only the fields selected by the node, or all if node is <code>null</code>.
+     */
+    private void value(int depth, FieldProjection.Node node) throws JSONException {
+        skipWhitespace();
+        if (pos >= limit) {
+            throw syntaxError("Unexpected end of JSON text");
+        }
+        byte b = data[pos];
+        switch (b) {
+            case '{':
+                object(depth, node);
+                break;
+            case '[':
+                array(depth, node);
+                break;
+            case '"':
+                string();
+                break;
+            case 't':
+                literal("true", TRUE);
+                break;
+            case 'f':
+                literal("false", FALSE);
+                break;
+            case 'n':
+                literal("null", NULL);
+                break;
+            default:
+                if (b == '-' || (b >= '0' && b <= '9')) {
+                    number();
+                } else {
+                    throw syntaxError("Unexpected character '" + (char) (b & 0xff) + "'");
+                }
+        }
+    }
+
+    private void object(int depth, FieldProjection.Node node) throws JSONException {
+        if (depth >= MAX_DEPTH) {
+            throw syntaxError("JSON text is nested too deeply");
+        }
+        int token = addToken(OBJECT, pos, pos);
+        pos++;
+        int count = 0;
+
+        skipWhitespace();
+        if (pos < limit && data[pos] == '}') {
+            pos++;
+        } else {
+            while (true) {
+                skipWhitespace();
+                if (pos >= limit || data[pos] != '"') {
+                    throw syntaxError("Expected a name");
+                }
+                string();
+                skipWhitespace();
+                if (pos >= limit || data[pos] != ':') {
+                    throw syntaxError("Expected a ':' after a name");
+                }
+                pos++;
+
+                if (node == null) {
+                    value(depth + 1, null);
+                    count++;
+                } else {
+                    int selected = node.find(this, tokenCount - 1);
+                    if (selected >= 0) {
+                        value(depth + 1, node.member(selected));
+                        count++;
+                    } else { // drop the name, and skip the value
+                        tokenCount--;
+                        skipValue();
+                    }
+                }
+
+                skipWhitespace();
+                if (pos < limit && data[pos] == ',') {
+                    pos++;
+                } else if (pos < limit && data[pos] == '}') {
+                    pos++;
+                    break;
+                } else {
+                    throw syntaxError("Expected a ',' or '}'");
+                }
+            }
+        }
+        closeToken(token, count);
+    }
+
+    private void array(int depth, FieldProjection.Node node) throws JSONException {
+        if (depth >= MAX_DEPTH) {
+            throw syntaxError("JSON text is nested too deeply");
+        }
+        int token = addToken(ARRAY, pos, pos);
+        pos++;
+        int count = 0;
+
+        skipWhitespace();
+        if (pos < limit && data[pos] == ']') {
+            pos++;
+        } else {
+            int index = 0;
+            while (true) {
+                if (node == null || node.isElementSelected(index)) {
+                    value(depth + 1, (node != null) ? node.elements() : null);
+                    count++;
+                } else {
+                    skipValue();
+                }
+                index++;
+
+                skipWhitespace();
+                if (pos < limit && data[pos] == ',') {
+                    pos++;
+                } else if (pos < limit && data[pos] == ']') {
+                    pos++;
+                    break;
+                } else {
+                    throw syntaxError("Expected a ',' or ']'");
+                }
+            }
+        }
+        closeToken(token, count);
+    }
+
+    private void string() throws JSONException {
+        int start = ++pos;
+        int type = STRING;
+        int hash = 0;
+        while (true) {
+            if (pos >= limit) {
+                throw syntaxError("Unterminated string");
+            }
+            byte b = data[pos];
+            if (b == '"') {
+                break;
+            } else if (b == '\\') {
+                type |= FLAG_ESCAPED;
+                pos += 2;
+            } else if (b < 0) {
+                type |= FLAG_NON_ASCII;
+                pos++;
+            } else if (b < 0x20) {
+                throw syntaxError("Unescaped control character in string");
+            } else {
+                hash = 31 * hash + b;
+                pos++;
+            }
+        }
+        int token = addToken(type, start, pos);
+        tokens[token * STRIDE + HASH] = hash; // same as String.hashCode() if neither escaped nor non-ASCII
+        pos++;
+    }
+
+    private void number() throws JSONException {
+        int start = pos;
+        int type = NUMBER;
+        if (data[pos] == '-') {
+            pos++;
+        }
+        if (digits() == 0) {
+            throw syntaxError("Invalid number");
+        }
+        if (pos < limit && data[pos] == '.') {
+            type |= FLAG_DECIMAL;
+            pos++;
+            if (digits() == 0) {
+                throw syntaxError("Invalid number");
+            }
+        }
+        if (pos < limit && (data[pos] == 'e' || data[pos] == 'E')) {
+            type |= FLAG_DECIMAL;
+            pos++;
+            if (pos < limit && (data[pos] == '+' || data[pos] == '-')) {
+                pos++;
+            }
+            if (digits() == 0) {
+                throw syntaxError("Invalid number");
+            }
+        }
+        addToken(type, start, pos);
+    }
+
+    private int digits() {
+        int start = pos;
+        while (pos < limit && data[pos] >= '0' && data[pos] <= '9') {
+            pos++;
+        }
+        return pos - start;
+    }
+
+    /**
+     * Skips a value without checking its contents, nor adding any tokens.
+     */
+    private void skipValue() throws JSONException {
+        skipWhitespace();
+        if (pos >= limit) {
+            throw syntaxError("Unexpected end of JSON text");
+        }
+
+        byte b = data[pos];
+        if (b == '{' || b == '[') {
+            int depth = 0;
+            while (true) {
+                if (pos >= limit) {
+                    throw syntaxError("Unexpected end of JSON text");
+                }
+                b = data[pos];
+                if (b == '"') {
+                    skipString();
+                    continue;
+                }
+                pos++;
+                if (b == '{' || b == '[') {
+                    depth++;
+                } else if ((b == '}' || b == ']') && --depth == 0) {
+                    return;
+                }
+            }
+        } else if (b == '"') {
+            skipString();
+        } else {
+            while (pos < limit && (b = data[pos]) != ',' && b != '}' && b != ']'
+                    && b != ' ' && b != '\n' && b != '\r' && b != '\t') {
+                pos++;
+            }
+        }
+    }
+
+    private void skipString() throws JSONException {
+        pos++;
+        while (true) {
+            if (pos >= limit) {
+                throw syntaxError("Unterminated string");
+            }
+            byte b = data[pos++];
+            if (b == '"') {
+                return;
+            } else if (b == '\\') {
+                pos++;
+            }
+        }
+    }
+
+    private void literal(String literal, int type) throws JSONException {
+        int length = literal.length();
+        if (pos + length > limit) {
+            throw syntaxError("Unexpected end of JSON text");
+        }
+        for (int i = 0; i < length; i++) {
+            if (data[pos + i] != literal.charAt(i)) {
+                throw syntaxError("Expected '" + literal + "'");
+            }
+        }
+        addToken(type, pos, pos + length);
+        pos += length;
+    }
+
+    private void skipWhitespace() {
+        while (pos < limit) {
+            byte b = data[pos];
+            if (b == ' ' || b == '\n' || b == '\r' || b == '\t') {
+                pos++;
+            } else {
+                break;
+            }
+        }
+    }
+
+    private int addToken(int type, int start, int end) {
+        int base = tokenCount * STRIDE;
+        if (base + STRIDE > tokens.length) {
+            int[] bigger = new int[tokens.length * 2];
+            System.arraycopy(tokens, 0, bigger, 0, tokens.length);
+            tokens = bigger;
+        }
+        tokens[base + TYPE] = type;
+        tokens[base + START] = start;
+        tokens[base + END] = end;
+        tokens[base + NEXT] = tokenCount + 1;
+        tokens[base + COUNT] = 0;
+        return tokenCount++;
+    }
+
+    private void closeToken(int token, int count) {
+        int base = token * STRIDE;
+        tokens[base + END] = pos;
+        tokens[base + NEXT] = tokenCount;
+        tokens[base + COUNT] = count;
+    }
+
+    private JSONException syntaxError(String message) {
+        return new JSONException(message + " at " + pos);
+    }
+
+    /*
+    Decoding
+     */
+    boolean nameEquals(int token, String name) {
+        int base = token * STRIDE;
+        int start = tokens[base + START];
+        int end = tokens[base + END];
+        if ((tokens[base + TYPE] & (FLAG_ESCAPED | FLAG_NON_ASCII)) != 0) {
+            return name.equals(decode(data, start, end, true));
+        }
+        if (tokens[base + HASH] != name.hashCode() || end - start != name.length()) {
+            return false;
+        }
+        for (int i = start; i < end; i++) {
+            if (data[i] != name.charAt(i - start)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private long parseLong(int start, int end) {
+        int i = start;
+        boolean negative = data[i] == '-';
+        if (negative) {
+            i++;
+        }
+        if (end - i > 18) { // might overflow, caller falls back to double
+            try {
+                return Long.parseLong(decode(data, start, end, false));
+            } catch (NumberFormatException e) {
+                return Long.MIN_VALUE;
+            }
+        }
+        long value = 0;
+        for (; i < end; i++) {
+            value = value * 10 + (data[i] - '0');
+        }
+        return negative ? -value : value;
+    }
+
+    private double parseDouble(int start, int end) {
+        int i = start;
+        boolean negative = data[i] == '-';
+        if (negative) {
+            i++;
+        }
+
+        // exact when the mantissa and the power of ten are both exactly representable as doubles
+        long mantissa = 0;
+        int scale = 0;
+        boolean fraction = false;
+        for (; i < end; i++) {
+            byte b = data[i];
+            if (b >= '0' && b <= '9') {
+                mantissa = mantissa * 10 + (b - '0');
+                if (mantissa >= MAX_EXACT_MANTISSA) {
+                    break;
+                }
+                if (fraction) {
+                    scale++;
+                }
+            } else if (b == '.' && !fraction) {
+                fraction = true;
+            } else {
+                break;
+            }
+        }
+        if (i == end && scale < POWERS_OF_TEN.length) {
+            double value = (scale == 0) ? mantissa : mantissa / POWERS_OF_TEN[scale];
+            return negative ? -value : value;
+        }
+        return Double.parseDouble(decode(data, start, end, false));
+    }
+
+    /**
+     * Decodes UTF-8 bytes, and JSON escape sequences if asked to.
+     */
+    static String decode(byte[] data, int start, int end, boolean escaped) {
+        char[] chars = new char[end - start];
+        int length = 0;
+        int i = start;
+        while (i < end) {
+            int b = data[i++];
+            if (b >= 0) {
+                if (b == '\\' && escaped && i < end) {
+                    int e = data[i++];
+                    switch (e) {
+                        case 'b':
+                            chars[length++] = '\b';
+                            break;
+                        case 'f':
+                            chars[length++] = '\f';
+                            break;
+                        case 'n':
+                            chars[length++] = '\n';
+                            break;
+                        case 'r':
+                            chars[length++] = '\r';
+                            break;
+                        case 't':
+                            chars[length++] = '\t';
+                            break;
+                        case 'u':
+                            int c = 0;
+                            for (int j = 0; j < 4 && i < end; j++) {
+                                c = (c << 4) | Character.digit((char) data[i++], 16);
+                            }
+                            chars[length++] = (c >= 0) ? (char) c : '\uFFFD';
+                            break;
+                        default: // '"', '\\', '/' and anything else stand for themselves
+                            chars[length++] = (char) e;
+                    }
+                } else {
+                    chars[length++] = (char) b;
+                }
+            } else if ((b & 0xe0) == 0xc0 && i < end && isContinuation(data[i])) {
+                chars[length++] = (char) (((b & 0x1f) << 6) | (data[i++] & 0x3f));
+            } else if ((b & 0xf0) == 0xe0 && i + 1 < end && isContinuation(data[i]) && isContinuation(data[i + 1])) {
+                chars[length++] = (char) (((b & 0x0f) << 12) | ((data[i] & 0x3f) << 6) | (data[i + 1] & 0x3f));
+                i += 2;
+            } else if ((b & 0xf8) == 0xf0 && i + 2 < end && isContinuation(data[i]) && isContinuation(data[i + 1])
+                    && isContinuation(data[i + 2])) {
+                int codePoint = ((b & 0x07) << 18) | ((data[i] & 0x3f) << 12) | ((data[i + 1] & 0x3f) << 6)
+                        | (data[i + 2] & 0x3f);
+                i += 3;
+                codePoint -= 0x10000;
+                chars[length++] = (char) (0xd800 | (codePoint >> 10));
+                chars[length++] = (char) (0xdc00 | (codePoint & 0x3ff));
+            } else {
+                chars[length++] = '\uFFFD';
+            }
+        }
+        return new String(chars, 0, length);
+    }
+
+    private static boolean isContinuation(byte b) {
+        return (b & 0xc0) == 0x80;
+    }
+}
@@ -0,0 +1,440 @@
+/*
+ * Copyright (c) 2013-2015 Ashutosh Kumar Singh <me@aksingh.net>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package net.aksingh.owmjapis;
+
+import java.io.IOException;
+import java.io.UnsupportedEncodingException;
+
+/**
+ * <p>
+ * Encodes parsed responses into a compact binary form, and decodes them back, much faster and smaller
+ * than Java serialization, e.g., to ship cached responses between services or to keep them on disk.
+ * </p>
+ * <p>
+ * Only values are written, never class descriptors. Every object starts with bit flags telling which
+ * of its values are available; values not available (<code>NaN</code>, <code>MIN_VALUE</code> or
+ * <code>null</code>) take just their flag, and integral values take as few bytes as they need.
+ * Nested instances, weather conditions and forecasts are written in place, and the raw response
+ * is kept as stored by the response, i.e., compressed or not, or not at all.
+ * </p>
+ * <p>
+ * Encoded data starts with the version of the format and the type of the response.
+ * Decoding data of another version or type fails with an <code>IOException</code>.
+ * </p>
+ * <p>
+ * <b>Sample code:</b><br>
+ * <code>byte[] data = ModelCodec.encode(currentWeather);</code><br>
+ * <code>CurrentWeather decoded = ModelCodec.decodeCurrentWeather(data);</code>
+ * </p>
+ *
+ * @author Ashutosh Kumar Singh
+ * @version 2026/10/18
+ * @since 2.5.0.6
+ */
+public final class ModelCodec {
+    /**
+     * Version of the format written by this class
+     */
+    public static final int FORMAT_VERSION = 1;
+
+    /*
+    Types of responses
+     */
+    private static final int TYPE_CURRENT_WEATHER = 1;
+    private static final int TYPE_HOURLY_FORECAST = 2;
+    private static final int TYPE_DAILY_FORECAST = 3;
+
+    private ModelCodec() {
+    }
+
+    public static byte[] encode(CurrentWeather currentWeather) {
+        Output out = new Output(TYPE_CURRENT_WEATHER);
+        currentWeather.write(out);
+        return out.toByteArray();
+    }
+
+    public static byte[] encode(HourlyForecast hourlyForecast) {
+        Output out = new Output(TYPE_HOURLY_FORECAST);
+        hourlyForecast.write(out);
+        return out.toByteArray();
+    }
+
+    public static byte[] encode(DailyForecast dailyForecast) {
+        Output out = new Output(TYPE_DAILY_FORECAST);
+        dailyForecast.write(out);
+        return out.toByteArray();
+    }
+
+    /**
+     * @param data Data given by {@link #encode(CurrentWeather)}
+     * @return Decoded response
+     * @throws IOException if data is not an encoded current weather, or is of another version.
+     */
+    public static CurrentWeather decodeCurrentWeather(byte[] data)
+            throws IOException {
+        Input in = new Input(data, TYPE_CURRENT_WEATHER);
+        CurrentWeather currentWeather = new CurrentWeather(in);
+        in.finish();
+        return currentWeather;
+    }
+
+    /**
+     * @param data Data given by {@link #encode(HourlyForecast)}
+     * @return Decoded response
+     * @throws IOException if data is not an encoded hourly forecast, or is of another version.
+     */
+    public static HourlyForecast decodeHourlyForecast(byte[] data)
+            throws IOException {
+        Input in = new Input(data, TYPE_HOURLY_FORECAST);
+        HourlyForecast hourlyForecast = new HourlyForecast(in);
+        in.finish();
+        return hourlyForecast;
+    }
+
+    /**
+     * @param data Data given by {@link #encode(DailyForecast)}
+     * @return Decoded response
+     * @throws IOException if data is not an encoded daily forecast, or is of another version.
+     */
+    public static DailyForecast decodeDailyForecast(byte[] data)
+            throws IOException {
+        Input in = new Input(data, TYPE_DAILY_FORECAST);
+        DailyForecast dailyForecast = new DailyForecast(in);
+        in.finish();
+        return dailyForecast;
+    }
+
+    /**
+     * <p>
+     * Writes the values of objects. An object's values are written between {@link #begin(int)} and
+     * {@link #end()}, always all of them and in the same order as they are read by {@link Input}.
+     * </p>
+     */
+    static final class Output {
+        private byte[] buffer = new byte[256];
+        private int size;
+
+        // flags of the objects being written, innermost last
+        private int[] flagsStart = new int[8];
+        private int[] flagCount = new int[8];
+        private int[] flagIndex = new int[8];
+        private int depth;
+
+        private Output(int type) {
+            writeByte(FORMAT_VERSION);
+            writeByte(type);
+        }
+
+        /**
+         * Starts an object, reserving its flags.
+         *
+         * @param count Count of values of the object
+         */
+        void begin(int count) {
+            if (depth == flagsStart.length) {
+                flagsStart = grow(flagsStart);
+                flagCount = grow(flagCount);
+                flagIndex = grow(flagIndex);
+            }
+            flagsStart[depth] = size;
+            flagCount[depth] = count;
+            flagIndex[depth] = 0;
+            depth++;
+
+            int bytes = (count + 7) >>> 3;
+            ensure(bytes);
+            for (int i = 0; i < bytes; i++) {
+                buffer[size++] = 0;
+            }
+        }
+
+        void end() {
+            depth--;
+            if (flagIndex[depth] != flagCount[depth]) {
+                throw new IllegalStateException("Wrote " + flagIndex[depth] + " of " + flagCount[depth] + " values.");
+            }
+        }
+
+        /**
+         * Writes a flag only, e.g., for a boolean, or for a nested object to be written next if available.
+         *
+         * @return The flag.
+         */
+        boolean writeFlag(boolean flag) {
+            int index = flagIndex[depth - 1]++;
+            if (flag) {
+                buffer[flagsStart[depth - 1] + (index >>> 3)] |= (byte) (1 << (index & 7));
+            }
+            return flag;
+        }
+
+        void writeFloat(float value) {
+            if (writeFlag(!Float.isNaN(value))) {
+                writeFixed(Float.floatToIntBits(value), 4);
+            }
+        }
+
+        void writeDouble(double value) {
+            if (writeFlag(!Double.isNaN(value))) {
+                writeFixed(Double.doubleToLongBits(value), 8);
+            }
+        }
+
+        void writeInt(int value) {
+            if (writeFlag(value != Integer.MIN_VALUE)) {
+                writeVarLong(value);
+            }
+        }
+
+        void writeLong(long value) {
+            if (writeFlag(value != Long.MIN_VALUE)) {
+                writeVarLong(value);
+            }
+        }
+
+        void writeString(String value) {
+            if (writeFlag(value != null)) {
+                try {
+                    byte[] bytes = value.getBytes("UTF-8");
+                    writeBytes(bytes, 0, bytes.length);
+                } catch (UnsupportedEncodingException e) {
+                    throw new IllegalStateException(e.getMessage()); // UTF-8 is always supported
+                }
+            }
+        }
+
+        void writeBytes(byte[] bytes, int offset, int length, boolean available) {
+            if (writeFlag(available)) {
+                writeBytes(bytes, offset, length);
+            }
+        }
+
+        /**
+         * Writes a count, e.g., of the elements of a list; it has no flag.
+         */
+        void writeCount(int count) {
+            writeVarLong(count);
+        }
+
+        private void writeBytes(byte[] bytes, int offset, int length) {
+            writeVarLong(length);
+            ensure(length);
+            System.arraycopy(bytes, offset, buffer, size, length);
+            size += length;
+        }
+
+        private void writeByte(int b) {
+            ensure(1);
+            buffer[size++] = (byte) b;
+        }
+
+        private void writeFixed(long bits, int bytes) {
+            ensure(bytes);
+            for (int shift = (bytes - 1) * 8; shift >= 0; shift -= 8) {
+                buffer[size++] = (byte) (bits >>> shift);
+            }
+        }
+
+        private void writeVarLong(long value) {
+            long zigZag = (value << 1) ^ (value >> 63); // small negative values take few bytes too
+            ensure(10);
+            while ((zigZag & ~0x7FL) != 0) {
+                buffer[size++] = (byte) ((zigZag & 0x7F) | 0x80);
+                zigZag >>>= 7;
+            }
+            buffer[size++] = (byte) zigZag;
+        }
+
+        private void ensure(int bytes) {
+            if (size + bytes > buffer.length) {
+                byte[] bigger = new byte[Math.max(buffer.length * 2, size + bytes)];
+                System.arraycopy(buffer, 0, bigger, 0, size);
+                buffer = bigger;
+            }
+        }
+
+        private static int[] grow(int[] array) {
+            int[] bigger = new int[array.length * 2];
+            System.arraycopy(array, 0, bigger, 0, array.length);
+            return bigger;
+        }
+
+        private byte[] toByteArray() {
+            byte[] data = new byte[size];
+            System.arraycopy(buffer, 0, data, 0, size);
+            return data;
+        }
+    }
+
+    /**
+     * <p>
+     * Reads the values of objects written by {@link Output}, in the same order.
+     * Values not available are read as <code>NaN</code>, <code>MIN_VALUE</code> or <code>null</code>.
+     * </p>
+     */
+    static final class Input {
+        private final byte[] data;
+        private int pos;
+
+        // flags of the objects being read, innermost last
+        private int[] flagsStart = new int[8];
+        private int[] flagIndex = new int[8];
+        private int depth;
+
+        private Input(byte[] data, int type)
+                throws IOException {
+            if (data == null) {
+                throw new IOException("Data cannot be null.");
+            }
+            this.data = data;
+
+            int version = readByte();
+            if (version != FORMAT_VERSION) {
+                throw new IOException("Unsupported format version: " + version);
+            }
+            int actualType = readByte();
+            if (actualType != type) {
+                throw new IOException("Unexpected type of response: " + actualType);
+            }
+        }
+
+        void begin(int count)
+                throws IOException {
+            if (depth == flagsStart.length) {
+                flagsStart = Output.grow(flagsStart);
+                flagIndex = Output.grow(flagIndex);
+            }
+            flagsStart[depth] = pos;
+            flagIndex[depth] = 0;
+            depth++;
+
+            int bytes = (count + 7) >>> 3;
+            require(bytes);
+            pos += bytes;
+        }
+
+        void end() {
+            depth--;
+        }
+
+        boolean readFlag() {
+            int index = flagIndex[depth - 1]++;
+            return (data[flagsStart[depth - 1] + (index >>> 3)] & (1 << (index & 7))) != 0;
+        }
+
+        float readFloat()
+                throws IOException {
+            return readFlag() ? Float.intBitsToFloat((int) readFixed(4)) : Float.NaN;
+        }
+
+        double readDouble()
+                throws IOException {
+            return readFlag() ? Double.longBitsToDouble(readFixed(8)) : Double.NaN;
+        }
+
+        int readInt()
+                throws IOException {
+            return readFlag() ? (int) readVarLong() : Integer.MIN_VALUE;
+        }
+
+        long readLong()
+                throws IOException {
+            return readFlag() ? readVarLong() : Long.MIN_VALUE;
+        }
+
+        String readString()
+                throws IOException {
+            if (!readFlag()) {
+                return null;
+            }
+            int length = readCount();
+            String value = JsonIndex.decode(data, pos, pos + length, false);
+            pos += length;
+            return value;
+        }
+
+        byte[] readBytes()
+                throws IOException {
+            if (!readFlag()) {
+                return null;
+            }
+            int length = readCount();
+            byte[] bytes = new byte[length];
+            System.arraycopy(data, pos, bytes, 0, length);
+            pos += length;
+            return bytes;
+        }
+
+        int readCount()
+                throws IOException {
+            long count = readVarLong();
+            if (count < 0 || count > data.length - pos) { // every element takes a byte at least
+                throw new IOException("Corrupted data at " + pos);
+            }
+            return (int) count;
+        }
+
+        private int readByte()
+                throws IOException {
+            require(1);
+            return data[pos++] & 0xFF;
+        }
+
+        private long readFixed(int bytes)
+                throws IOException {
+            require(bytes);
+            long bits = 0;
+            for (int i = 0; i < bytes; i++) {
+                bits = (bits << 8) | (data[pos++] & 0xFF);
+            }
+            return bits;
+        }
+
+        private long readVarLong()
+                throws IOException {
+            long zigZag = 0;
+            for (int shift = 0; shift < 64; shift += 7) {
+                long b = readByte();
+                zigZag |= (b & 0x7F) << shift;
+                if ((b & 0x80) == 0) {
+                    return (zigZag >>> 1) ^ -(zigZag & 1);
+                }
+            }
+            throw new IOException("Corrupted data at " + pos);
+        }
+
+        private void require(int bytes)
+                throws IOException {
+            if (pos + bytes > data.length) {
+                throw new IOException("Unexpected end of data");
+            }
+        }
+
+        private void finish()
+                throws IOException {
+            if (pos != data.length) {
+                throw new IOException("Unexpected data at " + pos);
+            }
+        }
+    }
+}
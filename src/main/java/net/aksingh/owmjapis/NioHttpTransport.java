@@ -0,0 +1,686 @@
+/*
+ * Copyright (c) 2013-2015 Ashutosh Kumar Singh <me@aksingh.net>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package net.aksingh.owmjapis;
+
+import java.io.ByteArrayInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.net.InetSocketAddress;
+import java.net.Proxy;
+import java.net.SocketTimeoutException;
+import java.net.URL;
+import java.nio.ByteBuffer;
+import java.nio.channels.CancelledKeyException;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.SocketChannel;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * <p>
+ * Sends HTTP/1.1 requests over non-blocking {@link java.nio.channels.SocketChannel}s, multiplexed by a
+ * {@link java.nio.channels.Selector} on one or a few I/O threads.
+ * </p>
+ * <p>
+ * Thousands of requests can be in flight without a thread waiting for each of them. Responses are parsed
+ * straight from direct buffers as they arrive, and connections are kept alive and reused like in
+ * {@link net.aksingh.owmjapis.PooledHttpTransport}. Host names are resolved on resolver threads, so that
+ * neither the threads sending requests nor the I/O threads wait for DNS.
+ * </p>
+ * <p>
+ * Only plain <code>http</code> addresses (the ones used by OWM.org's APIs) are supported, either directly
+ * or through an HTTP proxy.
+ * </p>
+ *
+ * @author Ashutosh Kumar Singh
+ * @version 2026/10/18
+ * @since 2.5.0.6
+ */
+public class NioHttpTransport implements AsyncHttpTransport {
+    /*
+    Defaults
+     */
+    private static final int DEFAULT_IO_THREADS = 1;
+    private static final int DEFAULT_MAX_IDLE_CONNECTIONS_PER_HOST = 64;
+    private static final long DEFAULT_KEEP_ALIVE_MILLIS = 15000L;
+    private static final int DEFAULT_TIMEOUT_MILLIS = 30000;
+    private static final int RESOLVER_THREADS = 2;
+
+    private static final int READ_BUFFER_SIZE = 16384;
+    private static final long SELECT_TIMEOUT_MILLIS = 1000L;
+    private static final String CRLF = "\r\n";
+
+    /*
+    Instance Variables
+     */
+    private final int maxIdleConnectionsPerHost;
+    private final long keepAliveMillis;
+    private final int timeoutMillis;
+
+    private final IoLoop[] loops;
+    private final AtomicInteger nextLoop = new AtomicInteger(0);
+    private final ExecutorService resolver;
+
+    /**
+     * Constructor
+     *
+     * @throws IOException if a selector cannot be opened.
+     */
+    public NioHttpTransport() throws IOException {
+        this(DEFAULT_IO_THREADS);
+    }
+
+    /**
+     * Constructor
+     *
+     * @param ioThreads Count of I/O threads
+     * @throws IOException if a selector cannot be opened.
+     */
+    public NioHttpTransport(int ioThreads) throws IOException {
+        this(ioThreads, DEFAULT_MAX_IDLE_CONNECTIONS_PER_HOST, DEFAULT_KEEP_ALIVE_MILLIS, DEFAULT_TIMEOUT_MILLIS);
+    }
+
+    /**
+     * Constructor
+     *
+     * @param ioThreads                 Count of I/O threads
+     * @param maxIdleConnectionsPerHost Maximum count of idle connections kept per host and I/O thread
+     * @param keepAliveMillis           Time (in milliseconds) after which an idle connection is closed
+     * @param timeoutMillis             Time (in milliseconds) a request may take, connecting included
+     * @throws IOException if a selector cannot be opened.
+     * @throws IllegalArgumentException if any count or time is out of range.
+     */
+    public NioHttpTransport(int ioThreads, int maxIdleConnectionsPerHost, long keepAliveMillis, int timeoutMillis)
+            throws IOException, IllegalArgumentException {
+        if (ioThreads < 1) {
+            throw new IllegalArgumentException("Count of I/O threads cannot be less than 1.");
+        }
+        if (maxIdleConnectionsPerHost < 0) {
+            throw new IllegalArgumentException("Count of idle connections cannot be less than 0.");
+        }
+        if (keepAliveMillis <= 0 || timeoutMillis <= 0) {
+            throw new IllegalArgumentException("Keep-alive time and timeout must be more than 0.");
+        }
+
+        this.maxIdleConnectionsPerHost = maxIdleConnectionsPerHost;
+        this.keepAliveMillis = keepAliveMillis;
+        this.timeoutMillis = timeoutMillis;
+
+        this.resolver = Executors.newFixedThreadPool(RESOLVER_THREADS,
+                new OpenWeatherMap.DaemonThreadFactory("owm-japis-nio-resolver"));
+        this.loops = new IoLoop[ioThreads];
+        try {
+            for (int i = 0; i < ioThreads; i++) {
+                loops[i] = new IoLoop("owm-japis-nio-" + (i + 1));
+            }
+        } catch (IOException e) {
+            close();
+            throw e;
+        }
+    }
+
+    public Response httpGET(String requestAddress, Proxy proxy) throws IOException {
+        BlockingCallback callback = new BlockingCallback();
+        httpGETAsync(requestAddress, proxy, callback);
+        return callback.await();
+    }
+
+    public void httpGETAsync(String requestAddress, Proxy proxy, OWMFuture.Callback<Response> callback) {
+        Exchange exchange;
+        try {
+            exchange = new Exchange(new URL(requestAddress), proxy, callback);
+        } catch (IOException e) {
+            callback.onFailure(e);
+            return;
+        }
+
+        int index = (nextLoop.getAndIncrement() & Integer.MAX_VALUE) % loops.length;
+        loops[index].submit(exchange);
+    }
+
+    public void close() {
+        for (IoLoop loop : loops) {
+            if (loop != null) {
+                loop.close();
+            }
+        }
+        resolver.shutdownNow();
+    }
+
+    private static void deliver(Exchange exchange, Response response, Throwable failure) {
+        try {
+            if (failure == null) {
+                exchange.callback.onSuccess(response);
+            } else {
+                exchange.callback.onFailure(failure);
+            }
+        } catch (RuntimeException e) {
+            // a misbehaving callback must not take the I/O thread down
+            System.err.println("Error: " + e.getMessage());
+        }
+    }
+
+    /**
+     * One request and its response
+     */
+    private class Exchange {
+        private final String routeKey;
+        private final ByteBuffer request;
+        private final OWMFuture.Callback<Response> callback;
+        private final long deadline;
+
+        private InetSocketAddress address; // resolved when a new connection is needed
+        private HttpResponseParser parser;
+        private boolean retried;
+
+        private Exchange(URL url, Proxy proxy, OWMFuture.Callback<Response> callback) throws IOException {
+            String protocol = url.getProtocol().toLowerCase(Locale.ENGLISH);
+            if (!"http".equals(protocol)) {
+                throw new IOException("Unsupported protocol: " + protocol);
+            }
+
+            String host = url.getHost();
+            int port = (url.getPort() != -1) ? url.getPort() : url.getDefaultPort();
+            String hostHeader = (port != url.getDefaultPort()) ? host + ":" + port : host;
+            String file = ("".equals(url.getFile())) ? "/" : url.getFile();
+
+            String requestTarget;
+            String proxyAuthorization = null;
+            if (proxy == null || proxy.type() == Proxy.Type.DIRECT) {
+                this.address = InetSocketAddress.createUnresolved(host, port);
+                this.routeKey = host + ":" + port;
+                requestTarget = file;
+            } else if (proxy.type() == Proxy.Type.HTTP) {
+                this.address = (InetSocketAddress) proxy.address();
+                this.routeKey = "proxy " + address;
+                requestTarget = "http://" + hostHeader + file;
+                proxyAuthorization = PooledHttpTransport.proxyAuthorization(proxy, url);
+            } else {
+                throw new IOException("Unsupported proxy type: " + proxy.type());
+            }
+
+            StringBuilder builder = new StringBuilder(256)
+                    .append("GET ").append(requestTarget).append(" HTTP/1.1").append(CRLF)
+                    .append("Host: ").append(hostHeader).append(CRLF)
+                    .append("Accept-Encoding: gzip, deflate").append(CRLF)
+                    .append("Connection: keep-alive").append(CRLF);
+            if (proxyAuthorization != null) {
+                builder.append("Proxy-Authorization: ").append(proxyAuthorization).append(CRLF);
+            }
+            builder.append(CRLF);
+
+            this.request = ByteBuffer.wrap(builder.toString().getBytes("ISO-8859-1"));
+            this.callback = callback;
+            this.deadline = System.currentTimeMillis() + timeoutMillis;
+        }
+    }
+
+    /**
+     * Channel kept open between requests
+     */
+    private static class Connection {
+        private final String routeKey;
+        private final SocketChannel channel;
+        private final ByteBuffer readBuffer = ByteBuffer.allocateDirect(READ_BUFFER_SIZE);
+
+        private SelectionKey key;
+        private Exchange exchange;
+        private boolean reused;
+        private long idleSince;
+
+        private Connection(String routeKey, SocketChannel channel) {
+            this.routeKey = routeKey;
+            this.channel = channel;
+        }
+    }
+
+    /**
+     * Event loop owning a selector and the connections registered with it
+     */
+    private class IoLoop implements Runnable {
+        private final Selector selector;
+        private final Thread thread;
+        private final ConcurrentLinkedQueue<Exchange> pending = new ConcurrentLinkedQueue<Exchange>();
+
+        // touched by the loop's thread only
+        private final Map<String, LinkedList<Connection>> idleConnections = new HashMap<String, LinkedList<Connection>>();
+        private final Set<Connection> activeConnections = new HashSet<Connection>();
+
+        private volatile boolean closed;
+
+        private IoLoop(String name) throws IOException {
+            this.selector = Selector.open();
+            this.thread = new Thread(this, name);
+            this.thread.setDaemon(true);
+            this.thread.start();
+        }
+
+        private void submit(Exchange exchange) {
+            pending.add(exchange);
+            if (closed) {
+                if (pending.remove(exchange)) {
+                    deliver(exchange, null, new IOException("Transport is closed"));
+                }
+                return;
+            }
+            selector.wakeup();
+        }
+
+        private void close() {
+            closed = true;
+            selector.wakeup();
+        }
+
+        public void run() {
+            try {
+                while (!closed) {
+                    selector.select(SELECT_TIMEOUT_MILLIS);
+
+                    Exchange exchange;
+                    while ((exchange = pending.poll()) != null) {
+                        start(exchange);
+                    }
+
+                    Iterator<SelectionKey> keys = selector.selectedKeys().iterator();
+                    while (keys.hasNext()) {
+                        SelectionKey key = keys.next();
+                        keys.remove();
+                        handle(key);
+                    }
+
+                    expire(System.currentTimeMillis());
+                }
+            } catch (IOException e) {
+                System.err.println("Error: " + e.getMessage());
+            } finally {
+                shutdown();
+            }
+        }
+
+        private void start(Exchange exchange) {
+            Connection connection = leaseIdleConnection(exchange.routeKey);
+            if (connection != null) {
+                begin(connection, exchange);
+            } else if (exchange.address.isUnresolved()) {
+                resolve(exchange);
+            } else {
+                open(exchange);
+            }
+        }
+
+        /**
+         * Resolves the address of the exchange on a resolver thread, as a DNS lookup may block,
+         * then starts the exchange again.
+         */
+        private void resolve(final Exchange exchange) {
+            try {
+                resolver.execute(new Runnable() {
+                    public void run() {
+                        InetSocketAddress address = exchange.address;
+                        InetSocketAddress resolved = new InetSocketAddress(address.getHostName(), address.getPort());
+                        if (resolved.isUnresolved()) {
+                            deliver(exchange, null, new IOException("Unable to resolve " + address.getHostName()));
+                        } else {
+                            exchange.address = resolved;
+                            submit(exchange);
+                        }
+                    }
+                });
+            } catch (RejectedExecutionException e) {
+                deliver(exchange, null, new IOException("Transport is closed"));
+            }
+        }
+
+        private void open(Exchange exchange) {
+            SocketChannel channel = null;
+            try {
+                channel = SocketChannel.open();
+                channel.configureBlocking(false);
+                channel.socket().setTcpNoDelay(true);
+
+                Connection connection = new Connection(exchange.routeKey, channel);
+                if (channel.connect(exchange.address)) {
+                    connection.key = channel.register(selector, SelectionKey.OP_WRITE, connection);
+                } else {
+                    connection.key = channel.register(selector, SelectionKey.OP_CONNECT, connection);
+                }
+
+                connection.exchange = exchange;
+                exchange.parser = new HttpResponseParser();
+                exchange.request.rewind();
+                activeConnections.add(connection);
+            } catch (IOException e) {
+                if (channel != null) {
+                    try {
+                        channel.close();
+                    } catch (IOException ignored) {
+                        // already failing
+                    }
+                }
+                deliver(exchange, null, e);
+            }
+        }
+
+        private void begin(Connection connection, Exchange exchange) {
+            connection.exchange = exchange;
+            connection.reused = true;
+            exchange.parser = new HttpResponseParser();
+            exchange.request.rewind();
+            activeConnections.add(connection);
+
+            try {
+                connection.key.interestOps(SelectionKey.OP_WRITE);
+            } catch (CancelledKeyException e) {
+                failOrRetry(connection, new IOException("Connection closed"));
+            }
+        }
+
+        private void handle(SelectionKey key) {
+            Connection connection = (Connection) key.attachment();
+            try {
+                if (!key.isValid()) {
+                    return;
+                }
+                if (key.isConnectable()) {
+                    if (connection.channel.finishConnect()) {
+                        key.interestOps(SelectionKey.OP_WRITE);
+                    }
+                } else if (key.isWritable()) {
+                    connection.channel.write(connection.exchange.request);
+                    if (!connection.exchange.request.hasRemaining()) {
+                        key.interestOps(SelectionKey.OP_READ);
+                    }
+                } else if (key.isReadable()) {
+                    read(connection);
+                }
+            } catch (IOException e) {
+                failOrRetry(connection, e);
+            } catch (CancelledKeyException e) {
+                failOrRetry(connection, new IOException("Connection closed"));
+            }
+        }
+
+        private void read(Connection connection) throws IOException {
+            if (connection.exchange == null) {
+                // an idle connection is readable only when the server closes it
+                removeIdleConnection(connection);
+                closeConnection(connection);
+                return;
+            }
+
+            ByteBuffer buffer = connection.readBuffer;
+            HttpResponseParser parser = connection.exchange.parser;
+
+            buffer.clear();
+            int count = connection.channel.read(buffer);
+            if (count == -1) {
+                if (!parser.endOfInput()) {
+                    throw new EOFException("Connection closed before response was complete");
+                }
+                finish(connection, false);
+                return;
+            }
+
+            buffer.flip();
+            if (parser.parse(buffer)) {
+                finish(connection, parser.isKeepAlive() && !buffer.hasRemaining());
+            }
+        }
+
+        private void finish(Connection connection, boolean reusable) {
+            Exchange exchange = connection.exchange;
+            HttpResponseParser parser = exchange.parser;
+
+            connection.exchange = null;
+            activeConnections.remove(connection);
+            if (reusable) {
+                releaseConnection(connection);
+            } else {
+                closeConnection(connection);
+            }
+
+            deliver(exchange, new BufferedResponse(parser.getResponseCode(), parser.getContentEncoding(),
+                    parser.getBody(), parser.getBodyLength()), null);
+        }
+
+        private void failOrRetry(Connection connection, IOException e) {
+            Exchange exchange = connection.exchange;
+            connection.exchange = null;
+            closeConnection(connection);
+
+            if (exchange == null) {
+                return;
+            }
+            if (connection.reused && !exchange.retried && exchange.parser.isUntouched()) {
+                // server closed the idle connection meanwhile, GET is safe to be sent again
+                exchange.retried = true;
+                open(exchange);
+            } else {
+                deliver(exchange, null, e);
+            }
+        }
+
+        private void expire(long now) {
+            List<Connection> timedOut = null;
+            for (Connection connection : activeConnections) {
+                if (connection.exchange != null && now >= connection.exchange.deadline) {
+                    if (timedOut == null) {
+                        timedOut = new ArrayList<Connection>();
+                    }
+                    timedOut.add(connection);
+                }
+            }
+            if (timedOut != null) {
+                for (Connection connection : timedOut) {
+                    Exchange exchange = connection.exchange;
+                    connection.exchange = null;
+                    closeConnection(connection);
+                    deliver(exchange, null, new SocketTimeoutException("Request timed out after " + timeoutMillis + " ms"));
+                }
+            }
+
+            Iterator<LinkedList<Connection>> hosts = idleConnections.values().iterator();
+            while (hosts.hasNext()) {
+                LinkedList<Connection> connections = hosts.next();
+                Iterator<Connection> iterator = connections.iterator();
+                while (iterator.hasNext()) {
+                    Connection connection = iterator.next();
+                    if (now - connection.idleSince >= keepAliveMillis) {
+                        iterator.remove();
+                        closeConnection(connection);
+                    }
+                }
+                if (connections.isEmpty()) {
+                    hosts.remove();
+                }
+            }
+        }
+
+        private Connection leaseIdleConnection(String routeKey) {
+            LinkedList<Connection> connections = idleConnections.get(routeKey);
+            long now = System.currentTimeMillis();
+
+            while (connections != null && !connections.isEmpty()) {
+                Connection connection = connections.removeFirst();
+                if (now - connection.idleSince < keepAliveMillis && connection.key.isValid()) {
+                    return connection;
+                }
+                closeConnection(connection);
+            }
+            return null;
+        }
+
+        private void releaseConnection(Connection connection) {
+            LinkedList<Connection> connections = idleConnections.get(connection.routeKey);
+            if (connections == null) {
+                connections = new LinkedList<Connection>();
+                idleConnections.put(connection.routeKey, connections);
+            }
+
+            if (connections.size() < maxIdleConnectionsPerHost && connection.key.isValid()) {
+                connection.idleSince = System.currentTimeMillis();
+                // keep reading, to notice when the server closes the connection
+                connection.key.interestOps(SelectionKey.OP_READ);
+                connections.addFirst(connection);
+            } else {
+                closeConnection(connection);
+            }
+        }
+
+        private void removeIdleConnection(Connection connection) {
+            LinkedList<Connection> connections = idleConnections.get(connection.routeKey);
+            if (connections != null) {
+                connections.remove(connection);
+            }
+        }
+
+        private void closeConnection(Connection connection) {
+            activeConnections.remove(connection);
+            if (connection.key != null) {
+                connection.key.cancel();
+            }
+            try {
+                connection.channel.close();
+            } catch (IOException e) {
+                // nothing more can be done with it
+            }
+        }
+
+        private void shutdown() {
+            closed = true;
+            IOException failure = new IOException("Transport is closed");
+
+            for (Connection connection : new ArrayList<Connection>(activeConnections)) {
+                Exchange exchange = connection.exchange;
+                connection.exchange = null;
+                closeConnection(connection);
+                if (exchange != null) {
+                    deliver(exchange, null, failure);
+                }
+            }
+            for (LinkedList<Connection> connections : idleConnections.values()) {
+                for (Connection connection : connections) {
+                    closeConnection(connection);
+                }
+            }
+            idleConnections.clear();
+
+            Exchange exchange;
+            while ((exchange = pending.poll()) != null) {
+                deliver(exchange, null, failure);
+            }
+
+            try {
+                selector.close();
+            } catch (IOException e) {
+                // nothing more can be done with it
+            }
+        }
+    }
+
+    /**
+     * Response whose body is in memory already
+     */
+    static class BufferedResponse implements Response {
+        private final int responseCode;
+        private final String contentEncoding;
+        private final byte[] body;
+        private final int bodyLength;
+
+        BufferedResponse(int responseCode, String contentEncoding, byte[] body, int bodyLength) {
+            this.responseCode = responseCode;
+            this.contentEncoding = contentEncoding;
+            this.body = body;
+            this.bodyLength = bodyLength;
+        }
+
+        public int getResponseCode() {
+            return this.responseCode;
+        }
+
+        public String getContentEncoding() {
+            return this.contentEncoding;
+        }
+
+        public InputStream getInputStream() {
+            return new ByteArrayInputStream(body, 0, bodyLength);
+        }
+
+        public void close() {
+            // nothing to release, the connection went back to its pool already
+        }
+    }
+
+    /**
+     * Lets {@link #httpGET(String, java.net.Proxy)} wait for an asynchronous request
+     */
+    private static class BlockingCallback implements OWMFuture.Callback<Response> {
+        private final CountDownLatch latch = new CountDownLatch(1);
+        private Response response;
+        private Throwable failure;
+
+        public void onSuccess(Response result) {
+            this.response = result;
+            latch.countDown();
+        }
+
+        public void onFailure(Throwable cause) {
+            this.failure = cause;
+            latch.countDown();
+        }
+
+        private Response await() throws IOException {
+            try {
+                latch.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("Interrupted while waiting for response");
+            }
+
+            if (failure instanceof IOException) {
+                throw (IOException) failure;
+            } else if (failure != null) {
+                IOException e = new IOException(failure.getMessage());
+                e.initCause(failure);
+                throw e;
+            }
+            return response;
+        }
+    }
+}
@@ -0,0 +1,176 @@
+/*
+ * Copyright (c) 2013-2015 Ashutosh Kumar Singh <me@aksingh.net>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package net.aksingh.owmjapis;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+
+/**
+ * <p>
+ * Result of an asynchronous request to OWM.org.
+ * </p>
+ * <p>
+ * Besides blocking on {@link #get()}, callers can register a {@link Callback} that is invoked
+ * once the result is available, so no thread has to wait for it.
+ * </p>
+ *
+ * @param <V> Type of the result, e.g., {@link net.aksingh.owmjapis.CurrentWeather}
+ * @author Ashutosh Kumar Singh
+ * @version 2026/10/18
+ * @since 2.5.0.6
+ */
+public class OWMFuture<V> extends FutureTask<V> {
+    private static final Runnable NOTHING = new Runnable() {
+        public void run() {
+            // completed through complete() or fail() instead
+        }
+    };
+
+    private final List<Callback<? super V>> callbacks = new ArrayList<Callback<? super V>>(2);
+    private boolean callbacksFired;
+    private final boolean completedExternally;
+
+    OWMFuture(Callable<V> callable) {
+        super(callable);
+        this.completedExternally = false;
+    }
+
+    /**
+     * Constructor for futures completed through {@link #complete(Object)} or {@link #fail(Throwable)}.
+     */
+    OWMFuture() {
+        super(NOTHING, null);
+        this.completedExternally = true;
+    }
+
+    /**
+     * Runs the request, unless this future is completed through {@link #complete(Object)} or
+     * {@link #fail(Throwable)}, which running it must not do with a <code>null</code> result.
+     */
+    public void run() {
+        if (!completedExternally) {
+            super.run();
+        }
+    }
+
+    /**
+     * Registers a callback for the result. If the result is already available, the callback is invoked
+     * right away on the calling thread, otherwise on the thread completing this future.
+     *
+     * @param callback Callback to be invoked
+     */
+    public void addCallback(Callback<? super V> callback) {
+        synchronized (callbacks) {
+            if (!callbacksFired) {
+                callbacks.add(callback);
+                return;
+            }
+        }
+        fire(callback);
+    }
+
+    /**
+     * Completes this future with the result, unless it is already done.
+     */
+    void complete(V result) {
+        set(result);
+    }
+
+    /**
+     * Completes this future with the failure, unless it is already done.
+     */
+    void fail(Throwable cause) {
+        setException(cause);
+    }
+
+    protected void done() {
+        List<Callback<? super V>> toFire;
+        synchronized (callbacks) {
+            callbacksFired = true;
+            toFire = new ArrayList<Callback<? super V>>(callbacks);
+            callbacks.clear();
+        }
+
+        for (Callback<? super V> callback : toFire) {
+            fire(callback);
+        }
+    }
+
+    /**
+     * Invokes the callback, reporting its failure instead of throwing it, so that other callbacks
+     * and the thread completing this future are not affected.
+     */
+    private void fire(Callback<? super V> callback) {
+        try {
+            invoke(callback);
+        } catch (RuntimeException e) {
+            System.err.println("Error: " + e.getMessage());
+        }
+    }
+
+    private void invoke(Callback<? super V> callback) {
+        V result;
+        try {
+            result = get();
+        } catch (ExecutionException e) {
+            callback.onFailure(e.getCause());
+            return;
+        } catch (CancellationException e) {
+            callback.onFailure(e);
+            return;
+        } catch (InterruptedException e) {
+            // cannot happen, the future is done
+            Thread.currentThread().interrupt();
+            callback.onFailure(e);
+            return;
+        }
+        callback.onSuccess(result);
+    }
+
+    /**
+     * <p>
+     * Receives the result of an {@link net.aksingh.owmjapis.OWMFuture}.
+     * </p>
+     *
+     * @param <V> Type of the result
+     * @author Ashutosh Kumar Singh
+     * @version 2026/10/18
+     * @since 2.5.0.6
+     */
+    public static interface Callback<V> {
+
+        /**
+         * @param result Result of the request
+         */
+        public void onSuccess(V result);
+
+        /**
+         * @param cause Reason of the failure, e.g., an {@link java.io.IOException}
+         */
+        public void onFailure(Throwable cause);
+    }
+}
@@ -0,0 +1,275 @@
+/*
+ * Copyright (c) 2013-2015 Ashutosh Kumar Singh <me@aksingh.net>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package net.aksingh.owmjapis;
+
+/**
+ * <p>
+ * Rewrites a response of OWM.org's One Call API as the responses of the current weather, hourly forecast
+ * and daily forecast APIs, so that they are parsed into {@link net.aksingh.owmjapis.CurrentWeather},
+ * {@link net.aksingh.owmjapis.HourlyForecast} and {@link net.aksingh.owmjapis.DailyForecast} as usual.
+ * </p>
+ * <p>
+ * Values are copied as they are, without being decoded; only the fields having the same meaning in both
+ * APIs are kept, e.g., rain of the last hour is not given as rain of the last 3 hours.
+ * </p>
+ *
+ * @author Ashutosh Kumar Singh
+ * @version 2026/10/18
+ * @see <a href="http://openweathermap.org/api/one-call-api">OWM's One Call API</a>
+ * @since 2.5.0.6
+ */
+final class OneCallTranscoder {
+    /*
+    JSON Keys of One Call responses
+     */
+    private static final String JSON_LATITUDE = "lat";
+    private static final String JSON_LONGITUDE = "lon";
+    private static final String JSON_CURRENT = "current";
+    private static final String JSON_HOURLY = "hourly";
+    private static final String JSON_DAILY = "daily";
+    private static final String JSON_DATE_TIME = "dt";
+    private static final String JSON_SUNRISE = "sunrise";
+    private static final String JSON_SUNSET = "sunset";
+    private static final String JSON_TEMP = "temp";
+    private static final String JSON_PRESSURE = "pressure";
+    private static final String JSON_HUMIDITY = "humidity";
+    private static final String JSON_WIND_SPEED = "wind_speed";
+    private static final String JSON_WIND_DEGREE = "wind_deg";
+    private static final String JSON_WIND_GUST = "wind_gust";
+    private static final String JSON_CLOUDS = "clouds";
+    private static final String JSON_RAIN = "rain";
+    private static final String JSON_SNOW = "snow";
+    private static final String JSON_WEATHER = "weather";
+
+    private static final int INITIAL_CAPACITY = 1024;
+
+    private OneCallTranscoder() {
+    }
+
+    /**
+     * @return Response of the current weather API, or <code>null</code> if the response has no current weather.
+     */
+    static byte[] currentWeather(JsonIndex json) {
+        int root = json.root();
+        int current = json.optObject(root, JSON_CURRENT);
+        if (current == JsonIndex.ABSENT) {
+            return null;
+        }
+
+        Writer out = new Writer(json);
+        out.beginObject(null);
+        out.beginObject("coord");
+        out.member("lat", root, JSON_LATITUDE);
+        out.member("lon", root, JSON_LONGITUDE);
+        out.endObject();
+        out.member("dt", current, JSON_DATE_TIME);
+        out.beginObject("sys");
+        out.member("sunrise", current, JSON_SUNRISE);
+        out.member("sunset", current, JSON_SUNSET);
+        out.endObject();
+        out.member("weather", current, JSON_WEATHER);
+        out.beginObject("main");
+        out.member("temp", current, JSON_TEMP);
+        out.member("pressure", current, JSON_PRESSURE);
+        out.member("humidity", current, JSON_HUMIDITY);
+        out.endObject();
+        out.beginObject("wind");
+        out.member("speed", current, JSON_WIND_SPEED);
+        out.member("deg", current, JSON_WIND_DEGREE);
+        out.member("gust", current, JSON_WIND_GUST);
+        out.endObject();
+        out.beginObject("clouds");
+        out.member("all", current, JSON_CLOUDS);
+        out.endObject();
+        out.member("rain", current, JSON_RAIN); // {"1h": ...} as in the current weather API
+        out.member("snow", current, JSON_SNOW);
+        out.ascii(",\"cod\":200");
+        out.endObject();
+        return out.toByteArray();
+    }
+
+    /**
+     * @return Response of the hourly forecast API, or <code>null</code> if the response has no hourly forecast.
+     */
+    static byte[] hourlyForecast(JsonIndex json) {
+        int root = json.root();
+        int hourly = json.optArray(root, JSON_HOURLY);
+        if (hourly == JsonIndex.ABSENT) {
+            return null;
+        }
+
+        Writer out = beginForecast(json, root, hourly);
+        int[] forecasts = json.objectElements(hourly);
+        for (int i = 0; i < forecasts.length; i++) {
+            int forecast = forecasts[i];
+            out.beginObject(null);
+            out.member("dt", forecast, JSON_DATE_TIME);
+            out.beginObject("main");
+            out.member("temp", forecast, JSON_TEMP);
+            out.member("pressure", forecast, JSON_PRESSURE);
+            out.member("humidity", forecast, JSON_HUMIDITY);
+            out.endObject();
+            out.member("weather", forecast, JSON_WEATHER);
+            out.beginObject("clouds");
+            out.member("all", forecast, JSON_CLOUDS);
+            out.endObject();
+            out.beginObject("wind");
+            out.member("speed", forecast, JSON_WIND_SPEED);
+            out.member("deg", forecast, JSON_WIND_DEGREE);
+            out.endObject();
+            out.endObject();
+        }
+        return endForecast(out);
+    }
+
+    /**
+     * @return Response of the daily forecast API, or <code>null</code> if the response has no daily forecast.
+     */
+    static byte[] dailyForecast(JsonIndex json) {
+        int root = json.root();
+        int daily = json.optArray(root, JSON_DAILY);
+        if (daily == JsonIndex.ABSENT) {
+            return null;
+        }
+
+        Writer out = beginForecast(json, root, daily);
+        int[] forecasts = json.objectElements(daily);
+        for (int i = 0; i < forecasts.length; i++) {
+            int forecast = forecasts[i];
+            out.beginObject(null);
+            out.member("dt", forecast, JSON_DATE_TIME);
+            out.member("temp", forecast, JSON_TEMP);
+            out.member("pressure", forecast, JSON_PRESSURE);
+            out.member("humidity", forecast, JSON_HUMIDITY);
+            out.member("weather", forecast, JSON_WEATHER);
+            out.member("speed", forecast, JSON_WIND_SPEED);
+            out.member("deg", forecast, JSON_WIND_DEGREE);
+            out.member("clouds", forecast, JSON_CLOUDS);
+            out.member("rain", forecast, JSON_RAIN);
+            out.member("snow", forecast, JSON_SNOW);
+            out.endObject();
+        }
+        return endForecast(out);
+    }
+
+    private static Writer beginForecast(JsonIndex json, int root, int list) {
+        Writer out = new Writer(json);
+        out.beginObject(null);
+        out.ascii("\"cod\":\"200\",\"cnt\":").ascii(Integer.toString(json.objectElements(list).length));
+        out.first = false;
+        out.beginObject("city");
+        out.beginObject("coord");
+        out.member("lat", root, JSON_LATITUDE);
+        out.member("lon", root, JSON_LONGITUDE);
+        out.endObject();
+        out.endObject();
+        out.ascii(",\"list\":[");
+        out.first = true;
+        return out;
+    }
+
+    private static byte[] endForecast(Writer out) {
+        out.ascii("]}");
+        return out.toByteArray();
+    }
+
+    /**
+     * Writes JSON text, copying values from the One Call response
+     */
+    private static final class Writer {
+        private final JsonIndex json;
+        private final byte[] source;
+        private byte[] bytes = new byte[INITIAL_CAPACITY];
+        private int length;
+        private boolean first = true; // no member or element is written yet in the current object or array
+
+        private Writer(JsonIndex json) {
+            this.json = json;
+            this.source = json.getBytes();
+        }
+
+        private void beginObject(String name) {
+            if (name != null) {
+                name(name);
+            } else if (!first) {
+                ascii(",");
+            }
+            ascii("{");
+            first = true;
+        }
+
+        private void endObject() {
+            ascii("}");
+            first = false;
+        }
+
+        /**
+         * Copies the member of the object, if it is a number, an object or an array.
+         */
+        private void member(String name, int object, String sourceName) {
+            int value = json.member(object, sourceName);
+            int type = json.type(value);
+            if (type == JsonIndex.NUMBER || type == JsonIndex.OBJECT || type == JsonIndex.ARRAY) {
+                name(name);
+                copy(json.startOf(value), json.endOf(value));
+                first = false;
+            }
+        }
+
+        private void name(String name) {
+            if (!first) {
+                ascii(",");
+            }
+            ascii("\"").ascii(name).ascii("\":");
+            first = false;
+        }
+
+        private Writer ascii(String s) {
+            ensureCapacity(s.length());
+            for (int i = 0; i < s.length(); i++) {
+                bytes[length++] = (byte) s.charAt(i);
+            }
+            return this;
+        }
+
+        private void copy(int start, int end) {
+            ensureCapacity(end - start);
+            System.arraycopy(source, start, bytes, length, end - start);
+            length += end - start;
+        }
+
+        private void ensureCapacity(int more) {
+            if (length + more > bytes.length) {
+                byte[] bigger = new byte[Math.max(bytes.length * 2, length + more)];
+                System.arraycopy(bytes, 0, bigger, 0, length);
+                bytes = bigger;
+            }
+        }
+
+        private byte[] toByteArray() {
+            byte[] result = new byte[length];
+            System.arraycopy(bytes, 0, result, 0, length);
+            return result;
+        }
+    }
+}
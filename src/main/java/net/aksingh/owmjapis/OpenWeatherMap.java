@@ -23,16 +23,27 @@
 package net.aksingh.owmjapis;
 
 import org.json.JSONException;
-import org.json.JSONObject;
 
-import java.io.BufferedReader;
+import java.io.FilterInputStream;
 import java.io.IOException;
-import java.io.InputStreamReader;
+import java.io.InputStream;
 import java.io.UnsupportedEncodingException;
 import java.net.*;
-import java.util.zip.GZIPInputStream;
-import java.util.zip.Inflater;
-import java.util.zip.InflaterInputStream;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * <p>
@@ -64,9 +75,15 @@ public class OpenWeatherMap {
     private static final String URL_CURRENT = "weather?";
     private static final String URL_HOURLY_FORECAST = "forecast?";
     private static final String URL_DAILY_FORECAST = "forecast/daily?";
+    private static final String URL_GROUP = "group?";
+    private static final String URL_BOUNDING_BOX = "box/city?";
+    private static final String URL_FIND = "find?";
+    private static final String URL_ONE_CALL = "onecall?";
 
     private static final String PARAM_COUNT = "cnt=";
     private static final String PARAM_CITY_NAME = "q=";
+    private static final String PARAM_BOUNDING_BOX = "bbox=";
+    private static final String PARAM_EXCLUDE = "exclude=";
     private static final String PARAM_CITY_ID = "id=";
     private static final String PARAM_LATITUDE = "lat=";
     private static final String PARAM_LONGITUDE = "lon=";
@@ -75,6 +92,19 @@ public class OpenWeatherMap {
     private static final String PARAM_APPID = "appId=";
     private static final String PARAM_LANG = "lang=";
 
+    private static final String JSON_CITY_LIST = "list";
+    private static final String JSON_CITY_CODE = "id";
+    private static final int MAX_CITY_CODES_PER_GROUP = 20;
+    private static final String ONE_CALL_EXCLUDED = "minutely,alerts"; // not part of a weather bundle
+
+    /*
+    Defaults
+     */
+    private static final int DEFAULT_ASYNC_THREADS = 8;
+    private static final int DEFAULT_BULK_CONCURRENCY = 32;
+    private static final float DEFAULT_MAX_SNAP_DISTANCE = 10f; // kilometers
+    private static final byte DEFAULT_BUNDLE_DAILY_COUNT = 8; // days, as in One Call responses
+
     /*
     Instance Variables
      */
@@ -82,6 +112,69 @@ public class OpenWeatherMap {
     private final OWMResponse owmResponse;
     private final OWMProxy owmProxy;
 
+    private boolean defaultHttpTransport;
+    private ExecutorService executor;
+    private boolean defaultExecutor;
+    private ScheduledExecutorService batchingScheduler;
+    private CityCodeBatcher<CurrentWeather> currentWeatherBatcher;
+
+    private final ResponseParser<CurrentWeather> currentWeatherParser = new ResponseParser<CurrentWeather>() {
+        public CurrentWeather parse(byte[] response) throws JSONException {
+            return currentWeatherFromRawResponse(response);
+        }
+    };
+    private final ResponseParser<HourlyForecast> hourlyForecastParser = new ResponseParser<HourlyForecast>() {
+        public HourlyForecast parse(byte[] response) throws JSONException {
+            return hourlyForecastFromRawResponse(response);
+        }
+    };
+    private final ResponseParser<DailyForecast> dailyForecastParser = new ResponseParser<DailyForecast>() {
+        public DailyForecast parse(byte[] response) throws JSONException {
+            return dailyForecastFromRawResponse(response);
+        }
+    };
+    private final ResponseParser<WeatherBundle> weatherBundleParser = new ResponseParser<WeatherBundle>() {
+        public WeatherBundle parse(byte[] response) throws JSONException {
+            return weatherBundleFromRawResponse(response);
+        }
+    };
+    private final ResponseListReader.ElementParser<CurrentWeather> currentWeatherListParser = new ResponseListReader.ElementParser<CurrentWeather>() {
+        public CurrentWeather parse(byte[] data, int offset, int length) {
+            JsonIndex json = JsonIndex.parse(data, offset, length, fieldProjection);
+            json.setRawResponseStorage(rawResponseStorage);
+            return new CurrentWeather(json, json.root(), HttpURLConnection.HTTP_OK, lazyDecoding);
+        }
+    };
+    private final ResponseParser<Map<Long, CurrentWeather>> currentWeatherGroupParser = new ResponseParser<Map<Long, CurrentWeather>>() {
+        public Map<Long, CurrentWeather> parse(byte[] response) throws JSONException {
+            JsonIndex json = JsonIndex.parse(response, groupFieldProjection);
+            json.setRawResponseStorage(rawResponseStorage);
+
+            // cities of the list have no response code of their own; they are valid as the list is
+            int[] cityObjs = json.objectElements(json.optArray(json.root(), JSON_CITY_LIST));
+            Map<Long, CurrentWeather> found = new HashMap<Long, CurrentWeather>(cityObjs.length * 2);
+            for (int i = 0; i < cityObjs.length; i++) {
+                CurrentWeather weather = new CurrentWeather(json, cityObjs[i], HttpURLConnection.HTTP_OK, lazyDecoding);
+                if (weather.hasCityCode()) {
+                    found.put(weather.getCityCode(), weather);
+                }
+            }
+            return found;
+        }
+    };
+
+    private volatile ThreadFactory bulkThreadFactory = new DaemonThreadFactory("owm-japis-bulk");
+    private volatile int bulkConcurrency = DEFAULT_BULK_CONCURRENCY;
+    private volatile boolean lazyDecoding = false;
+    private volatile RawResponseStorage rawResponseStorage = RawResponseStorage.ORIGINAL;
+    private volatile FieldProjection fieldProjection = null;
+    private volatile FieldProjection groupFieldProjection = null; // same fields, within the list of cities
+    private volatile int parallelDecodingThreshold = 0;
+    private volatile CityLocator cityLocator = null;
+    private volatile float maxSnapDistance = DEFAULT_MAX_SNAP_DISTANCE;
+    private volatile long batchingLingerTime = 0;
+    private volatile long weatherBundleTimeout = 0;
+
     /**
      * Constructor
      *
@@ -118,7 +211,25 @@ public class OpenWeatherMap {
     public OpenWeatherMap(Units units, Language lang, String apiKey) {
         this.owmAddress = new OWMAddress(units, lang, apiKey);
         this.owmProxy = new OWMProxy(null, Integer.MIN_VALUE, null, null);
-        this.owmResponse = new OWMResponse(owmAddress, owmProxy);
+        this.owmResponse = new OWMResponse(owmAddress, owmProxy, new PooledHttpTransport());
+        this.defaultHttpTransport = true;
+    }
+
+    /**
+     * Constructor
+     *
+     * @param units         Any constant from Units
+     * @param lang          Any constant from Language
+     * @param apiKey        API key from OWM.org
+     * @param httpTransport Transport for sending HTTP requests to OWM.org; one transport (and so its
+     *                      connections) can be shared by many objects of this class
+     * @see net.aksingh.owmjapis.HttpTransport
+     * @see <a href="http://openweathermap.org/appid">OWM.org's API Key</a>
+     */
+    public OpenWeatherMap(Units units, Language lang, String apiKey, HttpTransport httpTransport) {
+        this.owmAddress = new OWMAddress(units, lang, apiKey);
+        this.owmProxy = new OWMProxy(null, Integer.MIN_VALUE, null, null);
+        this.owmResponse = new OWMResponse(owmAddress, owmProxy, httpTransport);
     }
 
     /*
@@ -144,6 +255,61 @@ public class OpenWeatherMap {
         return owmAddress.getLang();
     }
 
+    public HttpTransport getHttpTransport() {
+        return owmResponse.getHttpTransport();
+    }
+
+    /**
+     * @return Executor running the asynchronous requests; a default one is created on first use.
+     */
+    public synchronized ExecutorService getExecutor() {
+        if (executor == null) {
+            executor = Executors.newFixedThreadPool(DEFAULT_ASYNC_THREADS, new DaemonThreadFactory("owm-japis-async"));
+            defaultExecutor = true;
+        }
+        return executor;
+    }
+
+    public ThreadFactory getBulkThreadFactory() {
+        return this.bulkThreadFactory;
+    }
+
+    public int getBulkConcurrency() {
+        return this.bulkConcurrency;
+    }
+
+    public boolean isLazyDecoding() {
+        return this.lazyDecoding;
+    }
+
+    public RawResponseStorage getRawResponseStorage() {
+        return this.rawResponseStorage;
+    }
+
+    public FieldProjection getFieldProjection() {
+        return this.fieldProjection;
+    }
+
+    public int getParallelDecodingThreshold() {
+        return this.parallelDecodingThreshold;
+    }
+
+    public CityLocator getCityLocator() {
+        return this.cityLocator;
+    }
+
+    public float getMaxSnapDistance() {
+        return this.maxSnapDistance;
+    }
+
+    public long getBatchingLingerTime() {
+        return this.batchingLingerTime;
+    }
+
+    public long getWeatherBundleTimeout() {
+        return this.weatherBundleTimeout;
+    }
+
     /*
     Setters
      */
@@ -175,126 +341,1063 @@ public class OpenWeatherMap {
      * @see net.aksingh.owmjapis.OpenWeatherMap.Language
      * @see <a href="http://openweathermap.org/current#multi">OWM.org's Multilingual support</a>
      */
-    public void setLang(Language lang) {
-        owmAddress.setLang(lang);
+    public void setLang(Language lang) {
+        owmAddress.setLang(lang);
+    }
+
+    /**
+     * Set proxy for getting data from OWM.org
+     *
+     * @param ip IP address of the proxy
+     * @param port Port address of the proxy
+     */
+    public void setProxy(String ip, int port) {
+        owmProxy.setIp(ip);
+        owmProxy.setPort(port);
+        owmProxy.setUser(null);
+        owmProxy.setPass(null);
+    }
+
+    /**
+     * Set proxy and authentication details for getting data from OWM.org
+     *
+     * @param ip IP address of the proxy
+     * @param port Port address of the proxy
+     * @param user User name for the proxy if required
+     * @param pass Password for the proxy if required
+     */
+    public void setProxy(String ip, int port, String user, String pass) {
+        owmProxy.setIp(ip);
+        owmProxy.setPort(port);
+        owmProxy.setUser(user);
+        owmProxy.setPass(pass);
+    }
+
+    /**
+     * Set transport for sending HTTP requests to OWM.org.
+     * One transport (and so its connections) can be shared by many objects of this class,
+     * as it is not closed by {@link #close()}.
+     *
+     * @param httpTransport Transport to be used, e.g., {@link net.aksingh.owmjapis.PooledHttpTransport}
+     * @throws IllegalArgumentException if transport is <code>null</code>.
+     * @see net.aksingh.owmjapis.HttpTransport
+     */
+    public void setHttpTransport(HttpTransport httpTransport)
+            throws IllegalArgumentException {
+        HttpTransport previous;
+        synchronized (this) {
+            previous = (defaultHttpTransport) ? owmResponse.getHttpTransport() : null;
+            owmResponse.setHttpTransport(httpTransport);
+            this.defaultHttpTransport = false;
+        }
+        if (previous != null) {
+            previous.close();
+        }
+    }
+
+    /**
+     * Set executor for running the asynchronous requests, i.e., <code>*Async</code> methods.
+     * The executor is not shut down by {@link #close()}.
+     *
+     * @param executor Executor to be used
+     * @throws IllegalArgumentException if executor is <code>null</code>.
+     */
+    public void setExecutor(ExecutorService executor)
+            throws IllegalArgumentException {
+        if (executor == null) {
+            throw new IllegalArgumentException("Executor cannot be null.");
+        }
+
+        ExecutorService previous;
+        synchronized (this) {
+            previous = (defaultExecutor) ? this.executor : null;
+            this.executor = executor;
+            this.defaultExecutor = false;
+        }
+        if (previous != null) {
+            previous.shutdown();
+        }
+    }
+
+    /**
+     * Set factory of the threads running the requests of bulk lookups, one thread per request.
+     * On Java 21 and later, <code>Thread.ofVirtual().factory()</code> is the recommended factory.
+     *
+     * @param threadFactory Thread factory to be used
+     * @throws IllegalArgumentException if thread factory is <code>null</code>.
+     * @see net.aksingh.owmjapis.BulkLookup
+     */
+    public void setBulkThreadFactory(ThreadFactory threadFactory)
+            throws IllegalArgumentException {
+        if (threadFactory == null) {
+            throw new IllegalArgumentException("Thread factory cannot be null.");
+        }
+        this.bulkThreadFactory = threadFactory;
+    }
+
+    /**
+     * Set maximum count of requests in flight at the same time for each bulk lookup.
+     *
+     * @param maxConcurrency Maximum count of requests in flight
+     * @throws IllegalArgumentException if count is less than 1.
+     * @see net.aksingh.owmjapis.BulkLookup
+     */
+    public void setBulkConcurrency(int maxConcurrency)
+            throws IllegalArgumentException {
+        if (maxConcurrency < 1) {
+            throw new IllegalArgumentException("Concurrency cannot be less than 1.");
+        }
+        this.bulkConcurrency = maxConcurrency;
+    }
+
+    /**
+     * Set if responses are decoded lazily. If so, nested instances (e.g., Main or Wind) and forecasts
+     * are decoded from the response when first accessed, instead of all at once while parsing.
+     * This saves time and memory when only a few of them are read, but keeps the response in memory
+     * as long as the parsed object is.
+     *
+     * @param lazyDecoding <code>true</code> to decode lazily, <code>false</code> (default) otherwise
+     */
+    public void setLazyDecoding(boolean lazyDecoding) {
+        this.lazyDecoding = lazyDecoding;
+    }
+
+    /**
+     * Set how parsed objects keep their raw response. Caches holding many parsed objects can save
+     * much memory by compressing the raw response, or by not keeping it.
+     *
+     * @param rawResponseStorage Any constant from RawResponseStorage; default is keeping the bytes as received
+     * @throws IllegalArgumentException if storage is <code>null</code>.
+     * @see net.aksingh.owmjapis.OpenWeatherMap.RawResponseStorage
+     */
+    public void setRawResponseStorage(RawResponseStorage rawResponseStorage)
+            throws IllegalArgumentException {
+        if (rawResponseStorage == null) {
+            throw new IllegalArgumentException("Raw response storage cannot be null.");
+        }
+        this.rawResponseStorage = rawResponseStorage;
+    }
+
+    /**
+     * Set fields to be parsed from the responses. Other fields are skipped while parsing, and so
+     * are not available from the parsed objects, e.g., their <code>has*</code> methods return <code>false</code>.
+     * The raw response is kept unchanged.
+     *
+     * @param fieldProjection Fields to be parsed, or <code>null</code> (default) for all fields
+     * @see net.aksingh.owmjapis.FieldProjection
+     */
+    public void setFieldProjection(FieldProjection fieldProjection) {
+        this.fieldProjection = fieldProjection;
+        this.groupFieldProjection = (fieldProjection != null) ? withinCityList(fieldProjection) : null;
+    }
+
+    /**
+     * Set minimum count of forecasts in a response to be decoded in parallel, on the executor
+     * given by {@link #getExecutor()}. The parsing thread decodes its share of forecasts too,
+     * and order of forecasts is kept. Not used while decoding lazily, as forecasts are decoded when accessed.
+     *
+     * @param parallelDecodingThreshold Minimum count of forecasts, or <code>0</code> (default) to decode on the parsing thread only
+     * @throws IllegalArgumentException if threshold is negative.
+     */
+    public void setParallelDecodingThreshold(int parallelDecodingThreshold)
+            throws IllegalArgumentException {
+        if (parallelDecodingThreshold < 0) {
+            throw new IllegalArgumentException("Parallel decoding threshold cannot be negative.");
+        }
+        this.parallelDecodingThreshold = parallelDecodingThreshold;
+    }
+
+    /**
+     * Set locator of cities to snap coordinates to. Requests by coordinates are then made by code
+     * of the nearest city, if it is within {@link #getMaxSnapDistance()}, so that requests for nearby
+     * coordinates become the same request. Otherwise, they are made by coordinates as usual.
+     *
+     * @param cityLocator Locator of cities, or <code>null</code> (default) to request by coordinates always
+     * @see net.aksingh.owmjapis.CityLocator
+     */
+    public void setCityLocator(CityLocator cityLocator) {
+        this.cityLocator = cityLocator;
+    }
+
+    /**
+     * Set maximum distance between coordinates and the city they are snapped to.
+     *
+     * @param maxSnapDistance Maximum distance in kilometers; default is 10
+     * @throws IllegalArgumentException if distance is negative.
+     * @see #setCityLocator(CityLocator)
+     */
+    public void setMaxSnapDistance(float maxSnapDistance)
+            throws IllegalArgumentException {
+        if (!(maxSnapDistance >= 0f)) {
+            throw new IllegalArgumentException("Max snap distance cannot be negative.");
+        }
+        this.maxSnapDistance = maxSnapDistance;
+    }
+
+    /**
+     * Set time for which requests of current weather by city code wait for other such requests, to be sent
+     * together as one request for many cities, i.e., as by {@link #currentWeatherByCityCodes(long[])}.
+     * A batch is sent as soon as it has 20 requests. Every caller still gets the current weather of its own city,
+     * and the requests by coordinates snapped to cities are batched too.
+     *
+     * @param batchingLingerTime Time in milliseconds, or <code>0</code> (default) to send every request on its own
+     * @throws IllegalArgumentException if time is negative.
+     * @see #setCityLocator(CityLocator)
+     */
+    public void setBatchingLingerTime(long batchingLingerTime)
+            throws IllegalArgumentException {
+        if (batchingLingerTime < 0) {
+            throw new IllegalArgumentException("Batching linger time cannot be negative.");
+        }
+        CityCodeBatcher<CurrentWeather> toFlush;
+        synchronized (this) {
+            this.batchingLingerTime = batchingLingerTime;
+            toFlush = this.currentWeatherBatcher;
+            this.currentWeatherBatcher = null;
+        }
+        if (toFlush != null) {
+            toFlush.flush();
+        }
+    }
+
+    /**
+     * Set time for which {@link #weatherBundleByCityCode(long, byte)} waits for its requests, all together.
+     * Parts not got in time are left out of the bundle.
+     *
+     * @param weatherBundleTimeout Time in milliseconds, or <code>0</code> (default) to wait as long as the requests take
+     * @throws IllegalArgumentException if time is negative.
+     */
+    public void setWeatherBundleTimeout(long weatherBundleTimeout)
+            throws IllegalArgumentException {
+        if (weatherBundleTimeout < 0) {
+            throw new IllegalArgumentException("Weather bundle timeout cannot be negative.");
+        }
+        this.weatherBundleTimeout = weatherBundleTimeout;
+    }
+
+    /**
+     * Releases the connections and threads held by this object, i.e., by its default transport and executor.
+     * Transports and executors set by the caller are left open, as they may be shared.
+     */
+    public void close() {
+        // batched requests are sent before the executor stops taking them
+        CityCodeBatcher<CurrentWeather> toFlush;
+        ScheduledExecutorService schedulerToShutdown;
+        synchronized (this) {
+            toFlush = this.currentWeatherBatcher;
+            this.currentWeatherBatcher = null;
+            schedulerToShutdown = this.batchingScheduler;
+            this.batchingScheduler = null;
+        }
+        if (schedulerToShutdown != null) {
+            schedulerToShutdown.shutdownNow();
+        }
+        if (toFlush != null) {
+            toFlush.flush();
+        }
+
+        ExecutorService toShutdown;
+        HttpTransport toClose;
+        synchronized (this) {
+            toShutdown = (defaultExecutor) ? this.executor : null;
+            this.executor = null;
+            this.defaultExecutor = false;
+
+            toClose = (defaultHttpTransport) ? owmResponse.getHttpTransport() : null;
+        }
+        if (toShutdown != null) {
+            toShutdown.shutdown();
+        }
+        if (toClose != null) {
+            toClose.close();
+        }
+    }
+
+    public CurrentWeather currentWeatherByCityName(String cityName)
+            throws IOException, JSONException {
+        byte[] response = owmResponse.currentWeatherByCityName(cityName);
+        return this.currentWeatherFromRawResponse(response);
+    }
+
+    public OWMFuture<CurrentWeather> currentWeatherByCityNameAsync(String cityName) {
+        try {
+            return requestAsync(owmAddress.currentWeatherByCityName(cityName), currentWeatherParser);
+        } catch (UnsupportedEncodingException e) {
+            return failedFuture(e);
+        }
+    }
+
+    public CurrentWeather currentWeatherByCityName(String cityName, String countryCode)
+            throws IOException, JSONException {
+        byte[] response = owmResponse.currentWeatherByCityName(cityName, countryCode);
+        return this.currentWeatherFromRawResponse(response);
+    }
+
+    public OWMFuture<CurrentWeather> currentWeatherByCityNameAsync(String cityName, String countryCode) {
+        try {
+            return requestAsync(owmAddress.currentWeatherByCityName(cityName, countryCode), currentWeatherParser);
+        } catch (UnsupportedEncodingException e) {
+            return failedFuture(e);
+        }
+    }
+
+    public CurrentWeather currentWeatherByCityCode(long cityCode)
+            throws JSONException {
+        CityCodeBatcher<CurrentWeather> batcher = currentWeatherBatcher();
+        if (batcher != null) {
+            return await(batcher.submit(cityCode));
+        }
+        byte[] response = owmResponse.currentWeatherByCityCode(cityCode);
+        return this.currentWeatherFromRawResponse(response);
+    }
+
+    public OWMFuture<CurrentWeather> currentWeatherByCityCodeAsync(long cityCode) {
+        CityCodeBatcher<CurrentWeather> batcher = currentWeatherBatcher();
+        if (batcher != null) {
+            return batcher.submit(cityCode);
+        }
+        return requestAsync(owmAddress.currentWeatherByCityCode(cityCode), currentWeatherParser);
+    }
+
+    public CurrentWeather currentWeatherByCoordinates(float latitude, float longitude)
+            throws JSONException {
+        long cityCode = snapToCityCode(latitude, longitude);
+        if (cityCode != Long.MIN_VALUE) {
+            return currentWeatherByCityCode(cityCode);
+        }
+        byte[] response = owmResponse.currentWeatherByCoordinates(latitude, longitude);
+        return this.currentWeatherFromRawResponse(response);
+    }
+
+    public OWMFuture<CurrentWeather> currentWeatherByCoordinatesAsync(float latitude, float longitude) {
+        long cityCode = snapToCityCode(latitude, longitude);
+        if (cityCode != Long.MIN_VALUE) {
+            return currentWeatherByCityCodeAsync(cityCode);
+        }
+        return requestAsync(owmAddress.currentWeatherByCoordinates(latitude, longitude), currentWeatherParser);
+    }
+
+    /**
+     * Looks up current weather of many cities, one request (and thread) per city.
+     *
+     * @param cityCodes Codes of the cities
+     * @return Lookup handing back the results in order of completion
+     * @see net.aksingh.owmjapis.BulkLookup
+     */
+    public BulkLookup<CurrentWeather> bulkCurrentWeatherByCityCode(long[] cityCodes) {
+        return new BulkLookup<CurrentWeather>(cityCodes, new BulkLookup.Request<CurrentWeather>() {
+            public CurrentWeather lookup(long cityCode) throws Exception {
+                return currentWeatherByCityCode(cityCode);
+            }
+        }, bulkThreadFactory, bulkConcurrency);
+    }
+
+    /**
+     * Gets current weather of many cities by as few requests as possible, as by
+     * {@link #currentWeatherByCityCodesAsync(long[])}, and waits for all of them.
+     *
+     * @param cityCodes Codes of the cities
+     * @return Current weather by city code, in order of the given codes
+     * @throws JSONException if a response is not a JSON object.
+     */
+    public Map<Long, CurrentWeather> currentWeatherByCityCodes(long[] cityCodes)
+            throws JSONException {
+        return await(currentWeatherByCityCodesAsync(cityCodes));
+    }
+
+    /**
+     * Gets current weather of many cities by OWM.org's group requests, one request per 20 cities,
+     * all sent at once. Cities not found, and cities whose request failed, have an invalid
+     * current weather, i.e., {@link net.aksingh.owmjapis.CurrentWeather#isValid()} gives <code>false</code>.
+     *
+     * @param cityCodes Codes of the cities
+     * @return Future of current weather by city code, in order of the given codes
+     * @throws IllegalArgumentException if city codes are <code>null</code>.
+     */
+    public OWMFuture<Map<Long, CurrentWeather>> currentWeatherByCityCodesAsync(long[] cityCodes)
+            throws IllegalArgumentException {
+        if (cityCodes == null) {
+            throw new IllegalArgumentException("City codes cannot be null.");
+        }
+
+        Set<Long> seen = new HashSet<Long>(cityCodes.length * 2);
+        long[] distinct = new long[cityCodes.length];
+        int count = 0;
+        for (int i = 0; i < cityCodes.length; i++) {
+            if (seen.add(cityCodes[i])) {
+                distinct[count++] = cityCodes[i];
+            }
+        }
+        final long[] requested = new long[count];
+        System.arraycopy(distinct, 0, requested, 0, count);
+
+        final OWMFuture<Map<Long, CurrentWeather>> future = new OWMFuture<Map<Long, CurrentWeather>>();
+        if (count == 0) {
+            future.complete(new LinkedHashMap<Long, CurrentWeather>());
+            return future;
+        }
+
+        final Map<Long, CurrentWeather> found = new HashMap<Long, CurrentWeather>(count * 2);
+        final AtomicInteger remaining = new AtomicInteger((count + MAX_CITY_CODES_PER_GROUP - 1) / MAX_CITY_CODES_PER_GROUP);
+
+        OWMFuture.Callback<Map<Long, CurrentWeather>> callback = new OWMFuture.Callback<Map<Long, CurrentWeather>>() {
+            public void onSuccess(Map<Long, CurrentWeather> result) {
+                synchronized (found) {
+                    found.putAll(result);
+                }
+                groupDone();
+            }
+
+            public void onFailure(Throwable cause) {
+                // cities of the failed group are left out of found, i.e., are invalid
+                System.err.println("Error: " + cause.getMessage());
+                groupDone();
+            }
+
+            private void groupDone() {
+                if (remaining.decrementAndGet() == 0) {
+                    try {
+                        future.complete(inOrder(requested, found));
+                    } catch (Throwable t) {
+                        future.fail(t);
+                    }
+                }
+            }
+        };
+        for (int from = 0; from < count; from += MAX_CITY_CODES_PER_GROUP) {
+            int to = Math.min(from + MAX_CITY_CODES_PER_GROUP, count);
+            requestAsync(owmAddress.currentWeatherByCityCodes(requested, from, to), currentWeatherGroupParser)
+                    .addCallback(callback);
+        }
+        return future;
+    }
+
+    /**
+     * Gets current weather of the cities within a bounding box. Cities are parsed one by one
+     * while the response is received, by the returned reader.
+     *
+     * @param lonLeft   Longitude of the left side of the box
+     * @param latBottom Latitude of the bottom side of the box
+     * @param lonRight  Longitude of the right side of the box
+     * @param latTop    Latitude of the top side of the box
+     * @param zoom      Zoom level of the map, deciding how many cities are found
+     * @return Reader handing back current weather of the cities; it must be closed
+     * @throws IOException if the request fails.
+     * @see net.aksingh.owmjapis.ResponseListReader
+     */
+    public ResponseListReader<CurrentWeather> currentWeatherByBoundingBox(float lonLeft, float latBottom,
+                                                                          float lonRight, float latTop, int zoom)
+            throws IOException {
+        InputStream body = owmResponse.httpGETStream(owmAddress.currentWeatherByBoundingBox(lonLeft, latBottom, lonRight, latTop, zoom));
+        return new ResponseListReader<CurrentWeather>(body, JSON_CITY_LIST, currentWeatherListParser);
+    }
+
+    /**
+     * Gets current weather of the cities nearest to the coordinates. Cities are parsed one by one
+     * while the response is received, by the returned reader.
+     *
+     * @param latitude  Latitude of the center
+     * @param longitude Longitude of the center
+     * @param count     Count of cities to be found
+     * @return Reader handing back current weather of the cities, nearest first; it must be closed
+     * @throws IOException if the request fails.
+     * @see net.aksingh.owmjapis.ResponseListReader
+     */
+    public ResponseListReader<CurrentWeather> currentWeatherAroundCoordinates(float latitude, float longitude, int count)
+            throws IOException {
+        InputStream body = owmResponse.httpGETStream(owmAddress.currentWeatherAroundCoordinates(latitude, longitude, count));
+        return new ResponseListReader<CurrentWeather>(body, JSON_CITY_LIST, currentWeatherListParser);
+    }
+
+    public CurrentWeather currentWeatherFromRawResponse(String response)
+            throws JSONException {
+        JsonIndex json = JsonIndex.parse(response, fieldProjection);
+        json.setRawResponseStorage(rawResponseStorage);
+        return new CurrentWeather(json, json.root(), lazyDecoding);
+    }
+
+    /**
+     * Parses a raw response straight from its UTF-8 bytes.
+     *
+     * @param response Raw response, encoded in UTF-8
+     * @return Parsed response
+     * @throws JSONException if the response is not a JSON object.
+     */
+    public CurrentWeather currentWeatherFromRawResponse(byte[] response)
+            throws JSONException {
+        JsonIndex json = JsonIndex.parse(response, fieldProjection);
+        json.setRawResponseStorage(rawResponseStorage);
+        return new CurrentWeather(json, json.root(), lazyDecoding);
+    }
+
+    /**
+     * Reads a bulk file of OWM.org, having one response of current weather per line, gzipped or not.
+     * Responses are parsed on the executor given by {@link #getExecutor()}, as per the settings of this object
+     * (e.g., lazy decoding or field projection).
+     *
+     * @param file Content of the file; it is closed by the reader
+     * @return Reader handing back the parsed responses in the order of the file
+     * @throws IOException if the file cannot be read.
+     * @see net.aksingh.owmjapis.BulkFileReader
+     */
+    public BulkFileReader<CurrentWeather> currentWeatherFromBulkFile(InputStream file)
+            throws IOException {
+        return new BulkFileReader<CurrentWeather>(file, new BulkFileReader.LineParser<CurrentWeather>() {
+            public CurrentWeather parse(byte[] data, int offset, int length) {
+                JsonIndex json = JsonIndex.parse(data, offset, length, fieldProjection);
+                json.setRawResponseStorage(rawResponseStorage);
+                return new CurrentWeather(json, json.root(), lazyDecoding);
+            }
+        }, getExecutor());
+    }
+
+    public HourlyForecast hourlyForecastByCityName(String cityName)
+            throws IOException, JSONException {
+        byte[] response = owmResponse.hourlyForecastByCityName(cityName);
+        return this.hourlyForecastFromRawResponse(response);
+    }
+
+    public OWMFuture<HourlyForecast> hourlyForecastByCityNameAsync(String cityName) {
+        try {
+            return requestAsync(owmAddress.hourlyForecastByCityName(cityName), hourlyForecastParser);
+        } catch (UnsupportedEncodingException e) {
+            return failedFuture(e);
+        }
+    }
+
+    public HourlyForecast hourlyForecastByCityName(String cityName, String countryCode)
+            throws IOException, JSONException {
+        byte[] response = owmResponse.hourlyForecastByCityName(cityName, countryCode);
+        return this.hourlyForecastFromRawResponse(response);
+    }
+
+    public OWMFuture<HourlyForecast> hourlyForecastByCityNameAsync(String cityName, String countryCode) {
+        try {
+            return requestAsync(owmAddress.hourlyForecastByCityName(cityName, countryCode), hourlyForecastParser);
+        } catch (UnsupportedEncodingException e) {
+            return failedFuture(e);
+        }
+    }
+
+    public HourlyForecast hourlyForecastByCityCode(long cityCode)
+            throws JSONException {
+        byte[] response = owmResponse.hourlyForecastByCityCode(cityCode);
+        return this.hourlyForecastFromRawResponse(response);
+    }
+
+    public OWMFuture<HourlyForecast> hourlyForecastByCityCodeAsync(long cityCode) {
+        return requestAsync(owmAddress.hourlyForecastByCityCode(cityCode), hourlyForecastParser);
+    }
+
+    public HourlyForecast hourlyForecastByCoordinates(float latitude, float longitude)
+            throws JSONException {
+        long cityCode = snapToCityCode(latitude, longitude);
+        if (cityCode != Long.MIN_VALUE) {
+            return hourlyForecastByCityCode(cityCode);
+        }
+        byte[] response = owmResponse.hourlyForecastByCoordinates(latitude, longitude);
+        return this.hourlyForecastFromRawResponse(response);
+    }
+
+    public OWMFuture<HourlyForecast> hourlyForecastByCoordinatesAsync(float latitude, float longitude) {
+        long cityCode = snapToCityCode(latitude, longitude);
+        if (cityCode != Long.MIN_VALUE) {
+            return hourlyForecastByCityCodeAsync(cityCode);
+        }
+        return requestAsync(owmAddress.hourlyForecastByCoordinates(latitude, longitude), hourlyForecastParser);
+    }
+
+    /**
+     * Looks up hourly forecasts of many cities, one request (and thread) per city.
+     *
+     * @param cityCodes Codes of the cities
+     * @return Lookup handing back the results in order of completion
+     * @see net.aksingh.owmjapis.BulkLookup
+     */
+    public BulkLookup<HourlyForecast> bulkHourlyForecastByCityCode(long[] cityCodes) {
+        return new BulkLookup<HourlyForecast>(cityCodes, new BulkLookup.Request<HourlyForecast>() {
+            public HourlyForecast lookup(long cityCode) throws Exception {
+                return hourlyForecastByCityCode(cityCode);
+            }
+        }, bulkThreadFactory, bulkConcurrency);
+    }
+
+    public HourlyForecast hourlyForecastFromRawResponse(String response)
+            throws JSONException {
+        JsonIndex json = JsonIndex.parse(response, fieldProjection);
+        json.setRawResponseStorage(rawResponseStorage);
+        return new HourlyForecast(json, json.root(), lazyDecoding, parallelDecoder());
+    }
+
+    /**
+     * Parses a raw response straight from its UTF-8 bytes.
+     *
+     * @param response Raw response, encoded in UTF-8
+     * @return Parsed response
+     * @throws JSONException if the response is not a JSON object.
+     */
+    public HourlyForecast hourlyForecastFromRawResponse(byte[] response)
+            throws JSONException {
+        JsonIndex json = JsonIndex.parse(response, fieldProjection);
+        json.setRawResponseStorage(rawResponseStorage);
+        return new HourlyForecast(json, json.root(), lazyDecoding, parallelDecoder());
+    }
+
+    /**
+     * Reads a bulk file of OWM.org, having one response of hourly forecast per line, gzipped or not.
+     * Responses are parsed on the executor given by {@link #getExecutor()}, as per the settings of this object
+     * (e.g., lazy decoding or field projection).
+     *
+     * @param file Content of the file; it is closed by the reader
+     * @return Reader handing back the parsed responses in the order of the file
+     * @throws IOException if the file cannot be read.
+     * @see net.aksingh.owmjapis.BulkFileReader
+     */
+    public BulkFileReader<HourlyForecast> hourlyForecastFromBulkFile(InputStream file)
+            throws IOException {
+        return new BulkFileReader<HourlyForecast>(file, new BulkFileReader.LineParser<HourlyForecast>() {
+            public HourlyForecast parse(byte[] data, int offset, int length) {
+                JsonIndex json = JsonIndex.parse(data, offset, length, fieldProjection);
+                json.setRawResponseStorage(rawResponseStorage);
+                return new HourlyForecast(json, json.root(), lazyDecoding, parallelDecoder());
+            }
+        }, getExecutor());
+    }
+
+    /**
+     * Parses the forecast list of a raw response of hourly forecast into columns, without creating forecast objects.
+     *
+     * @param response Raw response, encoded in UTF-8
+     * @return Columns of the forecast list
+     * @throws JSONException if the response is not a JSON object.
+     * @see net.aksingh.owmjapis.ForecastColumns
+     */
+    public ForecastColumns hourlyForecastColumnsFromRawResponse(byte[] response)
+            throws JSONException {
+        JsonIndex json = JsonIndex.parse(response, fieldProjection);
+        return ForecastColumns.hourly(json, json.root());
+    }
+
+    public ForecastColumns hourlyForecastColumnsFromRawResponse(String response)
+            throws JSONException {
+        JsonIndex json = JsonIndex.parse(response, fieldProjection);
+        return ForecastColumns.hourly(json, json.root());
+    }
+
+    public DailyForecast dailyForecastByCityName(String cityName, byte count)
+            throws IOException, JSONException {
+        byte[] response = owmResponse.dailyForecastByCityName(cityName, count);
+        return this.dailyForecastFromRawResponse(response);
+    }
+
+    public OWMFuture<DailyForecast> dailyForecastByCityNameAsync(String cityName, byte count) {
+        try {
+            return requestAsync(owmAddress.dailyForecastByCityName(cityName, count), dailyForecastParser);
+        } catch (UnsupportedEncodingException e) {
+            return failedFuture(e);
+        }
+    }
+
+    public DailyForecast dailyForecastByCityName(String cityName, String countryCode, byte count)
+            throws IOException, JSONException {
+        byte[] response = owmResponse.dailyForecastByCityName(cityName, countryCode, count);
+        return this.dailyForecastFromRawResponse(response);
+    }
+
+    public OWMFuture<DailyForecast> dailyForecastByCityNameAsync(String cityName, String countryCode, byte count) {
+        try {
+            return requestAsync(owmAddress.dailyForecastByCityName(cityName, countryCode, count), dailyForecastParser);
+        } catch (UnsupportedEncodingException e) {
+            return failedFuture(e);
+        }
+    }
+
+    public DailyForecast dailyForecastByCityCode(long cityCode, byte count)
+            throws JSONException {
+        byte[] response = owmResponse.dailyForecastByCityCode(cityCode, count);
+        return this.dailyForecastFromRawResponse(response);
+    }
+
+    public OWMFuture<DailyForecast> dailyForecastByCityCodeAsync(long cityCode, byte count) {
+        return requestAsync(owmAddress.dailyForecastByCityCode(cityCode, count), dailyForecastParser);
+    }
+
+    public DailyForecast dailyForecastByCoordinates(float latitude, float longitude, byte count)
+            throws JSONException {
+        long cityCode = snapToCityCode(latitude, longitude);
+        if (cityCode != Long.MIN_VALUE) {
+            return dailyForecastByCityCode(cityCode, count);
+        }
+        byte[] response = owmResponse.dailyForecastByCoordinates(latitude, longitude, count);
+        return this.dailyForecastFromRawResponse(response);
+    }
+
+    public OWMFuture<DailyForecast> dailyForecastByCoordinatesAsync(float latitude, float longitude, byte count) {
+        long cityCode = snapToCityCode(latitude, longitude);
+        if (cityCode != Long.MIN_VALUE) {
+            return dailyForecastByCityCodeAsync(cityCode, count);
+        }
+        return requestAsync(owmAddress.dailyForecastByCoordinates(latitude, longitude, count), dailyForecastParser);
+    }
+
+    /**
+     * Looks up daily forecasts of many cities, one request (and thread) per city.
+     *
+     * @param cityCodes Codes of the cities
+     * @param count     Count of days to be forecasted
+     * @return Lookup handing back the results in order of completion
+     * @see net.aksingh.owmjapis.BulkLookup
+     */
+    public BulkLookup<DailyForecast> bulkDailyForecastByCityCode(long[] cityCodes, final byte count) {
+        return new BulkLookup<DailyForecast>(cityCodes, new BulkLookup.Request<DailyForecast>() {
+            public DailyForecast lookup(long cityCode) throws Exception {
+                return dailyForecastByCityCode(cityCode, count);
+            }
+        }, bulkThreadFactory, bulkConcurrency);
+    }
+
+    public DailyForecast dailyForecastFromRawResponse(String response)
+            throws JSONException {
+        JsonIndex json = JsonIndex.parse(response, fieldProjection);
+        json.setRawResponseStorage(rawResponseStorage);
+        return new DailyForecast(json, json.root(), lazyDecoding, parallelDecoder());
+    }
+
+    /**
+     * Parses a raw response straight from its UTF-8 bytes.
+     *
+     * @param response Raw response, encoded in UTF-8
+     * @return Parsed response
+     * @throws JSONException if the response is not a JSON object.
+     */
+    public DailyForecast dailyForecastFromRawResponse(byte[] response)
+            throws JSONException {
+        JsonIndex json = JsonIndex.parse(response, fieldProjection);
+        json.setRawResponseStorage(rawResponseStorage);
+        return new DailyForecast(json, json.root(), lazyDecoding, parallelDecoder());
+    }
+
+    /**
+     * Reads a bulk file of OWM.org, having one response of daily forecast per line, gzipped or not.
+     * Responses are parsed on the executor given by {@link #getExecutor()}, as per the settings of this object
+     * (e.g., lazy decoding or field projection).
+     *
+     * @param file Content of the file; it is closed by the reader
+     * @return Reader handing back the parsed responses in the order of the file
+     * @throws IOException if the file cannot be read.
+     * @see net.aksingh.owmjapis.BulkFileReader
+     */
+    public BulkFileReader<DailyForecast> dailyForecastFromBulkFile(InputStream file)
+            throws IOException {
+        return new BulkFileReader<DailyForecast>(file, new BulkFileReader.LineParser<DailyForecast>() {
+            public DailyForecast parse(byte[] data, int offset, int length) {
+                JsonIndex json = JsonIndex.parse(data, offset, length, fieldProjection);
+                json.setRawResponseStorage(rawResponseStorage);
+                return new DailyForecast(json, json.root(), lazyDecoding, parallelDecoder());
+            }
+        }, getExecutor());
     }
 
     /**
-     * Set proxy for getting data from OWM.org
+     * Parses the forecast list of a raw response of daily forecast into columns, without creating forecast objects.
      *
-     * @param ip IP address of the proxy
-     * @param port Port address of the proxy
+     * @param response Raw response, encoded in UTF-8
+     * @return Columns of the forecast list
+     * @throws JSONException if the response is not a JSON object.
+     * @see net.aksingh.owmjapis.ForecastColumns
      */
-    public void setProxy(String ip, int port) {
-        owmProxy.setIp(ip);
-        owmProxy.setPort(port);
-        owmProxy.setUser(null);
-        owmProxy.setPass(null);
+    public ForecastColumns dailyForecastColumnsFromRawResponse(byte[] response)
+            throws JSONException {
+        JsonIndex json = JsonIndex.parse(response, fieldProjection);
+        return ForecastColumns.daily(json, json.root());
+    }
+
+    public ForecastColumns dailyForecastColumnsFromRawResponse(String response)
+            throws JSONException {
+        JsonIndex json = JsonIndex.parse(response, fieldProjection);
+        return ForecastColumns.daily(json, json.root());
     }
 
     /**
-     * Set proxy and authentication details for getting data from OWM.org
+     * Gets current weather, hourly forecast and daily forecast of the coordinates by one request,
+     * to OWM.org's One Call API. Forecasts are of the next 48 hours, hour by hour, and of the next 8 days.
      *
-     * @param ip IP address of the proxy
-     * @param port Port address of the proxy
-     * @param user User name for the proxy if required
-     * @param pass Password for the proxy if required
+     * @param latitude  Latitude of the place
+     * @param longitude Longitude of the place
+     * @return Bundle of the current weather and forecasts
+     * @throws JSONException if the response is not a JSON object.
+     * @see #weatherBundleFromRawResponse(byte[])
      */
-    public void setProxy(String ip, int port, String user, String pass) {
-        owmProxy.setIp(ip);
-        owmProxy.setPort(port);
-        owmProxy.setUser(user);
-        owmProxy.setPass(pass);
+    public WeatherBundle weatherBundleByCoordinates(float latitude, float longitude)
+            throws JSONException {
+        byte[] response = owmResponse.weatherBundleByCoordinates(latitude, longitude);
+        return this.weatherBundleFromRawResponse(response);
     }
 
-    public CurrentWeather currentWeatherByCityName(String cityName)
-            throws IOException, JSONException {
-        String response = owmResponse.currentWeatherByCityName(cityName);
-        return this.currentWeatherFromRawResponse(response);
+    public OWMFuture<WeatherBundle> weatherBundleByCoordinatesAsync(float latitude, float longitude) {
+        return requestAsync(owmAddress.weatherBundleByCoordinates(latitude, longitude), weatherBundleParser);
     }
 
-    public CurrentWeather currentWeatherByCityName(String cityName, String countryCode)
-            throws IOException, JSONException {
-        String response = owmResponse.currentWeatherByCityName(cityName, countryCode);
-        return this.currentWeatherFromRawResponse(response);
+    /**
+     * Gets current weather, hourly forecast and daily forecast (of 8 days) of the city, as by
+     * {@link #weatherBundleByCityCode(long, byte)}.
+     */
+    public WeatherBundle weatherBundleByCityCode(long cityCode) {
+        return weatherBundleByCityCode(cityCode, DEFAULT_BUNDLE_DAILY_COUNT);
     }
 
-    public CurrentWeather currentWeatherByCityCode(long cityCode)
-            throws JSONException {
-        String response = owmResponse.currentWeatherByCityCode(cityCode);
-        return this.currentWeatherFromRawResponse(response);
+    /**
+     * Gets current weather, hourly forecast and daily forecast of the city, by their own requests
+     * sent at once, so that it takes as long as the slowest of them. Waits for all of them, but no longer
+     * than {@link #getWeatherBundleTimeout()}. Parts whose request timed out, or whose response could not be
+     * parsed, are left out of the bundle; the others are kept.
+     *
+     * @param cityCode Code of the city
+     * @param count    Count of days of the daily forecast
+     * @return Bundle of the current weather and forecasts, complete or not
+     * @see net.aksingh.owmjapis.WeatherBundle#isComplete()
+     */
+    public WeatherBundle weatherBundleByCityCode(long cityCode, byte count) {
+        OWMFuture<CurrentWeather> currentWeather = currentWeatherByCityCodeAsync(cityCode);
+        OWMFuture<HourlyForecast> hourlyForecast = hourlyForecastByCityCodeAsync(cityCode);
+        OWMFuture<DailyForecast> dailyForecast = dailyForecastByCityCodeAsync(cityCode, count);
+
+        long timeout = weatherBundleTimeout;
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeout);
+        return new WeatherBundle(
+                awaitPart(currentWeather, timeout > 0, deadline),
+                awaitPart(hourlyForecast, timeout > 0, deadline),
+                awaitPart(dailyForecast, timeout > 0, deadline));
     }
 
-    public CurrentWeather currentWeatherByCoordinates(float latitude, float longitude)
+    public WeatherBundle weatherBundleFromRawResponse(String response)
             throws JSONException {
-        String response = owmResponse.currentWeatherByCoordinates(latitude, longitude);
-        return this.currentWeatherFromRawResponse(response);
+        try {
+            return weatherBundleFromRawResponse((response != null) ? response.getBytes("UTF-8") : null);
+        } catch (UnsupportedEncodingException e) {
+            throw new JSONException(e);
+        }
     }
 
-    public CurrentWeather currentWeatherFromRawResponse(String response)
+    /**
+     * Parses a response of OWM.org's One Call API. It is rewritten as a response of each of the current weather,
+     * hourly forecast and daily forecast APIs, which are parsed as per the settings of this object
+     * (e.g., lazy decoding or field projection), and are the raw responses of the parsed parts.
+     * Fields found only in One Call responses are skipped, and so are minutely forecasts and alerts.
+     *
+     * @param response Raw response, encoded in UTF-8
+     * @return Bundle of the current weather and forecasts; invalid if the response is
+     * @throws JSONException if the response is not a JSON object.
+     */
+    public WeatherBundle weatherBundleFromRawResponse(byte[] response)
             throws JSONException {
-        JSONObject jsonObj = (response != null) ? new JSONObject(response) : null;
-        return new CurrentWeather(jsonObj);
+        JsonIndex json = JsonIndex.parse(response);
+        return new WeatherBundle(
+                currentWeatherFromRawResponse(OneCallTranscoder.currentWeather(json)),
+                hourlyForecastFromRawResponse(OneCallTranscoder.hourlyForecast(json)),
+                dailyForecastFromRawResponse(OneCallTranscoder.dailyForecast(json)));
     }
 
-    public HourlyForecast hourlyForecastByCityName(String cityName)
-            throws IOException, JSONException {
-        String response = owmResponse.hourlyForecastByCityName(cityName);
-        return this.hourlyForecastFromRawResponse(response);
+    /**
+     * Sends the request without waiting for the response. With an {@link net.aksingh.owmjapis.AsyncHttpTransport},
+     * no thread waits for OWM.org and the executor only parses the response; otherwise the whole request runs
+     * on the executor.
+     */
+    private <T> OWMFuture<T> requestAsync(final String requestAddress, final ResponseParser<T> parser) {
+        HttpTransport transport = owmResponse.getHttpTransport();
+
+        if (transport instanceof AsyncHttpTransport) {
+            final OWMFuture<T> future = new OWMFuture<T>();
+            owmResponse.httpGETAsync((AsyncHttpTransport) transport, requestAddress, new OWMFuture.Callback<HttpTransport.Response>() {
+                public void onSuccess(final HttpTransport.Response connection) {
+                    try {
+                        getExecutor().execute(new Runnable() {
+                            public void run() {
+                                try {
+                                    future.complete(parser.parse(owmResponse.readResponseQuietly(connection)));
+                                } catch (Throwable t) {
+                                    future.fail(t);
+                                }
+                            }
+                        });
+                    } catch (RejectedExecutionException e) {
+                        connection.close();
+                        future.fail(e);
+                    }
+                }
+
+                public void onFailure(Throwable cause) {
+                    // same outcome as a failed blocking request: an invalid response
+                    System.err.println("Error: " + cause.getMessage());
+                    try {
+                        getExecutor().execute(new Runnable() {
+                            public void run() {
+                                try {
+                                    future.complete(parser.parse(null));
+                                } catch (Throwable t) {
+                                    future.fail(t);
+                                }
+                            }
+                        });
+                    } catch (RejectedExecutionException e) {
+                        future.fail(e);
+                    }
+                }
+            });
+            return future;
+        }
+
+        OWMFuture<T> future = new OWMFuture<T>(new Callable<T>() {
+            public T call() throws Exception {
+                return parser.parse(owmResponse.httpGET(requestAddress));
+            }
+        });
+        try {
+            getExecutor().execute(future);
+        } catch (RejectedExecutionException e) {
+            future.fail(e);
+        }
+        return future;
     }
 
-    public HourlyForecast hourlyForecastByCityName(String cityName, String countryCode)
-            throws IOException, JSONException {
-        String response = owmResponse.hourlyForecastByCityName(cityName, countryCode);
-        return this.hourlyForecastFromRawResponse(response);
+    /**
+     * Waits for the result, for blocking methods relying on asynchronous ones.
+     *
+     * @throws RuntimeException if the future failed, e.g., a {@link org.json.JSONException}.
+     */
+    private static <T> T await(OWMFuture<T> future) {
+        boolean interrupted = false;
+        try {
+            while (true) {
+                try {
+                    return future.get();
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                }
+            }
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            } else if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new IllegalStateException(String.valueOf(cause));
+        } finally {
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+        }
     }
 
-    public HourlyForecast hourlyForecastByCityCode(long cityCode)
-            throws JSONException {
-        String response = owmResponse.hourlyForecastByCityCode(cityCode);
-        return this.hourlyForecastFromRawResponse(response);
+    /**
+     * Waits for a part of a bundle, till the deadline if any.
+     *
+     * @return Result, or <code>null</code> if it failed, or is not done by the deadline.
+     */
+    private static <T> T awaitPart(OWMFuture<T> future, boolean timed, long deadline) {
+        try {
+            if (!timed) {
+                return await(future);
+            }
+            return future.get(Math.max(deadline - System.nanoTime(), 0), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            future.cancel(false);
+            System.err.println("Error: Timed out while waiting for a part of the weather bundle");
+        } catch (InterruptedException e) {
+            future.cancel(false);
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            System.err.println("Error: " + e.getCause().getMessage());
+        } catch (RuntimeException e) {
+            System.err.println("Error: " + e.getMessage());
+        }
+        return null;
     }
 
-    public HourlyForecast hourlyForecastByCoordinates(float latitude, float longitude)
-            throws JSONException {
-        String response = owmResponse.hourlyForecastByCoordinates(latitude, longitude);
-        return this.hourlyForecastFromRawResponse(response);
+    /**
+     * @return Batcher of requests of current weather by city code, or <code>null</code> if not enabled.
+     */
+    private CityCodeBatcher<CurrentWeather> currentWeatherBatcher() {
+        if (batchingLingerTime == 0) {
+            return null;
+        }
+        synchronized (this) {
+            if (currentWeatherBatcher == null && batchingLingerTime > 0) {
+                if (batchingScheduler == null) {
+                    batchingScheduler = Executors.newSingleThreadScheduledExecutor(new DaemonThreadFactory("owm-japis-batching"));
+                }
+                currentWeatherBatcher = new CityCodeBatcher<CurrentWeather>(new CityCodeBatcher.BatchRequest<CurrentWeather>() {
+                    public OWMFuture<Map<Long, CurrentWeather>> request(long[] cityCodes) {
+                        return currentWeatherByCityCodesAsync(cityCodes);
+                    }
+                }, batchingScheduler, batchingLingerTime, MAX_CITY_CODES_PER_GROUP);
+            }
+            return currentWeatherBatcher;
+        }
     }
 
-    public HourlyForecast hourlyForecastFromRawResponse(String response)
-            throws JSONException {
-        JSONObject jsonObj = (response != null) ? new JSONObject(response) : null;
-        return new HourlyForecast(jsonObj);
+    private <T> OWMFuture<T> failedFuture(Throwable cause) {
+        OWMFuture<T> future = new OWMFuture<T>();
+        future.fail(cause);
+        return future;
     }
 
-    public DailyForecast dailyForecastByCityName(String cityName, byte count)
-            throws IOException, JSONException {
-        String response = owmResponse.dailyForecastByCityName(cityName, count);
-        return this.dailyForecastFromRawResponse(response);
+    /**
+     * @return Current weather of the cities in the given order, invalid for those not found.
+     */
+    private Map<Long, CurrentWeather> inOrder(long[] cityCodes, Map<Long, CurrentWeather> found) {
+        Map<Long, CurrentWeather> ordered = new LinkedHashMap<Long, CurrentWeather>(cityCodes.length * 2);
+        CurrentWeather notFound = null;
+        synchronized (found) {
+            for (int i = 0; i < cityCodes.length; i++) {
+                CurrentWeather weather = found.get(cityCodes[i]);
+                if (weather == null) {
+                    if (notFound == null) {
+                        notFound = currentWeatherFromRawResponse((byte[]) null);
+                    }
+                    weather = notFound;
+                }
+                ordered.put(cityCodes[i], weather);
+            }
+        }
+        return ordered;
     }
 
-    public DailyForecast dailyForecastByCityName(String cityName, String countryCode, byte count)
-            throws IOException, JSONException {
-        String response = owmResponse.dailyForecastByCityName(cityName, countryCode, count);
-        return this.dailyForecastFromRawResponse(response);
+    /**
+     * @return Projection selecting the fields of the given one, and the city code, within the list of cities.
+     */
+    private static FieldProjection withinCityList(FieldProjection fieldProjection) {
+        String[] fieldPaths = fieldProjection.getFieldPaths();
+        String[] listPaths = new String[fieldPaths.length + 1];
+        listPaths[0] = JSON_CITY_LIST + "." + JSON_CITY_CODE;
+        for (int i = 0; i < fieldPaths.length; i++) {
+            listPaths[i + 1] = JSON_CITY_LIST + "." + fieldPaths[i];
+        }
+        return new FieldProjection(listPaths);
     }
 
-    public DailyForecast dailyForecastByCityCode(long cityCode, byte count)
-            throws JSONException {
-        String response = owmResponse.dailyForecastByCityCode(cityCode, count);
-        return this.dailyForecastFromRawResponse(response);
+    /**
+     * @return Code of the city to request instead of the coordinates, or <code>Long.MIN_VALUE</code> if none.
+     */
+    private long snapToCityCode(float latitude, float longitude) {
+        CityLocator locator = cityLocator;
+        return (locator != null) ? locator.nearestCityCode(latitude, longitude, maxSnapDistance) : Long.MIN_VALUE;
     }
 
-    public DailyForecast dailyForecastByCoordinates(float latitude, float longitude, byte count)
-            throws JSONException {
-        String response = owmResponse.dailyForecastByCoordinates(latitude, longitude, count);
-        return this.dailyForecastFromRawResponse(response);
+    /**
+     * @return Decoder of forecasts in parallel, or <code>null</code> if not enabled.
+     */
+    private ParallelDecoder parallelDecoder() {
+        int threshold = parallelDecodingThreshold;
+        return (threshold > 0) ? new ParallelDecoder(getExecutor(), threshold) : null;
     }
 
-    public DailyForecast dailyForecastFromRawResponse(String response)
-            throws JSONException {
-        JSONObject jsonObj = (response != null) ? new JSONObject(response) : null;
-        return new DailyForecast(jsonObj);
+    /**
+     * Turns a raw response into a model
+     */
+    private static interface ResponseParser<T> {
+        T parse(byte[] response) throws JSONException;
     }
 
     /**
@@ -317,6 +1420,29 @@ public class OpenWeatherMap {
         }
     }
 
+    /**
+     * Ways of keeping the raw response in parsed objects,
+     * i.e., what {@link net.aksingh.owmjapis.CurrentWeather#getRawResponse()} and others give
+     *
+     * @since 2.5.0.6
+     */
+    public static enum RawResponseStorage {
+        /**
+         * Bytes as received. Nested objects, e.g., forecasts, share the bytes of the whole response.
+         */
+        ORIGINAL,
+
+        /**
+         * Bytes compressed with deflate, and inflated when the raw response is asked for
+         */
+        COMPRESSED,
+
+        /**
+         * Not kept at all; raw response is not available
+         */
+        NONE
+    }
+
     /**
      * Languages that can be set for getting data from OWM.org
      *
@@ -354,6 +1480,26 @@ public class OpenWeatherMap {
         }
     }
 
+    /**
+     * Creates daemon threads, so that idle pools do not keep the JVM alive
+     *
+     * @since 2.5.0.6
+     */
+    static class DaemonThreadFactory implements ThreadFactory {
+        private final String namePrefix;
+        private final AtomicInteger threadNumber = new AtomicInteger(1);
+
+        DaemonThreadFactory(String namePrefix) {
+            this.namePrefix = namePrefix;
+        }
+
+        public Thread newThread(Runnable runnable) {
+            Thread thread = new Thread(runnable, namePrefix + "-" + threadNumber.getAndIncrement());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+
     /**
      * Proxifies the default HTTP requests
      *
@@ -511,6 +1657,51 @@ public class OpenWeatherMap {
                     .toString();
         }
 
+        public String currentWeatherByCityCodes(long[] cityCodes, int from, int to) {
+            StringBuilder address = new StringBuilder()
+                    .append(URL_API).append(URL_GROUP)
+                    .append(PARAM_CITY_ID);
+            for (int i = from; i < to; i++) {
+                if (i > from) {
+                    address.append(",");
+                }
+                address.append(Long.toString(cityCodes[i]));
+            }
+            return address.append("&")
+                    .append(PARAM_MODE).append(this.mode).append("&")
+                    .append(PARAM_UNITS).append(this.units.getCode()).append("&")
+                    .append(PARAM_LANG).append(this.lang.getCode()).append("&")
+                    .append(PARAM_APPID).append(this.appId)
+                    .toString();
+        }
+
+        public String currentWeatherByBoundingBox(float lonLeft, float latBottom, float lonRight, float latTop, int zoom) {
+            return new StringBuilder()
+                    .append(URL_API).append(URL_BOUNDING_BOX)
+                    .append(PARAM_BOUNDING_BOX).append(Float.toString(lonLeft)).append(",")
+                    .append(Float.toString(latBottom)).append(",")
+                    .append(Float.toString(lonRight)).append(",")
+                    .append(Float.toString(latTop)).append(",")
+                    .append(Integer.toString(zoom)).append("&")
+                    .append(PARAM_UNITS).append(this.units.getCode()).append("&")
+                    .append(PARAM_LANG).append(this.lang.getCode()).append("&")
+                    .append(PARAM_APPID).append(this.appId)
+                    .toString();
+        }
+
+        public String currentWeatherAroundCoordinates(float latitude, float longitude, int count) {
+            return new StringBuilder()
+                    .append(URL_API).append(URL_FIND)
+                    .append(PARAM_LATITUDE).append(Float.toString(latitude)).append("&")
+                    .append(PARAM_LONGITUDE).append(Float.toString(longitude)).append("&")
+                    .append(PARAM_COUNT).append(Integer.toString(count)).append("&")
+                    .append(PARAM_MODE).append(this.mode).append("&")
+                    .append(PARAM_UNITS).append(this.units.getCode()).append("&")
+                    .append(PARAM_LANG).append(this.lang.getCode()).append("&")
+                    .append(PARAM_APPID).append(this.appId)
+                    .toString();
+        }
+
         public String currentWeatherByCoordinates(float latitude, float longitude) {
             return new StringBuilder()
                     .append(URL_API).append(URL_CURRENT)
@@ -565,6 +1756,21 @@ public class OpenWeatherMap {
                     .toString();
         }
 
+        /*
+        Addresses for weather bundles
+         */
+        public String weatherBundleByCoordinates(float latitude, float longitude) {
+            return new StringBuilder()
+                    .append(URL_API).append(URL_ONE_CALL)
+                    .append(PARAM_LATITUDE).append(Float.toString(latitude)).append("&")
+                    .append(PARAM_LONGITUDE).append(Float.toString(longitude)).append("&")
+                    .append(PARAM_EXCLUDE).append(ONE_CALL_EXCLUDED).append("&")
+                    .append(PARAM_UNITS).append(this.units.getCode()).append("&")
+                    .append(PARAM_LANG).append(this.lang.getCode()).append("&")
+                    .append(PARAM_APPID).append(this.appId)
+                    .toString();
+        }
+
         /*
         Addresses for daily forecasts
          */
@@ -620,31 +1826,44 @@ public class OpenWeatherMap {
     private static class OWMResponse {
         private final OWMAddress owmAddress;
         private final OWMProxy owmProxy;
+        private volatile HttpTransport httpTransport;
 
-        public OWMResponse(OWMAddress owmAddress, OWMProxy owmProxy) {
+        public OWMResponse(OWMAddress owmAddress, OWMProxy owmProxy, HttpTransport httpTransport) {
             this.owmAddress = owmAddress;
             this.owmProxy = owmProxy;
+            setHttpTransport(httpTransport);
+        }
+
+        public HttpTransport getHttpTransport() {
+            return this.httpTransport;
+        }
+
+        public void setHttpTransport(HttpTransport httpTransport) {
+            if (httpTransport == null) {
+                throw new IllegalArgumentException("HTTP transport cannot be null.");
+            }
+            this.httpTransport = httpTransport;
         }
 
         /*
         Responses for current weather
          */
-        public String currentWeatherByCityName(String cityName) throws UnsupportedEncodingException {
+        public byte[] currentWeatherByCityName(String cityName) throws UnsupportedEncodingException {
             String address = owmAddress.currentWeatherByCityName(cityName);
             return httpGET(address);
         }
 
-        public String currentWeatherByCityName(String cityName, String countryCode) throws UnsupportedEncodingException {
+        public byte[] currentWeatherByCityName(String cityName, String countryCode) throws UnsupportedEncodingException {
             String address = owmAddress.currentWeatherByCityName(cityName, countryCode);
             return httpGET(address);
         }
 
-        public String currentWeatherByCityCode(long cityCode) {
+        public byte[] currentWeatherByCityCode(long cityCode) {
             String address = owmAddress.currentWeatherByCityCode(cityCode);
             return httpGET(address);
         }
 
-        public String currentWeatherByCoordinates(float latitude, float longitude) {
+        public byte[] currentWeatherByCoordinates(float latitude, float longitude) {
             String address = owmAddress.currentWeatherByCoordinates(latitude, longitude);
             return httpGET(address);
         }
@@ -652,45 +1871,53 @@ public class OpenWeatherMap {
         /*
         Responses for hourly forecasts
          */
-        public String hourlyForecastByCityName(String cityName) throws UnsupportedEncodingException {
+        public byte[] hourlyForecastByCityName(String cityName) throws UnsupportedEncodingException {
             String address = owmAddress.hourlyForecastByCityName(cityName);
             return httpGET(address);
         }
 
-        public String hourlyForecastByCityName(String cityName, String countryCode) throws UnsupportedEncodingException {
+        public byte[] hourlyForecastByCityName(String cityName, String countryCode) throws UnsupportedEncodingException {
             String address = owmAddress.hourlyForecastByCityName(cityName, countryCode);
             return httpGET(address);
         }
 
-        public String hourlyForecastByCityCode(long cityCode) {
+        public byte[] hourlyForecastByCityCode(long cityCode) {
             String address = owmAddress.hourlyForecastByCityCode(cityCode);
             return httpGET(address);
         }
 
-        public String hourlyForecastByCoordinates(float latitude, float longitude) {
+        public byte[] hourlyForecastByCoordinates(float latitude, float longitude) {
             String address = owmAddress.hourlyForecastByCoordinates(latitude, longitude);
             return httpGET(address);
         }
 
+        /*
+        Responses for weather bundles
+         */
+        public byte[] weatherBundleByCoordinates(float latitude, float longitude) {
+            String address = owmAddress.weatherBundleByCoordinates(latitude, longitude);
+            return httpGET(address);
+        }
+
         /*
         Responses for daily forecasts
          */
-        public String dailyForecastByCityName(String cityName, byte count) throws UnsupportedEncodingException {
+        public byte[] dailyForecastByCityName(String cityName, byte count) throws UnsupportedEncodingException {
             String address = owmAddress.dailyForecastByCityName(cityName, count);
             return httpGET(address);
         }
 
-        public String dailyForecastByCityName(String cityName, String countryCode, byte count) throws UnsupportedEncodingException {
+        public byte[] dailyForecastByCityName(String cityName, String countryCode, byte count) throws UnsupportedEncodingException {
             String address = owmAddress.dailyForecastByCityName(cityName, countryCode, count);
             return httpGET(address);
         }
 
-        public String dailyForecastByCityCode(long cityCode, byte count) {
+        public byte[] dailyForecastByCityCode(long cityCode, byte count) {
             String address = owmAddress.dailyForecastByCityCode(cityCode, count);
             return httpGET(address);
         }
 
-        public String dailyForecastByCoordinates(float latitude, float longitude, byte count) {
+        public byte[] dailyForecastByCoordinates(float latitude, float longitude, byte count) {
             String address = owmAddress.dailyForecastByCoordinates(latitude, longitude, count);
             return httpGET(address);
         }
@@ -702,88 +1929,104 @@ public class OpenWeatherMap {
          * @return Response if successful, else <code>null</code>
          * @see <a href="http://www.w3.org/Protocols/rfc2616/rfc2616-sec9.html">HTTP - (9.3) GET</a>
          */
-        private String httpGET(String requestAddress) {
-            URL request;
-            HttpURLConnection connection = null;
-            BufferedReader reader = null;
-
-            String tmpStr;
-            String response = null;
+        private byte[] httpGET(String requestAddress) {
+            HttpTransport.Response connection;
 
             try {
-                request = new URL(requestAddress);
-
-                if (owmProxy.getProxy() != null) {
-                    connection = (HttpURLConnection) request.openConnection(owmProxy.getProxy());
-                } else {
-                    connection = (HttpURLConnection) request.openConnection();
-                }
-
-                connection.setRequestMethod("GET");
-                connection.setUseCaches(false);
-                connection.setDoInput(true);
-                connection.setDoOutput(false);
-                connection.setRequestProperty("Accept-Encoding", "gzip, deflate");
-                connection.connect();
+                connection = httpTransport.httpGET(requestAddress, owmProxy.getProxy());
+            } catch (IOException e) {
+                System.err.println("Error: " + e.getMessage());
+                return null;
+            }
 
-                if (connection.getResponseCode() == HttpURLConnection.HTTP_OK) {
-                    String encoding = connection.getContentEncoding();
+            return readResponseQuietly(connection);
+        }
 
+        /**
+         * Implements HTTP's GET method, for responses read bit by bit
+         *
+         * @param requestAddress Address to be loaded
+         * @return Body of the response, inflated; closing it closes the response
+         * @throws IOException if the request fails, or the response is bad.
+         */
+        private InputStream httpGETStream(String requestAddress) throws IOException {
+            final HttpTransport.Response connection = httpTransport.httpGET(requestAddress, owmProxy.getProxy());
+            InputStream body;
+            try {
+                if (connection.getResponseCode() != HttpURLConnection.HTTP_OK) {
+                    throw new IOException("Bad response code: " + connection.getResponseCode());
+                }
+                body = connection.getInputStream();
+                if (body == null) {
+                    throw new IOException("Response has no body");
+                }
+                body = ResponseBodyReader.inflating(body, connection.getContentEncoding());
+            } catch (IOException e) {
+                connection.close();
+                throw e;
+            }
+            return new FilterInputStream(body) {
+                public void close() throws IOException {
                     try {
-                        if (encoding != null && "gzip".equalsIgnoreCase(encoding)) {
-                            reader = new BufferedReader(new InputStreamReader(new GZIPInputStream(connection.getInputStream())));
-                        } else if (encoding != null && "deflate".equalsIgnoreCase(encoding)) {
-                            reader = new BufferedReader(new InputStreamReader(new InflaterInputStream(connection.getInputStream(), new Inflater(true))));
-                        } else {
-                            reader = new BufferedReader(new InputStreamReader(connection.getInputStream()));
-                        }
-
-                        while ((tmpStr = reader.readLine()) != null) {
-                            response = tmpStr;
-                        }
-                    } catch (IOException e) {
-                        System.err.println("Error: " + e.getMessage());
-                    } finally {
-                        if (reader != null) {
-                            try {
-                                reader.close();
-                            } catch (IOException e) {
-                                System.err.println("Error: " + e.getMessage());
-                            }
-                        }
-                    }
-                } else { // if HttpURLConnection is not okay
-                    try {
-                        reader = new BufferedReader(new InputStreamReader(connection.getErrorStream()));
-                        while ((tmpStr = reader.readLine()) != null) {
-                            response = tmpStr;
-                        }
-                    } catch (IOException e) {
-                        System.err.println("Error: " + e.getMessage());
+                        super.close();
                     } finally {
-                        if (reader != null) {
-                            try {
-                                reader.close();
-                            } catch (IOException e) {
-                                System.err.println("Error: " + e.getMessage());
-                            }
-                        }
+                        connection.close();
                     }
-
-                    // if response is bad
-                    System.err.println("Bad Response: " + response + "\n");
-                    return null;
                 }
+            };
+        }
+
+        /**
+         * Implements HTTP's GET method without waiting for the response
+         *
+         * @param transport      Transport sending the request
+         * @param requestAddress Address to be loaded
+         * @param callback       Receives the response, to be read with {@link #readResponseQuietly(HttpTransport.Response)}
+         */
+        private void httpGETAsync(AsyncHttpTransport transport, String requestAddress,
+                                  OWMFuture.Callback<HttpTransport.Response> callback) {
+            transport.httpGETAsync(requestAddress, owmProxy.getProxy(), callback);
+        }
+
+        /**
+         * Reads the body of the response and closes it
+         *
+         * @param connection Response to be read
+         * @return Response if successful, else <code>null</code>
+         */
+        private byte[] readResponseQuietly(HttpTransport.Response connection) {
+            try {
+                return readResponse(connection);
             } catch (IOException e) {
                 System.err.println("Error: " + e.getMessage());
-                response = null;
+                return null;
             } finally {
-                if (connection != null) {
-                    connection.disconnect();
-                }
+                connection.close();
+            }
+        }
+
+        /**
+         * Reads the body of the response
+         *
+         * @param connection Response to be read
+         * @return Response if successful, else <code>null</code>
+         */
+        private byte[] readResponse(HttpTransport.Response connection) throws IOException {
+            byte[] response = null;
+
+            InputStream body = connection.getInputStream();
+            if (body != null) {
+                // whole body is read as bytes, and left for the parser to decode
+                response = ResponseBodyReader.readBytes(body, connection.getContentEncoding());
+            }
+
+            if (connection.getResponseCode() != HttpURLConnection.HTTP_OK) { // if HttpURLConnection is not okay
+                // if response is bad
+                System.err.println("Bad Response: " + ((response != null) ? new String(response, "UTF-8") : null) + "\n");
+                return null;
             }
 
-            return response;
+            return (response != null && response.length > 0) ? response : null;
         }
     }
 }
@@ -0,0 +1,152 @@
+/*
+ * Copyright (c) 2013-2015 Ashutosh Kumar Singh <me@aksingh.net>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package net.aksingh.owmjapis;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * <p>
+ * Decodes the elements of large arrays (e.g., forecast lists) in parallel, keeping their order.
+ * </p>
+ * <p>
+ * Elements are split into chunks which are claimed one by one by the calling thread and by helper tasks
+ * run on the executor. The calling thread works too, and waits only for the chunks already being decoded
+ * by helpers, so decoding finishes even if the executor is busy, e.g., when called from its own tasks.
+ * Arrays shorter than the threshold are decoded by the calling thread alone.
+ * </p>
+ *
+ * @author Ashutosh Kumar Singh
+ * @version 2026/10/18
+ * @see net.aksingh.owmjapis.OpenWeatherMap#setParallelDecodingThreshold(int)
+ * @since 2.5.0.6
+ */
+final class ParallelDecoder {
+    private static final int MIN_CHUNK_SIZE = 8;
+    private static final int CHUNKS_PER_THREAD = 4;
+
+    private final Executor executor;
+    private final int threshold;
+    private final int parallelism;
+
+    /**
+     * @param executor  Executor running the helper tasks
+     * @param threshold Minimum count of elements to be decoded in parallel
+     */
+    ParallelDecoder(Executor executor, int threshold) {
+        this.executor = executor;
+        this.threshold = Math.max(threshold, 2 * MIN_CHUNK_SIZE);
+        this.parallelism = Runtime.getRuntime().availableProcessors();
+    }
+
+    /**
+     * Decodes all elements, from <code>0</code> to <code>count</code>, and returns when all are done.
+     *
+     * @throws RuntimeException if decoding of any chunk failed; the first failure is thrown.
+     */
+    void decode(int count, Task task) {
+        if (count < threshold || parallelism < 2) {
+            task.decode(0, count);
+            return;
+        }
+
+        int chunkCount = Math.min(count / MIN_CHUNK_SIZE, parallelism * CHUNKS_PER_THREAD);
+        Chunks chunks = new Chunks(task, count, chunkCount);
+        for (int i = Math.min(parallelism, chunkCount) - 1; i > 0; i--) {
+            try {
+                executor.execute(chunks);
+            } catch (RuntimeException e) {
+                break; // rejected; fewer helpers, the calling thread decodes the rest
+            }
+        }
+        chunks.run();
+        chunks.await();
+    }
+
+    /**
+     * Decodes a range of elements
+     */
+    static interface Task {
+        void decode(int from, int to);
+    }
+
+    private static final class Chunks implements Runnable {
+        private final Task task;
+        private final int count;
+        private final int chunkCount;
+        private final AtomicInteger nextChunk = new AtomicInteger();
+        private final CountDownLatch done;
+        private volatile Throwable failure;
+
+        Chunks(Task task, int count, int chunkCount) {
+            this.task = task;
+            this.count = count;
+            this.chunkCount = chunkCount;
+            this.done = new CountDownLatch(chunkCount);
+        }
+
+        public void run() {
+            int chunk;
+            while ((chunk = nextChunk.getAndIncrement()) < chunkCount) {
+                try {
+                    if (failure == null) {
+                        // spread the remainder over the first chunks
+                        task.decode((int) ((long) count * chunk / chunkCount),
+                                (int) ((long) count * (chunk + 1) / chunkCount));
+                    }
+                } catch (Throwable t) {
+                    if (failure == null) {
+                        failure = t;
+                    }
+                } finally {
+                    done.countDown();
+                }
+            }
+        }
+
+        void await() {
+            boolean interrupted = false;
+            while (true) {
+                try {
+                    done.await();
+                    break;
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                }
+            }
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+
+            Throwable t = failure;
+            if (t instanceof RuntimeException) {
+                throw (RuntimeException) t;
+            } else if (t instanceof Error) {
+                throw (Error) t;
+            } else if (t != null) {
+                throw new RuntimeException(t);
+            }
+        }
+    }
+}
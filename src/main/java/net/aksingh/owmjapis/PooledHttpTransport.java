@@ -0,0 +1,781 @@
+/*
+ * Copyright (c) 2013-2015 Ashutosh Kumar Singh <me@aksingh.net>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package net.aksingh.owmjapis;
+
+import javax.net.ssl.HttpsURLConnection;
+import javax.net.ssl.SSLPeerUnverifiedException;
+import javax.net.ssl.SSLSocket;
+import javax.net.ssl.SSLSocketFactory;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.EOFException;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.Authenticator;
+import java.net.HttpURLConnection;
+import java.net.InetSocketAddress;
+import java.net.PasswordAuthentication;
+import java.net.Proxy;
+import java.net.Socket;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Timer;
+import java.util.TimerTask;
+
+/**
+ * <p>
+ * Sends HTTP/1.1 requests over persistent (keep-alive) connections.
+ * </p>
+ * <p>
+ * After a response has been read completely, its connection is kept in a pool so that the next request
+ * to the same host skips the TCP (and TLS) handshake. At most <code>maxIdleConnectionsPerHost</code>
+ * connections are kept per host, and connections that stay idle longer than <code>keepAliveMillis</code>
+ * are closed by a background daemon thread, which stops itself when the pool becomes empty.
+ * </p>
+ * <p>
+ * This is the default transport of {@link net.aksingh.owmjapis.OpenWeatherMap}.
+ * </p>
+ *
+ * @author Ashutosh Kumar Singh
+ * @version 2026/10/18
+ * @since 2.5.0.6
+ */
+public class PooledHttpTransport implements HttpTransport {
+    /*
+    Defaults
+     */
+    private static final int DEFAULT_MAX_IDLE_CONNECTIONS_PER_HOST = 8;
+    private static final long DEFAULT_KEEP_ALIVE_MILLIS = 15000L;
+    private static final int DEFAULT_CONNECT_TIMEOUT_MILLIS = 10000;
+    private static final int DEFAULT_READ_TIMEOUT_MILLIS = 30000;
+
+    private static final String CRLF = "\r\n";
+    private static final String ISO_8859_1 = "ISO-8859-1";
+    private static final int MAX_LINE_LENGTH = 8192;
+    private static final int MAX_DRAIN_LENGTH = 65536;
+
+    /*
+    Instance Variables
+     */
+    private final int maxIdleConnectionsPerHost;
+    private final long keepAliveMillis;
+    private final int connectTimeoutMillis;
+    private final int readTimeoutMillis;
+
+    private final Map<String, LinkedList<PooledConnection>> idleConnections = new HashMap<String, LinkedList<PooledConnection>>();
+    private Timer reaper;
+    private boolean closed;
+
+    /**
+     * Constructor
+     */
+    public PooledHttpTransport() {
+        this(DEFAULT_MAX_IDLE_CONNECTIONS_PER_HOST, DEFAULT_KEEP_ALIVE_MILLIS);
+    }
+
+    /**
+     * Constructor
+     *
+     * @param maxIdleConnectionsPerHost Maximum count of idle connections kept per host
+     * @param keepAliveMillis           Time (in milliseconds) after which an idle connection is closed
+     */
+    public PooledHttpTransport(int maxIdleConnectionsPerHost, long keepAliveMillis) {
+        this(maxIdleConnectionsPerHost, keepAliveMillis, DEFAULT_CONNECT_TIMEOUT_MILLIS, DEFAULT_READ_TIMEOUT_MILLIS);
+    }
+
+    /**
+     * Constructor
+     *
+     * @param maxIdleConnectionsPerHost Maximum count of idle connections kept per host
+     * @param keepAliveMillis           Time (in milliseconds) after which an idle connection is closed
+     * @param connectTimeoutMillis      Timeout (in milliseconds) for opening a connection
+     * @param readTimeoutMillis         Timeout (in milliseconds) for reading from a connection
+     * @throws IllegalArgumentException if any count or time is negative, or the keep-alive time is zero.
+     */
+    public PooledHttpTransport(int maxIdleConnectionsPerHost, long keepAliveMillis,
+                               int connectTimeoutMillis, int readTimeoutMillis)
+            throws IllegalArgumentException {
+        if (maxIdleConnectionsPerHost < 0) {
+            throw new IllegalArgumentException("Count of idle connections cannot be less than 0.");
+        }
+        if (keepAliveMillis <= 0) {
+            throw new IllegalArgumentException("Keep-alive time must be more than 0.");
+        }
+        if (connectTimeoutMillis < 0 || readTimeoutMillis < 0) {
+            throw new IllegalArgumentException("Timeouts cannot be less than 0.");
+        }
+
+        this.maxIdleConnectionsPerHost = maxIdleConnectionsPerHost;
+        this.keepAliveMillis = keepAliveMillis;
+        this.connectTimeoutMillis = connectTimeoutMillis;
+        this.readTimeoutMillis = readTimeoutMillis;
+    }
+
+    public Response httpGET(String requestAddress, Proxy proxy) throws IOException {
+        Route route = new Route(new URL(requestAddress), proxy);
+
+        PooledConnection connection = leaseIdleConnection(route.key);
+        if (connection != null) {
+            try {
+                return send(connection, route);
+            } catch (IOException e) {
+                // server closed the idle connection meanwhile, GET is safe to be sent again
+                connection.closeQuietly();
+            }
+        }
+
+        return send(openConnection(route), route);
+    }
+
+    public void close() {
+        List<PooledConnection> toClose = new ArrayList<PooledConnection>();
+
+        synchronized (this) {
+            closed = true;
+            if (reaper != null) {
+                reaper.cancel();
+                reaper = null;
+            }
+            for (LinkedList<PooledConnection> connections : idleConnections.values()) {
+                toClose.addAll(connections);
+            }
+            idleConnections.clear();
+        }
+
+        for (PooledConnection connection : toClose) {
+            connection.closeQuietly();
+        }
+    }
+
+    /**
+     * @return Count of idle connections currently kept in the pool.
+     */
+    public synchronized int getIdleConnectionCount() {
+        int count = 0;
+        for (LinkedList<PooledConnection> connections : idleConnections.values()) {
+            count += connections.size();
+        }
+        return count;
+    }
+
+    /*
+    Pool management
+     */
+    private PooledConnection leaseIdleConnection(String key) {
+        List<PooledConnection> expired = null;
+        PooledConnection leased = null;
+
+        synchronized (this) {
+            LinkedList<PooledConnection> connections = idleConnections.get(key);
+            long now = System.currentTimeMillis();
+
+            while (connections != null && !connections.isEmpty()) {
+                PooledConnection connection = connections.removeFirst();
+                if (now - connection.idleSince < keepAliveMillis) {
+                    leased = connection;
+                    break;
+                }
+                if (expired == null) {
+                    expired = new ArrayList<PooledConnection>();
+                }
+                expired.add(connection);
+            }
+        }
+
+        if (expired != null) {
+            for (PooledConnection connection : expired) {
+                connection.closeQuietly();
+            }
+        }
+        return leased;
+    }
+
+    private void releaseConnection(PooledConnection connection) {
+        synchronized (this) {
+            if (!closed) {
+                LinkedList<PooledConnection> connections = idleConnections.get(connection.key);
+                if (connections == null) {
+                    connections = new LinkedList<PooledConnection>();
+                    idleConnections.put(connection.key, connections);
+                }
+
+                if (connections.size() < maxIdleConnectionsPerHost) {
+                    connection.idleSince = System.currentTimeMillis();
+                    connections.addFirst(connection);
+
+                    if (reaper == null) {
+                        reaper = new Timer("owm-japis-connection-reaper", true);
+                        reaper.schedule(new ReaperTask(), keepAliveMillis, keepAliveMillis);
+                    }
+                    return;
+                }
+            }
+        }
+
+        connection.closeQuietly();
+    }
+
+    private void reapIdleConnections() {
+        List<PooledConnection> expired = new ArrayList<PooledConnection>();
+
+        synchronized (this) {
+            long now = System.currentTimeMillis();
+
+            Iterator<LinkedList<PooledConnection>> hosts = idleConnections.values().iterator();
+            while (hosts.hasNext()) {
+                LinkedList<PooledConnection> connections = hosts.next();
+                Iterator<PooledConnection> iterator = connections.iterator();
+                while (iterator.hasNext()) {
+                    PooledConnection connection = iterator.next();
+                    if (now - connection.idleSince >= keepAliveMillis) {
+                        iterator.remove();
+                        expired.add(connection);
+                    }
+                }
+                if (connections.isEmpty()) {
+                    hosts.remove();
+                }
+            }
+
+            // nothing left to watch, the timer is started again by the next release
+            if (idleConnections.isEmpty() && reaper != null) {
+                reaper.cancel();
+                reaper = null;
+            }
+        }
+
+        for (PooledConnection connection : expired) {
+            connection.closeQuietly();
+        }
+    }
+
+    /*
+    Connection handling
+     */
+    private PooledConnection openConnection(Route route) throws IOException {
+        Socket socket;
+        if (route.proxy != null && route.proxy.type() == Proxy.Type.SOCKS) {
+            socket = new Socket(route.proxy);
+        } else {
+            socket = new Socket();
+        }
+
+        try {
+            if (route.proxy != null && route.proxy.type() == Proxy.Type.HTTP) {
+                socket.connect(route.proxy.address(), connectTimeoutMillis);
+            } else {
+                socket.connect(new InetSocketAddress(route.host, route.port), connectTimeoutMillis);
+            }
+            socket.setSoTimeout(readTimeoutMillis);
+            socket.setTcpNoDelay(true);
+
+            if (route.secure) {
+                if (route.proxy != null && route.proxy.type() == Proxy.Type.HTTP) {
+                    openTunnel(socket, route);
+                }
+
+                SSLSocketFactory factory = (SSLSocketFactory) SSLSocketFactory.getDefault();
+                SSLSocket sslSocket = (SSLSocket) factory.createSocket(socket, route.host, route.port, true);
+                socket = sslSocket;
+                sslSocket.startHandshake();
+
+                if (!HttpsURLConnection.getDefaultHostnameVerifier().verify(route.host, sslSocket.getSession())) {
+                    throw new SSLPeerUnverifiedException("Hostname " + route.host + " not verified");
+                }
+            }
+
+            return new PooledConnection(route.key, socket);
+        } catch (IOException e) {
+            try {
+                socket.close();
+            } catch (IOException ignored) {
+                // already failing
+            }
+            throw e;
+        }
+    }
+
+    private void openTunnel(Socket socket, Route route) throws IOException {
+        String authority = route.host + ":" + route.port;
+        StringBuilder request = new StringBuilder()
+                .append("CONNECT ").append(authority).append(" HTTP/1.1").append(CRLF)
+                .append("Host: ").append(authority).append(CRLF);
+        if (route.proxyAuthorization != null) {
+            request.append("Proxy-Authorization: ").append(route.proxyAuthorization).append(CRLF);
+        }
+        request.append(CRLF);
+
+        OutputStream out = socket.getOutputStream();
+        out.write(request.toString().getBytes(ISO_8859_1));
+        out.flush();
+
+        // read unbuffered, the TLS handshake takes the stream over right after the headers
+        ResponseHead head = readHead(socket.getInputStream());
+        if (head.responseCode != HttpURLConnection.HTTP_OK) {
+            throw new IOException("Unable to tunnel through proxy: " + head.statusLine);
+        }
+    }
+
+    private Response send(PooledConnection connection, Route route) throws IOException {
+        StringBuilder request = new StringBuilder(256)
+                .append("GET ").append(route.requestTarget).append(" HTTP/1.1").append(CRLF)
+                .append("Host: ").append(route.hostHeader).append(CRLF)
+                .append("Accept-Encoding: gzip, deflate").append(CRLF)
+                .append("Connection: keep-alive").append(CRLF);
+        if (route.proxyAuthorization != null && !route.secure) {
+            request.append("Proxy-Authorization: ").append(route.proxyAuthorization).append(CRLF);
+        }
+        request.append(CRLF);
+
+        connection.out.write(request.toString().getBytes(ISO_8859_1));
+        connection.out.flush();
+
+        ResponseHead head = readHead(connection.in);
+
+        InputStream body;
+        boolean keepAlive = head.keepAlive;
+        if (head.responseCode == HttpURLConnection.HTTP_NO_CONTENT
+                || head.responseCode == HttpURLConnection.HTTP_NOT_MODIFIED) {
+            body = new FixedLengthInputStream(connection.in, 0);
+        } else if (head.chunked) {
+            body = new ChunkedInputStream(connection.in);
+        } else if (head.contentLength >= 0) {
+            body = new FixedLengthInputStream(connection.in, head.contentLength);
+        } else {
+            // body ends when the server closes the connection
+            body = connection.in;
+            keepAlive = false;
+        }
+
+        return new PooledResponse(connection, head, body, keepAlive);
+    }
+
+    /*
+    HTTP parsing
+     */
+    private static ResponseHead readHead(InputStream in) throws IOException {
+        ResponseHead head;
+        do {
+            String statusLine = readLine(in);
+            if (statusLine == null) {
+                throw new EOFException("Connection closed before response");
+            }
+            head = new ResponseHead(statusLine);
+
+            String line;
+            while ((line = readLine(in)) != null && line.length() > 0) {
+                head.addHeader(line);
+            }
+            if (line == null) {
+                throw new EOFException("Connection closed within response headers");
+            }
+        } while (head.responseCode >= 100 && head.responseCode < 200);
+
+        return head;
+    }
+
+    private static String readLine(InputStream in) throws IOException {
+        StringBuilder line = new StringBuilder(64);
+
+        int b;
+        while ((b = in.read()) != -1) {
+            if (b == '\n') {
+                int length = line.length();
+                if (length > 0 && line.charAt(length - 1) == '\r') {
+                    line.setLength(length - 1);
+                }
+                return line.toString();
+            }
+            if (line.length() >= MAX_LINE_LENGTH) {
+                throw new IOException("Line too long in HTTP response");
+            }
+            line.append((char) b);
+        }
+
+        return (line.length() > 0) ? line.toString() : null;
+    }
+
+    /**
+     * Asks the default {@link java.net.Authenticator} for the credentials of an HTTP proxy.
+     *
+     * @return Value for the Proxy-Authorization header if credentials are available, otherwise <code>null</code>.
+     */
+    static String proxyAuthorization(Proxy proxy, URL url) throws IOException {
+        InetSocketAddress proxyAddress = (InetSocketAddress) proxy.address();
+        PasswordAuthentication authentication = Authenticator.requestPasswordAuthentication(
+                proxyAddress.getHostName(), proxyAddress.getAddress(), proxyAddress.getPort(),
+                "http", null, "basic", url, Authenticator.RequestorType.PROXY);
+        return (authentication != null) ? basicCredentials(authentication) : null;
+    }
+
+    private static String basicCredentials(PasswordAuthentication authentication) throws IOException {
+        String userPass = authentication.getUserName() + ":" + new String(authentication.getPassword());
+        return "Basic " + encodeBase64(userPass.getBytes(ISO_8859_1));
+    }
+
+    private static String encodeBase64(byte[] data) {
+        final String alphabet = "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789+/";
+        StringBuilder encoded = new StringBuilder((data.length + 2) / 3 * 4);
+
+        for (int i = 0; i < data.length; i += 3) {
+            int b0 = data[i] & 0xff;
+            int b1 = (i + 1 < data.length) ? data[i + 1] & 0xff : 0;
+            int b2 = (i + 2 < data.length) ? data[i + 2] & 0xff : 0;
+
+            encoded.append(alphabet.charAt(b0 >> 2));
+            encoded.append(alphabet.charAt(((b0 & 0x03) << 4) | (b1 >> 4)));
+            encoded.append((i + 1 < data.length) ? alphabet.charAt(((b1 & 0x0f) << 2) | (b2 >> 6)) : '=');
+            encoded.append((i + 2 < data.length) ? alphabet.charAt(b2 & 0x3f) : '=');
+        }
+
+        return encoded.toString();
+    }
+
+    /**
+     * Where and how a request is sent
+     */
+    private static class Route {
+        private final String host;
+        private final int port;
+        private final boolean secure;
+        private final Proxy proxy;
+        private final String proxyAuthorization;
+        private final String requestTarget;
+        private final String hostHeader;
+        private final String key;
+
+        private Route(URL url, Proxy proxy) throws IOException {
+            String protocol = url.getProtocol().toLowerCase(Locale.ENGLISH);
+            if (!"http".equals(protocol) && !"https".equals(protocol)) {
+                throw new IOException("Unsupported protocol: " + protocol);
+            }
+
+            this.host = url.getHost();
+            this.port = (url.getPort() != -1) ? url.getPort() : url.getDefaultPort();
+            this.secure = "https".equals(protocol);
+            this.proxy = (proxy != null && proxy.type() != Proxy.Type.DIRECT) ? proxy : null;
+            this.hostHeader = (url.getPort() != -1 && url.getPort() != url.getDefaultPort()) ? host + ":" + port : host;
+
+            String file = ("".equals(url.getFile())) ? "/" : url.getFile();
+            if (this.proxy != null && this.proxy.type() == Proxy.Type.HTTP) {
+                // plain requests carry the full address for the proxy to forward it
+                this.requestTarget = (secure) ? file : protocol + "://" + hostHeader + file;
+
+                this.proxyAuthorization = proxyAuthorization(this.proxy, url);
+            } else {
+                this.requestTarget = file;
+                this.proxyAuthorization = null;
+            }
+
+            this.key = protocol + "://" + host + ":" + port + ((this.proxy != null) ? " via " + this.proxy : "");
+        }
+    }
+
+    /**
+     * Status line and the headers of a response that matter to the transport
+     */
+    private static class ResponseHead {
+        private final String statusLine;
+        private final int responseCode;
+
+        private String contentEncoding;
+        private long contentLength = -1;
+        private boolean chunked;
+        private boolean keepAlive;
+
+        private ResponseHead(String statusLine) throws IOException {
+            this.statusLine = statusLine;
+
+            int start = statusLine.indexOf(' ');
+            if (!statusLine.startsWith("HTTP/") || start < 0 || statusLine.length() < start + 4) {
+                throw new IOException("Malformed status line: " + statusLine);
+            }
+            try {
+                this.responseCode = Integer.parseInt(statusLine.substring(start + 1, start + 4));
+            } catch (NumberFormatException e) {
+                throw new IOException("Malformed status line: " + statusLine);
+            }
+
+            // HTTP/1.1 keeps connections alive unless told otherwise, HTTP/1.0 does the opposite
+            this.keepAlive = !statusLine.startsWith("HTTP/1.0");
+        }
+
+        private void addHeader(String line) throws IOException {
+            int colon = line.indexOf(':');
+            if (colon <= 0) {
+                return;
+            }
+
+            String name = line.substring(0, colon).trim();
+            String value = line.substring(colon + 1).trim();
+
+            if ("Content-Length".equalsIgnoreCase(name)) {
+                try {
+                    this.contentLength = Long.parseLong(value);
+                } catch (NumberFormatException e) {
+                    throw new IOException("Malformed Content-Length: " + value);
+                }
+            } else if ("Transfer-Encoding".equalsIgnoreCase(name)) {
+                this.chunked = value.toLowerCase(Locale.ENGLISH).indexOf("chunked") >= 0;
+            } else if ("Content-Encoding".equalsIgnoreCase(name)) {
+                this.contentEncoding = value;
+            } else if ("Connection".equalsIgnoreCase(name)) {
+                if ("close".equalsIgnoreCase(value)) {
+                    this.keepAlive = false;
+                } else if ("keep-alive".equalsIgnoreCase(value)) {
+                    this.keepAlive = true;
+                }
+            }
+        }
+    }
+
+    /**
+     * Socket kept open between requests
+     */
+    private static class PooledConnection {
+        private final String key;
+        private final Socket socket;
+        private final InputStream in;
+        private final OutputStream out;
+
+        private long idleSince;
+
+        private PooledConnection(String key, Socket socket) throws IOException {
+            this.key = key;
+            this.socket = socket;
+            this.in = new BufferedInputStream(socket.getInputStream(), 8192);
+            this.out = new BufferedOutputStream(socket.getOutputStream(), 1024);
+        }
+
+        private void closeQuietly() {
+            try {
+                socket.close();
+            } catch (IOException e) {
+                // nothing more can be done with it
+            }
+        }
+    }
+
+    /**
+     * Response read from a pooled connection
+     */
+    private class PooledResponse implements Response {
+        private final PooledConnection connection;
+        private final ResponseHead head;
+        private final InputStream body;
+        private final boolean keepAlive;
+
+        private boolean closed;
+
+        private PooledResponse(PooledConnection connection, ResponseHead head, InputStream body, boolean keepAlive) {
+            this.connection = connection;
+            this.head = head;
+            this.body = body;
+            this.keepAlive = keepAlive;
+        }
+
+        public int getResponseCode() {
+            return head.responseCode;
+        }
+
+        public String getContentEncoding() {
+            return head.contentEncoding;
+        }
+
+        public InputStream getInputStream() {
+            return new FilterInputStream(body) {
+                public void close() {
+                    PooledResponse.this.close();
+                }
+            };
+        }
+
+        public void close() {
+            if (closed) {
+                return;
+            }
+            closed = true;
+
+            if (keepAlive && drain()) {
+                releaseConnection(connection);
+            } else {
+                connection.closeQuietly();
+            }
+        }
+
+        /**
+         * Reads whatever is left of the body, so that the next response starts right at the connection's head.
+         */
+        private boolean drain() {
+            byte[] buffer = new byte[1024];
+            long drained = 0;
+            try {
+                int count;
+                while ((count = body.read(buffer)) != -1) {
+                    drained += count;
+                    if (drained > MAX_DRAIN_LENGTH) {
+                        return false;
+                    }
+                }
+                return true;
+            } catch (IOException e) {
+                return false;
+            }
+        }
+    }
+
+    /**
+     * Body delimited by the Content-Length header
+     */
+    private static class FixedLengthInputStream extends InputStream {
+        private final InputStream in;
+        private long remaining;
+
+        private FixedLengthInputStream(InputStream in, long length) {
+            this.in = in;
+            this.remaining = length;
+        }
+
+        public int read() throws IOException {
+            if (remaining <= 0) {
+                return -1;
+            }
+            int b = in.read();
+            if (b == -1) {
+                throw new EOFException("Connection closed within response body");
+            }
+            remaining--;
+            return b;
+        }
+
+        public int read(byte[] buffer, int offset, int length) throws IOException {
+            if (remaining <= 0) {
+                return -1;
+            }
+            int count = in.read(buffer, offset, (int) Math.min(length, remaining));
+            if (count == -1) {
+                throw new EOFException("Connection closed within response body");
+            }
+            remaining -= count;
+            return count;
+        }
+
+        public int available() throws IOException {
+            return (int) Math.min(in.available(), remaining);
+        }
+    }
+
+    /**
+     * Body sent with chunked transfer coding
+     *
+     * @see <a href="http://www.w3.org/Protocols/rfc2616/rfc2616-sec3.html#sec3.6.1">HTTP - (3.6.1) Chunked Transfer Coding</a>
+     */
+    private static class ChunkedInputStream extends InputStream {
+        private final InputStream in;
+        private long remainingInChunk;
+        private boolean firstChunk = true;
+        private boolean eof;
+
+        private ChunkedInputStream(InputStream in) {
+            this.in = in;
+        }
+
+        public int read() throws IOException {
+            if (!nextChunkIfNeeded()) {
+                return -1;
+            }
+            int b = in.read();
+            if (b == -1) {
+                throw new EOFException("Connection closed within response body");
+            }
+            remainingInChunk--;
+            return b;
+        }
+
+        public int read(byte[] buffer, int offset, int length) throws IOException {
+            if (!nextChunkIfNeeded()) {
+                return -1;
+            }
+            int count = in.read(buffer, offset, (int) Math.min(length, remainingInChunk));
+            if (count == -1) {
+                throw new EOFException("Connection closed within response body");
+            }
+            remainingInChunk -= count;
+            return count;
+        }
+
+        private boolean nextChunkIfNeeded() throws IOException {
+            if (eof) {
+                return false;
+            }
+            if (remainingInChunk > 0) {
+                return true;
+            }
+
+            if (!firstChunk) {
+                readLine(in); // CRLF ending the previous chunk's data
+            }
+            firstChunk = false;
+
+            String sizeLine = readLine(in);
+            if (sizeLine == null) {
+                throw new EOFException("Connection closed within response body");
+            }
+            int extension = sizeLine.indexOf(';');
+            String size = (extension >= 0) ? sizeLine.substring(0, extension) : sizeLine;
+            try {
+                remainingInChunk = Long.parseLong(size.trim(), 16);
+            } catch (NumberFormatException e) {
+                throw new IOException("Malformed chunk size: " + sizeLine);
+            }
+
+            if (remainingInChunk == 0) {
+                // skip trailers till the empty line
+                String line;
+                while ((line = readLine(in)) != null && line.length() > 0) {
+                    // trailers are of no use here
+                }
+                eof = true;
+                return false;
+            }
+            return true;
+        }
+    }
+
+    /**
+     * Closes connections that stayed idle for too long
+     */
+    private class ReaperTask extends TimerTask {
+        public void run() {
+            reapIdleConnections();
+        }
+    }
+}
@@ -0,0 +1,412 @@
+/*
+ * Copyright (c) 2013-2015 Ashutosh Kumar Singh <me@aksingh.net>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package net.aksingh.owmjapis;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.PushbackInputStream;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.CRC32;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.Inflater;
+import java.util.zip.InflaterInputStream;
+import java.util.zip.ZipException;
+
+/**
+ * <p>
+ * Reads bodies of HTTP responses into reusable byte buffers, inflating <code>gzip</code> and
+ * <code>deflate</code> content encodings on the way. It also compresses raw responses kept by
+ * parsed objects, which read them back as <code>deflate</code> encoded bodies.
+ * </p>
+ * <p>
+ * Each thread keeps its own buffers between responses, and {@link java.util.zip.Inflater}s
+ * (with their native memory) are pooled, so reading a response allocates little more than the returned bytes.
+ * </p>
+ *
+ * @author Ashutosh Kumar Singh
+ * @version 2026/10/18
+ * @since 2.5.0.6
+ */
+class ResponseBodyReader {
+    private static final int INPUT_BUFFER_SIZE = 8192;
+    private static final int INITIAL_OUTPUT_CAPACITY = 16384;
+    private static final int MAX_RETAINED_OUTPUT_CAPACITY = 1 << 20;
+    private static final int MAX_POOLED_INFLATERS = 32;
+    private static final int MAX_POOLED_DEFLATERS = 8;
+
+    /*
+    gzip format
+     */
+    private static final int GZIP_MAGIC = 0x8b1f;
+    private static final int GZIP_FHCRC = 2;
+    private static final int GZIP_FEXTRA = 4;
+    private static final int GZIP_FNAME = 8;
+    private static final int GZIP_FCOMMENT = 16;
+    private static final int GZIP_TRAILER_SIZE = 8;
+
+    private static final ThreadLocal<Buffers> BUFFERS = new ThreadLocal<Buffers>() {
+        protected Buffers initialValue() {
+            return new Buffers();
+        }
+    };
+
+    private static final ConcurrentLinkedQueue<Inflater> INFLATERS = new ConcurrentLinkedQueue<Inflater>();
+    private static final AtomicInteger POOLED_INFLATERS = new AtomicInteger(0);
+    private static final ConcurrentLinkedQueue<Deflater> DEFLATERS = new ConcurrentLinkedQueue<Deflater>();
+    private static final AtomicInteger POOLED_DEFLATERS = new AtomicInteger(0);
+
+    private ResponseBodyReader() {
+    }
+
+    /**
+     * Inflates the body while it is read, for bodies read bit by bit instead of completely.
+     *
+     * @param in              Body of the response
+     * @param contentEncoding Value of the Content-Encoding header, or <code>null</code>
+     * @return Body, inflated if it was compressed
+     * @throws IOException if the body cannot be read.
+     */
+    static InputStream inflating(InputStream in, String contentEncoding) throws IOException {
+        if (contentEncoding != null && "gzip".equalsIgnoreCase(contentEncoding)) {
+            return new GZIPInputStream(in, INPUT_BUFFER_SIZE);
+        } else if (contentEncoding != null && "deflate".equalsIgnoreCase(contentEncoding)) {
+            // zlib-wrapped or raw deflate, as for readDeflate
+            PushbackInputStream pushback = new PushbackInputStream(in, 2);
+            byte[] header = new byte[2];
+            int count = readAtLeast(pushback, header, 2);
+            if (count > 0) {
+                pushback.unread(header, 0, count);
+            }
+            boolean zlib = count >= 2 && (header[0] & 0x0f) == 8 && (header[1] & 0x20) == 0
+                    && (((header[0] & 0xff) << 8) | (header[1] & 0xff)) % 31 == 0;
+            return new InflaterInputStream(pushback, new Inflater(!zlib), INPUT_BUFFER_SIZE) {
+                public void close() throws IOException {
+                    try {
+                        super.close();
+                    } finally {
+                        inf.end(); // not ended by the stream, as it is given to it
+                    }
+                }
+            };
+        } else {
+            return in;
+        }
+    }
+
+    /**
+     * Reads the body completely.
+     *
+     * @param in              Body of the response
+     * @param contentEncoding Value of the Content-Encoding header, or <code>null</code>
+     * @return Body, inflated if it was compressed
+     * @throws IOException if the body cannot be read or inflated.
+     */
+    static byte[] readBytes(InputStream in, String contentEncoding) throws IOException {
+        Buffers buffers = BUFFERS.get();
+        try {
+            int length = read(in, contentEncoding, buffers);
+            byte[] body = new byte[length];
+            System.arraycopy(buffers.output, 0, body, 0, length);
+            return body;
+        } finally {
+            buffers.trim();
+        }
+    }
+
+    /**
+     * Compresses bytes with (raw) deflate.
+     *
+     * @param data   Bytes to be compressed
+     * @param offset Offset of the first byte
+     * @param length Count of bytes
+     * @return Compressed bytes, to be read back with <code>deflate</code> content encoding
+     */
+    static byte[] deflate(byte[] data, int offset, int length) {
+        Buffers buffers = BUFFERS.get();
+        Deflater deflater = acquireDeflater();
+        try {
+            deflater.setInput(data, offset, length);
+            deflater.finish();
+            int size = 0;
+            while (!deflater.finished()) {
+                byte[] output = buffers.ensureCapacity(size + 1);
+                size += deflater.deflate(output, size, output.length - size);
+            }
+            byte[] compressed = new byte[size];
+            System.arraycopy(buffers.output, 0, compressed, 0, size);
+            return compressed;
+        } finally {
+            releaseDeflater(deflater);
+            buffers.trim();
+        }
+    }
+
+    private static int read(InputStream in, String contentEncoding, Buffers buffers) throws IOException {
+        if (contentEncoding != null && "gzip".equalsIgnoreCase(contentEncoding)) {
+            return readGzip(in, buffers);
+        } else if (contentEncoding != null && "deflate".equalsIgnoreCase(contentEncoding)) {
+            return readDeflate(in, buffers);
+        } else {
+            return readIdentity(in, buffers);
+        }
+    }
+
+    private static int readIdentity(InputStream in, Buffers buffers) throws IOException {
+        int length = 0;
+        int count;
+        while ((count = in.read(buffers.ensureCapacity(length + 1), length, buffers.output.length - length)) != -1) {
+            length += count;
+        }
+        return length;
+    }
+
+    private static int readDeflate(InputStream in, Buffers buffers) throws IOException {
+        byte[] input = buffers.input;
+        int count = readAtLeast(in, input, 2);
+        if (count <= 0) {
+            return 0;
+        }
+
+        // "deflate" should be zlib-wrapped, but servers also send raw deflate; skip the zlib header if any
+        int offset = 0;
+        if (count >= 2 && (input[0] & 0x0f) == 8 && (input[1] & 0x20) == 0
+                && (((input[0] & 0xff) << 8) | (input[1] & 0xff)) % 31 == 0) {
+            offset = 2;
+        }
+
+        Inflater inflater = acquireInflater();
+        try {
+            inflater.setInput(input, offset, count - offset);
+            return inflate(in, inflater, buffers);
+        } finally {
+            releaseInflater(inflater);
+        }
+    }
+
+    private static int readGzip(InputStream in, Buffers buffers) throws IOException {
+        if (readUnsignedShort(in) != GZIP_MAGIC) {
+            throw new ZipException("Not in GZIP format");
+        }
+        if (readUnsignedByte(in) != 8) {
+            throw new ZipException("Unsupported compression method");
+        }
+        int flags = readUnsignedByte(in);
+        skipBytes(in, 6); // modification time, extra flags, operating system
+
+        if ((flags & GZIP_FEXTRA) == GZIP_FEXTRA) {
+            skipBytes(in, readUnsignedShort(in));
+        }
+        if ((flags & GZIP_FNAME) == GZIP_FNAME) {
+            while (readUnsignedByte(in) != 0) {
+                // skip file name
+            }
+        }
+        if ((flags & GZIP_FCOMMENT) == GZIP_FCOMMENT) {
+            while (readUnsignedByte(in) != 0) {
+                // skip comment
+            }
+        }
+        if ((flags & GZIP_FHCRC) == GZIP_FHCRC) {
+            skipBytes(in, 2);
+        }
+
+        Inflater inflater = acquireInflater();
+        int length;
+        byte[] trailer = new byte[GZIP_TRAILER_SIZE];
+        try {
+            length = inflate(in, inflater, buffers);
+
+            // trailer starts with the bytes the inflater did not need
+            int remaining = Math.min(inflater.getRemaining(), GZIP_TRAILER_SIZE);
+            System.arraycopy(buffers.input, buffers.inputLength - inflater.getRemaining(), trailer, 0, remaining);
+            if (remaining < GZIP_TRAILER_SIZE && readAtLeast(in, trailer, remaining, GZIP_TRAILER_SIZE - remaining)
+                    < GZIP_TRAILER_SIZE - remaining) {
+                throw new EOFException("Unexpected end of GZIP trailer");
+            }
+        } finally {
+            releaseInflater(inflater);
+        }
+
+        CRC32 crc = new CRC32();
+        crc.update(buffers.output, 0, length);
+        if (readIntLE(trailer, 0) != crc.getValue() || readIntLE(trailer, 4) != (length & 0xffffffffL)) {
+            throw new ZipException("Corrupt GZIP trailer");
+        }
+        return length;
+    }
+
+    private static int inflate(InputStream in, Inflater inflater, Buffers buffers) throws IOException {
+        int length = 0;
+        try {
+            while (!inflater.finished()) {
+                if (inflater.needsInput()) {
+                    int count = in.read(buffers.input);
+                    if (count == -1) {
+                        throw new EOFException("Unexpected end of compressed body");
+                    }
+                    buffers.inputLength = count;
+                    inflater.setInput(buffers.input, 0, count);
+                }
+                if (inflater.needsDictionary()) {
+                    throw new ZipException("Preset dictionaries are not supported");
+                }
+
+                byte[] output = buffers.ensureCapacity(length + 1);
+                length += inflater.inflate(output, length, output.length - length);
+            }
+        } catch (DataFormatException e) {
+            String message = e.getMessage();
+            throw new ZipException((message != null) ? message : "Invalid compressed body");
+        }
+        return length;
+    }
+
+    /*
+    Inflater pool
+     */
+    private static Inflater acquireInflater() {
+        Inflater inflater = INFLATERS.poll();
+        if (inflater != null) {
+            POOLED_INFLATERS.decrementAndGet();
+            return inflater;
+        }
+        return new Inflater(true);
+    }
+
+    private static void releaseInflater(Inflater inflater) {
+        inflater.reset();
+        if (POOLED_INFLATERS.incrementAndGet() <= MAX_POOLED_INFLATERS) {
+            INFLATERS.offer(inflater);
+        } else {
+            POOLED_INFLATERS.decrementAndGet();
+            inflater.end();
+        }
+    }
+
+    /*
+    Deflater pool
+     */
+    private static Deflater acquireDeflater() {
+        Deflater deflater = DEFLATERS.poll();
+        if (deflater != null) {
+            POOLED_DEFLATERS.decrementAndGet();
+            return deflater;
+        }
+        return new Deflater(Deflater.DEFAULT_COMPRESSION, true);
+    }
+
+    private static void releaseDeflater(Deflater deflater) {
+        deflater.reset();
+        if (POOLED_DEFLATERS.incrementAndGet() <= MAX_POOLED_DEFLATERS) {
+            DEFLATERS.offer(deflater);
+        } else {
+            POOLED_DEFLATERS.decrementAndGet();
+            deflater.end();
+        }
+    }
+
+    /*
+    Helpers for reading
+     */
+    private static int readAtLeast(InputStream in, byte[] buffer, int minimum) throws IOException {
+        int length = 0;
+        while (length < minimum) {
+            int count = in.read(buffer, length, buffer.length - length);
+            if (count == -1) {
+                break;
+            }
+            length += count;
+        }
+        return length;
+    }
+
+    private static int readAtLeast(InputStream in, byte[] buffer, int offset, int minimum) throws IOException {
+        int length = 0;
+        while (length < minimum) {
+            int count = in.read(buffer, offset + length, minimum - length);
+            if (count == -1) {
+                break;
+            }
+            length += count;
+        }
+        return length;
+    }
+
+    private static int readUnsignedByte(InputStream in) throws IOException {
+        int b = in.read();
+        if (b == -1) {
+            throw new EOFException("Unexpected end of GZIP header");
+        }
+        return b;
+    }
+
+    private static int readUnsignedShort(InputStream in) throws IOException {
+        return readUnsignedByte(in) | (readUnsignedByte(in) << 8);
+    }
+
+    private static void skipBytes(InputStream in, int count) throws IOException {
+        for (int i = 0; i < count; i++) {
+            readUnsignedByte(in);
+        }
+    }
+
+    private static long readIntLE(byte[] bytes, int offset) {
+        return ((bytes[offset] & 0xffL)) | ((bytes[offset + 1] & 0xffL) << 8)
+                | ((bytes[offset + 2] & 0xffL) << 16) | ((bytes[offset + 3] & 0xffL) << 24);
+    }
+
+    /**
+     * Buffers kept by each thread between responses
+     */
+    private static class Buffers {
+        private final byte[] input = new byte[INPUT_BUFFER_SIZE];
+        private int inputLength;
+        private byte[] output = new byte[INITIAL_OUTPUT_CAPACITY];
+
+        private byte[] ensureCapacity(int capacity) {
+            if (capacity > output.length) {
+                int grown = output.length;
+                while (grown < capacity) {
+                    grown <<= 1;
+                }
+                byte[] bigger = new byte[grown];
+                System.arraycopy(output, 0, bigger, 0, output.length);
+                output = bigger;
+            }
+            return output;
+        }
+
+        /**
+         * Lets an unusually large buffer go, instead of keeping it for the thread's lifetime.
+         */
+        private void trim() {
+            if (output.length > MAX_RETAINED_OUTPUT_CAPACITY) {
+                output = new byte[INITIAL_OUTPUT_CAPACITY];
+            }
+        }
+    }
+}
@@ -0,0 +1,311 @@
+/*
+ * Copyright (c) 2013-2015 Ashutosh Kumar Singh <me@aksingh.net>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package net.aksingh.owmjapis;
+
+import org.json.JSONException;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * <p>
+ * Reads the list of a response (e.g., the cities found in a region) element by element, while the
+ * response is still being received, and hands back every element parsed on its own.
+ * </p>
+ * <p>
+ * Only the element being read is kept by the reader, so memory taken by the reader does not depend on
+ * the count of elements, and the first elements are available before the last ones are received.
+ * Other members of the response are skipped, and so are elements which are not JSON objects.
+ * </p>
+ * <p>
+ * <b>Sample code:</b><br>
+ * <code>ResponseListReader&lt;CurrentWeather&gt; reader = owm.currentWeatherAroundCoordinates(51.5f, -0.12f, 50);</code><br>
+ * <code>for (CurrentWeather cw; (cw = reader.read()) != null; ) { ... }</code><br>
+ * <code>reader.close();</code>
+ * </p>
+ *
+ * @param <V> Type of the parsed elements, e.g., {@link net.aksingh.owmjapis.CurrentWeather}
+ * @author Ashutosh Kumar Singh
+ * @version 2026/10/18
+ * @see net.aksingh.owmjapis.OpenWeatherMap#currentWeatherByBoundingBox(float, float, float, float, int)
+ * @see net.aksingh.owmjapis.OpenWeatherMap#currentWeatherAroundCoordinates(float, float, int)
+ * @since 2.5.0.6
+ */
+public class ResponseListReader<V> implements Closeable {
+    private static final int BUFFER_SIZE = 8192;
+    private static final int INITIAL_ELEMENT_CAPACITY = 2048;
+
+    private final InputStream in;
+    private final byte[] listName;
+    private final ElementParser<V> parser;
+
+    private final byte[] buffer = new byte[BUFFER_SIZE];
+    private int bufferPos;
+    private int bufferLimit;
+
+    private byte[] element = new byte[INITIAL_ELEMENT_CAPACITY];
+    private int elementLength;
+
+    private boolean inList;
+    private boolean finished;
+
+    /**
+     * @param in       Body of the response, inflated; it is closed by the reader
+     * @param listName Name of the list within the response, in ASCII
+     * @param parser   Parser of the elements of the list
+     */
+    ResponseListReader(InputStream in, String listName, ElementParser<V> parser) {
+        this.in = in;
+        this.listName = new byte[listName.length()];
+        for (int i = 0; i < this.listName.length; i++) {
+            this.listName[i] = (byte) listName.charAt(i);
+        }
+        this.parser = parser;
+    }
+
+    /**
+     * Reads the next element of the list, waiting for it to be received if needed.
+     *
+     * @return Next element, or <code>null</code> at the end of the list, or if the response has no list.
+     * @throws IOException   if the response cannot be read.
+     * @throws JSONException if the response, or the element, is not valid JSON.
+     */
+    public V read()
+            throws IOException, JSONException {
+        if (finished) {
+            return null;
+        }
+        if (!inList) {
+            if (!findList()) {
+                finished = true;
+                return null;
+            }
+            inList = true;
+        }
+
+        while (true) {
+            int b = nextSignificant();
+            if (b == ',') {
+                continue;
+            } else if (b == ']') {
+                finished = true;
+                return null;
+            } else if (b == -1) {
+                throw new JSONException("Unterminated list of the response");
+            } else if (b == '{') {
+                readObject();
+                byte[] data = new byte[elementLength]; // kept by the parsed element, as its raw response
+                System.arraycopy(element, 0, data, 0, elementLength);
+                return parser.parse(data, 0, data.length);
+            }
+            skipValue(b);
+        }
+    }
+
+    /**
+     * Closes the response, even if not read till its end.
+     */
+    public void close()
+            throws IOException {
+        finished = true;
+        element = null;
+        in.close();
+    }
+
+    /**
+     * Skips the members of the response up to the start of its list.
+     *
+     * @return <code>true</code> if the list is found, <code>false</code> if the response has no list.
+     */
+    private boolean findList()
+            throws IOException {
+        int b = nextSignificant();
+        if (b != '{') {
+            throw new JSONException("A JSONObject text must begin with '{'");
+        }
+        while (true) {
+            b = nextSignificant();
+            if (b == ',') {
+                continue;
+            } else if (b == '}' || b == -1) {
+                return false;
+            } else if (b != '"') {
+                throw new JSONException("Expected a name in the response");
+            }
+
+            boolean isList = readName();
+            if (nextSignificant() != ':') {
+                throw new JSONException("Expected a ':' after a name in the response");
+            }
+            b = nextSignificant();
+            if (isList && b == '[') {
+                return true;
+            }
+            skipValue(b);
+        }
+    }
+
+    /**
+     * Reads a name, after its opening quote.
+     *
+     * @return <code>true</code> if it is the name of the list.
+     */
+    private boolean readName()
+            throws IOException {
+        int length = 0;
+        boolean matches = true;
+        while (true) {
+            int b = next();
+            if (b == '"' || b == -1) {
+                return matches && length == listName.length;
+            } else if (b == '\\') {
+                next();
+                matches = false;
+            } else if (length >= listName.length || listName[length] != b) {
+                matches = false;
+            }
+            length++;
+        }
+    }
+
+    /**
+     * Reads an object, after its opening brace, into the element buffer.
+     */
+    private void readObject()
+            throws IOException {
+        elementLength = 0;
+        append('{');
+        int depth = 1;
+        boolean inString = false;
+        while (depth > 0) {
+            int b = next();
+            if (b == -1) {
+                throw new JSONException("Unterminated object in the list of the response");
+            }
+            append(b);
+            if (inString) {
+                if (b == '\\') {
+                    append(next());
+                } else if (b == '"') {
+                    inString = false;
+                }
+            } else if (b == '"') {
+                inString = true;
+            } else if (b == '{' || b == '[') {
+                depth++;
+            } else if (b == '}' || b == ']') {
+                depth--;
+            }
+        }
+    }
+
+    /**
+     * Skips a value, after its first byte.
+     */
+    private void skipValue(int first)
+            throws IOException {
+        if (first == '"') {
+            skipString();
+        } else if (first == '{' || first == '[') {
+            int depth = 1;
+            while (depth > 0) {
+                int b = next();
+                if (b == -1) {
+                    return;
+                } else if (b == '"') {
+                    skipString();
+                } else if (b == '{' || b == '[') {
+                    depth++;
+                } else if (b == '}' || b == ']') {
+                    depth--;
+                }
+            }
+        } else {
+            // number, true, false or null: up to the next delimiter, which is left to be read
+            while (true) {
+                int b = next();
+                if (b == -1) {
+                    return;
+                } else if (b == ',' || b == '}' || b == ']' || isWhitespace(b)) {
+                    bufferPos--;
+                    return;
+                }
+            }
+        }
+    }
+
+    private void skipString()
+            throws IOException {
+        while (true) {
+            int b = next();
+            if (b == '"' || b == -1) {
+                return;
+            } else if (b == '\\') {
+                next();
+            }
+        }
+    }
+
+    private int nextSignificant()
+            throws IOException {
+        int b;
+        do {
+            b = next();
+        } while (isWhitespace(b));
+        return b;
+    }
+
+    private static boolean isWhitespace(int b) {
+        return b == ' ' || b == '\n' || b == '\r' || b == '\t';
+    }
+
+    private int next()
+            throws IOException {
+        if (bufferPos == bufferLimit) {
+            int count = in.read(buffer, 0, buffer.length);
+            if (count <= 0) {
+                return -1;
+            }
+            bufferPos = 0;
+            bufferLimit = count;
+        }
+        return buffer[bufferPos++] & 0xFF;
+    }
+
+    private void append(int b) {
+        if (elementLength == element.length) {
+            byte[] bigger = new byte[element.length * 2];
+            System.arraycopy(element, 0, bigger, 0, elementLength);
+            element = bigger;
+        }
+        element[elementLength++] = (byte) b;
+    }
+
+    /**
+     * Parses one element of the list
+     */
+    static interface ElementParser<V> {
+        V parse(byte[] data, int offset, int length);
+    }
+}
@@ -0,0 +1,116 @@
+/*
+ * Copyright (c) 2013-2015 Ashutosh Kumar Singh <me@aksingh.net>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package net.aksingh.owmjapis;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.HttpURLConnection;
+import java.net.Proxy;
+import java.net.URL;
+
+/**
+ * <p>
+ * Sends HTTP requests using {@link java.net.HttpURLConnection}.
+ * </p>
+ * <p>
+ * Connections are not disconnected after use, so the JVM's own keep-alive cache may reuse their sockets
+ * (see <code>http.keepAlive</code> and <code>http.maxConnections</code> system properties).
+ * </p>
+ *
+ * @author Ashutosh Kumar Singh
+ * @version 2026/10/18
+ * @since 2.5.0.6
+ */
+public class UrlConnectionTransport implements HttpTransport {
+
+    public Response httpGET(String requestAddress, Proxy proxy) throws IOException {
+        URL request = new URL(requestAddress);
+        HttpURLConnection connection;
+
+        if (proxy != null) {
+            connection = (HttpURLConnection) request.openConnection(proxy);
+        } else {
+            connection = (HttpURLConnection) request.openConnection();
+        }
+
+        connection.setRequestMethod("GET");
+        connection.setUseCaches(false);
+        connection.setDoInput(true);
+        connection.setDoOutput(false);
+        connection.setRequestProperty("Accept-Encoding", "gzip, deflate");
+        connection.connect();
+
+        return new UrlConnectionResponse(connection);
+    }
+
+    public void close() {
+        // nothing to release, sockets are owned by the JVM's keep-alive cache
+    }
+
+    /**
+     * Response backed by an {@link java.net.HttpURLConnection}
+     */
+    private static class UrlConnectionResponse implements Response {
+        private final HttpURLConnection connection;
+        private final int responseCode;
+
+        private InputStream body;
+
+        private UrlConnectionResponse(HttpURLConnection connection) throws IOException {
+            this.connection = connection;
+            this.responseCode = connection.getResponseCode();
+        }
+
+        public int getResponseCode() {
+            return this.responseCode;
+        }
+
+        public String getContentEncoding() {
+            return connection.getContentEncoding();
+        }
+
+        public InputStream getInputStream() throws IOException {
+            if (body == null) {
+                if (responseCode == HttpURLConnection.HTTP_OK) {
+                    body = connection.getInputStream();
+                } else {
+                    body = connection.getErrorStream();
+                    if (body == null) {
+                        throw new IOException("No response body for status " + responseCode);
+                    }
+                }
+            }
+            return body;
+        }
+
+        public void close() {
+            if (body != null) {
+                try {
+                    body.close();
+                } catch (IOException e) {
+                    // stream is gone already; the JVM will not reuse its socket
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,107 @@
+/*
+ * Copyright (c) 2013-2015 Ashutosh Kumar Singh <me@aksingh.net>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package net.aksingh.owmjapis;
+
+/**
+ * <p>
+ * Current weather, hourly forecast and daily forecast of one place, got together.
+ * </p>
+ * <p>
+ * Parts which could not be got are not available, i.e., their <code>has</code> methods give <code>false</code>;
+ * parts which were got from an invalid response are available, but not valid.
+ * </p>
+ *
+ * @author Ashutosh Kumar Singh
+ * @version 2026/10/18
+ * @see net.aksingh.owmjapis.OpenWeatherMap#weatherBundleByCoordinates(float, float)
+ * @see net.aksingh.owmjapis.OpenWeatherMap#weatherBundleByCityCode(long, byte)
+ * @since 2.5.0.6
+ */
+public class WeatherBundle {
+    /*
+    Instance variables
+     */
+    private final CurrentWeather currentWeather;
+    private final HourlyForecast hourlyForecast;
+    private final DailyForecast dailyForecast;
+
+    /*
+    Constructor
+     */
+    WeatherBundle(CurrentWeather currentWeather, HourlyForecast hourlyForecast, DailyForecast dailyForecast) {
+        this.currentWeather = currentWeather;
+        this.hourlyForecast = hourlyForecast;
+        this.dailyForecast = dailyForecast;
+    }
+
+    /**
+     * @return <code>true</code> if all parts are available and valid, otherwise <code>false</code>.
+     */
+    public boolean isComplete() {
+        return hasCurrentWeather() && currentWeather.isValid()
+                && hasHourlyForecast() && hourlyForecast.isValid()
+                && hasDailyForecast() && dailyForecast.isValid();
+    }
+
+    /**
+     * @return <code>true</code> if current weather is available, otherwise <code>false</code>.
+     */
+    public boolean hasCurrentWeather() {
+        return this.currentWeather != null;
+    }
+
+    /**
+     * @return <code>true</code> if hourly forecast is available, otherwise <code>false</code>.
+     */
+    public boolean hasHourlyForecast() {
+        return this.hourlyForecast != null;
+    }
+
+    /**
+     * @return <code>true</code> if daily forecast is available, otherwise <code>false</code>.
+     */
+    public boolean hasDailyForecast() {
+        return this.dailyForecast != null;
+    }
+
+    /**
+     * @return Current weather if available, otherwise <code>null</code>.
+     */
+    public CurrentWeather getCurrentWeather() {
+        return this.currentWeather;
+    }
+
+    /**
+     * @return Hourly forecast if available, otherwise <code>null</code>.
+     */
+    public HourlyForecast getHourlyForecast() {
+        return this.hourlyForecast;
+    }
+
+    /**
+     * @return Daily forecast if available, otherwise <code>null</code>.
+     */
+    public DailyForecast getDailyForecast() {
+        return this.dailyForecast;
+    }
+}
@@ -0,0 +1,244 @@
+/*
+ * Copyright (c) 2013-2015 Ashutosh Kumar Singh <me@aksingh.net>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package net.aksingh.owmjapis;
+
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * <p>
+ * Tests the CityLocator's functionality, by comparing it with a search through all cities.
+ * </p>
+ *
+ * @author Ashutosh Kumar Singh
+ * @version 2026/10/18
+ * @since 2.5.0.6
+ */
+public class CityLocatorTest {
+
+    private static final double EARTH_RADIUS_KM = 6371.0088;
+
+    /**
+     * Cities with code i at (latitudes[i], longitudes[i])
+     */
+    private static final class Cities {
+        private final float[] latitudes;
+        private final float[] longitudes;
+        private final CityLocator locator;
+
+        private Cities(float[] latitudes, float[] longitudes)
+                throws IOException {
+            this.latitudes = latitudes;
+            this.longitudes = longitudes;
+
+            StringBuilder cityList = new StringBuilder();
+            for (int i = 0; i < latitudes.length; i++) {
+                cityList.append("{\"_id\":").append(i).append(",\"name\":\"City ").append(i)
+                        .append("\",\"country\":\"GB\",\"coord\":{\"lon\":").append(longitudes[i])
+                        .append(",\"lat\":").append(latitudes[i]).append("}}\n");
+            }
+            this.locator = new CityLocator(CityCatalog.fromCityList(
+                    new ByteArrayInputStream(cityList.toString().getBytes("UTF-8"))));
+        }
+
+        /**
+         * @return Great-circle distance of the city to the coordinate, in kilometers.
+         */
+        private double distance(int city, float latitude, float longitude) {
+            double phi1 = Math.toRadians(latitude);
+            double phi2 = Math.toRadians(latitudes[city]);
+            double sinPhi = Math.sin((phi2 - phi1) / 2);
+            double sinLambda = Math.sin(Math.toRadians((double) longitudes[city] - longitude) / 2);
+            double a = sinPhi * sinPhi + Math.cos(phi1) * Math.cos(phi2) * sinLambda * sinLambda;
+            return 2 * EARTH_RADIUS_KM * Math.asin(Math.min(1, Math.sqrt(a)));
+        }
+
+        private int nearestByBruteForce(float latitude, float longitude) {
+            int nearest = -1;
+            double nearestDistance = Double.POSITIVE_INFINITY;
+            for (int i = 0; i < latitudes.length; i++) {
+                double distance = distance(i, latitude, longitude);
+                if (distance < nearestDistance) {
+                    nearest = i;
+                    nearestDistance = distance;
+                }
+            }
+            return nearest;
+        }
+
+        /**
+         * Checks the city found against the nearest one by brute force, allowing for ties and for rounding
+         * of distances near the cutoff.
+         */
+        private void assertNearest(float latitude, float longitude, float maxDistance) {
+            String query = "(" + latitude + ", " + longitude + ") within " + maxDistance + " km";
+            long found = locator.nearestCityCode(latitude, longitude, maxDistance);
+            double nearestDistance = distance(nearestByBruteForce(latitude, longitude), latitude, longitude);
+
+            if (found == Long.MIN_VALUE) {
+                assertTrue(query + ": missed a city at " + nearestDistance + " km",
+                        nearestDistance > maxDistance - 1e-6);
+            } else {
+                double foundDistance = distance((int) found, latitude, longitude);
+                assertEquals(query, nearestDistance, foundDistance, 1e-6);
+                assertTrue(query + ": found a city at " + foundDistance + " km", foundDistance <= maxDistance + 1e-6);
+            }
+        }
+    }
+
+    private static float randomLatitude(Random random) {
+        return (float) Math.toDegrees(Math.asin(2 * random.nextDouble() - 1)); // uniform on the sphere
+    }
+
+    private static float randomLongitude(Random random) {
+        return (float) (random.nextDouble() * 360 - 180);
+    }
+
+    @Test
+    public void randomPoints()
+            throws IOException {
+        Random random = new Random(1);
+        float[] latitudes = new float[20000];
+        float[] longitudes = new float[latitudes.length];
+        for (int i = 0; i < latitudes.length; i++) {
+            latitudes[i] = randomLatitude(random);
+            longitudes[i] = randomLongitude(random);
+            if (i % 3 == 0) { // ties, and cities at the same place
+                latitudes[i] = Math.round(latitudes[i]);
+                longitudes[i] = Math.round(longitudes[i]);
+            }
+        }
+        Cities cities = new Cities(latitudes, longitudes);
+        assertEquals(latitudes.length, cities.locator.size());
+
+        float[] maxDistances = {0f, 10f, 100f, 1000f, 20040f};
+        for (int i = 0; i < 1000; i++) {
+            cities.assertNearest(randomLatitude(random), randomLongitude(random), maxDistances[i % maxDistances.length]);
+        }
+        for (int i = 0; i < 300; i += 3) { // at a city, or next to one
+            cities.assertNearest(latitudes[i], longitudes[i], 0f);
+            cities.assertNearest(latitudes[i] + 0.001f, longitudes[i] - 0.001f, 10f);
+        }
+    }
+
+    @Test
+    public void nearThePoles()
+            throws IOException {
+        Random random = new Random(2);
+        float[] latitudes = new float[2000];
+        float[] longitudes = new float[latitudes.length];
+        for (int i = 0; i < latitudes.length; i++) {
+            float fromPole = (float) (random.nextDouble() * 2);
+            latitudes[i] = (i % 2 == 0) ? 90f - fromPole : -90f + fromPole;
+            longitudes[i] = randomLongitude(random);
+        }
+        latitudes[0] = 90f;
+        latitudes[1] = -90f;
+        Cities cities = new Cities(latitudes, longitudes);
+
+        for (int i = 0; i < 1000; i++) {
+            float fromPole = (float) (random.nextDouble() * 3);
+            float latitude = (i % 2 == 0) ? 90f - fromPole : -90f + fromPole;
+            cities.assertNearest(latitude, randomLongitude(random), (i % 3 == 0) ? 5f : 500f);
+        }
+        cities.assertNearest(90f, 0f, 1f);
+        cities.assertNearest(-90f, 123f, 1f);
+        cities.assertNearest(89.999f, -180f, 50f);
+    }
+
+    @Test
+    public void acrossTheAntimeridian()
+            throws IOException {
+        Random random = new Random(3);
+        float[] latitudes = new float[2000];
+        float[] longitudes = new float[latitudes.length];
+        for (int i = 0; i < latitudes.length; i++) {
+            latitudes[i] = (float) (random.nextDouble() * 20 - 10);
+            float fromMeridian = (float) (random.nextDouble() * 2);
+            longitudes[i] = (i % 2 == 0) ? 180f - fromMeridian : -180f + fromMeridian;
+        }
+        Cities cities = new Cities(latitudes, longitudes);
+
+        for (int i = 0; i < 1000; i++) {
+            float fromMeridian = (float) (random.nextDouble() * 3);
+            float longitude = (i % 2 == 0) ? 180f - fromMeridian : -180f + fromMeridian;
+            cities.assertNearest((float) (random.nextDouble() * 20 - 10), longitude, (i % 3 == 0) ? 5f : 500f);
+        }
+
+        Cities pair = new Cities(new float[]{0f, 0f}, new float[]{179.99f, -179f});
+        assertEquals(0L, pair.locator.nearestCityCode(0f, -179.999f, 10f));
+        assertEquals(0L, pair.locator.nearestCityCode(0f, 180f, 10f));
+        assertEquals(1L, pair.locator.nearestCityCode(0f, -179.2f, 100f));
+    }
+
+    @Test
+    public void maxDistanceCutoff()
+            throws IOException {
+        Random random = new Random(4);
+        float[] latitudes = new float[500];
+        float[] longitudes = new float[latitudes.length];
+        for (int i = 0; i < latitudes.length; i++) {
+            latitudes[i] = randomLatitude(random);
+            longitudes[i] = randomLongitude(random);
+        }
+        Cities cities = new Cities(latitudes, longitudes);
+
+        for (int i = 0; i < 500; i++) {
+            float latitude = randomLatitude(random);
+            float longitude = randomLongitude(random);
+            int nearest = cities.nearestByBruteForce(latitude, longitude);
+            double distance = cities.distance(nearest, latitude, longitude);
+
+            // just beyond the nearest city, and just short of it
+            float beyond = (float) (distance * (1 + 1e-4) + 1e-3);
+            float within = (float) (distance * (1 - 1e-4) - 1e-3);
+            assertEquals(nearest, cities.locator.nearestCityCode(latitude, longitude, beyond));
+            if (within >= 0f) {
+                assertEquals(Long.MIN_VALUE, cities.locator.nearestCityCode(latitude, longitude, within));
+            }
+            cities.assertNearest(latitude, longitude, (float) distance);
+        }
+    }
+
+    @Test
+    public void noCity()
+            throws IOException {
+        Cities cities = new Cities(new float[]{51.50853f}, new float[]{-0.12574f});
+
+        assertEquals(0L, cities.locator.nearestCityCode(51.5f, -0.1f, 10f));
+        assertEquals(Long.MIN_VALUE, cities.locator.nearestCityCode(48.85f, 2.35f, 10f));
+        assertEquals(Long.MIN_VALUE, cities.locator.nearestCityCode(51.5f, -0.1f, -1f));
+        assertEquals(Long.MIN_VALUE, cities.locator.nearestCityCode(Float.NaN, -0.1f, 10f));
+        assertEquals(Long.MIN_VALUE, cities.locator.nearestCityCode(51.5f, -0.1f, Float.NaN));
+
+        Cities none = new Cities(new float[0], new float[0]);
+        assertEquals(0, none.locator.size());
+        assertEquals(Long.MIN_VALUE, none.locator.nearestCityCode(0f, 0f, 20040f));
+    }
+}
@@ -0,0 +1,139 @@
+/*
+ * Copyright (c) 2013-2015 Ashutosh Kumar Singh <me@aksingh.net>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package net.aksingh.owmjapis;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * <p>
+ * Tests the FieldProjection's functionality.
+ * </p>
+ *
+ * @author Ashutosh Kumar Singh
+ * @version 2026/10/18
+ * @since 2.5.0.6
+ */
+public class FieldProjectionTest {
+
+    private static String hourlyForecast(int count) {
+        StringBuilder json = new StringBuilder("{\"cod\":\"200\",\"cnt\":").append(count)
+                .append(",\"city\":{\"id\":2643743,\"name\":\"London\"},\"list\":[");
+        for (int i = 0; i < count; i++) {
+            if (i > 0) {
+                json.append(',');
+            }
+            json.append("{\"dt\":").append(1000 + i)
+                    .append(",\"main\":{\"temp\":").append(10 + i).append(",\"humidity\":").append(50 + i).append('}')
+                    .append(",\"weather\":[{\"id\":800,\"main\":\"Clear\"},{\"id\":701,\"main\":\"Mist\"}]}");
+        }
+        return json.append("]}").toString();
+    }
+
+    private static HourlyForecast parse(String response, FieldProjection projection) {
+        JsonIndex json = JsonIndex.parse(response, projection);
+        return new HourlyForecast(json, json.root(), false, null);
+    }
+
+    private static int parsedForecasts(String response, FieldProjection projection) {
+        JsonIndex json = JsonIndex.parse(response, projection);
+        return json.objectElements(json.optArray(json.root(), AbstractForecast.JSON_FORECAST_LIST)).length;
+    }
+
+    @Test
+    public void elementChosenByIndexIsParsedWhole() {
+        FieldProjection projection = new FieldProjection("list[3]");
+        HourlyForecast forecast = parse(hourlyForecast(5), projection);
+
+        assertEquals(1, parsedForecasts(hourlyForecast(5), projection));
+        HourlyForecast.Forecast chosen = forecast.getForecastInstance(0);
+        assertEquals(1003L, chosen.getDateTimeEpochSecond());
+        assertEquals(13f, chosen.getMainInstance().getTemperature(), 0f);
+        assertEquals(53f, chosen.getMainInstance().getHumidity(), 0f);
+        assertEquals(2, chosen.getWeatherCount());
+        assertFalse(forecast.getCityInstance().hasCityName());
+    }
+
+    @Test
+    public void elementsChosenByIndexKeepTheirOrder() {
+        FieldProjection projection = new FieldProjection("list[4]", "list[1]");
+        HourlyForecast forecast = parse(hourlyForecast(5), projection);
+
+        assertEquals(2, parsedForecasts(hourlyForecast(5), projection));
+        assertEquals(1001L, forecast.getForecastInstance(0).getDateTimeEpochSecond());
+        assertEquals(1004L, forecast.getForecastInstance(1).getDateTimeEpochSecond());
+    }
+
+    @Test
+    public void nestedElementChosenByIndexIsParsedWhole() {
+        FieldProjection projection = new FieldProjection("list.weather[1]");
+        HourlyForecast forecast = parse(hourlyForecast(3), projection);
+
+        assertEquals(3, parsedForecasts(hourlyForecast(3), projection));
+        HourlyForecast.Forecast first = forecast.getForecastInstance(0);
+        assertFalse(first.hasDateTime());
+        assertEquals(1, first.getWeatherCount());
+        assertEquals(701, first.getWeatherInstance(0).getWeatherCode());
+        assertEquals("Mist", first.getWeatherInstance(0).getWeatherName());
+    }
+
+    @Test
+    public void fieldsWithinElementsChosenByIndex() {
+        FieldProjection projection = new FieldProjection("list[2].main.temp");
+        HourlyForecast forecast = parse(hourlyForecast(5), projection);
+
+        assertEquals(1, parsedForecasts(hourlyForecast(5), projection));
+        HourlyForecast.Forecast chosen = forecast.getForecastInstance(0);
+        assertFalse(chosen.hasDateTime());
+        assertEquals(12f, chosen.getMainInstance().getTemperature(), 0f);
+        assertFalse(chosen.getMainInstance().hasHumidity());
+    }
+
+    @Test
+    public void fieldsOfAllElements() {
+        FieldProjection projection = new FieldProjection("list.dt");
+        HourlyForecast forecast = parse(hourlyForecast(4), projection);
+
+        assertEquals(4, parsedForecasts(hourlyForecast(4), projection));
+        assertEquals(1003L, forecast.getForecastInstance(3).getDateTimeEpochSecond());
+        assertFalse(forecast.getForecastInstance(3).hasMainInstance());
+        assertTrue(forecast.hasForecastCount());
+    }
+
+    @Test
+    public void wholeArray() {
+        FieldProjection projection = new FieldProjection("list");
+        HourlyForecast forecast = parse(hourlyForecast(5), projection);
+
+        assertEquals(5, parsedForecasts(hourlyForecast(5), projection));
+        assertEquals(2, forecast.getForecastInstance(4).getWeatherCount());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void invalidIndex() {
+        new FieldProjection("list[x]");
+    }
+}
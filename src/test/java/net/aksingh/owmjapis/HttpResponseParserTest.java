@@ -0,0 +1,138 @@
+/*
+ * Copyright (c) 2013-2015 Ashutosh Kumar Singh <me@aksingh.net>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package net.aksingh.owmjapis;
+
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * <p>
+ * Tests the HttpResponseParser's functionality.
+ * </p>
+ *
+ * @author Ashutosh Kumar Singh
+ * @version 2026/10/18
+ * @since 2.5.0.6
+ */
+public class HttpResponseParserTest {
+
+    private static ByteBuffer ascii(String text) {
+        byte[] bytes = new byte[text.length()];
+        for (int i = 0; i < bytes.length; i++) {
+            bytes[i] = (byte) text.charAt(i);
+        }
+        return ByteBuffer.wrap(bytes);
+    }
+
+    private static String body(HttpResponseParser parser) {
+        return new String(parser.getBody(), 0, parser.getBodyLength());
+    }
+
+    private static void assertRejected(String response) {
+        try {
+            new HttpResponseParser().parse(ascii(response));
+            fail("Accepted: " + response);
+        } catch (IOException e) {
+            // expected
+        }
+    }
+
+    @Test
+    public void fixedLengthBody()
+            throws IOException {
+        HttpResponseParser parser = new HttpResponseParser();
+        ByteBuffer buffer = ascii("HTTP/1.1 200 OK\r\nContent-Length: 11\r\nContent-Encoding: gzip\r\n\r\n{\"cod\":200}extra");
+
+        assertTrue(parser.parse(buffer));
+        assertEquals(200, parser.getResponseCode());
+        assertEquals("gzip", parser.getContentEncoding());
+        assertEquals("{\"cod\":200}", body(parser));
+        assertTrue(parser.isKeepAlive());
+        assertEquals(5, buffer.remaining());
+    }
+
+    @Test
+    public void bodyInPieces()
+            throws IOException {
+        HttpResponseParser parser = new HttpResponseParser();
+        String response = "HTTP/1.1 404 Not Found\r\nContent-Length: 5\r\n\r\nabcde";
+        for (int i = 0; i < response.length() - 1; i++) {
+            assertFalse(parser.parse(ascii(response.substring(i, i + 1))));
+        }
+        assertTrue(parser.parse(ascii(response.substring(response.length() - 1))));
+        assertEquals(404, parser.getResponseCode());
+        assertEquals("abcde", body(parser));
+    }
+
+    @Test
+    public void chunkedBody()
+            throws IOException {
+        HttpResponseParser parser = new HttpResponseParser();
+        assertTrue(parser.parse(ascii("HTTP/1.1 200 OK\r\nTransfer-Encoding: chunked\r\n\r\n"
+                + "3\r\nabc\r\n2;ext=1\r\nde\r\n0\r\nTrailer: x\r\n\r\n")));
+        assertEquals("abcde", body(parser));
+    }
+
+    @Test
+    public void bodyUntilClose()
+            throws IOException {
+        HttpResponseParser parser = new HttpResponseParser();
+        assertFalse(parser.parse(ascii("HTTP/1.0 200 OK\r\n\r\nabc")));
+        assertTrue(parser.endOfInput());
+        assertEquals("abc", body(parser));
+        assertFalse(parser.isKeepAlive());
+    }
+
+    @Test
+    public void malformedContentLengthIsRejected() {
+        assertRejected("HTTP/1.1 200 OK\r\nContent-Length:\r\n\r\n");
+        assertRejected("HTTP/1.1 200 OK\r\nContent-Length:  \r\n\r\n");
+        assertRejected("HTTP/1.1 200 OK\r\nContent-Length: -1\r\n\r\n");
+        assertRejected("HTTP/1.1 200 OK\r\nContent-Length: 12a\r\n\r\n");
+    }
+
+    @Test
+    public void contentLengthTooLargeIsRejected() {
+        assertRejected("HTTP/1.1 200 OK\r\nContent-Length: 99999999999999999999\r\n\r\n");
+        assertRejected("HTTP/1.1 200 OK\r\nContent-Length: 18446744073709551617\r\n\r\n");
+        assertRejected("HTTP/1.1 200 OK\r\nContent-Length: 1000000000\r\n\r\n");
+    }
+
+    @Test
+    public void chunkedBodyTooLargeIsRejected() {
+        assertRejected("HTTP/1.1 200 OK\r\nTransfer-Encoding: chunked\r\n\r\nfffffffffffffff\r\nabc");
+    }
+
+    @Test
+    public void malformedStatusLineIsRejected() {
+        assertRejected("HTTP/1.1 2x0 OK\r\n\r\n");
+        assertRejected("<html>\r\n\r\n");
+    }
+}
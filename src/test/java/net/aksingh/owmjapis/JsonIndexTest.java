@@ -0,0 +1,354 @@
+/*
+ * Copyright (c) 2013-2015 Ashutosh Kumar Singh <me@aksingh.net>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package net.aksingh.owmjapis;
+
+import org.json.JSONArray;
+import org.json.JSONException;
+import org.json.JSONObject;
+import org.junit.Test;
+
+import java.io.UnsupportedEncodingException;
+import java.util.Iterator;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * <p>
+ * Tests the JsonIndex's functionality, by comparing it with org.json's parsing of the same JSON text.
+ * </p>
+ *
+ * @author Ashutosh Kumar Singh
+ * @version 2026/10/18
+ * @since 2.5.0.6
+ */
+public class JsonIndexTest {
+
+    private static final String CURRENT_WEATHER = "{\"coord\":{\"lon\":-0.13,\"lat\":51.51},\"sys\":{\"type\":3,"
+            + "\"id\":60992,\"message\":0.0112,\"country\":\"GB\",\"sunrise\":1422345302,\"sunset\":1422377997},"
+            + "\"weather\":[{\"id\":500,\"main\":\"Rain\",\"description\":\"light rain\",\"icon\":\"10n\"},"
+            + "{\"id\":701,\"main\":\"Mist\",\"description\":\"mist\",\"icon\":\"50n\"}],\"base\":\"cmc stations\","
+            + "\"main\":{\"temp\":42.67,\"humidity\":87,\"pressure\":1007,\"temp_min\":41,\"temp_max\":44.6},"
+            + "\"wind\":{\"speed\":6.7,\"gust\":10.28,\"deg\":218.5},\"rain\":{\"3h\":0.5},\"snow\":{\"1h\":0.25},"
+            + "\"clouds\":{\"all\":92},\"dt\":1422390600,\"id\":2643743,\"name\":\"London\",\"cod\":200}";
+
+    private static final String HOURLY_FORECAST = "{\"cod\":\"200\",\"message\":0.0051,\"city\":{\"id\":2643743,"
+            + "\"name\":\"London\",\"coord\":{\"lon\":-0.12574,\"lat\":51.50853},\"country\":\"GB\",\"population\":0},"
+            + "\"cnt\":2,\"list\":[{\"dt\":1422392400,\"main\":{\"temp\":42.31,\"temp_min\":41.66,\"temp_max\":42.31,"
+            + "\"pressure\":1008.45,\"sea_level\":1016.38,\"grnd_level\":1008.45,\"humidity\":90,\"temp_kf\":0.36},"
+            + "\"weather\":[{\"id\":500,\"main\":\"Rain\",\"description\":\"light rain\",\"icon\":\"10n\"}],"
+            + "\"clouds\":{\"all\":92},\"wind\":{\"speed\":13.01,\"deg\":240.5},\"rain\":{\"3h\":0.5},"
+            + "\"sys\":{\"pod\":\"n\"},\"dt_txt\":\"2015-01-27 21:00:00\"},{\"dt\":1422403200,\"main\":{\"temp\":40.5,"
+            + "\"temp_min\":39.89,\"temp_max\":40.5,\"pressure\":1008.9,\"sea_level\":1016.95,\"grnd_level\":1008.9,"
+            + "\"humidity\":91,\"temp_kf\":0.34},\"weather\":[{\"id\":800,\"main\":\"Clear\","
+            + "\"description\":\"sky is clear\",\"icon\":\"01n\"}],\"clouds\":{\"all\":0},"
+            + "\"wind\":{\"speed\":12.22,\"deg\":258.001},\"rain\":{\"3h\":0},\"sys\":{\"pod\":\"n\"},"
+            + "\"dt_txt\":\"2015-01-28 00:00:00\"}]}";
+
+    private static final String DAILY_FORECAST = "{\"cod\":\"200\",\"message\":0.0184,\"city\":{\"id\":2643743,"
+            + "\"name\":\"London\",\"coord\":{\"lon\":-0.12574,\"lat\":51.50853},\"country\":\"GB\",\"population\":0},"
+            + "\"cnt\":2,\"list\":[{\"dt\":1422360000,\"temp\":{\"day\":44.6,\"min\":39.89,\"max\":44.6,"
+            + "\"night\":39.89,\"eve\":42.31,\"morn\":44.6},\"pressure\":1008.45,\"humidity\":90,"
+            + "\"weather\":[{\"id\":500,\"main\":\"Rain\",\"description\":\"light rain\",\"icon\":\"10n\"}],"
+            + "\"speed\":13.01,\"deg\":240,\"clouds\":92,\"rain\":0.5},{\"dt\":1422446400,\"temp\":{\"day\":41.56,"
+            + "\"min\":33.84,\"max\":42.55,\"night\":33.84,\"eve\":38.1,\"morn\":38.43},\"pressure\":1013.87,"
+            + "\"humidity\":81,\"weather\":[{\"id\":601,\"main\":\"Snow\",\"description\":\"snow\",\"icon\":\"13d\"}],"
+            + "\"speed\":14.11,\"deg\":275,\"clouds\":68,\"rain\":1.5,\"snow\":0.32}]}";
+
+    private static final String NOT_FOUND = "{\"cod\":\"404\",\"message\":\"Error: Not found city\"}";
+
+    /*
+    Comparison with org.json
+     */
+    private static JsonIndex parse(String text) {
+        try {
+            return JsonIndex.parse(text.getBytes("UTF-8"));
+        } catch (UnsupportedEncodingException e) {
+            throw new AssertionError(e);
+        }
+    }
+
+    private static void assertSameAsOrgJson(String text) {
+        JsonIndex json = parse(text);
+        assertSame("", new JSONObject(text), json, json.root());
+    }
+
+    private static void assertSame(String path, Object expected, JsonIndex json, int token) {
+        if (expected instanceof JSONObject) {
+            JSONObject object = (JSONObject) expected;
+            assertEquals(path, JsonIndex.OBJECT, json.type(token));
+            assertEquals(path, object.length(), json.length(token));
+
+            int name = json.firstElement(token);
+            for (int i = 0; i < json.length(token); i++) {
+                String key = json.stringValue(name, null);
+                assertTrue(path + "." + key, object.has(key));
+                assertSame(path + "." + key, object.get(key), json, json.member(token, key));
+                name = json.nextElement(name + 1);
+            }
+            Iterator<?> keys = object.keys();
+            while (keys.hasNext()) {
+                String key = (String) keys.next();
+                assertTrue(path + "." + key, json.member(token, key) != JsonIndex.ABSENT);
+            }
+        } else if (expected instanceof JSONArray) {
+            JSONArray array = (JSONArray) expected;
+            assertEquals(path, JsonIndex.ARRAY, json.type(token));
+            assertEquals(path, array.length(), json.length(token));
+
+            int element = json.firstElement(token);
+            for (int i = 0; i < array.length(); i++) {
+                assertSame(path + "[" + i + "]", array.get(i), json, element);
+                element = json.nextElement(element);
+            }
+        } else if (expected instanceof Number) {
+            assertEquals(path, JsonIndex.NUMBER, json.type(token));
+            assertEquals(path, ((Number) expected).doubleValue(), json.doubleValue(token, Double.NaN), 0d);
+            if (expected instanceof Integer || expected instanceof Long) {
+                assertEquals(path, ((Number) expected).longValue(), json.longValue(token, Long.MIN_VALUE));
+            }
+        } else if (expected instanceof Boolean) {
+            assertEquals(path, ((Boolean) expected) ? JsonIndex.TRUE : JsonIndex.FALSE, json.type(token));
+        } else if (expected == JSONObject.NULL) {
+            assertEquals(path, JsonIndex.NULL, json.type(token));
+            assertEquals(path, null, json.stringValue(token, null));
+        } else {
+            // org.json keeps integers too big for a long as strings
+            int type = json.type(token);
+            assertTrue(path, type == JsonIndex.STRING || type == JsonIndex.NUMBER);
+            assertEquals(path, expected, json.stringValue(token, null));
+        }
+    }
+
+    private static void assertRejected(String text) {
+        try {
+            parse(text);
+            fail("Accepted: " + text);
+        } catch (JSONException e) {
+            // expected
+        }
+    }
+
+    /*
+    Responses of OWM.org
+     */
+    @Test
+    public void currentWeather() {
+        assertSameAsOrgJson(CURRENT_WEATHER);
+    }
+
+    @Test
+    public void hourlyForecast() {
+        assertSameAsOrgJson(HOURLY_FORECAST);
+    }
+
+    @Test
+    public void dailyForecast() {
+        assertSameAsOrgJson(DAILY_FORECAST);
+    }
+
+    @Test
+    public void errorResponse() {
+        assertSameAsOrgJson(NOT_FOUND);
+    }
+
+    @Test
+    public void accessorsMirrorOptMethods() {
+        JSONObject expected = new JSONObject(CURRENT_WEATHER).getJSONObject("main");
+        JsonIndex json = parse(CURRENT_WEATHER);
+        int main = json.optObject(json.root(), "main");
+
+        String[] names = {"temp", "humidity", "pressure", "temp_min", "missing"};
+        for (int i = 0; i < names.length; i++) {
+            assertEquals(names[i], expected.optDouble(names[i]), json.optDouble(main, names[i], Double.NaN), 0d);
+            assertEquals(names[i], expected.optLong(names[i], -1), json.optLong(main, names[i], -1));
+            assertEquals(names[i], expected.optInt(names[i], -1), json.optInt(main, names[i], -1));
+            assertEquals(names[i], expected.optString(names[i], null), json.optString(main, names[i], null));
+        }
+
+        JSONObject error = new JSONObject(NOT_FOUND);
+        json = parse(NOT_FOUND);
+        assertEquals(error.optInt("cod", -1), json.optInt(json.root(), "cod", -1));
+        assertEquals(JsonIndex.ABSENT, json.optObject(json.root(), "message"));
+        assertEquals(JsonIndex.ABSENT, json.optArray(json.root(), "cod"));
+    }
+
+    @Test
+    public void whitespace() {
+        assertSameAsOrgJson(" \r\n\t{ \"a\" :\t[ 1 ,\n{ } , [ ] ,\"x\" ] ,\r\n\"b\" : { \"c\" : null } } ");
+    }
+
+    @Test
+    public void literals() {
+        assertSameAsOrgJson("{\"t\":true,\"f\":false,\"n\":null,\"a\":[true,false,null]}");
+    }
+
+    /*
+    Escapes and non-ASCII text
+     */
+    @Test
+    public void escapes() {
+        assertSameAsOrgJson("{\"s\":\"quote \\\" backslash \\\\ slash \\/ \\b\\f\\n\\r\\t end\"}");
+        assertSameAsOrgJson("{\"s\":\"\\u0041\\u00e9\\u20AC\\u0000\"}");
+        assertSameAsOrgJson("{\"n\\u0061me\":\"escaped name\",\"\\\"\":1}");
+    }
+
+    @Test
+    public void nonAscii() {
+        assertSameAsOrgJson("{\"name\":\"S\u00e3o Paulo\",\"city\":\"\u041c\u043e\u0441\u043a\u0432\u0430\","
+                + "\"\u6771\u4eac\":\"\u2600 \u20ac\"}");
+    }
+
+    @Test
+    public void surrogates() {
+        // U+1F31E, escaped as a surrogate pair and as 4 bytes of UTF-8
+        assertSameAsOrgJson("{\"escaped\":\"\\ud83c\\udf1e\",\"raw\":\"\ud83c\udf1e\","
+                + "\"mixed\":\"a\ud83c\udf1e\\ud83c\\udf1eb\"}");
+
+        JsonIndex json = parse("{\"s\":\"\ud83c\udf1e\"}");
+        assertEquals("\ud83c\udf1e", json.optString(json.root(), "s", null));
+        assertEquals(0x1F31E, json.optString(json.root(), "s", null).codePointAt(0));
+    }
+
+    /*
+    Numbers
+     */
+    @Test
+    public void numbers() {
+        assertSameAsOrgJson("{\"a\":[0,-0,1,-1,0.5,-0.5,1.5e3,1E-3,-1.5e-3,2e+2,1e22,1e23,0.1,0.2,0.30000000000000004,"
+                + "3.141592653589793238,2147483647,2147483648,-2147483649,9007199254740993,"
+                + "9223372036854775807,-9223372036854775808,4.9e-324,1.7976931348623157e308,1e400,-1e400,"
+                + "123456789012.123456789,0.000001,1422390600]}");
+    }
+
+    @Test
+    public void numbersTooBigForLong() {
+        assertSameAsOrgJson("{\"a\":12345678901234567890,\"b\":-99999999999999999999}");
+
+        JsonIndex json = parse("{\"a\":12345678901234567890}");
+        assertEquals(12345678901234567890d, json.optDouble(json.root(), "a", Double.NaN), 0d);
+    }
+
+    @Test
+    public void longsAreExact() {
+        JsonIndex json = parse("{\"a\":9007199254740993,\"b\":9223372036854775807,\"c\":-9223372036854775807}");
+        assertEquals(9007199254740993L, json.optLong(json.root(), "a", 0));
+        assertEquals(Long.MAX_VALUE, json.optLong(json.root(), "b", 0));
+        assertEquals(-Long.MAX_VALUE, json.optLong(json.root(), "c", 0));
+    }
+
+    @Test
+    public void numbersAsStrings() {
+        JSONObject expected = new JSONObject("{\"a\":\"12.5\",\"b\":\"3448439\",\"c\":\"x\"}");
+        JsonIndex json = parse("{\"a\":\"12.5\",\"b\":\"3448439\",\"c\":\"x\"}");
+
+        String[] names = {"a", "b", "c"};
+        for (int i = 0; i < names.length; i++) {
+            assertEquals(names[i], expected.optDouble(names[i]), json.optDouble(json.root(), names[i], Double.NaN), 0d);
+            assertEquals(names[i], expected.optLong(names[i], -1), json.optLong(json.root(), names[i], -1));
+        }
+    }
+
+    @Test
+    public void randomNumbers() {
+        Random random = new Random(42);
+        StringBuilder text = new StringBuilder("{\"a\":[");
+        for (int i = 0; i < 10000; i++) {
+            if (i > 0) {
+                text.append(',');
+            }
+            switch (i % 4) {
+                case 0:
+                    text.append(Double.toString(random.nextDouble() * Math.pow(10, random.nextInt(40) - 20)));
+                    break;
+                case 1:
+                    text.append(Double.longBitsToDouble(random.nextLong()) / 1e10);
+                    break;
+                case 2:
+                    text.append(random.nextInt(2000000) - 1000000).append('.').append(random.nextInt(1000000));
+                    break;
+                default:
+                    text.append(random.nextLong());
+            }
+        }
+        String json = text.append("]}").toString().replace("NaN", "0").replace("Infinity", "1");
+        assertSameAsOrgJson(json);
+
+        JsonIndex index = parse(json);
+        JSONArray expected = new JSONObject(json).getJSONArray("a");
+        int element = index.firstElement(index.optArray(index.root(), "a"));
+        for (int i = 0; i < expected.length(); i++) {
+            String number = String.valueOf(expected.get(i));
+            assertEquals(number, Double.doubleToLongBits(expected.getDouble(i)),
+                    Double.doubleToLongBits(index.doubleValue(element, Double.NaN)));
+            element = index.nextElement(element);
+        }
+    }
+
+    /*
+    Malformed JSON text
+     */
+    @Test
+    public void malformedTextIsRejectedAsByOrgJson() {
+        String[] texts = {"", "   ", "{", "{\"a\"", "{\"a\":", "{\"a\":1", "{\"a\":\"x", "{\"a\":\"x}",
+                "{\"a\":[1,2", "{\"a\":[1,2}", "{\"a\" 1}", "{\"a\":1 \"b\":2}", "{\"a\":{\"b\":1}",
+                "[1]", "\"a\"", "<html>"};
+        for (int i = 0; i < texts.length; i++) {
+            try {
+                new JSONObject(texts[i]);
+                fail("org.json accepted: " + texts[i]);
+            } catch (JSONException e) {
+                // expected
+            }
+            assertRejected(texts[i]);
+        }
+    }
+
+    @Test
+    public void malformedTextAcceptedByOrgJsonIsRejected() {
+        // org.json is lenient with these, but OWM.org never sends them
+        String[] texts = {"{a:1}", "{'a':1}", "{\"a\":tru}", "{\"a\":+1}", "{\"a\":.5}", "{\"a\":1.}", "{\"a\":1e}",
+                "{\"a\":-}", "{\"a\":\"tab\tinside\"}", "{\"a\":[1,,2]}"};
+        for (int i = 0; i < texts.length; i++) {
+            assertRejected(texts[i]);
+        }
+    }
+
+    @Test
+    public void deeplyNestedTextIsRejected() {
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < 1000; i++) {
+            text.append("{\"a\":");
+        }
+        assertRejected(text.append("1").toString());
+    }
+
+    @Test
+    public void nullIsEmpty() {
+        JsonIndex json = JsonIndex.parse((byte[]) null);
+        assertEquals(JsonIndex.ABSENT, json.root());
+        assertEquals(-1, json.optInt(json.root(), "cod", -1));
+    }
+}
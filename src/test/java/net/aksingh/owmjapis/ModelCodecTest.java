@@ -0,0 +1,356 @@
+/*
+ * Copyright (c) 2013-2015 Ashutosh Kumar Singh <me@aksingh.net>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package net.aksingh.owmjapis;
+
+import org.junit.Test;
+
+import java.io.IOException;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.Date;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * <p>
+ * Tests the ModelCodec's functionality, by comparing every value of decoded responses with the encoded ones.
+ * </p>
+ *
+ * @author Ashutosh Kumar Singh
+ * @version 2026/10/18
+ * @since 2.5.0.6
+ */
+public class ModelCodecTest {
+
+    private static final String CURRENT_WEATHER = "{\"coord\":{\"lon\":-0.13,\"lat\":51.51},\"sys\":{\"type\":3,"
+            + "\"id\":60992,\"message\":0.0112,\"country\":\"GB\",\"sunrise\":1422345302,\"sunset\":1422377997},"
+            + "\"weather\":[{\"id\":500,\"main\":\"Rain\",\"description\":\"light rain\",\"icon\":\"10n\"},"
+            + "{\"id\":701,\"main\":\"Mist\",\"description\":\"mist\",\"icon\":\"50n\"}],\"base\":\"cmc stations\","
+            + "\"main\":{\"temp\":42.67,\"humidity\":87,\"pressure\":1007,\"temp_min\":41,\"temp_max\":44.6},"
+            + "\"wind\":{\"speed\":6.7,\"gust\":10.28,\"deg\":218.5},\"rain\":{\"3h\":0.5},\"snow\":{\"1h\":0.25},"
+            + "\"clouds\":{\"all\":92},\"dt\":1422390600,\"id\":2643743,\"name\":\"London\",\"cod\":200}";
+
+    private static final String HOURLY_FORECAST = "{\"cod\":\"200\",\"message\":0.0051,\"city\":{\"id\":2643743,"
+            + "\"name\":\"London\",\"coord\":{\"lon\":-0.12574,\"lat\":51.50853},\"country\":\"GB\",\"population\":0},"
+            + "\"cnt\":2,\"list\":[{\"dt\":1422392400,\"main\":{\"temp\":42.31,\"temp_min\":41.66,\"temp_max\":42.31,"
+            + "\"pressure\":1008.45,\"sea_level\":1016.38,\"grnd_level\":1008.45,\"humidity\":90,\"temp_kf\":0.36},"
+            + "\"weather\":[{\"id\":500,\"main\":\"Rain\",\"description\":\"light rain\",\"icon\":\"10n\"}],"
+            + "\"clouds\":{\"all\":92},\"wind\":{\"speed\":13.01,\"deg\":240.5},\"rain\":{\"3h\":0.5},"
+            + "\"sys\":{\"pod\":\"n\"},\"dt_txt\":\"2015-01-27 21:00:00\"},{\"dt\":1422403200,\"main\":{\"temp\":40.5,"
+            + "\"humidity\":91},\"weather\":[],\"sys\":{}}]}";
+
+    private static final String DAILY_FORECAST = "{\"cod\":\"200\",\"message\":0.0184,\"city\":{\"id\":2643743,"
+            + "\"name\":\"London\",\"coord\":{\"lon\":-0.12574,\"lat\":51.50853},\"country\":\"GB\",\"population\":0},"
+            + "\"cnt\":2,\"list\":[{\"dt\":1422360000,\"temp\":{\"day\":44.6,\"min\":39.89,\"max\":44.6,"
+            + "\"night\":39.89,\"eve\":42.31,\"morn\":44.6},\"pressure\":1008.45,\"humidity\":90,"
+            + "\"weather\":[{\"id\":500,\"main\":\"Rain\",\"description\":\"light rain\",\"icon\":\"10n\"}],"
+            + "\"speed\":13.01,\"deg\":240,\"clouds\":92,\"rain\":0.5},{\"dt\":1422446400,\"humidity\":81,"
+            + "\"weather\":[{\"id\":601,\"main\":\"Snow\"}],\"speed\":14.11,\"snow\":0.32}]}";
+
+    private static final String[] CURRENT_WEATHER_MEMBERS = {"coord", "sys", "weather", "base", "main", "wind",
+            "rain", "snow", "clouds", "dt", "id", "name", "cod"};
+
+    private static OpenWeatherMap owm(boolean lazy) {
+        OpenWeatherMap owm = new OpenWeatherMap("");
+        owm.setLazyDecoding(lazy);
+        return owm;
+    }
+
+    /*
+    Comparison of all values
+     */
+    private static void assertSameValues(String path, Object expected, Object actual)
+            throws Exception {
+        if (expected == null || actual == null) {
+            assertEquals(path, expected, actual);
+            return;
+        }
+        if (expected instanceof Number || expected instanceof String || expected instanceof Boolean
+                || expected instanceof Character || expected instanceof Date) {
+            assertEquals(path, expected, actual); // NaN equals NaN for Float and Double
+            return;
+        }
+        if (expected instanceof byte[]) {
+            assertArrayEquals(path, (byte[]) expected, (byte[]) actual);
+            return;
+        }
+
+        assertEquals(path, expected.getClass(), actual.getClass());
+        Method[] methods = expected.getClass().getMethods();
+        for (int i = 0; i < methods.length; i++) {
+            Method method = methods[i];
+            String name = method.getName();
+            if (method.getDeclaringClass() == Object.class || name.equals("getClass")) {
+                continue;
+            }
+            Class<?>[] parameters = method.getParameterTypes();
+            if (parameters.length == 0
+                    && (name.startsWith("get") || name.startsWith("has") || name.startsWith("is"))) {
+                assertSameValues(path + "." + name, method.invoke(expected), method.invoke(actual));
+            } else if (parameters.length == 1 && parameters[0] == int.class && name.endsWith("Instance")) {
+                for (int index = 0; ; index++) {
+                    Object element = instance(method, expected, index);
+                    if (element == null) {
+                        assertNull(path + "." + name + "[" + index + "]", instance(method, actual, index));
+                        break;
+                    }
+                    assertSameValues(path + "." + name + "[" + index + "]", element, method.invoke(actual, index));
+                }
+            }
+        }
+    }
+
+    private static Object instance(Method method, Object model, int index)
+            throws Exception {
+        try {
+            return method.invoke(model, index);
+        } catch (InvocationTargetException e) {
+            if (e.getCause() instanceof IndexOutOfBoundsException) {
+                return null;
+            }
+            throw e;
+        }
+    }
+
+    private static CurrentWeather roundTrip(CurrentWeather currentWeather)
+            throws Exception {
+        CurrentWeather decoded = ModelCodec.decodeCurrentWeather(ModelCodec.encode(currentWeather));
+        assertSameValues("currentWeather", currentWeather, decoded);
+        return decoded;
+    }
+
+    private static HourlyForecast roundTrip(HourlyForecast hourlyForecast)
+            throws Exception {
+        HourlyForecast decoded = ModelCodec.decodeHourlyForecast(ModelCodec.encode(hourlyForecast));
+        assertSameValues("hourlyForecast", hourlyForecast, decoded);
+        return decoded;
+    }
+
+    private static DailyForecast roundTrip(DailyForecast dailyForecast)
+            throws Exception {
+        DailyForecast decoded = ModelCodec.decodeDailyForecast(ModelCodec.encode(dailyForecast));
+        assertSameValues("dailyForecast", dailyForecast, decoded);
+        return decoded;
+    }
+
+    /*
+    Each type of response
+     */
+    @Test
+    public void currentWeather()
+            throws Exception {
+        CurrentWeather decoded = roundTrip(owm(false).currentWeatherFromRawResponse(CURRENT_WEATHER));
+
+        assertTrue(decoded.isValid());
+        assertEquals(2643743L, decoded.getCityCode());
+        assertEquals(42.67f, decoded.getMainInstance().getTemperature(), 0f);
+        assertEquals(2, decoded.getWeatherCount());
+        assertEquals(CURRENT_WEATHER, decoded.getRawResponse());
+    }
+
+    @Test
+    public void hourlyForecast()
+            throws Exception {
+        HourlyForecast decoded = roundTrip(owm(false).hourlyForecastFromRawResponse(HOURLY_FORECAST));
+
+        assertEquals(1422403200L, decoded.getForecastInstance(1).getDateTimeEpochSecond());
+        assertEquals(0, decoded.getForecastInstance(1).getWeatherCount());
+        assertEquals(HOURLY_FORECAST, decoded.getRawResponse());
+    }
+
+    @Test
+    public void dailyForecast()
+            throws Exception {
+        DailyForecast decoded = roundTrip(owm(false).dailyForecastFromRawResponse(DAILY_FORECAST));
+
+        assertEquals(44.6f, decoded.getForecastInstance(0).getTemperatureInstance().getDayTemperature(), 0f);
+        assertEquals(DAILY_FORECAST, decoded.getRawResponse());
+    }
+
+    @Test
+    public void lazilyDecodedResponses()
+            throws Exception {
+        roundTrip(owm(true).currentWeatherFromRawResponse(CURRENT_WEATHER));
+        roundTrip(owm(true).hourlyForecastFromRawResponse(HOURLY_FORECAST));
+        roundTrip(owm(true).dailyForecastFromRawResponse(DAILY_FORECAST));
+    }
+
+    @Test
+    public void rawResponseStorage()
+            throws Exception {
+        OpenWeatherMap owm = owm(false);
+        owm.setRawResponseStorage(OpenWeatherMap.RawResponseStorage.COMPRESSED);
+        assertEquals(CURRENT_WEATHER, roundTrip(owm.currentWeatherFromRawResponse(CURRENT_WEATHER)).getRawResponse());
+
+        owm.setRawResponseStorage(OpenWeatherMap.RawResponseStorage.NONE);
+        assertFalse(roundTrip(owm.currentWeatherFromRawResponse(CURRENT_WEATHER)).hasRawResponse());
+    }
+
+    /*
+    Values not available
+     */
+    @Test
+    public void emptyResponse()
+            throws Exception {
+        CurrentWeather decoded = roundTrip(owm(false).currentWeatherFromRawResponse("{}"));
+
+        assertFalse(decoded.hasCityCode());
+        assertEquals(Long.MIN_VALUE, decoded.getCityCode());
+        assertNull(decoded.getCityName());
+        assertFalse(decoded.hasMainInstance());
+        assertNull(decoded.getMainInstance());
+        assertEquals(0, decoded.getWeatherCount());
+    }
+
+    @Test
+    public void valuesNotAvailable()
+            throws Exception {
+        CurrentWeather decoded = roundTrip(owm(false).currentWeatherFromRawResponse(
+                "{\"main\":{\"temp\":-1.5},\"wind\":{},\"weather\":[{\"id\":800}],\"name\":null,\"cod\":200}"));
+
+        assertTrue(Float.isNaN(decoded.getMainInstance().getHumidity()));
+        assertEquals(-1.5f, decoded.getMainInstance().getTemperature(), 0f);
+        assertTrue(decoded.hasWindInstance());
+        assertFalse(decoded.getWindInstance().hasWindSpeed());
+        assertNull(decoded.getWeatherInstance(0).getWeatherName());
+        assertFalse(decoded.hasCityName());
+    }
+
+    @Test
+    public void extremeValues()
+            throws Exception {
+        roundTrip(owm(false).currentWeatherFromRawResponse("{\"id\":9223372036854775807,\"dt\":-1,"
+                + "\"main\":{\"temp\":-0.0,\"pressure\":3.4e38,\"humidity\":1e-45},\"name\":\"S\\u00e3o \\ud83c\\udf1e\"}"));
+        roundTrip(owm(false).currentWeatherFromRawResponse("{\"id\":-9223372036854775807,\"cod\":-2147483647}"));
+    }
+
+    /*
+    Flags: current weather has 10 values, so its flags take 2 bytes
+     */
+    @Test
+    public void eachMemberLeftOut()
+            throws Exception {
+        for (int i = 0; i < CURRENT_WEATHER_MEMBERS.length; i++) {
+            org.json.JSONObject response = new org.json.JSONObject(CURRENT_WEATHER);
+            response.remove(CURRENT_WEATHER_MEMBERS[i]);
+            roundTrip(owm(false).currentWeatherFromRawResponse(response.toString()));
+        }
+    }
+
+    @Test
+    public void onlyOneMemberKept()
+            throws Exception {
+        for (int i = 0; i < CURRENT_WEATHER_MEMBERS.length; i++) {
+            org.json.JSONObject response = new org.json.JSONObject(CURRENT_WEATHER);
+            org.json.JSONObject kept = new org.json.JSONObject();
+            kept.put(CURRENT_WEATHER_MEMBERS[i], response.get(CURRENT_WEATHER_MEMBERS[i]));
+            roundTrip(owm(false).currentWeatherFromRawResponse(kept.toString()));
+        }
+    }
+
+    @Test
+    public void onlyLastFlagsSet()
+            throws Exception {
+        CurrentWeather decoded = roundTrip(owm(false).currentWeatherFromRawResponse(
+                "{\"sys\":{\"country\":\"GB\"},\"wind\":{\"deg\":1}}"));
+
+        assertTrue(decoded.hasSysInstance());
+        assertTrue(decoded.hasWindInstance());
+        assertFalse(decoded.hasMainInstance());
+        assertFalse(decoded.hasCityName());
+    }
+
+    /*
+    Nested instances
+     */
+    @Test
+    public void nestedInstancesNotAvailable()
+            throws Exception {
+        HourlyForecast decoded = roundTrip(owm(false).hourlyForecastFromRawResponse(
+                "{\"list\":[{\"dt\":1},{\"main\":{}},{\"weather\":[{},{\"id\":1}]}]}"));
+
+        assertFalse(decoded.getForecastInstance(0).hasMainInstance());
+        assertTrue(decoded.getForecastInstance(1).hasMainInstance());
+        assertEquals(2, decoded.getForecastInstance(2).getWeatherCount());
+
+        roundTrip(owm(false).dailyForecastFromRawResponse("{\"list\":[{},{\"temp\":{}},{\"temp\":{\"day\":1}}]}"));
+    }
+
+    /*
+    Data not encoded by this version
+     */
+    @Test
+    public void truncatedDataIsRejected()
+            throws Exception {
+        byte[] data = ModelCodec.encode(owm(false).hourlyForecastFromRawResponse(HOURLY_FORECAST));
+        for (int length = 0; length < data.length; length++) {
+            byte[] truncated = new byte[length];
+            System.arraycopy(data, 0, truncated, 0, length);
+            try {
+                ModelCodec.decodeHourlyForecast(truncated);
+                fail("Accepted " + length + " of " + data.length + " bytes");
+            } catch (IOException e) {
+                // expected
+            }
+        }
+    }
+
+    @Test
+    public void trailingDataIsRejected()
+            throws Exception {
+        byte[] data = ModelCodec.encode(owm(false).currentWeatherFromRawResponse(CURRENT_WEATHER));
+        byte[] longer = new byte[data.length + 1];
+        System.arraycopy(data, 0, longer, 0, data.length);
+        try {
+            ModelCodec.decodeCurrentWeather(longer);
+            fail("Accepted trailing data");
+        } catch (IOException e) {
+            // expected
+        }
+    }
+
+    @Test(expected = IOException.class)
+    public void wrongTypeIsRejected()
+            throws Exception {
+        ModelCodec.decodeDailyForecast(ModelCodec.encode(owm(false).currentWeatherFromRawResponse(CURRENT_WEATHER)));
+    }
+
+    @Test(expected = IOException.class)
+    public void wrongVersionIsRejected()
+            throws Exception {
+        byte[] data = ModelCodec.encode(owm(false).currentWeatherFromRawResponse(CURRENT_WEATHER));
+        data[0] = (byte) (ModelCodec.FORMAT_VERSION + 1);
+        ModelCodec.decodeCurrentWeather(data);
+    }
+
+    @Test(expected = IOException.class)
+    public void nullIsRejected()
+            throws Exception {
+        ModelCodec.decodeCurrentWeather(null);
+    }
+}
@@ -0,0 +1,173 @@
+/*
+ * Copyright (c) 2013-2015 Ashutosh Kumar Singh <me@aksingh.net>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package net.aksingh.owmjapis;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * <p>
+ * Tests the OWMFuture's functionality.
+ * </p>
+ *
+ * @author Ashutosh Kumar Singh
+ * @version 2026/10/18
+ * @since 2.5.0.6
+ */
+public class OWMFutureTest {
+
+    /**
+     * Callback keeping what it receives, and throwing if asked to
+     */
+    private static final class RecordingCallback implements OWMFuture.Callback<String> {
+        private final boolean throwing;
+        private final List<Object> received = new ArrayList<Object>();
+
+        private RecordingCallback(boolean throwing) {
+            this.throwing = throwing;
+        }
+
+        public void onSuccess(String result) {
+            received.add(result);
+            if (throwing) {
+                throw new IllegalStateException("Callback failed on success");
+            }
+        }
+
+        public void onFailure(Throwable cause) {
+            received.add(cause);
+            if (throwing) {
+                throw new IllegalStateException("Callback failed on failure");
+            }
+        }
+    }
+
+    @Test
+    public void throwingCallbackDoesNotStopOthersOnSuccess()
+            throws Exception {
+        OWMFuture<String> future = new OWMFuture<String>();
+        RecordingCallback first = new RecordingCallback(true);
+        RecordingCallback second = new RecordingCallback(false);
+        future.addCallback(first);
+        future.addCallback(second);
+
+        future.complete("result");
+
+        assertEquals(1, first.received.size());
+        assertEquals(1, second.received.size());
+        assertEquals("result", second.received.get(0));
+        assertEquals("result", future.get());
+    }
+
+    @Test
+    public void throwingCallbackDoesNotStopOthersOnFailure() {
+        OWMFuture<String> future = new OWMFuture<String>();
+        RecordingCallback first = new RecordingCallback(true);
+        RecordingCallback second = new RecordingCallback(false);
+        future.addCallback(first);
+        future.addCallback(second);
+
+        Exception cause = new Exception("Request failed");
+        future.fail(cause);
+
+        assertEquals(1, first.received.size());
+        assertSame(cause, second.received.get(0));
+    }
+
+    @Test
+    public void throwingCallbackDoesNotEscapeTheRunningThread()
+            throws Exception {
+        OWMFuture<String> future = new OWMFuture<String>(new Callable<String>() {
+            public String call() {
+                return "result";
+            }
+        });
+        RecordingCallback first = new RecordingCallback(true);
+        RecordingCallback second = new RecordingCallback(false);
+        future.addCallback(first);
+        future.addCallback(second);
+
+        future.run();
+
+        assertEquals("result", second.received.get(0));
+        assertEquals("result", future.get());
+    }
+
+    @Test
+    public void throwingCallbackAddedWhenDoneDoesNotEscape() {
+        OWMFuture<String> future = new OWMFuture<String>();
+        future.complete("result");
+
+        RecordingCallback callback = new RecordingCallback(true);
+        future.addCallback(callback);
+
+        assertEquals("result", callback.received.get(0));
+    }
+
+    @Test
+    public void runDoesNotCompleteExternallyCompletedFuture()
+            throws Exception {
+        OWMFuture<String> future = new OWMFuture<String>();
+
+        future.run();
+        assertFalse(future.isDone());
+        try {
+            future.get(10, TimeUnit.MILLISECONDS);
+            fail("Completed by run()");
+        } catch (TimeoutException e) {
+            // expected
+        }
+
+        future.complete("result");
+        assertTrue(future.isDone());
+        assertEquals("result", future.get());
+    }
+
+    @Test
+    public void failureIsGivenByGet()
+            throws Exception {
+        OWMFuture<String> future = new OWMFuture<String>();
+        Exception cause = new Exception("Request failed");
+        future.fail(cause);
+        future.complete("too late");
+
+        try {
+            future.get();
+            fail("Succeeded");
+        } catch (ExecutionException e) {
+            assertSame(cause, e.getCause());
+        }
+    }
+}